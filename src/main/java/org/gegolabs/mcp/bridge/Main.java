@@ -1,19 +1,34 @@
 package org.gegolabs.mcp.bridge;
 
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.gegolabs.mcp.bridge.bench.Benchmark;
+import org.gegolabs.mcp.bridge.bench.BenchmarkConfig;
+import org.gegolabs.mcp.bridge.bench.BenchmarkReport;
+import org.gegolabs.mcp.bridge.capture.CaptureFrame;
+import org.gegolabs.mcp.bridge.capture.CaptureReader;
+import org.gegolabs.mcp.bridge.capture.TrafficReplayer;
 import org.gegolabs.mcp.bridge.client.BridgeStub;
 
 import java.io.File;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
 
 /**
  * Main entry point for MCP Java Bridge CLI.
  * 
  * Behaviors:
  * 1. No arguments: Installs itself as connector in Claude Desktop
- * 2. --connector: Runs as connector with default or specified host/port
- * 3. install command: Legacy install command for backward compatibility
+ * 2. --connector: Runs as connector with default or specified host/port,
+ *    or balanced across a comma-separated list of host:port backends
+ * 3. --replay: Replays a traffic capture against a running server
+ * 4. --bench: Measures throughput and latency of a running server
+ * 5. install command: Legacy install command for backward compatibility
  */
 public class Main {
     private static final String DEFAULT_HOST = "localhost";
@@ -27,6 +42,10 @@ public class Main {
             } else if ("--connector".equals(args[0])) {
                 // Run as connector
                 runAsConnector(args);
+            } else if ("--replay".equals(args[0])) {
+                runReplay(args);
+            } else if ("--bench".equals(args[0])) {
+                runBenchmark(args);
             } else if ("install".equals(args[0])) {
                 // Legacy install command
                 String[] installArgs = new String[args.length - 1];
@@ -98,7 +117,29 @@ public class Main {
         ClaudeInstaller.main(installArgs);
     }
     
-    private static void runAsConnector(String[] args) throws Exception {
+    private static void runAsConnector(String[] allArgs) throws Exception {
+        // Options such as --capture <file> are passed through to the stub unchanged
+        List<String> positional = new ArrayList<>(Arrays.asList(allArgs));
+        List<String> options = new ArrayList<>();
+        for (String option : List.of("--route", "--capture", "--cache")) {
+            int index = positional.indexOf(option);
+            if (index >= 0 && index + 1 < positional.size()) {
+                options.add(positional.remove(index));
+                options.add(positional.remove(index));
+            }
+        }
+        String[] args = positional.toArray(new String[0]);
+        
+        // Multiple backends: --connector host1:port1,host2:port2 [strategy]
+        if (args.length > 1 && (args[1].contains(",") || args[1].contains(":"))) {
+            System.err.println("[MCP Bridge Connector] Balancing across " + args[1]);
+            
+            List<String> stubArgs = new ArrayList<>(positional.subList(1, positional.size()));
+            stubArgs.addAll(options);
+            BridgeStub.main(stubArgs.toArray(new String[0]));
+            return;
+        }
+        
         String host = DEFAULT_HOST;
         String port = DEFAULT_PORT;
         
@@ -113,7 +154,95 @@ public class Main {
         System.err.println("[MCP Bridge Connector] Connecting to " + host + ":" + port);
         
         // Run the BridgeStub (connector)
-        BridgeStub.main(new String[]{host, port});
+        List<String> stubArgs = new ArrayList<>(List.of(host, port));
+        stubArgs.addAll(options);
+        BridgeStub.main(stubArgs.toArray(new String[0]));
+    }
+    
+    private static void runReplay(String[] args) throws Exception {
+        List<String> positional = new ArrayList<>();
+        double speed = 1.0;
+        int copies = 1;
+        for (int i = 1; i < args.length; i++) {
+            if ("--speed".equals(args[i]) && i + 1 < args.length) {
+                String value = args[++i];
+                speed = "max".equalsIgnoreCase(value) ? 0 : Double.parseDouble(value.replace("x", ""));
+            } else if ("--copies".equals(args[i]) && i + 1 < args.length) {
+                copies = Integer.parseInt(args[++i]);
+            } else {
+                positional.add(args[i]);
+            }
+        }
+        if (positional.isEmpty()) {
+            System.err.println("Usage: java -jar mcp-java-bridge.jar --replay <file> [host] [port] [--speed <n>|max] [--copies <n>]");
+            System.exit(1);
+        }
+        
+        Path file = Paths.get(positional.get(0));
+        String host = positional.size() > 1 ? positional.get(1) : DEFAULT_HOST;
+        int port = Integer.parseInt(positional.size() > 2 ? positional.get(2) : DEFAULT_PORT);
+        
+        List<CaptureFrame> frames = CaptureReader.readAll(file);
+        System.out.println("Replaying " + frames.size() + " frames from " + file + " against " + host + ":" + port
+            + " at " + (speed > 0 ? speed + "x" : "maximum speed") + (copies > 1 ? " with " + copies + " copies" : ""));
+        
+        TrafficReplayer.ReplayResult result = TrafficReplayer.builder()
+            .host(host)
+            .port(port)
+            .speed(speed)
+            .copies(copies)
+            .build()
+            .replay(frames);
+        System.out.println(result);
+    }
+    
+    private static void runBenchmark(String[] args) throws Exception {
+        BenchmarkConfig.BenchmarkConfigBuilder config = BenchmarkConfig.builder();
+        List<String> positional = new ArrayList<>();
+        Path jsonFile = null;
+        for (int i = 1; i < args.length; i++) {
+            String option = args[i];
+            if (!option.startsWith("--")) {
+                positional.add(option);
+                continue;
+            }
+            if (i + 1 >= args.length) {
+                throw new IllegalArgumentException(option + " requires a value");
+            }
+            String value = args[++i];
+            switch (option) {
+                case "--sessions" -> config.sessions(Integer.parseInt(value));
+                case "--rate" -> config.rate(Double.parseDouble(value));
+                case "--duration" -> config.duration(BenchmarkConfig.parseDuration(value));
+                case "--warmup" -> config.warmup(BenchmarkConfig.parseDuration(value));
+                case "--timeout" -> config.timeout(BenchmarkConfig.parseDuration(value));
+                case "--tool" -> config.toolName(value);
+                case "--args" -> config.toolArguments(
+                    new ObjectMapper().readValue(value, new TypeReference<Map<String, Object>>() { }));
+                case "--mix" -> {
+                    for (String part : value.split(",")) {
+                        String[] kv = part.trim().split("=", 2);
+                        int weight = kv.length > 1 ? Integer.parseInt(kv[1]) : 1;
+                        switch (kv[0]) {
+                            case "list" -> config.listWeight(weight);
+                            case "call" -> config.callWeight(weight);
+                            default -> throw new IllegalArgumentException("Unknown mix entry: " + kv[0]);
+                        }
+                    }
+                }
+                case "--json" -> jsonFile = Paths.get(value);
+                default -> throw new IllegalArgumentException("Unknown option: " + option);
+            }
+        }
+        config.host(positional.size() > 0 ? positional.get(0) : DEFAULT_HOST);
+        config.port(Integer.parseInt(positional.size() > 1 ? positional.get(1) : DEFAULT_PORT));
+        
+        BenchmarkReport report = new Benchmark(config.build()).run();
+        report.print(System.out);
+        if (jsonFile != null) {
+            Files.writeString(jsonFile, report.toJson());
+            System.out.println("Report written to " + jsonFile);
+        }
     }
     
     private static String getJarPath() {
@@ -153,6 +282,19 @@ public class Main {
         System.out.println("Usage:");
         System.out.println("  java -jar mcp-java-bridge.jar                    # Install as connector (interactive)");
         System.out.println("  java -jar mcp-java-bridge.jar --connector [host] [port]  # Run as connector");
+        System.out.println("  java -jar mcp-java-bridge.jar --connector <host:port>,<host:port>... [rotation|latency]");
+        System.out.println("                                                   # Run as connector over several backends");
+        System.out.println("  java -jar mcp-java-bridge.jar --connector ... --route <name>");
+        System.out.println("                                                   # Run as connector for one of several servers on the port");
+        System.out.println("  java -jar mcp-java-bridge.jar --connector ... --capture <file>");
+        System.out.println("                                                   # Run as connector, recording all traffic");
+        System.out.println("  java -jar mcp-java-bridge.jar --connector ... --cache <file>");
+        System.out.println("                                                   # Run as connector, answering handshake and list calls from a cache");
+        System.out.println("  java -jar mcp-java-bridge.jar --replay <file> [host] [port] [--speed <n>|max] [--copies <n>]");
+        System.out.println("                                                   # Replay a capture against a server");
+        System.out.println("  java -jar mcp-java-bridge.jar --bench [host] [port] [--sessions <n>] [--rate <req/s>]");
+        System.out.println("        [--duration <t>] [--warmup <t>] [--mix list=<w>,call=<w>] [--tool <name>]");
+        System.out.println("        [--args <json>] [--json <file>]          # Load test a server");
         System.out.println("  java -jar mcp-java-bridge.jar install <options>  # Manual install");
         System.out.println("  java -jar mcp-java-bridge.jar --help            # Show this help");
         System.out.println();
@@ -166,6 +308,16 @@ public class Main {
         System.out.println("  # Run as connector with custom host/port");
         System.out.println("  java -jar mcp-java-bridge.jar --connector 192.168.1.100 8080");
         System.out.println();
+        System.out.println("  # Run as connector, picking the fastest of two backends");
+        System.out.println("  java -jar mcp-java-bridge.jar --connector node1:3000,node2:3000 latency");
+        System.out.println();
+        System.out.println("  # Replay a capture at 10x speed with 5 copies of each session");
+        System.out.println("  java -jar mcp-java-bridge.jar --replay traffic.mcpcap localhost 3000 --speed 10 --copies 5");
+        System.out.println();
+        System.out.println("  # 16 sessions at 2000 req/s for 60s, 80% calls to the echo tool, saved as JSON");
+        System.out.println("  java -jar mcp-java-bridge.jar --bench localhost 3000 --sessions 16 --rate 2000 --duration 60s \\");
+        System.out.println("      --mix list=1,call=4 --tool echo --args '{\"text\":\"hi\"}' --json bench.json");
+        System.out.println();
         System.out.println("  # Manual installation");
         System.out.println("  java -jar mcp-java-bridge.jar install -n \"my-server\" -c ./mcp-java-bridge.jar -h localhost -p 3000");
     }
@@ -1,8 +1,24 @@
 package org.gegolabs.mcp.bridge;
 
+import org.gegolabs.mcp.bridge.buffer.BufferPool;
+import org.gegolabs.mcp.bridge.capture.TrafficRecorder;
+import org.gegolabs.mcp.bridge.metrics.BridgeMetrics;
+import org.gegolabs.mcp.bridge.tracing.RequestTracer;
 import org.gegolabs.mcp.bridge.transport.BridgeTransportProvider;
+import org.gegolabs.mcp.bridge.transport.InProcessTransportProvider;
+import org.gegolabs.mcp.bridge.transport.TransportOptions;
+import org.gegolabs.mcp.bridge.validation.ToolValidators;
 import io.modelcontextprotocol.spec.McpServerTransportProvider;
 import lombok.extern.slf4j.Slf4j;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.Executor;
 
 /**
  * MCP Bridge main class that provides TCP transport support for MCP Java servers.
@@ -23,23 +39,50 @@ public class McpBridge {
     private final int port;
     private final String host;
     
+    private final BridgeMetrics metrics;
     private McpServerTransportProvider transportProvider;
     
     /**
      * Creates a new MCP Bridge instance.
      */
-    private McpBridge(int port, String host) {
-        this.port = port != 0 ? port : 3000;
-        this.host = host != null ? host : "localhost";
+    private McpBridge(Builder builder) {
+        this.port = builder.port != 0 ? builder.port : 3000;
+        this.host = builder.host != null ? builder.host : "localhost";
+        this.metrics = builder.metrics != null ? builder.metrics : new BridgeMetrics();
         
         this.transportProvider = BridgeTransportProvider.builder()
             .port(this.port)
             .host(this.host)
+            .scheduler(builder.scheduler)
+            .dispatchScheduler(builder.dispatchScheduler)
+            .inlineWrites(builder.inlineWrites)
+            .maxConnections(builder.maxConnections)
+            .metrics(this.metrics)
+            .jmxEnabled(builder.jmx)
+            .tracer(builder.tracer)
+            .recorder(openRecorder(builder))
+            .metricsPort(builder.metricsPort)
+            .httpPort(builder.httpPort)
+            .httpAllowedOrigins(builder.httpAllowedOrigins)
+            .toolValidators(builder.toolValidators)
+            .maxFrameBytes(builder.maxFrameBytes)
+            .bufferPool(builder.bufferPool)
             .build();
-            
+        
         log.info("MCP Bridge configured for {}:{}", host, port);
     }
     
+    private static TrafficRecorder openRecorder(Builder builder) {
+        if (builder.recorder != null || builder.capturePath == null) {
+            return builder.recorder;
+        }
+        try {
+            return TrafficRecorder.open(builder.capturePath);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open traffic capture " + builder.capturePath, e);
+        }
+    }
+    
     /**
      * Creates a builder for McpBridge.
      */
@@ -53,6 +96,21 @@ public class McpBridge {
     public static class Builder {
         private int port = 3000;
         private String host = "localhost";
+        private Scheduler scheduler = Schedulers.boundedElastic();
+        private Scheduler dispatchScheduler = Schedulers.immediate();
+        private boolean inlineWrites = false;
+        private int maxConnections = 0;
+        private BridgeMetrics metrics;
+        private boolean jmx = false;
+        private RequestTracer tracer = RequestTracer.disabled();
+        private TrafficRecorder recorder;
+        private Path capturePath;
+        private int metricsPort = -1;
+        private int httpPort = -1;
+        private Set<String> httpAllowedOrigins = Set.of();
+        private ToolValidators toolValidators;
+        private int maxFrameBytes = TransportOptions.DEFAULT_MAX_FRAME_BYTES;
+        private BufferPool bufferPool = BufferPool.shared();
         
         public Builder port(int port) {
             this.port = port;
@@ -64,8 +122,174 @@ public class McpBridge {
             return this;
         }
         
+        /**
+         * Sets the scheduler used for outbound writes and connection shutdown.
+         */
+        public Builder scheduler(Scheduler scheduler) {
+            this.scheduler = scheduler;
+            return this;
+        }
+        
+        /**
+         * Uses the given executor for both outbound writes and message dispatch,
+         * isolating the bridge from other Reactor users in the same JVM.
+         */
+        public Builder executor(Executor executor) {
+            Scheduler executorScheduler = Schedulers.fromExecutor(executor);
+            this.scheduler = executorScheduler;
+            this.dispatchScheduler = executorScheduler;
+            return this;
+        }
+        
+        /**
+         * Sets the scheduler on which incoming messages are dispatched to the MCP session.
+         * By default messages are dispatched on the connection's reader thread. Each
+         * session's messages are dispatched in order, one at a time.
+         */
+        public Builder dispatchScheduler(Scheduler dispatchScheduler) {
+            this.dispatchScheduler = dispatchScheduler;
+            return this;
+        }
+        
+        /**
+         * Enables writing responses on the calling thread when the connection is idle.
+         */
+        public Builder inlineWrites(boolean inlineWrites) {
+            this.inlineWrites = inlineWrites;
+            return this;
+        }
+        
+        /**
+         * Limits the number of concurrent client connections (0 = unlimited).
+         */
+        public Builder maxConnections(int maxConnections) {
+            this.maxConnections = maxConnections;
+            return this;
+        }
+        
+        /**
+         * Uses the given metrics registry instead of creating a new one.
+         */
+        public Builder metrics(BridgeMetrics metrics) {
+            this.metrics = metrics;
+            return this;
+        }
+        
+        /**
+         * Publishes the bridge metrics as JMX MBeans while the server is running.
+         */
+        public Builder jmx(boolean jmx) {
+            this.jmx = jmx;
+            return this;
+        }
+        
+        /**
+         * Sets the tracer that logs slow and sampled requests with their stage breakdown.
+         */
+        public Builder tracer(RequestTracer tracer) {
+            this.tracer = tracer;
+            return this;
+        }
+        
+        /**
+         * Logs every request slower than the threshold with its stage breakdown.
+         */
+        public Builder slowRequestThreshold(Duration threshold) {
+            this.tracer = RequestTracer.builder().slowThreshold(threshold).build();
+            return this;
+        }
+        
+        /**
+         * Records all traffic to the given capture file for later replay.
+         * The file is closed when the transport provider shuts down.
+         */
+        public Builder capture(Path capturePath) {
+            this.capturePath = capturePath;
+            return this;
+        }
+        
+        /**
+         * Records all traffic with the given recorder.
+         */
+        public Builder recorder(TrafficRecorder recorder) {
+            this.recorder = recorder;
+            return this;
+        }
+        
+        /**
+         * Serves Prometheus metrics on {@code /metrics} and accept-loop readiness on
+         * {@code /ready} from an embedded HTTP listener on the given port.
+         */
+        public Builder metricsPort(int metricsPort) {
+            this.metricsPort = metricsPort;
+            return this;
+        }
+        
+        /**
+         * Also serves MCP over Streamable HTTP at {@code /mcp} on the given port, sharing
+         * the TCP listener's sessions, limits and metrics; 0 picks a free port.
+         */
+        public Builder httpPort(int httpPort) {
+            this.httpPort = httpPort;
+            return this;
+        }
+        
+        /**
+         * Browser origins allowed to call the HTTP endpoint besides loopback ones,
+         * e.g. {@code https://app.example.com}. Other origins are refused with 403.
+         */
+        public Builder httpAllowedOrigins(String... origins) {
+            this.httpAllowedOrigins = Set.of(origins);
+            return this;
+        }
+        
+        /**
+         * Sets the validators checking {@code tools/call} arguments before dispatch.
+         * Tools registered up front are validated from the first call; others are
+         * learned from {@code tools/list} and validated once listed.
+         */
+        public Builder toolValidators(ToolValidators toolValidators) {
+            this.toolValidators = toolValidators;
+            return this;
+        }
+        
+        /**
+         * Enables or disables validation of {@code tools/call} arguments against the
+         * tools' input schemas. Disabled by default. Without registered tools, schemas
+         * are only learned from {@code tools/list}, so earlier calls are not validated.
+         */
+        public Builder validateToolArguments(boolean validate) {
+            if (!validate) {
+                this.toolValidators = null;
+            } else if (this.toolValidators == null) {
+                this.toolValidators = new ToolValidators();
+            }
+            return this;
+        }
+        
+        /**
+         * Sets the largest inbound message in bytes. Longer messages are discarded without
+         * being buffered and answered with an invalid-request error. Defaults to 16 MiB.
+         */
+        public Builder maxFrameBytes(int maxFrameBytes) {
+            if (maxFrameBytes <= 0) {
+                throw new IllegalArgumentException("maxFrameBytes must be positive");
+            }
+            this.maxFrameBytes = maxFrameBytes;
+            return this;
+        }
+        
+        /**
+         * Sets the pool that connections lease their I/O buffers from. Defaults to
+         * {@link BufferPool#shared()}.
+         */
+        public Builder bufferPool(BufferPool bufferPool) {
+            this.bufferPool = bufferPool;
+            return this;
+        }
+        
         public McpBridge build() {
-            return new McpBridge(port, host);
+            return new McpBridge(this);
         }
     }
     
@@ -73,6 +297,23 @@ public class McpBridge {
         return transportProvider;
     }
     
+    /**
+     * Returns a transport provider for another server on this bridge's port, reached by
+     * connectors started with {@code --route <name>}.
+     * 
+     * @see BridgeTransportProvider#route(String)
+     */
+    public McpServerTransportProvider route(String name) {
+        return ((BridgeTransportProvider) transportProvider).route(name);
+    }
+    
+    /**
+     * Returns the metrics registry shared by all connections of this bridge.
+     */
+    public BridgeMetrics getMetrics() {
+        return metrics;
+    }
+    
     /**
      * Static factory method for creating a TCP transport provider.
      * 
@@ -98,4 +339,26 @@ public class McpBridge {
             .port(port)
             .build();
     }
-}
\ No newline at end of file
+    
+    /**
+     * Creates a transport for a client and server in the same JVM. Messages are passed as
+     * objects through bounded queues instead of being serialized over a socket.
+     * 
+     * @return A provider for the server; clients connect through {@link InProcessTransportProvider#newClientTransport()}
+     */
+    public static InProcessTransportProvider inProcessTransport() {
+        return InProcessTransportProvider.builder().build();
+    }
+    
+    /**
+     * Creates an in-process transport whose queues hold the given number of messages per direction.
+     * 
+     * @param queueCapacity Messages queued before senders wait
+     * @return A provider for the server; clients connect through {@link InProcessTransportProvider#newClientTransport()}
+     */
+    public static InProcessTransportProvider inProcessTransport(int queueCapacity) {
+        return InProcessTransportProvider.builder()
+            .queueCapacity(queueCapacity)
+            .build();
+    }
+}
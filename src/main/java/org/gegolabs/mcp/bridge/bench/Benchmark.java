@@ -0,0 +1,262 @@
+package org.gegolabs.mcp.bridge.bench;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.gegolabs.mcp.bridge.metrics.LatencyHistogram;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-loop load generator for a running bridge server.
+ * 
+ * Opens the configured number of sessions, initializes each one, then sends a mix
+ * of {@code tools/list} and {@code tools/call} requests on a fixed schedule spread
+ * evenly across sessions. Requests are sent on schedule whether or not earlier ones
+ * have been answered, and latency is measured from the scheduled send time, so
+ * server stalls show up in the percentiles instead of silently lowering the rate
+ * (coordinated omission).
+ * 
+ * Usage:
+ * <pre>
+ * BenchmarkReport report = new Benchmark(config).run();
+ * report.print(System.out);
+ * </pre>
+ */
+@Slf4j
+public class Benchmark {
+    
+    static final String LIST = "tools/list";
+    static final String CALL = "tools/call";
+    
+    private final BenchmarkConfig config;
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final Map<Long, Pending> pending = new ConcurrentHashMap<>();
+    private final AtomicLong nextId = new AtomicLong(1);
+    private final Map<String, LatencyHistogram> latency = new LinkedHashMap<>();
+    private final Map<String, LongAdder> errors = new LinkedHashMap<>();
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder completed = new LongAdder();
+    
+    private record Pending(String operation, long intendedNanos, boolean measured) {
+    }
+    
+    public Benchmark(BenchmarkConfig config) {
+        config.validate();
+        this.config = config;
+        for (String name : List.of("all", LIST, CALL)) {
+            latency.put(name, new LatencyHistogram());
+            errors.put(name, new LongAdder());
+        }
+    }
+    
+    /**
+     * Runs the warmup and the measured period, then waits for outstanding responses.
+     */
+    public BenchmarkReport run() throws IOException, InterruptedException {
+        List<Session> sessions = new ArrayList<>();
+        try {
+            for (int i = 0; i < config.sessions; i++) {
+                sessions.add(new Session(i));
+            }
+            
+            double intervalNanos = TimeUnit.SECONDS.toNanos(1) / config.rate;
+            long startNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(10);
+            long measureFromNanos = startNanos + config.warmup.toNanos();
+            long endNanos = measureFromNanos + config.duration.toNanos();
+            
+            List<Thread> senders = new ArrayList<>();
+            for (Session session : sessions) {
+                Thread sender = new Thread(() -> session.sendLoop(startNanos, measureFromNanos, endNanos, intervalNanos),
+                    "mcp-bridge-bench-" + session.index);
+                sender.setDaemon(true);
+                senders.add(sender);
+                sender.start();
+            }
+            for (Thread sender : senders) {
+                sender.join();
+            }
+            
+            long deadline = System.nanoTime() + config.timeout.toNanos();
+            while (!pending.isEmpty() && System.nanoTime() < deadline) {
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(10));
+            }
+            long timeouts = pending.values().stream().filter(Pending::measured).count();
+            
+            Map<String, BenchmarkReport.OperationStats> operations = new LinkedHashMap<>();
+            latency.forEach((name, histogram) -> {
+                if (histogram.getCount() > 0 || "all".equals(name)) {
+                    operations.put(name, BenchmarkReport.OperationStats.of(histogram, errors.get(name).sum()));
+                }
+            });
+            return new BenchmarkReport(config.describe(), config.duration.toMillis() / 1000.0,
+                sent.sum(), completed.sum(), timeouts, operations);
+        } finally {
+            for (Session session : sessions) {
+                session.close();
+            }
+        }
+    }
+    
+    private void complete(JsonNode response, long receivedNanos) {
+        JsonNode id = response.get("id");
+        if (id == null || !id.canConvertToLong()) {
+            return;
+        }
+        Pending request = pending.remove(id.asLong());
+        if (request == null || !request.measured()) {
+            return;
+        }
+        long nanos = receivedNanos - request.intendedNanos();
+        boolean failed = response.has("error") || response.path("result").path("isError").asBoolean(false);
+        
+        latency.get("all").record(nanos);
+        latency.get(request.operation()).record(nanos);
+        if (failed) {
+            errors.get("all").increment();
+            errors.get(request.operation()).increment();
+        }
+        completed.increment();
+    }
+    
+    private String requestJson(long id, String method, Object params) throws IOException {
+        Map<String, Object> request = new LinkedHashMap<>();
+        request.put("jsonrpc", "2.0");
+        request.put("id", id);
+        request.put("method", method);
+        if (params != null) {
+            request.put("params", params);
+        }
+        return mapper.writeValueAsString(request);
+    }
+    
+    /**
+     * One connection: a sender following the schedule and a reader matching responses.
+     */
+    private class Session implements Closeable {
+        private final int index;
+        private final Socket socket;
+        private final BufferedReader reader;
+        private final PrintWriter writer;
+        private final SplittableRandom random;
+        
+        Session(int index) throws IOException {
+            this.index = index;
+            this.random = new SplittableRandom(index);
+            this.socket = new Socket();
+            socket.setTcpNoDelay(true);
+            socket.connect(new InetSocketAddress(config.host, config.port));
+            socket.setSoTimeout((int) config.timeout.toMillis());
+            this.reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            this.writer = new PrintWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8), false);
+            
+            initialize();
+            socket.setSoTimeout(0);
+            
+            Thread readerThread = new Thread(this::readLoop, "mcp-bridge-bench-reader-" + index);
+            readerThread.setDaemon(true);
+            readerThread.start();
+        }
+        
+        private void initialize() throws IOException {
+            long id = nextId.getAndIncrement();
+            writer.println(requestJson(id, "initialize", Map.of(
+                "protocolVersion", "2024-11-05",
+                "capabilities", Map.of(),
+                "clientInfo", Map.of("name", "mcp-bridge-bench", "version", "1.0.0"))));
+            writer.flush();
+            
+            String line;
+            while ((line = reader.readLine()) != null) {
+                JsonNode message = mapper.readTree(line);
+                if (message.path("id").asLong(-1) == id) {
+                    if (message.has("error")) {
+                        throw new IOException("initialize failed: " + message.get("error"));
+                    }
+                    break;
+                }
+            }
+            if (line == null) {
+                throw new IOException("Server closed the connection during initialize");
+            }
+            
+            writer.println("{\"jsonrpc\":\"2.0\",\"method\":\"notifications/initialized\"}");
+            writer.flush();
+        }
+        
+        void sendLoop(long startNanos, long measureFromNanos, long endNanos, double intervalNanos) {
+            int sessions = config.sessions;
+            int totalWeight = config.listWeight + config.callWeight;
+            Map<String, Object> callParams = Map.of("name", config.toolName == null ? "" : config.toolName,
+                "arguments", config.toolArguments);
+            try {
+                for (long j = 0; ; j++) {
+                    long intended = startNanos + (long) ((index + j * sessions) * intervalNanos);
+                    if (intended >= endNanos) {
+                        return;
+                    }
+                    long wait;
+                    while ((wait = intended - System.nanoTime()) > 0) {
+                        LockSupport.parkNanos(wait);
+                    }
+                    
+                    boolean call = random.nextInt(totalWeight) < config.callWeight;
+                    long id = nextId.getAndIncrement();
+                    boolean measured = intended >= measureFromNanos;
+                    pending.put(id, new Pending(call ? CALL : LIST, intended, measured));
+                    writer.println(requestJson(id, call ? CALL : LIST, call ? callParams : null));
+                    writer.flush();
+                    if (writer.checkError()) {
+                        throw new IOException("Connection closed by server");
+                    }
+                    if (measured) {
+                        sent.increment();
+                    }
+                }
+            } catch (IOException e) {
+                log.warn("Benchmark session {} stopped sending: {}", index, e.getMessage());
+            }
+        }
+        
+        private void readLoop() {
+            try {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    long receivedNanos = System.nanoTime();
+                    if (!line.isBlank()) {
+                        complete(mapper.readTree(line), receivedNanos);
+                    }
+                }
+            } catch (IOException e) {
+                // Connection closed at the end of the run
+            }
+        }
+        
+        @Override
+        public void close() {
+            try {
+                socket.close();
+            } catch (IOException e) {
+                // Ignore
+            }
+        }
+    }
+}
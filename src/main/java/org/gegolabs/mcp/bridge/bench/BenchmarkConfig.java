@@ -0,0 +1,134 @@
+package org.gegolabs.mcp.bridge.bench;
+
+import lombok.Builder;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Settings for a {@link Benchmark} run.
+ * 
+ * Usage:
+ * <pre>
+ * BenchmarkConfig config = BenchmarkConfig.builder()
+ *     .port(3000)
+ *     .sessions(16)
+ *     .rate(2000)
+ *     .duration(Duration.ofSeconds(30))
+ *     .callWeight(4)
+ *     .toolName("echo")
+ *     .toolArguments(Map.of("text", "hello"))
+ *     .build();
+ * </pre>
+ */
+@Builder
+public class BenchmarkConfig {
+    
+    @Builder.Default
+    final String host = "localhost";
+    
+    @Builder.Default
+    final int port = 3000;
+    
+    /**
+     * Number of concurrent sessions (TCP connections).
+     */
+    @Builder.Default
+    final int sessions = 4;
+    
+    /**
+     * Target request rate across all sessions, in requests per second.
+     */
+    @Builder.Default
+    final double rate = 100;
+    
+    /**
+     * Length of the measured part of the run.
+     */
+    @Builder.Default
+    final Duration duration = Duration.ofSeconds(30);
+    
+    /**
+     * Load applied before measuring, to warm up both sides.
+     */
+    @Builder.Default
+    final Duration warmup = Duration.ofSeconds(5);
+    
+    /**
+     * How long to wait for a response before counting the request as timed out.
+     */
+    @Builder.Default
+    final Duration timeout = Duration.ofSeconds(10);
+    
+    /**
+     * Relative share of {@code tools/list} requests in the mix.
+     */
+    @Builder.Default
+    final int listWeight = 1;
+    
+    /**
+     * Relative share of {@code tools/call} requests in the mix.
+     */
+    @Builder.Default
+    final int callWeight = 0;
+    
+    /**
+     * Tool invoked by {@code tools/call} requests.
+     */
+    @Builder.Default
+    final String toolName = null;
+    
+    /**
+     * Arguments passed with every {@code tools/call} request.
+     */
+    @Builder.Default
+    final Map<String, Object> toolArguments = Map.of();
+    
+    void validate() {
+        if (sessions <= 0) {
+            throw new IllegalArgumentException("sessions must be positive");
+        }
+        if (rate <= 0) {
+            throw new IllegalArgumentException("rate must be positive");
+        }
+        if (listWeight < 0 || callWeight < 0 || listWeight + callWeight == 0) {
+            throw new IllegalArgumentException("the request mix needs at least one positive weight");
+        }
+        if (callWeight > 0 && (toolName == null || toolName.isBlank())) {
+            throw new IllegalArgumentException("a tool name is required when the mix includes tools/call");
+        }
+    }
+    
+    /**
+     * Parses durations such as {@code 500ms}, {@code 30s}, {@code 2m} or a plain number of seconds.
+     */
+    public static Duration parseDuration(String value) {
+        String v = value.trim().toLowerCase();
+        try {
+            if (v.endsWith("ms")) {
+                return Duration.ofMillis(Long.parseLong(v.substring(0, v.length() - 2)));
+            }
+            if (v.endsWith("s")) {
+                return Duration.ofSeconds(Long.parseLong(v.substring(0, v.length() - 1)));
+            }
+            if (v.endsWith("m")) {
+                return Duration.ofMinutes(Long.parseLong(v.substring(0, v.length() - 1)));
+            }
+            return Duration.ofSeconds(Long.parseLong(v));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid duration: " + value);
+        }
+    }
+    
+    Map<String, Object> describe() {
+        return Map.of(
+            "host", host,
+            "port", port,
+            "sessions", sessions,
+            "rate", rate,
+            "durationSeconds", duration.toMillis() / 1000.0,
+            "warmupSeconds", warmup.toMillis() / 1000.0,
+            "mix", Map.of("tools/list", listWeight, "tools/call", callWeight),
+            "tool", toolName == null ? "" : toolName);
+    }
+}
@@ -0,0 +1,121 @@
+package org.gegolabs.mcp.bridge.bench;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.gegolabs.mcp.bridge.metrics.LatencyHistogram;
+
+import java.io.PrintStream;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Outcome of a {@link Benchmark} run: throughput, error counts and the latency
+ * distribution per request type.
+ * 
+ * Latencies are measured from the time each request was scheduled to be sent, not
+ * from when it actually was, so a stalled server is not hidden by a stalled client.
+ */
+public class BenchmarkReport {
+    
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+    
+    /**
+     * Latency distribution of one request type, in milliseconds.
+     */
+    public record OperationStats(long count, long errors, double meanMillis, double p50Millis,
+                                 double p90Millis, double p99Millis, double p999Millis, double maxMillis) {
+        
+        static OperationStats of(LatencyHistogram histogram, long errors) {
+            return new OperationStats(histogram.getCount(), errors,
+                histogram.getMeanNanos() / NANOS_PER_MILLI,
+                histogram.getValueAtPercentile(50) / NANOS_PER_MILLI,
+                histogram.getValueAtPercentile(90) / NANOS_PER_MILLI,
+                histogram.getValueAtPercentile(99) / NANOS_PER_MILLI,
+                histogram.getValueAtPercentile(99.9) / NANOS_PER_MILLI,
+                histogram.getMaxNanos() / NANOS_PER_MILLI);
+        }
+    }
+    
+    private final Map<String, Object> config;
+    private final double measuredSeconds;
+    private final long sent;
+    private final long completed;
+    private final long timeouts;
+    private final Map<String, OperationStats> operations;
+    
+    BenchmarkReport(Map<String, Object> config, double measuredSeconds, long sent, long completed,
+                    long timeouts, Map<String, OperationStats> operations) {
+        this.config = config;
+        this.measuredSeconds = measuredSeconds;
+        this.sent = sent;
+        this.completed = completed;
+        this.timeouts = timeouts;
+        this.operations = operations;
+    }
+    
+    public long getSent() {
+        return sent;
+    }
+    
+    public long getCompleted() {
+        return completed;
+    }
+    
+    public long getTimeouts() {
+        return timeouts;
+    }
+    
+    public long getErrors() {
+        OperationStats all = operations.get("all");
+        return all == null ? 0 : all.errors();
+    }
+    
+    /**
+     * Completed requests per second over the measured period.
+     */
+    public double getThroughput() {
+        return measuredSeconds > 0 ? completed / measuredSeconds : 0;
+    }
+    
+    /**
+     * Stats keyed by request type, plus {@code all} for the combined distribution.
+     */
+    public Map<String, OperationStats> getOperations() {
+        return operations;
+    }
+    
+    /**
+     * Renders the report as a JSON document.
+     */
+    public String toJson() {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("config", config);
+        json.put("measuredSeconds", measuredSeconds);
+        json.put("sent", sent);
+        json.put("completed", completed);
+        json.put("errors", getErrors());
+        json.put("timeouts", timeouts);
+        json.put("throughput", getThroughput());
+        json.put("latency", operations);
+        try {
+            return new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValueAsString(json);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize benchmark report", e);
+        }
+    }
+    
+    /**
+     * Prints a human-readable summary.
+     */
+    public void print(PrintStream out) {
+        out.printf("Requests: %d sent, %d completed, %d errors, %d timed out%n",
+            sent, completed, getErrors(), timeouts);
+        out.printf("Throughput: %.1f req/s over %.1f s%n", getThroughput(), measuredSeconds);
+        out.printf("%-12s %9s %9s %9s %9s %9s %9s %9s%n",
+            "latency(ms)", "count", "mean", "p50", "p90", "p99", "p99.9", "max");
+        operations.forEach((name, stats) -> out.printf("%-12s %9d %9.2f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+            name, stats.count(), stats.meanMillis(), stats.p50Millis(), stats.p90Millis(),
+            stats.p99Millis(), stats.p999Millis(), stats.maxMillis()));
+    }
+}
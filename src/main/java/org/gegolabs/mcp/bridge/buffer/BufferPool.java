@@ -0,0 +1,291 @@
+package org.gegolabs.mcp.bridge.buffer;
+
+import lombok.Builder;
+import lombok.extern.slf4j.Slf4j;
+import org.gegolabs.mcp.bridge.metrics.BridgeMetrics;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.lang.ref.Cleaner;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Pool of reusable byte arrays shared by all connections, so reading and writing
+ * messages does not allocate new buffers once the pool is warm.
+ * 
+ * Buffers come in power-of-two size classes from {@value #MIN_BUFFER_SIZE} bytes up to
+ * {@code maxBufferSize}. Larger requests are served with plain, unpooled arrays. Each
+ * size class keeps an equal share of {@code maxRetainedBytes}; buffers released into a
+ * full class are dropped.
+ * 
+ * With {@code leakDetection} on, every acquire records its stack trace, and a buffer
+ * that becomes unreachable without being released is logged with that trace. This
+ * costs an allocation per acquire and is meant for debugging; it defaults to the
+ * {@value #LEAK_DETECTION_PROPERTY} system property.
+ * 
+ * Usage:
+ * <pre>
+ * PooledBuffer buffer = BufferPool.shared().acquire(8192);
+ * try {
+ *     int n = in.read(buffer.array());
+ *     ...
+ * } finally {
+ *     buffer.release();
+ * }
+ * </pre>
+ */
+@Slf4j
+@Builder
+public class BufferPool implements BufferPoolMXBean {
+    
+    /**
+     * Smallest size class.
+     */
+    public static final int MIN_BUFFER_SIZE = 1024;
+    
+    /**
+     * System property that turns on leak detection for pools built with defaults.
+     */
+    public static final String LEAK_DETECTION_PROPERTY = "mcp.bridge.buffers.leakDetection";
+    
+    private static final int MIN_SHIFT = Integer.numberOfTrailingZeros(MIN_BUFFER_SIZE);
+    private static final int MAX_SLOTS = 4096;
+    private static final Cleaner CLEANER = Cleaner.create();
+    private static final BufferPool SHARED = builder().build();
+    
+    /**
+     * Largest pooled buffer; rounded up to a power of two.
+     */
+    @Builder.Default
+    private final int maxBufferSize = 1024 * 1024;
+    
+    /**
+     * Upper bound on the bytes kept in the pool while not in use.
+     */
+    @Builder.Default
+    private final long maxRetainedBytes = 64L * 1024 * 1024;
+    
+    /**
+     * Whether to report buffers that are garbage collected without being released.
+     */
+    @Builder.Default
+    private final boolean leakDetection = Boolean.getBoolean(LEAK_DETECTION_PROPERTY);
+    
+    private final AtomicReferenceArray<SizeClass> classes = new AtomicReferenceArray<>(32 - MIN_SHIFT);
+    private final AtomicLong retainedBytes = new AtomicLong();
+    private final LongAdder acquired = new LongAdder();
+    private final LongAdder released = new LongAdder();
+    private final LongAdder allocated = new LongAdder();
+    private final LongAdder unpooled = new LongAdder();
+    private final LongAdder leaked = new LongAdder();
+    private final AtomicReference<ObjectName> mbeanName = new AtomicReference<>();
+    
+    /**
+     * Free buffers of one size, kept in an array so returning a buffer allocates nothing.
+     */
+    private static final class SizeClass {
+    
+        final int size;
+        final PooledBuffer[] free;
+        int count;
+        
+        SizeClass(int size, int capacity) {
+            this.size = size;
+            this.free = new PooledBuffer[capacity];
+        }
+        
+        synchronized PooledBuffer poll() {
+            if (count == 0) {
+                return null;
+            }
+            PooledBuffer buffer = free[--count];
+            free[count] = null;
+            return buffer;
+        }
+        
+        synchronized boolean offer(PooledBuffer buffer) {
+            if (count == free.length) {
+                return false;
+            }
+            free[count++] = buffer;
+            return true;
+        }
+    }
+    
+    /**
+     * Where a leased buffer was acquired; kept apart from the buffer so the cleaner
+     * does not keep the buffer reachable.
+     */
+    static final class LeakTracker implements Runnable {
+    
+        private final BufferPool pool;
+        private final int size;
+        private final Throwable acquiredAt;
+        volatile boolean released;
+        Cleaner.Cleanable cleanable;
+        
+        LeakTracker(BufferPool pool, int size) {
+            this.pool = pool;
+            this.size = size;
+            this.acquiredAt = new Throwable("Buffer acquired here");
+        }
+        
+        @Override
+        public void run() {
+            if (!released) {
+                pool.leaked.increment();
+                log.warn("A {} byte buffer was garbage collected without being released", size, acquiredAt);
+            }
+        }
+    }
+    
+    /**
+     * Returns the pool used by transports and the connector unless configured otherwise.
+     */
+    public static BufferPool shared() {
+        return SHARED;
+    }
+    
+    /**
+     * Returns a buffer of at least {@code minCapacity} bytes. Its contents are undefined.
+     * Call {@link PooledBuffer#release()} when done with it.
+     */
+    public PooledBuffer acquire(int minCapacity) {
+        if (minCapacity < 0) {
+            throw new IllegalArgumentException("minCapacity must not be negative");
+        }
+        acquired.increment();
+        PooledBuffer buffer;
+        SizeClass sizeClass = minCapacity <= maxBufferSize ? sizeClass(minCapacity) : null;
+        if (sizeClass == null) {
+            unpooled.increment();
+            buffer = new PooledBuffer(this, new byte[minCapacity], false);
+        } else {
+            buffer = sizeClass.poll();
+            if (buffer != null) {
+                retainedBytes.addAndGet(-sizeClass.size);
+            } else {
+                allocated.increment();
+                buffer = new PooledBuffer(this, new byte[sizeClass.size], true);
+            }
+        }
+        buffer.lease();
+        if (leakDetection) {
+            LeakTracker tracker = new LeakTracker(this, buffer.capacity());
+            tracker.cleanable = CLEANER.register(buffer, tracker);
+            buffer.tracker = tracker;
+        }
+        return buffer;
+    }
+    
+    /**
+     * Takes back a buffer released by its holder.
+     */
+    void release(PooledBuffer buffer) {
+        released.increment();
+        LeakTracker tracker = buffer.tracker;
+        if (tracker != null) {
+            buffer.tracker = null;
+            tracker.released = true;
+            tracker.cleanable.clean();
+        }
+        if (!buffer.pooled) {
+            return;
+        }
+        SizeClass sizeClass = sizeClass(buffer.capacity());
+        if (sizeClass.offer(buffer)) {
+            retainedBytes.addAndGet(sizeClass.size);
+        }
+    }
+    
+    private SizeClass sizeClass(int capacity) {
+        int size = classSize(capacity);
+        int index = Integer.numberOfTrailingZeros(size) - MIN_SHIFT;
+        SizeClass sizeClass = classes.get(index);
+        if (sizeClass == null) {
+            int classCount = Integer.numberOfTrailingZeros(classSize(maxBufferSize)) - MIN_SHIFT + 1;
+            long slots = maxRetainedBytes / classCount / size;
+            classes.compareAndSet(index, null, new SizeClass(size, (int) Math.min(MAX_SLOTS, slots)));
+            sizeClass = classes.get(index);
+        }
+        return sizeClass;
+    }
+    
+    private static int classSize(int capacity) {
+        return capacity <= MIN_BUFFER_SIZE ? MIN_BUFFER_SIZE : Integer.highestOneBit(capacity - 1) << 1;
+    }
+    
+    /**
+     * Publishes this pool as a JMX MBean.
+     */
+    public void registerMBean(String name) {
+        try {
+            ObjectName objectName = new ObjectName(BridgeMetrics.JMX_DOMAIN
+                + ":type=BufferPool,name=" + ObjectName.quote(name));
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            if (mbeanName.compareAndSet(null, objectName) && !server.isRegistered(objectName)) {
+                server.registerMBean(this, objectName);
+            }
+        } catch (JMException e) {
+            log.warn("Failed to register buffer pool MBean {}", name, e);
+        }
+    }
+    
+    /**
+     * Removes the MBean registered by {@link #registerMBean(String)}.
+     */
+    public void unregisterMBean() {
+        ObjectName objectName = mbeanName.getAndSet(null);
+        if (objectName == null) {
+            return;
+        }
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            if (server.isRegistered(objectName)) {
+                server.unregisterMBean(objectName);
+            }
+        } catch (JMException e) {
+            log.warn("Failed to unregister buffer pool MBean {}", objectName, e);
+        }
+    }
+    
+    @Override
+    public long getAcquired() {
+        return acquired.sum();
+    }
+    
+    @Override
+    public long getAllocated() {
+        return allocated.sum();
+    }
+    
+    @Override
+    public long getUnpooled() {
+        return unpooled.sum();
+    }
+    
+    @Override
+    public long getOutstanding() {
+        return acquired.sum() - released.sum();
+    }
+    
+    @Override
+    public long getRetainedBytes() {
+        return retainedBytes.get();
+    }
+    
+    @Override
+    public long getLeaked() {
+        return leaked.sum();
+    }
+    
+    @Override
+    public boolean isLeakDetection() {
+        return leakDetection;
+    }
+}
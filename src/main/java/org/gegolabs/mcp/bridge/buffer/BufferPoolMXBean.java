@@ -0,0 +1,21 @@
+package org.gegolabs.mcp.bridge.buffer;
+
+/**
+ * JMX view of a {@link BufferPool}.
+ */
+public interface BufferPoolMXBean {
+    
+    long getAcquired();
+    
+    long getAllocated();
+    
+    long getUnpooled();
+    
+    long getOutstanding();
+    
+    long getRetainedBytes();
+    
+    long getLeaked();
+    
+    boolean isLeakDetection();
+}
@@ -0,0 +1,48 @@
+package org.gegolabs.mcp.bridge.buffer;
+
+/**
+ * A byte array leased from a {@link BufferPool}. The same object is handed out again
+ * after {@link #release()}, so it must not be used once released.
+ */
+public final class PooledBuffer {
+    
+    final BufferPool pool;
+    final boolean pooled;
+    private final byte[] array;
+    private boolean leased;
+    BufferPool.LeakTracker tracker;
+    
+    PooledBuffer(BufferPool pool, byte[] array, boolean pooled) {
+        this.pool = pool;
+        this.array = array;
+        this.pooled = pooled;
+    }
+    
+    /**
+     * Returns the backing array; it may be longer than the capacity that was asked for.
+     */
+    public byte[] array() {
+        return array;
+    }
+    
+    public int capacity() {
+        return array.length;
+    }
+    
+    void lease() {
+        leased = true;
+    }
+    
+    /**
+     * Returns this buffer to its pool.
+     * 
+     * @throws IllegalStateException if the buffer was already released
+     */
+    public void release() {
+        if (!leased) {
+            throw new IllegalStateException("Buffer already released");
+        }
+        leased = false;
+        pool.release(this);
+    }
+}
@@ -0,0 +1,96 @@
+package org.gegolabs.mcp.bridge.buffer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Growable in-memory output stream whose storage comes from a {@link BufferPool}.
+ * Growing moves the contents to the next size class and returns the old buffer.
+ * 
+ * {@link #close()} does nothing, so the stream can be handed to serializers that close
+ * their target; call {@link #release()} once the bytes have been used.
+ */
+public final class PooledOutputStream extends OutputStream {
+    
+    private final BufferPool pool;
+    private PooledBuffer buffer;
+    private int size;
+    
+    public PooledOutputStream(BufferPool pool, int initialCapacity) {
+        this.pool = pool;
+        this.buffer = pool.acquire(initialCapacity);
+    }
+    
+    @Override
+    public void write(int b) {
+        ensureCapacity(size + 1);
+        buffer.array()[size++] = (byte) b;
+    }
+    
+    @Override
+    public void write(byte[] b, int off, int len) {
+        ensureCapacity(size + len);
+        System.arraycopy(b, off, buffer.array(), size, len);
+        size += len;
+    }
+    
+    /**
+     * Writes the contents to another stream.
+     */
+    public void writeTo(OutputStream out) throws IOException {
+        out.write(buffer.array(), 0, size);
+    }
+    
+    /**
+     * Returns the backing array; only the first {@link #size()} bytes are valid.
+     */
+    public byte[] array() {
+        return buffer.array();
+    }
+    
+    public int size() {
+        return size;
+    }
+    
+    /**
+     * Discards the contents, keeping the current buffer.
+     */
+    public void reset() {
+        size = 0;
+    }
+    
+    /**
+     * Decodes the first {@code length} bytes as UTF-8.
+     */
+    public String toString(int length) {
+        return new String(buffer.array(), 0, Math.min(length, size), StandardCharsets.UTF_8);
+    }
+    
+    @Override
+    public String toString() {
+        return toString(size);
+    }
+    
+    /**
+     * Returns the storage to the pool. The stream must not be used afterwards.
+     */
+    public void release() {
+        if (buffer != null) {
+            buffer.release();
+            buffer = null;
+        }
+    }
+    
+    private void ensureCapacity(int capacity) {
+        if (buffer == null) {
+            throw new IllegalStateException("Stream already released");
+        }
+        if (capacity > buffer.capacity()) {
+            PooledBuffer larger = pool.acquire(Math.max(capacity, buffer.capacity() * 2));
+            System.arraycopy(buffer.array(), 0, larger.array(), 0, size);
+            buffer.release();
+            buffer = larger;
+        }
+    }
+}
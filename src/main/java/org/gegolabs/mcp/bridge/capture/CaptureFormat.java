@@ -0,0 +1,19 @@
+package org.gegolabs.mcp.bridge.capture;
+
+/**
+ * Layout of capture files.
+ * 
+ * A file starts with a header of {@code MAGIC} (int), {@code VERSION} (short) and the
+ * capture start time in epoch milliseconds (long). It is followed by frames of:
+ * offset nanos (long), direction (byte), session id length (short), session id
+ * (UTF-8), payload length (int), payload (UTF-8). All numbers are big-endian.
+ */
+final class CaptureFormat {
+    
+    static final int MAGIC = 0x4D435043; // "MCPC"
+    static final short VERSION = 1;
+    static final int HEADER_SIZE = 4 + 2 + 8;
+    
+    private CaptureFormat() {
+    }
+}
@@ -0,0 +1,17 @@
+package org.gegolabs.mcp.bridge.capture;
+
+/**
+ * One JSON-RPC line recorded by a {@link TrafficRecorder}.
+ * 
+ * @param offsetNanos time since the start of the capture
+ * @param sessionId the session the line belongs to
+ * @param direction which way the line travelled
+ * @param payload the raw JSON-RPC line
+ */
+public record CaptureFrame(long offsetNanos, String sessionId, Direction direction, String payload) {
+    
+    public enum Direction {
+        CLIENT_TO_SERVER,
+        SERVER_TO_CLIENT
+    }
+}
@@ -0,0 +1,110 @@
+package org.gegolabs.mcp.bridge.capture;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads frames back from a capture file written by {@link TrafficRecorder}.
+ * 
+ * A frame cut short at the end of the file (for example when the server was killed
+ * while recording) is treated as the end of the capture.
+ */
+public class CaptureReader implements Closeable {
+    
+    private static final CaptureFrame.Direction[] DIRECTIONS = CaptureFrame.Direction.values();
+    
+    private final DataInputStream in;
+    private final long startEpochMillis;
+    private long end = CaptureFormat.HEADER_SIZE;
+    
+    public CaptureReader(Path path) throws IOException {
+        this(Files.newInputStream(path), path);
+    }
+    
+    CaptureReader(InputStream input, Path path) throws IOException {
+        this.in = new DataInputStream(new BufferedInputStream(input, 64 * 1024));
+        try {
+            if (in.readInt() != CaptureFormat.MAGIC) {
+                throw new IOException("Not a capture file: " + path);
+            }
+            short version = in.readShort();
+            if (version != CaptureFormat.VERSION) {
+                throw new IOException("Unsupported capture version " + version + ": " + path);
+            }
+            this.startEpochMillis = in.readLong();
+        } catch (IOException e) {
+            in.close();
+            throw e instanceof EOFException ? new IOException("Truncated capture header: " + path) : e;
+        }
+    }
+    
+    /**
+     * Reads all frames of a capture file.
+     */
+    public static List<CaptureFrame> readAll(Path path) throws IOException {
+        List<CaptureFrame> frames = new ArrayList<>();
+        try (CaptureReader reader = new CaptureReader(path)) {
+            CaptureFrame frame;
+            while ((frame = reader.next()) != null) {
+                frames.add(frame);
+            }
+        }
+        return frames;
+    }
+    
+    /**
+     * Wall-clock time at which the capture started.
+     */
+    public long getStartEpochMillis() {
+        return startEpochMillis;
+    }
+    
+    /**
+     * Returns the next frame, or null at the end of the capture.
+     */
+    public CaptureFrame next() throws IOException {
+        try {
+            long offsetNanos = in.readLong();
+            int direction = in.readUnsignedByte();
+            if (direction >= DIRECTIONS.length) {
+                throw new IOException("Corrupt capture frame: direction " + direction);
+            }
+            byte[] session = new byte[in.readUnsignedShort()];
+            in.readFully(session);
+            int length = in.readInt();
+            if (length < 0) {
+                throw new IOException("Corrupt capture frame: length " + length);
+            }
+            byte[] payload = new byte[length];
+            in.readFully(payload);
+            end += 8 + 1 + 2 + session.length + 4 + length;
+            return new CaptureFrame(offsetNanos,
+                new String(session, StandardCharsets.UTF_8),
+                DIRECTIONS[direction],
+                new String(payload, StandardCharsets.UTF_8));
+        } catch (EOFException e) {
+            return null;
+        }
+    }
+    
+    /**
+     * Number of bytes taken by the header and the frames read so far.
+     */
+    long end() {
+        return end;
+    }
+    
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
@@ -0,0 +1,268 @@
+package org.gegolabs.mcp.bridge.capture;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Records JSON-RPC traffic to an append-only capture file.
+ * 
+ * Calls to {@link #record} only enqueue the line; encoding and file I/O happen on a
+ * background thread that batches frames into a buffer and writes them through a
+ * {@link FileChannel}. When the queue is full, frames are dropped and counted rather
+ * than slowing down the transport.
+ * 
+ * Opening an existing capture appends to it, so several processes, such as one
+ * connector per client session, can record into the same file. Writes hold a file
+ * lock, and offsets stay relative to the start time in the file's header. Within
+ * one process, only one recorder may use a given file.
+ * 
+ * Usage:
+ * <pre>
+ * TrafficRecorder recorder = TrafficRecorder.open(Path.of("traffic.mcpcap"));
+ * McpBridge bridge = McpBridge.builder().port(3000).recorder(recorder).build();
+ * </pre>
+ */
+@Slf4j
+public class TrafficRecorder implements Closeable {
+    
+    private static final int DEFAULT_QUEUE_SIZE = 65536;
+    private static final int BUFFER_SIZE = 256 * 1024;
+    private static final int MAX_BATCH = 1024;
+    
+    private final Path path;
+    private final FileChannel channel;
+    private final BlockingQueue<CaptureFrame> queue;
+    private final long startNanos = System.nanoTime();
+    private final long baseNanos;
+    private final AtomicLong recorded = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicBoolean shutdown = new AtomicBoolean();
+    private final AtomicInteger recording = new AtomicInteger();
+    private final Thread writer;
+    private ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+    private volatile boolean closed = false;
+    
+    private TrafficRecorder(Path path, int queueSize) throws IOException {
+        this.path = path;
+        this.queue = new ArrayBlockingQueue<>(queueSize);
+        this.channel = FileChannel.open(path,
+            StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try (FileLock lock = channel.lock()) {
+            this.baseNanos = prepare();
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        
+        this.writer = new Thread(this::drain, "mcp-bridge-capture");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+    
+    /**
+     * Creates a capture file, or appends to an existing one, and starts recording.
+     */
+    public static TrafficRecorder open(Path path) throws IOException {
+        return open(path, DEFAULT_QUEUE_SIZE);
+    }
+    
+    /**
+     * Creates a recorder that buffers at most {@code queueSize} frames in memory.
+     */
+    public static TrafficRecorder open(Path path, int queueSize) throws IOException {
+        if (queueSize <= 0) {
+            throw new IllegalArgumentException("queueSize must be positive");
+        }
+        return new TrafficRecorder(path, queueSize);
+    }
+    
+    /**
+     * Writes the header of a new file, or checks the header of an existing one and drops
+     * a frame left incomplete by a process that was killed while writing it. Returns the
+     * time elapsed since the capture started, which offsets the frames of this recorder.
+     */
+    private long prepare() throws IOException {
+        if (channel.size() == 0) {
+            ByteBuffer header = ByteBuffer.allocate(CaptureFormat.HEADER_SIZE);
+            header.putInt(CaptureFormat.MAGIC);
+            header.putShort(CaptureFormat.VERSION);
+            header.putLong(System.currentTimeMillis());
+            header.flip();
+            while (header.hasRemaining()) {
+                channel.write(header);
+            }
+            return 0;
+        }
+        // Not closed, as that would close the channel
+        CaptureReader reader = new CaptureReader(Channels.newInputStream(channel.position(0)), path);
+        while (reader.next() != null) {
+            // Skip to the end of the last complete frame
+        }
+        if (reader.end() < channel.size()) {
+            log.warn("Dropping an incomplete frame at the end of {}", path);
+            channel.truncate(reader.end());
+        }
+        return Math.max(0, TimeUnit.MILLISECONDS.toNanos(System.currentTimeMillis() - reader.getStartEpochMillis()));
+    }
+    
+    /**
+     * Queues one line for recording. Never blocks. Lines arriving once {@link #close()}
+     * has started are ignored.
+     */
+    public void record(String sessionId, CaptureFrame.Direction direction, String payload) {
+        if (payload == null) {
+            return;
+        }
+        // Announced before checking closed, so the writer waits for this frame if it gets queued
+        recording.incrementAndGet();
+        try {
+            if (closed) {
+                return;
+            }
+            CaptureFrame frame = new CaptureFrame(baseNanos + System.nanoTime() - startNanos, sessionId, direction, payload);
+            if (queue.offer(frame)) {
+                recorded.incrementAndGet();
+            } else {
+                dropped.incrementAndGet();
+            }
+        } finally {
+            recording.decrementAndGet();
+        }
+    }
+    
+    /**
+     * Writes queued frames until the recorder is closed and nothing is left to write,
+     * then closes the file. The channel is only ever used and closed by this thread.
+     */
+    private void drain() {
+        List<CaptureFrame> batch = new ArrayList<>(MAX_BATCH);
+        try {
+            while (!closed || recording.get() > 0 || !queue.isEmpty()) {
+                CaptureFrame first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, MAX_BATCH - 1);
+                for (CaptureFrame frame : batch) {
+                    encode(frame);
+                }
+                batch.clear();
+                flushBuffer();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            log.error("Traffic capture to {} failed, recording stopped", path, e);
+            closed = true;
+        } finally {
+            closeChannel();
+        }
+    }
+    
+    private void closeChannel() {
+        try {
+            channel.force(false);
+        } catch (IOException e) {
+            log.warn("Failed to sync traffic capture {}", path, e);
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            log.warn("Failed to close traffic capture {}", path, e);
+        }
+    }
+    
+    private void encode(CaptureFrame frame) throws IOException {
+        byte[] session = frame.sessionId() == null
+            ? new byte[0]
+            : frame.sessionId().getBytes(StandardCharsets.UTF_8);
+        byte[] payload = frame.payload().getBytes(StandardCharsets.UTF_8);
+        int size = 8 + 1 + 2 + session.length + 4 + payload.length;
+        
+        if (buffer.remaining() < size) {
+            flushBuffer();
+            if (buffer.capacity() < size) {
+                buffer = ByteBuffer.allocate(size);
+            }
+        }
+        buffer.putLong(frame.offsetNanos());
+        buffer.put((byte) frame.direction().ordinal());
+        buffer.putShort((short) session.length);
+        buffer.put(session);
+        buffer.putInt(payload.length);
+        buffer.put(payload);
+    }
+    
+    private void flushBuffer() throws IOException {
+        if (buffer.position() == 0) {
+            return;
+        }
+        buffer.flip();
+        // Other processes may append to the same file
+        try (FileLock lock = channel.lock()) {
+            long position = channel.size();
+            while (buffer.hasRemaining()) {
+                position += channel.write(buffer, position);
+            }
+        }
+        buffer.clear();
+    }
+    
+    public Path getPath() {
+        return path;
+    }
+    
+    /**
+     * Number of frames accepted for recording.
+     */
+    public long getRecordedCount() {
+        return recorded.get();
+    }
+    
+    /**
+     * Number of frames dropped because the queue was full.
+     */
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+    
+    /**
+     * Stops accepting frames and waits for the writer to write everything still queued
+     * and close the file. If that takes more than ten seconds, the writer finishes on its own.
+     */
+    @Override
+    public void close() throws IOException {
+        if (!shutdown.compareAndSet(false, true)) {
+            return;
+        }
+        closed = true;
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (writer.isAlive()) {
+            log.warn("Traffic capture {} is still being written, it will be closed when done", path);
+            return;
+        }
+        log.info("Traffic capture closed: {} ({} frames, {} dropped)", path, recorded.get(), dropped.get());
+    }
+}
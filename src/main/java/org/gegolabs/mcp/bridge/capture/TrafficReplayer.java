@@ -0,0 +1,202 @@
+package org.gegolabs.mcp.bridge.capture;
+
+import lombok.Builder;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.regex.Pattern;
+
+/**
+ * Replays the client side of a capture against a running bridge server.
+ * 
+ * Every recorded session gets its own TCP connection, and all sessions run
+ * concurrently so the load has the same shape as when it was recorded. Lines are
+ * sent at their recorded offsets divided by {@code speed}; a speed of zero or less
+ * sends as fast as possible. {@code copies} replays each session that many times in
+ * parallel to multiply the load. After {@code initialize}, a session waits for the
+ * server's reply before sending anything else, since the server rejects requests
+ * on an uninitialized session.
+ * 
+ * Usage:
+ * <pre>
+ * ReplayResult result = TrafficReplayer.builder()
+ *     .host("localhost").port(3000).speed(4).copies(10)
+ *     .build()
+ *     .replay(CaptureReader.readAll(Path.of("traffic.mcpcap")));
+ * </pre>
+ */
+@Slf4j
+@Builder
+public class TrafficReplayer {
+    
+    private static final Pattern INITIALIZE = Pattern.compile("\"method\"\\s*:\\s*\"initialize\"");
+    
+    @Builder.Default
+    private final String host = "localhost";
+    
+    @Builder.Default
+    private final int port = 3000;
+    
+    /**
+     * Playback speed multiplier; zero or less replays at maximum speed.
+     */
+    @Builder.Default
+    private final double speed = 1.0;
+    
+    /**
+     * Number of concurrent copies of each recorded session.
+     */
+    @Builder.Default
+    private final int copies = 1;
+    
+    /**
+     * How long a session waits for outstanding server lines after its last send.
+     */
+    @Builder.Default
+    private final Duration drainTimeout = Duration.ofSeconds(10);
+    
+    /**
+     * Summary of a replay run.
+     */
+    public record ReplayResult(int sessions, int failedSessions, long linesSent,
+                               long linesReceived, long linesExpected, Duration elapsed) {
+        
+        @Override
+        public String toString() {
+            return String.format("%d sessions (%d failed), %d lines sent, %d/%d lines received in %d ms",
+                sessions, failedSessions, linesSent, linesReceived, linesExpected, elapsed.toMillis());
+        }
+    }
+    
+    /**
+     * Replays the given frames and blocks until every session has finished.
+     */
+    public ReplayResult replay(List<CaptureFrame> frames) throws InterruptedException {
+        Map<String, List<CaptureFrame>> bySession = new LinkedHashMap<>();
+        for (CaptureFrame frame : frames) {
+            bySession.computeIfAbsent(frame.sessionId(), k -> new ArrayList<>()).add(frame);
+        }
+        // Captures appended by several processes are not in offset order
+        long firstOffset = frames.stream().mapToLong(CaptureFrame::offsetNanos).min().orElse(0);
+        
+        AtomicLong sent = new AtomicLong();
+        AtomicLong received = new AtomicLong();
+        AtomicLong expected = new AtomicLong();
+        AtomicInteger failed = new AtomicInteger();
+        List<Thread> threads = new ArrayList<>();
+        long startNanos = System.nanoTime();
+        
+        for (Map.Entry<String, List<CaptureFrame>> entry : bySession.entrySet()) {
+            for (int copy = 0; copy < copies; copy++) {
+                String name = entry.getKey() + (copies > 1 ? "#" + copy : "");
+                List<CaptureFrame> sessionFrames = entry.getValue();
+                Thread thread = new Thread(() -> {
+                    try {
+                        replaySession(sessionFrames, startNanos, firstOffset, sent, received, expected);
+                    } catch (IOException e) {
+                        failed.incrementAndGet();
+                        log.warn("Replay of session {} failed: {}", name, e.getMessage());
+                    }
+                }, "mcp-bridge-replay-" + name);
+                thread.setDaemon(true);
+                threads.add(thread);
+                thread.start();
+            }
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        return new ReplayResult(threads.size(), failed.get(), sent.get(), received.get(), expected.get(),
+            Duration.ofNanos(System.nanoTime() - startNanos));
+    }
+    
+    private void replaySession(List<CaptureFrame> frames, long startNanos, long firstOffset,
+                               AtomicLong sent, AtomicLong received, AtomicLong expected) throws IOException {
+        long expectedHere = frames.stream()
+            .filter(f -> f.direction() == CaptureFrame.Direction.SERVER_TO_CLIENT)
+            .count();
+        expected.addAndGet(expectedHere);
+        
+        try (Socket socket = new Socket()) {
+            socket.setTcpNoDelay(true);
+            socket.connect(new InetSocketAddress(host, port));
+            BufferedReader reader = new BufferedReader(
+                new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            PrintWriter writer = new PrintWriter(
+                new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8), false);
+            
+            AtomicLong receivedHere = new AtomicLong();
+            CountDownLatch firstLine = new CountDownLatch(1);
+            Thread readerThread = new Thread(() -> {
+                try {
+                    while (reader.readLine() != null) {
+                        receivedHere.incrementAndGet();
+                        received.incrementAndGet();
+                        firstLine.countDown();
+                    }
+                } catch (IOException e) {
+                    // Socket closed at the end of the session
+                }
+            }, Thread.currentThread().getName() + "-reader");
+            readerThread.setDaemon(true);
+            readerThread.start();
+            
+            for (CaptureFrame frame : frames) {
+                if (frame.direction() != CaptureFrame.Direction.CLIENT_TO_SERVER) {
+                    continue;
+                }
+                if (speed > 0) {
+                    long due = startNanos + (long) ((frame.offsetNanos() - firstOffset) / speed);
+                    long wait;
+                    while ((wait = due - System.nanoTime()) > 0) {
+                        LockSupport.parkNanos(wait);
+                    }
+                }
+                writer.println(frame.payload());
+                writer.flush();
+                if (writer.checkError()) {
+                    throw new IOException("Connection closed by server");
+                }
+                sent.incrementAndGet();
+                
+                if (isInitialize(frame.payload())) {
+                    awaitQuietly(firstLine, drainTimeout);
+                }
+            }
+            
+            long deadline = System.nanoTime() + drainTimeout.toNanos();
+            while (receivedHere.get() < expectedHere && System.nanoTime() < deadline) {
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(10));
+            }
+        }
+    }
+    
+    static boolean isInitialize(String payload) {
+        return INITIALIZE.matcher(payload).find();
+    }
+    
+    private static void awaitQuietly(CountDownLatch latch, Duration timeout) {
+        try {
+            latch.await(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
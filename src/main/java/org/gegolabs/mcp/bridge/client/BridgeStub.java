@@ -1,43 +1,119 @@
 package org.gegolabs.mcp.bridge.client;
 
 import lombok.extern.slf4j.Slf4j;
+import org.gegolabs.mcp.bridge.buffer.BufferPool;
+import org.gegolabs.mcp.bridge.buffer.PooledBuffer;
+import org.gegolabs.mcp.bridge.buffer.PooledOutputStream;
+import org.gegolabs.mcp.bridge.capture.CaptureFrame;
+import org.gegolabs.mcp.bridge.capture.TrafficRecorder;
+import org.gegolabs.mcp.bridge.transport.RoutePreamble;
 
 import java.io.*;
 import java.net.Socket;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Bridge stub that runs on the client side (Claude Desktop).
  * It connects to the TCP server and bridges stdio to TCP.
  * 
- * Usage: java -jar mcp-bridge-stub.jar <host> <port>
+ * When several equivalent servers are given, one is chosen per session by an
+ * {@link EndpointSelector} and used for the whole session.
+ * 
+ * Bytes are copied between the streams through buffers from {@link BufferPool#shared()}
+ * without being decoded; lines are only assembled when traffic is being captured or
+ * an {@link EdgeCache} answers handshake and list calls locally.
+ * 
+ * With {@code --route <name>} the stub sends a {@link RoutePreamble} after connecting,
+ * to reach one of several servers hosted on the same port.
+ * 
+ * Usage: java -jar mcp-bridge-stub.jar <host> <port> [--route <name>] [--capture <file>] [--cache <file>]
+ *        java -jar mcp-bridge-stub.jar <host:port>[,<host:port>...] [rotation|latency] [--route <name>] [--capture <file>] [--cache <file>]
  */
 @Slf4j
 public class BridgeStub {
     
-    private final String host;
-    private final int port;
+    private static final int PUMP_BUFFER_SIZE = 8192;
+    
+    private final EndpointSelector selector;
+    private EndpointSelector.Connection connection;
     private Socket socket;
-    private BufferedReader tcpReader;
-    private PrintWriter tcpWriter;
-    private BufferedReader stdinReader;
-    private PrintWriter stdoutWriter;
+    private InputStream tcpIn;
+    private OutputStream tcpOut;
+    private InputStream stdin;
+    private OutputStream stdout;
     private volatile boolean running = true;
+    private TrafficRecorder recorder;
+    private EdgeCache edgeCache;
+    private EdgeCacheSession edgeSession;
+    private String route;
+    private String sessionId;
     
     public BridgeStub(String host, int port) {
-        this.host = host;
-        this.port = port;
+        this(new EndpointSelector(List.of(new Endpoint(host, port)), EndpointSelector.Strategy.ROTATION));
+    }
+    
+    public BridgeStub(List<Endpoint> endpoints, EndpointSelector.Strategy strategy) {
+        this(new EndpointSelector(endpoints, strategy));
+    }
+    
+    /**
+     * Creates a stub that picks its backend from a (possibly shared) selector.
+     */
+    public BridgeStub(EndpointSelector selector) {
+        this.selector = selector;
+    }
+    
+    /**
+     * Records every line forwarded in either direction. Must be called before {@link #start()}.
+     */
+    public void setRecorder(TrafficRecorder recorder) {
+        this.recorder = recorder;
+    }
+    
+    /**
+     * Answers handshake and list calls from the given cache. Must be called before {@link #start()}.
+     */
+    public void setEdgeCache(EdgeCache edgeCache) {
+        this.edgeCache = edgeCache;
+    }
+    
+    /**
+     * Selects the server to talk to when the backend hosts several. Must be called before {@link #start()}.
+     * 
+     * @throws IllegalArgumentException if the name is not a valid route
+     */
+    public void setRoute(String route) {
+        if (route != null && !RoutePreamble.isValidName(route)) {
+            throw new IllegalArgumentException("Invalid route name: " + route);
+        }
+        this.route = route;
     }
     
     public void start() throws IOException {
-        // Connect to TCP server
-        socket = new Socket(host, port);
-        tcpReader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
-        tcpWriter = new PrintWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8), true);
+        // Connect to TCP server; the chosen endpoint is kept for the whole session
+        connection = selector.connect();
+        socket = connection.getSocket();
+        sessionId = "stub-" + ProcessHandle.current().pid() + "-" + socket.getLocalPort();
+        if (selector.getEndpoints().size() > 1) {
+            System.err.println("[MCP Bridge Connector] Using backend " + connection.getEndpoint());
+        }
+        if (edgeCache != null) {
+            String endpoint = connection.getEndpoint().toString();
+            edgeSession = new EdgeCacheSession(edgeCache, route != null ? endpoint + "/" + route : endpoint);
+        }
+        tcpIn = socket.getInputStream();
+        tcpOut = socket.getOutputStream();
+        if (route != null) {
+            tcpOut.write(RoutePreamble.encode(route));
+            tcpOut.flush();
+        }
         
         // Set up stdio
-        stdinReader = new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8));
-        stdoutWriter = new PrintWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8), true);
+        stdin = System.in;
+        stdout = System.out;
         
         // Start forwarding threads
         Thread stdinToTcp = new Thread(this::forwardStdinToTcp, "stdin-to-tcp");
@@ -57,11 +133,7 @@ public class BridgeStub {
     
     private void forwardStdinToTcp() {
         try {
-            String line;
-            while (running && (line = stdinReader.readLine()) != null) {
-                tcpWriter.println(line);
-                tcpWriter.flush();
-            }
+            pump(stdin, tcpOut, CaptureFrame.Direction.CLIENT_TO_SERVER);
         } catch (IOException e) {
             if (running) {
                 System.err.println("Error reading from stdin: " + e.getMessage());
@@ -73,11 +145,7 @@ public class BridgeStub {
     
     private void forwardTcpToStdout() {
         try {
-            String line;
-            while (running && (line = tcpReader.readLine()) != null) {
-                stdoutWriter.println(line);
-                stdoutWriter.flush();
-            }
+            pump(tcpIn, stdout, CaptureFrame.Direction.SERVER_TO_CLIENT);
         } catch (IOException e) {
             if (running) {
                 System.err.println("Error reading from TCP: " + e.getMessage());
@@ -87,40 +155,188 @@ public class BridgeStub {
         }
     }
     
+    /**
+     * Copies bytes until the input ends, flushing after every read so each message is
+     * passed on as soon as it has arrived. With an edge cache, whole lines are passed on
+     * once the cache has seen them.
+     */
+    private void pump(InputStream in, OutputStream out, CaptureFrame.Direction direction) throws IOException {
+        PooledBuffer buffer = BufferPool.shared().acquire(PUMP_BUFFER_SIZE);
+        PooledOutputStream line = recorder != null || edgeSession != null
+            ? new PooledOutputStream(BufferPool.shared(), PUMP_BUFFER_SIZE)
+            : null;
+        try {
+            byte[] bytes = buffer.array();
+            int n;
+            while (running && (n = in.read(bytes, 0, bytes.length)) >= 0) {
+                if (edgeSession == null) {
+                    out.write(bytes, 0, n);
+                    out.flush();
+                }
+                if (line != null) {
+                    splitLines(bytes, n, line, direction);
+                }
+            }
+        } finally {
+            buffer.release();
+            if (line != null) {
+                line.release();
+            }
+        }
+    }
+    
+    private void splitLines(byte[] bytes, int length, PooledOutputStream line, CaptureFrame.Direction direction)
+            throws IOException {
+        int start = 0;
+        for (int i = 0; i < length; i++) {
+            if (bytes[i] == '\n') {
+                line.write(bytes, start, i - start);
+                int end = line.size() > 0 && line.array()[line.size() - 1] == '\r' ? line.size() - 1 : line.size();
+                handleLine(line.toString(end), direction);
+                line.reset();
+                start = i + 1;
+            }
+        }
+        line.write(bytes, start, length - start);
+    }
+    
+    private void handleLine(String text, CaptureFrame.Direction direction) throws IOException {
+        if (recorder != null) {
+            recorder.record(sessionId, direction, text);
+        }
+        if (edgeSession == null) {
+            return;
+        }
+        List<String> toClient = new ArrayList<>(1);
+        if (direction == CaptureFrame.Direction.CLIENT_TO_SERVER) {
+            List<String> toServer = new ArrayList<>(1);
+            edgeSession.fromClient(text, toClient, toServer);
+            writeLines(tcpOut, toServer);
+        } else {
+            edgeSession.fromServer(text, toClient);
+        }
+        writeLines(stdout, toClient);
+    }
+    
+    /**
+     * Writes whole lines; both forwarding threads may write to the client when answering from the cache.
+     */
+    private static void writeLines(OutputStream out, List<String> lines) throws IOException {
+        if (lines.isEmpty()) {
+            return;
+        }
+        synchronized (out) {
+            for (String line : lines) {
+                out.write(line.getBytes(StandardCharsets.UTF_8));
+                out.write('\n');
+            }
+            out.flush();
+        }
+    }
+    
     private void shutdown() {
         running = false;
         try {
-            if (socket != null && !socket.isClosed()) {
-                socket.close();
+            if (connection != null) {
+                connection.close();
             }
         } catch (IOException e) {
             // Ignore
         }
+        if (recorder != null) {
+            try {
+                recorder.close();
+            } catch (IOException e) {
+                System.err.println("Error closing capture file: " + e.getMessage());
+            }
+        }
     }
     
-    public static void main(String[] args) {
-        if (args.length != 2) {
-            System.err.println("Usage: java -jar mcp-bridge-stub.jar <host> <port>");
+    public static void main(String[] rawArgs) {
+        List<String> argList = new ArrayList<>(List.of(rawArgs));
+        Path capture = fileOption(argList, "--capture");
+        Path cache = fileOption(argList, "--cache");
+        String route = option(argList, "--route");
+        if (route != null && !RoutePreamble.isValidName(route)) {
+            System.err.println("Invalid route name: " + route);
             System.exit(1);
         }
+        String[] args = argList.toArray(new String[0]);
         
-        String host = args[0];
-        int port;
-        
+        if (args.length == 2 && !args[0].contains(":") && !args[0].contains(",")) {
+            startOrExit(new BridgeStub(args[0], parsePort(args[1])), capture, cache, route);
+        } else if (args.length == 1 || args.length == 2) {
+            List<Endpoint> endpoints;
+            EndpointSelector.Strategy strategy;
+            try {
+                endpoints = Endpoint.parseList(args[0]);
+                strategy = args.length == 2
+                    ? EndpointSelector.Strategy.fromString(args[1])
+                    : EndpointSelector.Strategy.ROTATION;
+            } catch (IllegalArgumentException e) {
+                System.err.println(e.getMessage());
+                System.exit(1);
+                return;
+            }
+            startOrExit(new BridgeStub(endpoints, strategy), capture, cache, route);
+        } else {
+            System.err.println("Usage: java -jar mcp-bridge-stub.jar <host> <port>"
+                + " [--route <name>] [--capture <file>] [--cache <file>]");
+            System.err.println("       java -jar mcp-bridge-stub.jar <host:port>[,<host:port>...] [rotation|latency]"
+                + " [--route <name>] [--capture <file>] [--cache <file>]");
+            System.exit(1);
+        }
+    }
+    
+    /**
+     * Removes {@code name <file>} from the arguments and returns the file, or null if absent.
+     */
+    private static Path fileOption(List<String> args, String name) {
+        String file = option(args, name);
+        return file != null ? Path.of(file) : null;
+    }
+    
+    /**
+     * Removes {@code name <value>} from the arguments and returns the value, or null if absent.
+     */
+    private static String option(List<String> args, String name) {
+        int index = args.indexOf(name);
+        if (index < 0) {
+            return null;
+        }
+        if (index + 1 >= args.size()) {
+            System.err.println(name + " requires a value");
+            System.exit(1);
+            return null;
+        }
+        String value = args.remove(index + 1);
+        args.remove(index);
+        return value;
+    }
+    
+    private static int parsePort(String value) {
         try {
-            port = Integer.parseInt(args[1]);
+            return Integer.parseInt(value);
         } catch (NumberFormatException e) {
-            System.err.println("Invalid port number: " + args[1]);
+            System.err.println("Invalid port number: " + value);
             System.exit(1);
-            return;
+            return -1;
         }
-        
+    }
+    
+    private static void startOrExit(BridgeStub stub, Path capture, Path cache, String route) {
         try {
-            BridgeStub stub = new BridgeStub(host, port);
+            stub.setRoute(route);
+            if (capture != null) {
+                stub.setRecorder(TrafficRecorder.open(capture));
+            }
+            if (cache != null) {
+                stub.setEdgeCache(EdgeCache.open(cache));
+            }
             stub.start();
         } catch (IOException e) {
             System.err.println("Failed to connect to server: " + e.getMessage());
             System.exit(1);
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,167 @@
+package org.gegolabs.mcp.bridge.client;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Results of the connector's handshake and list calls, kept per backend and saved to a
+ * JSON file so the next connector process starts with them.
+ * 
+ * The connector answers {@code initialize}, {@code tools/list}, {@code prompts/list},
+ * {@code resources/list} and {@code resources/templates/list} from this cache and still
+ * sends them on to the server in the background. A changed answer replaces the cached
+ * one, and the client is told with a {@code list_changed} notification. A changed
+ * {@code initialize} result, such as a new server version, drops everything cached for
+ * that backend.
+ * 
+ * Several connector processes may share the file. Each save re-reads it under a file lock
+ * and applies only this process's change, so entries written by other processes are kept,
+ * and picked up, rather than overwritten.
+ * 
+ * Usage:
+ * <pre>
+ * BridgeStub stub = new BridgeStub("server.example.com", 3000);
+ * stub.setEdgeCache(EdgeCache.open(Path.of(System.getProperty("user.home"), ".mcp-bridge-cache.json")));
+ * stub.start();
+ * </pre>
+ */
+public class EdgeCache {
+    
+    private static final int FORMAT_VERSION = 1;
+    
+    private final Path file;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<String, Map<String, JsonNode>> entries = new HashMap<>();
+    
+    private EdgeCache(Path file) {
+        this.file = file;
+    }
+    
+    /**
+     * Loads the cache from a file, starting empty if the file does not exist or cannot be read.
+     */
+    public static EdgeCache open(Path file) {
+        EdgeCache cache = new EdgeCache(file);
+        if (Files.exists(file)) {
+            try {
+                cache.entries.putAll(cache.parse(Files.readAllBytes(file)));
+            } catch (IOException e) {
+                System.err.println("Ignoring unreadable edge cache " + file + ": " + e.getMessage());
+            }
+        }
+        return cache;
+    }
+    
+    /**
+     * Returns the cached result of a call to a backend, or null.
+     */
+    public synchronized JsonNode get(String endpoint, String key) {
+        Map<String, JsonNode> results = entries.get(endpoint);
+        return results != null ? results.get(key) : null;
+    }
+    
+    /**
+     * Stores the result of a call and saves the cache.
+     */
+    public synchronized void put(String endpoint, String key, JsonNode result) {
+        JsonNode previous = entries.computeIfAbsent(endpoint, e -> new HashMap<>()).put(key, result);
+        if (!result.equals(previous)) {
+            save(saved -> saved.computeIfAbsent(endpoint, e -> new HashMap<>()).put(key, result));
+        }
+    }
+    
+    /**
+     * Drops one cached result and saves the cache.
+     */
+    public synchronized void invalidate(String endpoint, String key) {
+        Map<String, JsonNode> results = entries.get(endpoint);
+        if (results != null && results.remove(key) != null) {
+            save(saved -> {
+                Map<String, JsonNode> savedResults = saved.get(endpoint);
+                if (savedResults != null) {
+                    savedResults.remove(key);
+                }
+            });
+        }
+    }
+    
+    /**
+     * Drops everything cached for a backend and saves the cache.
+     */
+    public synchronized void invalidateAll(String endpoint) {
+        if (entries.remove(endpoint) != null) {
+            save(saved -> saved.remove(endpoint));
+        }
+    }
+    
+    /**
+     * Returns the number of cached results across all backends.
+     */
+    public synchronized int size() {
+        return entries.values().stream().mapToInt(Map::size).sum();
+    }
+    
+    public Path getFile() {
+        return file;
+    }
+    
+    /**
+     * Applies a change to the entries saved in the file, which may include entries of
+     * other processes, and adopts the result.
+     */
+    private void save(Consumer<Map<String, Map<String, JsonNode>>> change) {
+        try {
+            SharedFile.update(file, current -> {
+                Map<String, Map<String, JsonNode>> saved = new HashMap<>();
+                if (current != null) {
+                    try {
+                        saved.putAll(parse(current));
+                    } catch (IOException e) {
+                        System.err.println("Replacing unreadable edge cache " + file + ": " + e.getMessage());
+                    }
+                }
+                change.accept(saved);
+                entries.clear();
+                entries.putAll(saved);
+                return format(saved);
+            });
+        } catch (IOException e) {
+            System.err.println("Failed to save edge cache " + file + ": " + e.getMessage());
+        }
+    }
+    
+    private Map<String, Map<String, JsonNode>> parse(byte[] contents) throws IOException {
+        Map<String, Map<String, JsonNode>> parsed = new HashMap<>();
+        JsonNode root = objectMapper.readTree(contents);
+        if (root != null && root.path("version").asInt() == FORMAT_VERSION) {
+            Iterator<Map.Entry<String, JsonNode>> backends = root.path("entries").fields();
+            while (backends.hasNext()) {
+                Map.Entry<String, JsonNode> backend = backends.next();
+                Map<String, JsonNode> results = new HashMap<>();
+                backend.getValue().fields().forEachRemaining(e -> results.put(e.getKey(), e.getValue()));
+                parsed.put(backend.getKey(), results);
+            }
+        }
+        return parsed;
+    }
+    
+    private byte[] format(Map<String, Map<String, JsonNode>> entries) throws IOException {
+        ObjectNode root = objectMapper.createObjectNode();
+        root.put("version", FORMAT_VERSION);
+        ObjectNode backends = root.putObject("entries");
+        entries.forEach((endpoint, results) -> {
+            ObjectNode node = backends.putObject(endpoint);
+            results.forEach(node::set);
+        });
+        return objectMapper.writeValueAsBytes(root);
+    }
+}
@@ -0,0 +1,196 @@
+package org.gegolabs.mcp.bridge.client;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Decides, for one connector session, which lines are answered from an {@link EdgeCache}
+ * and which go to the server. Called from both forwarding threads.
+ */
+final class EdgeCacheSession {
+    
+    static final String INITIALIZE = "initialize";
+    private static final String REVALIDATE_ID_PREFIX = "mcp-bridge-edge-";
+    
+    /**
+     * Cacheable list methods and the notification that tells the client to list again.
+     */
+    private static final Map<String, String> LIST_METHODS = Map.of(
+        "tools/list", "notifications/tools/list_changed",
+        "prompts/list", "notifications/prompts/list_changed",
+        "resources/list", "notifications/resources/list_changed",
+        "resources/templates/list", "notifications/resources/list_changed");
+    
+    /**
+     * A forwarded request whose result goes into the cache. {@code swallow} marks requests
+     * the client already got an answer for.
+     */
+    private record Pending(String key, boolean swallow) {
+    }
+    
+    private final EdgeCache cache;
+    private final String endpoint;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<String, Pending> pending = new ConcurrentHashMap<>();
+    private final Set<String> served = ConcurrentHashMap.newKeySet();
+    private final AtomicLong revalidations = new AtomicLong();
+    
+    EdgeCacheSession(EdgeCache cache, String endpoint) {
+        this.cache = cache;
+        this.endpoint = endpoint;
+    }
+    
+    /**
+     * Handles a line from the client. Local answers are added to {@code toClient} and
+     * lines for the server to {@code toServer}.
+     */
+    void fromClient(String line, List<String> toClient, List<String> toServer) {
+        JsonNode message = parse(line);
+        String key = message != null ? cacheKey(message) : null;
+        if (key == null) {
+            toServer.add(line);
+            return;
+        }
+        JsonNode id = message.get("id");
+        JsonNode cached = cache.get(endpoint, key);
+        if (cached == null) {
+            pending.put(id.toString(), new Pending(key, false));
+            toServer.add(line);
+            return;
+        }
+        
+        toClient.add(write(response(id, cached)));
+        served.add(key);
+        if (key.startsWith(INITIALIZE)) {
+            // The server still needs the handshake to set up its session
+            pending.put(id.toString(), new Pending(key, true));
+            toServer.add(line);
+        } else {
+            String revalidateId = REVALIDATE_ID_PREFIX + revalidations.incrementAndGet();
+            ObjectNode copy = ((ObjectNode) message).deepCopy();
+            copy.put("id", revalidateId);
+            pending.put(copy.get("id").toString(), new Pending(key, true));
+            toServer.add(write(copy));
+        }
+    }
+    
+    /**
+     * Handles a line from the server, adding what the client should see to {@code toClient}.
+     */
+    void fromServer(String line, List<String> toClient) {
+        JsonNode message = parse(line);
+        if (message == null) {
+            toClient.add(line);
+            return;
+        }
+        String method = message.path("method").asText(null);
+        if (method != null) {
+            listChanged(method);
+            toClient.add(line);
+            return;
+        }
+        
+        Pending request = message.has("id") ? pending.remove(message.get("id").toString()) : null;
+        if (request == null) {
+            toClient.add(line);
+            return;
+        }
+        if (!request.swallow()) {
+            toClient.add(line);
+        }
+        JsonNode result = message.get("result");
+        if (result == null) {
+            if (request.swallow()) {
+                System.err.println("[MCP Bridge Connector] Server rejected cached " + request.key()
+                    + ", clearing edge cache: " + message.path("error"));
+                cache.invalidateAll(endpoint);
+            }
+            return;
+        }
+        
+        JsonNode previous = cache.get(endpoint, request.key());
+        if (previous != null && !previous.equals(result) && request.key().startsWith(INITIALIZE)) {
+            // A different server answered; nothing cached for the old one can be trusted
+            cache.invalidateAll(endpoint);
+            Set<String> notifications = new LinkedHashSet<>();
+            for (String key : served) {
+                if (LIST_METHODS.containsKey(key)) {
+                    notifications.add(LIST_METHODS.get(key));
+                }
+            }
+            notifications.forEach(notification -> toClient.add(notification(notification)));
+        } else if (previous != null && !previous.equals(result) && request.swallow()) {
+            toClient.add(notification(LIST_METHODS.get(request.key())));
+        }
+        cache.put(endpoint, request.key(), result);
+    }
+    
+    /**
+     * Returns the cache key of a cacheable request, or null. Paged list requests are not
+     * cached, and {@code initialize} results are kept per requested protocol version.
+     */
+    static String cacheKey(JsonNode message) {
+        JsonNode id = message.get("id");
+        String method = message.path("method").asText(null);
+        if (id == null || id.isNull() || method == null) {
+            return null;
+        }
+        JsonNode params = message.path("params");
+        if (INITIALIZE.equals(method)) {
+            return INITIALIZE + "@" + params.path("protocolVersion").asText("");
+        }
+        if (LIST_METHODS.containsKey(method) && !params.has("cursor")) {
+            return method;
+        }
+        return null;
+    }
+    
+    private void listChanged(String notification) {
+        LIST_METHODS.forEach((method, changed) -> {
+            if (changed.equals(notification)) {
+                cache.invalidate(endpoint, method);
+            }
+        });
+    }
+    
+    private ObjectNode response(JsonNode id, JsonNode result) {
+        ObjectNode response = objectMapper.createObjectNode();
+        response.put("jsonrpc", "2.0");
+        response.set("id", id);
+        response.set("result", result);
+        return response;
+    }
+    
+    private String notification(String method) {
+        ObjectNode notification = objectMapper.createObjectNode();
+        notification.put("jsonrpc", "2.0");
+        notification.put("method", method);
+        return write(notification);
+    }
+    
+    private JsonNode parse(String line) {
+        try {
+            JsonNode node = objectMapper.readTree(line);
+            return node != null && node.isObject() ? node : null;
+        } catch (JsonProcessingException e) {
+            return null;
+        }
+    }
+    
+    private String write(JsonNode node) {
+        try {
+            return objectMapper.writeValueAsString(node);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
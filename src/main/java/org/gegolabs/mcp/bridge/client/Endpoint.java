@@ -0,0 +1,72 @@
+package org.gegolabs.mcp.bridge.client;
+
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A backend MCP server address the stub can connect to.
+ */
+public record Endpoint(String host, int port) {
+    
+    public Endpoint {
+        if (host == null || host.isBlank()) {
+            throw new IllegalArgumentException("Host must not be empty");
+        }
+        if (port < 1 || port > 65535) {
+            throw new IllegalArgumentException("Invalid port number: " + port);
+        }
+    }
+    
+    /**
+     * Parses a {@code host:port} string.
+     * 
+     * @param value The endpoint string
+     * @return The parsed endpoint
+     */
+    public static Endpoint parse(String value) {
+        int separator = value.lastIndexOf(':');
+        if (separator <= 0 || separator == value.length() - 1) {
+            throw new IllegalArgumentException("Expected host:port but got: " + value);
+        }
+        
+        String host = value.substring(0, separator).trim();
+        if (host.startsWith("[") && host.endsWith("]")) {
+            host = host.substring(1, host.length() - 1); // IPv6 literal
+        }
+        
+        try {
+            return new Endpoint(host, Integer.parseInt(value.substring(separator + 1).trim()));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid port number in: " + value);
+        }
+    }
+    
+    /**
+     * Parses a comma-separated list of {@code host:port} endpoints.
+     * 
+     * @param value The endpoint list, e.g. {@code node1:3000,node2:3000}
+     * @return The parsed endpoints in the given order
+     */
+    public static List<Endpoint> parseList(String value) {
+        List<Endpoint> endpoints = new ArrayList<>();
+        for (String part : value.split(",")) {
+            if (!part.isBlank()) {
+                endpoints.add(parse(part.trim()));
+            }
+        }
+        if (endpoints.isEmpty()) {
+            throw new IllegalArgumentException("No endpoints given");
+        }
+        return endpoints;
+    }
+    
+    public InetSocketAddress toSocketAddress() {
+        return new InetSocketAddress(host, port);
+    }
+    
+    @Override
+    public String toString() {
+        return host + ":" + port;
+    }
+}
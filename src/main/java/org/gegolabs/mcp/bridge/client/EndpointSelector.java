@@ -0,0 +1,233 @@
+package org.gegolabs.mcp.bridge.client;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.Socket;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Chooses a backend for a new stub session from a list of equivalent MCP servers.
+ * 
+ * The choice is made once per session: the returned {@link Connection} stays bound
+ * to its endpoint until it is closed, because an MCP session cannot move between
+ * servers once it has been initialized. If the preferred endpoint refuses the
+ * connection, the next candidate is tried.
+ * 
+ * Note: this class writes diagnostics to stderr rather than a logger, since stdout
+ * carries the MCP protocol when running inside the stub.
+ */
+public class EndpointSelector {
+    
+    public static final int DEFAULT_CONNECT_TIMEOUT_MILLIS = 5000;
+    
+    /**
+     * How the endpoint for a new session is chosen.
+     */
+    public enum Strategy {
+        /**
+         * Rotate through the endpoints, starting at a random one. A stub process opens a
+         * single session, so across processes this picks a random endpoint per session.
+         * The selector only knows its own connections, not the load of the servers.
+         */
+        ROTATION,
+        
+        /**
+         * Prefer the endpoint with the shortest connect time measured by earlier sessions,
+         * which is kept in a {@link LatencyHistory} file shared by all stub processes.
+         * Only one connection is opened, so other servers see no extra sessions.
+         */
+        LATENCY;
+        
+        public static Strategy fromString(String value) {
+            return switch (value.trim().toLowerCase()) {
+                // least-connections is the former name, kept so existing configurations still work
+                case "rotation", "least-connections", "least_connections", "leastconnections" -> ROTATION;
+                case "latency" -> LATENCY;
+                default -> throw new IllegalArgumentException("Unknown balancing strategy: " + value);
+            };
+        }
+    }
+    
+    private final List<Endpoint> endpoints;
+    private final Strategy strategy;
+    private final int connectTimeoutMillis;
+    private final Map<Endpoint, AtomicInteger> activeConnections = new LinkedHashMap<>();
+    private final AtomicInteger rotation;
+    private final LatencyHistory latencyHistory;
+    
+    public EndpointSelector(List<Endpoint> endpoints, Strategy strategy) {
+        this(endpoints, strategy, DEFAULT_CONNECT_TIMEOUT_MILLIS);
+    }
+    
+    public EndpointSelector(List<Endpoint> endpoints, Strategy strategy, int connectTimeoutMillis) {
+        this(endpoints, strategy, connectTimeoutMillis, defaultLatencyFile());
+    }
+    
+    /**
+     * @param latencyFile File in which {@link Strategy#LATENCY} keeps connect times, or null
+     *                    to keep them in memory only
+     */
+    public EndpointSelector(List<Endpoint> endpoints, Strategy strategy, int connectTimeoutMillis, Path latencyFile) {
+        if (endpoints == null || endpoints.isEmpty()) {
+            throw new IllegalArgumentException("At least one endpoint is required");
+        }
+        this.endpoints = List.copyOf(endpoints);
+        this.strategy = strategy;
+        this.connectTimeoutMillis = connectTimeoutMillis;
+        // Each stub session is a new process with no connection counts, so a fixed
+        // start would send every session to the first endpoint
+        this.rotation = new AtomicInteger(ThreadLocalRandom.current().nextInt(this.endpoints.size()));
+        
+        for (Endpoint endpoint : this.endpoints) {
+            activeConnections.put(endpoint, new AtomicInteger());
+        }
+        this.latencyHistory = strategy == Strategy.LATENCY ? new LatencyHistory(latencyFile) : null;
+    }
+    
+    /**
+     * Returns {@code ~/.mcp-bridge-latency}, where stub processes share connect times.
+     */
+    public static Path defaultLatencyFile() {
+        return Path.of(System.getProperty("user.home"), ".mcp-bridge-latency");
+    }
+    
+    /**
+     * Opens a connection to one of the endpoints, failing over to the remaining
+     * endpoints if the preferred one cannot be reached.
+     * 
+     * @return The established connection
+     * @throws IOException If no endpoint accepted the connection
+     */
+    public Connection connect() throws IOException {
+        if (latencyHistory != null) {
+            return connectInOrder(latencyHistory.order(endpoints));
+        }
+        return connectInOrder(rotationOrder());
+    }
+    
+    /**
+     * Returns the number of open connections made through this selector to an endpoint.
+     */
+    public int getActiveConnections(Endpoint endpoint) {
+        AtomicInteger count = activeConnections.get(endpoint);
+        return count != null ? count.get() : 0;
+    }
+    
+    public List<Endpoint> getEndpoints() {
+        return endpoints;
+    }
+    
+    List<Endpoint> rotationOrder() {
+        int start = Math.floorMod(rotation.getAndIncrement(), endpoints.size());
+        
+        List<Endpoint> ordered = new ArrayList<>(endpoints.size());
+        for (int i = 0; i < endpoints.size(); i++) {
+            ordered.add(endpoints.get((start + i) % endpoints.size()));
+        }
+        return ordered;
+    }
+    
+    private Connection connectInOrder(List<Endpoint> candidates) throws IOException {
+        IOException failure = null;
+        
+        for (Endpoint endpoint : candidates) {
+            long started = System.nanoTime();
+            try {
+                Socket socket = open(endpoint);
+                long connectNanos = System.nanoTime() - started;
+                if (latencyHistory != null) {
+                    latencyHistory.record(endpoint, connectNanos);
+                }
+                return acquire(endpoint, socket, connectNanos);
+            } catch (IOException e) {
+                System.err.println("[MCP Bridge Connector] Could not connect to " + endpoint + ": " + e.getMessage());
+                if (latencyHistory != null) {
+                    // Ranks the endpoint last until it is measured again
+                    latencyHistory.record(endpoint, TimeUnit.MILLISECONDS.toNanos(connectTimeoutMillis));
+                }
+                failure = addFailure(failure, endpoint, e);
+            }
+        }
+        
+        throw failure;
+    }
+    
+    private Socket open(Endpoint endpoint) throws IOException {
+        Socket socket = new Socket();
+        try {
+            socket.connect(endpoint.toSocketAddress(), connectTimeoutMillis);
+            return socket;
+        } catch (IOException e) {
+            closeQuietly(socket);
+            throw e;
+        }
+    }
+    
+    private Connection acquire(Endpoint endpoint, Socket socket, long connectNanos) {
+        activeConnections.get(endpoint).incrementAndGet();
+        return new Connection(endpoint, socket, connectNanos);
+    }
+    
+    private static IOException addFailure(IOException failure, Endpoint endpoint, IOException cause) {
+        if (failure == null) {
+            failure = new IOException("Could not connect to any endpoint");
+        }
+        failure.addSuppressed(new IOException(endpoint + ": " + cause.getMessage(), cause));
+        return failure;
+    }
+    
+    private static void closeQuietly(Socket socket) {
+        try {
+            socket.close();
+        } catch (IOException e) {
+            // Ignore
+        }
+    }
+    
+    /**
+     * A session connection bound to a single endpoint.
+     */
+    public final class Connection implements Closeable {
+        private final Endpoint endpoint;
+        private final Socket socket;
+        private final long connectNanos;
+        private final AtomicBoolean released = new AtomicBoolean(false);
+        
+        private Connection(Endpoint endpoint, Socket socket, long connectNanos) {
+            this.endpoint = endpoint;
+            this.socket = socket;
+            this.connectNanos = connectNanos;
+        }
+        
+        public Endpoint getEndpoint() {
+            return endpoint;
+        }
+        
+        public Socket getSocket() {
+            return socket;
+        }
+        
+        /**
+         * Time taken to establish the TCP connection, in nanoseconds.
+         */
+        public long getConnectNanos() {
+            return connectNanos;
+        }
+        
+        @Override
+        public void close() throws IOException {
+            if (released.compareAndSet(false, true)) {
+                activeConnections.get(endpoint).decrementAndGet();
+                socket.close();
+            }
+        }
+    }
+}
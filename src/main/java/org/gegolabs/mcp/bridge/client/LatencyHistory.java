@@ -0,0 +1,133 @@
+package org.gegolabs.mcp.bridge.client;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Connect times of endpoints, remembered across connector processes.
+ * 
+ * Each connector process opens a single session, so it cannot compare endpoints by
+ * connecting to all of them without opening connections, and server sessions, on the
+ * ones it does not use. Instead every process records the connect time of the endpoint
+ * it used, smoothed over earlier sessions, and the next process starts from the fastest.
+ * Endpoints never measured, or not measured for {@link #STALE_AFTER_MINUTES} minutes,
+ * are tried first so that their times stay current.
+ * 
+ * The file holds one line per endpoint: the endpoint, its smoothed connect time in
+ * nanoseconds and the time of the last measurement in epoch milliseconds.
+ */
+final class LatencyHistory {
+    
+    static final long STALE_AFTER_MINUTES = 10;
+    
+    private final Path file;
+    private final Map<String, Sample> samples = new HashMap<>();
+    
+    private record Sample(long nanos, long measuredAtMillis) {
+    }
+    
+    /**
+     * @param file File shared with other processes, or null to keep the history in memory
+     */
+    LatencyHistory(Path file) {
+        this.file = file;
+        if (file != null && Files.exists(file)) {
+            try {
+                samples.putAll(parse(Files.readAllBytes(file)));
+            } catch (IOException e) {
+                System.err.println("[MCP Bridge Connector] Ignoring unreadable latency history " + file + ": " + e.getMessage());
+            }
+        }
+    }
+    
+    /**
+     * Returns the endpoints in the order they should be tried: unmeasured and stale ones
+     * in random order, then the others from fastest to slowest.
+     */
+    synchronized List<Endpoint> order(List<Endpoint> endpoints) {
+        long now = System.currentTimeMillis();
+        List<Endpoint> unmeasured = new ArrayList<>();
+        List<Endpoint> measured = new ArrayList<>();
+        for (Endpoint endpoint : endpoints) {
+            Sample sample = samples.get(endpoint.toString());
+            if (sample == null || now - sample.measuredAtMillis() > TimeUnit.MINUTES.toMillis(STALE_AFTER_MINUTES)) {
+                unmeasured.add(endpoint);
+            } else {
+                measured.add(endpoint);
+            }
+        }
+        Collections.shuffle(unmeasured);
+        measured.sort(Comparator.comparingLong(endpoint -> samples.get(endpoint.toString()).nanos()));
+        unmeasured.addAll(measured);
+        return unmeasured;
+    }
+    
+    /**
+     * Records a connect time, or the connect timeout for an endpoint that could not be
+     * reached, and saves the history.
+     */
+    synchronized void record(Endpoint endpoint, long nanos) {
+        long now = System.currentTimeMillis();
+        merge(samples, endpoint.toString(), nanos, now);
+        if (file == null) {
+            return;
+        }
+        try {
+            SharedFile.update(file, current -> {
+                Map<String, Sample> saved = current != null ? parse(current) : new HashMap<>();
+                merge(saved, endpoint.toString(), nanos, now);
+                samples.putAll(saved);
+                return format(saved);
+            });
+        } catch (IOException e) {
+            System.err.println("[MCP Bridge Connector] Failed to save latency history " + file + ": " + e.getMessage());
+        }
+    }
+    
+    long getNanos(Endpoint endpoint) {
+        Sample sample;
+        synchronized (this) {
+            sample = samples.get(endpoint.toString());
+        }
+        return sample != null ? sample.nanos() : -1;
+    }
+    
+    private static void merge(Map<String, Sample> samples, String endpoint, long nanos, long now) {
+        // Weighted towards earlier sessions so that one slow connect does not reorder the endpoints
+        samples.merge(endpoint, new Sample(nanos, now),
+            (previous, sample) -> new Sample((previous.nanos() * 3 + nanos) / 4, now));
+    }
+    
+    private static Map<String, Sample> parse(byte[] contents) {
+        Map<String, Sample> parsed = new HashMap<>();
+        for (String line : new String(contents, StandardCharsets.UTF_8).split("\n")) {
+            String[] fields = line.trim().split(" ");
+            if (fields.length != 3) {
+                continue;
+            }
+            try {
+                parsed.put(fields[0], new Sample(Long.parseLong(fields[1]), Long.parseLong(fields[2])));
+            } catch (NumberFormatException e) {
+                // Skip lines that are not ours
+            }
+        }
+        return parsed;
+    }
+    
+    private static byte[] format(Map<String, Sample> samples) {
+        StringBuilder text = new StringBuilder();
+        samples.forEach((endpoint, sample) -> text.append(endpoint).append(' ')
+            .append(sample.nanos()).append(' ')
+            .append(sample.measuredAtMillis()).append('\n'));
+        return text.toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,63 @@
+package org.gegolabs.mcp.bridge.client;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Updates a small file that several connector processes share.
+ * 
+ * An update holds an exclusive lock on a sibling {@code .lock} file while it reads the
+ * current contents, merges its change into them and replaces the file atomically, so
+ * concurrent processes do not overwrite each other's changes. Readers that do not lock
+ * see either the old or the new contents.
+ */
+final class SharedFile {
+    
+    /**
+     * File locks are held per process, so threads of one process also wait on a monitor.
+     */
+    private static final Map<Path, Object> monitors = new ConcurrentHashMap<>();
+    
+    private SharedFile() {
+    }
+    
+    @FunctionalInterface
+    interface Update {
+    
+        /**
+         * Returns the new contents of the file.
+         * 
+         * @param current The current contents, or null if the file does not exist
+         */
+        byte[] apply(byte[] current) throws IOException;
+    }
+    
+    static void update(Path file, Update update) throws IOException {
+        Path target = file.toAbsolutePath().normalize();
+        Path parent = target.getParent();
+        Files.createDirectories(parent);
+        Path lockFile = parent.resolve(target.getFileName() + ".lock");
+        
+        synchronized (monitors.computeIfAbsent(target, k -> new Object())) {
+            try (FileChannel channel = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+                 FileLock lock = channel.lock()) {
+                byte[] current = Files.exists(target) ? Files.readAllBytes(target) : null;
+                byte[] updated = update.apply(current);
+                Path temp = Files.createTempFile(parent, target.getFileName().toString(), ".tmp");
+                try {
+                    Files.write(temp, updated);
+                    Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                } finally {
+                    Files.deleteIfExists(temp);
+                }
+            }
+        }
+    }
+}
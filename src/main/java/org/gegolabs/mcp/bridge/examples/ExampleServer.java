@@ -1,20 +1,26 @@
 package org.gegolabs.mcp.bridge.examples;
 
 import org.gegolabs.mcp.bridge.McpBridge;
+import org.gegolabs.mcp.bridge.store.MappedLogStore;
+import org.gegolabs.mcp.bridge.utils.ArgumentBinder;
 import org.gegolabs.mcp.bridge.utils.JsonSchemaUtils;
+import org.gegolabs.mcp.bridge.utils.LoggingOptions;
 import org.gegolabs.mcp.bridge.utils.LoggingUtils;
+import org.gegolabs.mcp.bridge.utils.PayloadLogPolicy;
 import io.modelcontextprotocol.server.McpServer;
 import io.modelcontextprotocol.server.McpServerFeatures;
 import io.modelcontextprotocol.spec.McpSchema;
 import lombok.extern.slf4j.Slf4j;
 import reactor.core.publisher.Mono;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Comprehensive example MCP server demonstrating various features.
@@ -23,16 +29,29 @@ import java.util.Map;
 @Slf4j
 public class ExampleServer {
     
-    private static final List<String> todoList = new ArrayList<>();
-    private static final Map<String, String> keyValueStore = new HashMap<>();
+    private static final String TODO_PREFIX = "todo/";
+    private static final String KEY_VALUE_PREFIX = "kv/";
+    
+    /**
+     * State of the todo and key-value tools, kept across restarts
+     */
+    private static MappedLogStore store;
+    private static final AtomicLong todoSequence = new AtomicLong();
     
     public static void main(String[] args) throws Exception {
-        // Enable file logging
-        LoggingUtils.initializeFileLogging("example-mcp-server.log");
+        // Enable file logging, written off the request path
+        LoggingUtils.initializeFileLogging("example-mcp-server.log", LoggingOptions.builder()
+            .payloadPolicy(PayloadLogPolicy.full())
+            .build());
         LoggingUtils.enableDebugLogging();
         
         log.info("Initializing Example MCP Server...");
         
+        store = MappedLogStore.open(Path.of(System.getProperty("example.data", "example-data")));
+        if (!store.keys(TODO_PREFIX).isEmpty()) {
+            todoSequence.set(Long.parseLong(store.keys(TODO_PREFIX).last().substring(TODO_PREFIX.length())));
+        }
+        
         // Create server with multiple tools and prompts
         var server = McpServer.async(McpBridge.tcpTransport(3000))
             .serverInfo(new McpSchema.Implementation(
@@ -57,6 +76,11 @@ public class ExampleServer {
         Runtime.getRuntime().addShutdownHook(new Thread(() -> {
             log.info("Shutting down server...");
             server.closeGracefully().block();
+            try {
+                store.close();
+            } catch (IOException e) {
+                log.warn("Failed to close the example store", e);
+            }
         }));
         
         // Keep server running
@@ -170,42 +194,50 @@ public class ExampleServer {
                 String action = (String) arguments.get("action");
                 String item = (String) arguments.get("item");
                 
-                synchronized (todoList) {
-                    String result = switch (action) {
-                        case "add" -> {
-                            if (item == null || item.trim().isEmpty()) {
-                                yield "Error: Item is required for add action";
-                            }
-                            todoList.add(item);
-                            log.info("Added todo item: {}", item);
-                            yield "Added: " + item;
+                String result = switch (action) {
+                    case "add" -> {
+                        if (item == null || item.trim().isEmpty()) {
+                            yield "Error: Item is required for add action";
                         }
-                        case "remove" -> {
-                            if (item == null || item.trim().isEmpty()) {
-                                yield "Error: Item is required for remove action";
-                            }
-                            boolean removed = todoList.remove(item);
-                            log.info("Removed todo item: {} (success: {})", item, removed);
-                            yield removed ? "Removed: " + item : "Item not found: " + item;
+                        // Zero-padded so that key order is insertion order
+                        store.putString(String.format("%s%019d", TODO_PREFIX, todoSequence.incrementAndGet()), item);
+                        log.info("Added todo item: {}", item);
+                        yield "Added: " + item;
+                    }
+                    case "remove" -> {
+                        if (item == null || item.trim().isEmpty()) {
+                            yield "Error: Item is required for remove action";
                         }
-                        case "list" -> {
-                            log.info("Listing {} todo items", todoList.size());
-                            yield todoList.isEmpty() ? "Todo list is empty" :
-                                "Todo items:\n" + String.join("\n", todoList.stream()
-                                    .map(i -> "- " + i)
-                                    .toList());
+                        boolean removed = false;
+                        for (String key : store.keys(TODO_PREFIX)) {
+                            if (item.equals(store.getString(key)) && store.delete(key)) {
+                                removed = true;
+                                break;
+                            }
                         }
-                        case "clear" -> {
-                            int count = todoList.size();
-                            todoList.clear();
-                            log.info("Cleared {} todo items", count);
-                            yield "Cleared " + count + " items";
+                        log.info("Removed todo item: {} (success: {})", item, removed);
+                        yield removed ? "Removed: " + item : "Item not found: " + item;
+                    }
+                    case "list" -> {
+                        List<String> items = new ArrayList<>();
+                        store.forEach(TODO_PREFIX, (key, value) -> items.add("- " + new String(value, StandardCharsets.UTF_8)));
+                        log.info("Listing {} todo items", items.size());
+                        yield items.isEmpty() ? "Todo list is empty" : "Todo items:\n" + String.join("\n", items);
+                    }
+                    case "clear" -> {
+                        int count = 0;
+                        for (String key : store.keys(TODO_PREFIX)) {
+                            if (store.delete(key)) {
+                                count++;
+                            }
                         }
-                        default -> "Unknown action: " + action;
-                    };
-                    
-                    return Mono.just(new McpSchema.CallToolResult(result, false));
-                }
+                        log.info("Cleared {} todo items", count);
+                        yield "Cleared " + count + " items";
+                    }
+                    default -> "Unknown action: " + action;
+                };
+                
+                return Mono.just(new McpSchema.CallToolResult(result, false));
             }
         );
     }
@@ -247,100 +279,75 @@ public class ExampleServer {
                 String key = (String) arguments.get("key");
                 String value = (String) arguments.get("value");
                 
-                synchronized (keyValueStore) {
-                    String result = switch (action) {
-                        case "get" -> {
-                            if (key == null) yield "Error: Key is required";
-                            String val = keyValueStore.get(key);
-                            yield val != null ? val : "Key not found: " + key;
-                        }
-                        case "set" -> {
-                            if (key == null) yield "Error: Key is required";
-                            if (value == null) yield "Error: Value is required";
-                            keyValueStore.put(key, value);
-                            yield "Set " + key + " = " + value;
-                        }
-                        case "delete" -> {
-                            if (key == null) yield "Error: Key is required";
-                            String removed = keyValueStore.remove(key);
-                            yield removed != null ? "Deleted key: " + key : "Key not found: " + key;
-                        }
-                        case "list" -> {
-                            if (keyValueStore.isEmpty()) {
-                                yield "Store is empty";
-                            }
-                            yield "Keys:\n" + keyValueStore.entrySet().stream()
-                                .map(e -> e.getKey() + " = " + e.getValue())
-                                .reduce((a, b) -> a + "\n" + b)
-                                .orElse("Store is empty");
-                        }
-                        default -> "Unknown action: " + action;
-                    };
-                    
-                    log.info("Key-value action {} result: {}", action, result);
-                    return Mono.just(new McpSchema.CallToolResult(result, false));
-                }
+                String result = switch (action) {
+                    case "get" -> {
+                        if (key == null) yield "Error: Key is required";
+                        String val = store.getString(KEY_VALUE_PREFIX + key);
+                        yield val != null ? val : "Key not found: " + key;
+                    }
+                    case "set" -> {
+                        if (key == null) yield "Error: Key is required";
+                        if (value == null) yield "Error: Value is required";
+                        store.putString(KEY_VALUE_PREFIX + key, value);
+                        yield "Set " + key + " = " + value;
+                    }
+                    case "delete" -> {
+                        if (key == null) yield "Error: Key is required";
+                        yield store.delete(KEY_VALUE_PREFIX + key) ? "Deleted key: " + key : "Key not found: " + key;
+                    }
+                    case "list" -> {
+                        List<String> entries = new ArrayList<>();
+                        store.forEach(KEY_VALUE_PREFIX, (k, v) -> entries.add(
+                            k.substring(KEY_VALUE_PREFIX.length()) + " = " + new String(v, StandardCharsets.UTF_8)));
+                        yield entries.isEmpty() ? "Store is empty" : "Keys:\n" + String.join("\n", entries);
+                    }
+                    default -> "Unknown action: " + action;
+                };
+                
+                log.info("Key-value action {} result: {}", action, result);
+                return Mono.just(new McpSchema.CallToolResult(result, false));
             }
         );
     }
     
+    /**
+     * Calculator arguments, bound by {@link ArgumentBinder} and used for the input schema
+     */
+    record CalculatorArgs(
+        @JsonSchemaUtils.Required @JsonSchemaUtils.Description("Math operation") Operation operation,
+        @JsonSchemaUtils.Required @JsonSchemaUtils.Description("First operand") double a,
+        @JsonSchemaUtils.Description("Second operand (not needed for sqrt)") double b) {
+        
+        enum Operation { add, subtract, multiply, divide, power, sqrt }
+    }
+    
     /**
      * Calculator tool
      */
     private static McpServerFeatures.AsyncToolSpecification createCalculatorTool() {
-        var tool = new McpSchema.Tool(
+        return ArgumentBinder.asyncTool(
             "calculator",
             "Simple calculator for basic math operations",
-            """
-            {
-                "type": "object",
-                "properties": {
-                    "operation": {
-                        "type": "string",
-                        "description": "Math operation",
-                        "enum": ["add", "subtract", "multiply", "divide", "power", "sqrt"]
-                    },
-                    "a": {
-                        "type": "number",
-                        "description": "First operand"
-                    },
-                    "b": {
-                        "type": "number",
-                        "description": "Second operand (not needed for sqrt)"
-                    }
-                },
-                "required": ["operation", "a"]
-            }
-            """
-        );
-        
-        return new McpServerFeatures.AsyncToolSpecification(
-            tool,
-            (exchange, arguments) -> {
-                String operation = (String) arguments.get("operation");
-                Object aObj = arguments.get("a");
-                Object bObj = arguments.get("b");
+            CalculatorArgs.class,
+            (exchange, args) -> {
+                double a = args.a();
+                double b = args.b();
                 
                 try {
-                    double a = aObj instanceof Number ? ((Number) aObj).doubleValue() : Double.parseDouble(aObj.toString());
-                    double b = bObj instanceof Number ? ((Number) bObj).doubleValue() : 
-                               (bObj != null ? Double.parseDouble(bObj.toString()) : 0);
-                    
-                    double result = switch (operation) {
-                        case "add" -> a + b;
-                        case "subtract" -> a - b;
-                        case "multiply" -> a * b;
-                        case "divide" -> {
+                    double result = switch (args.operation()) {
+                        case add -> a + b;
+                        case subtract -> a - b;
+                        case multiply -> a * b;
+                        case divide -> {
                             if (b == 0) throw new ArithmeticException("Division by zero");
                             yield a / b;
                         }
-                        case "power" -> Math.pow(a, b);
-                        case "sqrt" -> Math.sqrt(a);
-                        default -> throw new IllegalArgumentException("Unknown operation: " + operation);
+                        case power -> Math.pow(a, b);
+                        case sqrt -> Math.sqrt(a);
                     };
                     
-                    String response = String.format("%s result: %.6f", operation, result);
-                    log.info("Calculator: {} {} {} = {}", a, operation, b, result);
+                    String response = String.format("%s result: %.6f", args.operation(), result);
+                    log.info("Calculator: {} {} {} = {}", a, args.operation(), b, result);
                     return Mono.just(new McpSchema.CallToolResult(response, false));
                     
                 } catch (Exception e) {
@@ -1,7 +1,9 @@
 package org.gegolabs.mcp.bridge.examples;
 
 import org.gegolabs.mcp.bridge.McpBridge;
+import org.gegolabs.mcp.bridge.utils.LoggingOptions;
 import org.gegolabs.mcp.bridge.utils.LoggingUtils;
+import org.gegolabs.mcp.bridge.utils.PayloadLogPolicy;
 import io.modelcontextprotocol.server.McpServer;
 import io.modelcontextprotocol.server.McpServerFeatures;
 import io.modelcontextprotocol.spec.McpSchema;
@@ -17,8 +19,10 @@ import java.util.Map;
 public class SimpleExample {
     
     public static void main(String[] args) throws Exception {
-        // Enable file logging for debugging
-        LoggingUtils.initializeFileLogging("simple-mcp-server.log");
+        // Enable file logging for debugging, written off the request path
+        LoggingUtils.initializeFileLogging("simple-mcp-server.log", LoggingOptions.builder()
+            .payloadPolicy(PayloadLogPolicy.full())
+            .build());
         LoggingUtils.enableDebugLogging();
         
         // Create echo tool
@@ -0,0 +1,27 @@
+package org.gegolabs.mcp.bridge.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("org.gegolabs.mcp.bridge.ConnectionAccepted")
+@Label("Connection Accepted")
+@Category({"MCP Bridge", "Connection"})
+@Description("A client connection was accepted or rejected by the accept loop")
+@Enabled(false)
+@StackTrace(false)
+public class ConnectionAcceptedEvent extends jdk.jfr.Event {
+    
+    @Label("Remote Address")
+    public String remoteAddress;
+    
+    @Label("Rejected")
+    @Description("Whether the connection was closed because the connection limit was reached")
+    public boolean rejected;
+    
+    @Label("Active Connections")
+    public int activeConnections;
+}
@@ -0,0 +1,43 @@
+package org.gegolabs.mcp.bridge.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+@Name("org.gegolabs.mcp.bridge.ConnectionClosed")
+@Label("Connection Closed")
+@Category({"MCP Bridge", "Connection"})
+@Description("A client session ended, with its traffic totals")
+@Enabled(false)
+@StackTrace(false)
+public class ConnectionClosedEvent extends jdk.jfr.Event {
+    
+    @Label("Session Id")
+    public String sessionId;
+    
+    @Label("Remote Address")
+    public String remoteAddress;
+    
+    @Label("Connected Time")
+    @Timespan(Timespan.MILLISECONDS)
+    public long connectedTime;
+    
+    @Label("Bytes In")
+    @DataAmount
+    public long bytesIn;
+    
+    @Label("Bytes Out")
+    @DataAmount
+    public long bytesOut;
+    
+    @Label("Messages In")
+    public long messagesIn;
+    
+    @Label("Messages Out")
+    public long messagesOut;
+}
@@ -0,0 +1,25 @@
+package org.gegolabs.mcp.bridge.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("org.gegolabs.mcp.bridge.FrameRead")
+@Label("Frame Read")
+@Category({"MCP Bridge", "Message"})
+@Description("A line-delimited frame was read from a client; the duration is the time spent blocked in the read")
+@Enabled(false)
+@StackTrace(false)
+public class FrameReadEvent extends jdk.jfr.Event {
+    
+    @Label("Session Id")
+    public String sessionId;
+    
+    @Label("Size")
+    @DataAmount
+    public long size;
+}
@@ -0,0 +1,29 @@
+package org.gegolabs.mcp.bridge.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+@Name("org.gegolabs.mcp.bridge.MessageDispatched")
+@Label("Message Dispatched")
+@Category({"MCP Bridge", "Message"})
+@Description("A message was handed to the MCP session on the dispatch scheduler")
+@Enabled(false)
+@StackTrace(false)
+public class MessageDispatchedEvent extends jdk.jfr.Event {
+    
+    @Label("Session Id")
+    public String sessionId;
+    
+    @Label("Method")
+    public String method;
+    
+    @Label("Queue Time")
+    @Description("Time between reading the message and starting to handle it")
+    @Timespan(Timespan.NANOSECONDS)
+    public long queueTime;
+}
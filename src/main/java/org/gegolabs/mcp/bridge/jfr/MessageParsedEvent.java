@@ -0,0 +1,30 @@
+package org.gegolabs.mcp.bridge.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("org.gegolabs.mcp.bridge.MessageParsed")
+@Label("Message Parsed")
+@Category({"MCP Bridge", "Message"})
+@Description("A frame was deserialized into a JSON-RPC message")
+@Enabled(false)
+@StackTrace(false)
+public class MessageParsedEvent extends jdk.jfr.Event {
+    
+    @Label("Session Id")
+    public String sessionId;
+    
+    @Label("Message Type")
+    @Description("request, notification, response or invalid")
+    public String messageType;
+    
+    @Label("Method")
+    public String method;
+    
+    @Label("Request Id")
+    public String requestId;
+}
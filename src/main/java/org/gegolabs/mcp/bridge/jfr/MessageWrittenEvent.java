@@ -0,0 +1,33 @@
+package org.gegolabs.mcp.bridge.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("org.gegolabs.mcp.bridge.MessageWritten")
+@Label("Message Written")
+@Category({"MCP Bridge", "Message"})
+@Description("A message was written and flushed to a client; the duration covers the socket write")
+@Enabled(false)
+@StackTrace(false)
+public class MessageWrittenEvent extends jdk.jfr.Event {
+    
+    @Label("Session Id")
+    public String sessionId;
+    
+    @Label("Method")
+    @Description("Method of the request being answered, or of the outgoing request or notification")
+    public String method;
+    
+    @Label("Size")
+    @DataAmount
+    public long size;
+    
+    @Label("Queued Writes")
+    @Description("Writes still waiting for this connection when this one completed")
+    public int queuedWrites;
+}
@@ -0,0 +1,25 @@
+package org.gegolabs.mcp.bridge.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+@Name("org.gegolabs.mcp.bridge.WriteStall")
+@Label("Write Stall")
+@Category({"MCP Bridge", "Message"})
+@Description("A write waited for another write on the same connection, typically because the client is reading slowly")
+@Enabled(false)
+@Threshold("1 ms")
+@StackTrace(false)
+public class WriteStallEvent extends jdk.jfr.Event {
+    
+    @Label("Session Id")
+    public String sessionId;
+    
+    @Label("Queued Writes")
+    public int queuedWrites;
+}
@@ -0,0 +1,281 @@
+package org.gegolabs.mcp.bridge.metrics;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Metrics registry for a bridge transport provider.
+ * 
+ * Tracks connection counts, traffic, parse errors and per-method and per-tool
+ * request latency. Histograms are sized up front, so recording a latency only
+ * increments counters. The registry can optionally be published as JMX
+ * MBeans under the {@value #JMX_DOMAIN} domain.
+ * 
+ * Usage:
+ * <pre>
+ * BridgeMetrics metrics = provider.getMetrics();
+ * metrics.method("tools/call").get99thPercentileMillis();
+ * </pre>
+ */
+@Slf4j
+public class BridgeMetrics implements BridgeMetricsMXBean {
+    
+    public static final String JMX_DOMAIN = "org.gegolabs.mcp.bridge";
+    
+    /**
+     * Upper bound on distinct method and tool names, so that misbehaving clients
+     * cannot grow the registry without limit. Further names are folded into {@link #OTHER}.
+     */
+    static final int MAX_NAMES = 256;
+    static final String OTHER = "(other)";
+    
+    private final LongAdder acceptedConnections = new LongAdder();
+    private final LongAdder rejectedConnections = new LongAdder();
+    private final LongAdder parseErrors = new LongAdder();
+    private final LongAdder oversizedFrames = new LongAdder();
+    private final LongAdder bytesIn = new LongAdder();
+    private final LongAdder bytesOut = new LongAdder();
+    private final AtomicInteger pendingWrites = new AtomicInteger();
+    private final AtomicLong sessionIds = new AtomicLong();
+    private final Map<String, RequestMetrics> methods = new ConcurrentHashMap<>();
+    private final Map<String, RequestMetrics> tools = new ConcurrentHashMap<>();
+    private final Map<String, SessionMetrics> sessions = new ConcurrentHashMap<>();
+    private final Object jmxLock = new Object();
+    private volatile String jmxName;
+    
+    public void connectionAccepted() {
+        acceptedConnections.increment();
+    }
+    
+    public void connectionRejected() {
+        rejectedConnections.increment();
+    }
+    
+    public void parseError() {
+        parseErrors.increment();
+    }
+    
+    /**
+     * Counts an inbound message discarded for exceeding the frame size limit.
+     */
+    public void oversizedFrame() {
+        oversizedFrames.increment();
+    }
+    
+    /**
+     * Starts tracking a new client connection.
+     * 
+     * @param remoteAddress Description of the peer, used for display only
+     * @return The session's counters; call {@link SessionMetrics#close()} when the connection ends
+     */
+    public SessionMetrics openSession(String remoteAddress) {
+        String id = String.valueOf(sessionIds.incrementAndGet());
+        SessionMetrics session = new SessionMetrics(this, id, remoteAddress);
+        sessions.put(id, session);
+        
+        synchronized (jmxLock) {
+            if (jmxName != null) {
+                register(objectName("Session", id), session);
+            }
+        }
+        return session;
+    }
+    
+    /**
+     * Returns the metrics for a JSON-RPC method, creating them on first use.
+     */
+    public RequestMetrics method(String method) {
+        RequestMetrics metrics = methods.get(method);
+        return metrics != null ? metrics : create(methods, "Method", method);
+    }
+    
+    /**
+     * Returns the metrics for a tool invoked through {@code tools/call}, creating them on first use.
+     */
+    public RequestMetrics tool(String tool) {
+        RequestMetrics metrics = tools.get(tool);
+        return metrics != null ? metrics : create(tools, "Tool", tool);
+    }
+    
+    public Collection<RequestMetrics> getMethods() {
+        return Collections.unmodifiableCollection(methods.values());
+    }
+    
+    public Collection<RequestMetrics> getTools() {
+        return Collections.unmodifiableCollection(tools.values());
+    }
+    
+    public Collection<SessionMetrics> getSessions() {
+        return Collections.unmodifiableCollection(sessions.values());
+    }
+    
+    /**
+     * Publishes this registry and everything it contains as JMX MBeans.
+     * 
+     * @param name Name identifying this bridge, e.g. its listen address
+     */
+    public void registerMBeans(String name) {
+        synchronized (jmxLock) {
+            if (jmxName != null) {
+                return;
+            }
+            jmxName = name;
+            
+            register(objectName("Bridge", null), this);
+            methods.forEach((method, metrics) -> register(objectName("Method", method), metrics));
+            tools.forEach((tool, metrics) -> register(objectName("Tool", tool), metrics));
+            sessions.forEach((id, session) -> register(objectName("Session", id), session));
+        }
+    }
+    
+    /**
+     * Removes all MBeans registered by {@link #registerMBeans(String)}.
+     */
+    public void unregisterMBeans() {
+        synchronized (jmxLock) {
+            if (jmxName == null) {
+                return;
+            }
+            
+            unregister(objectName("Bridge", null));
+            methods.keySet().forEach(method -> unregister(objectName("Method", method)));
+            tools.keySet().forEach(tool -> unregister(objectName("Tool", tool)));
+            sessions.keySet().forEach(id -> unregister(objectName("Session", id)));
+            jmxName = null;
+        }
+    }
+    
+    void addBytesIn(long bytes) {
+        bytesIn.add(bytes);
+    }
+    
+    void addBytesOut(long bytes) {
+        bytesOut.add(bytes);
+    }
+    
+    void writeQueued() {
+        pendingWrites.incrementAndGet();
+    }
+    
+    void writeDequeued() {
+        pendingWrites.decrementAndGet();
+    }
+    
+    void sessionClosed(SessionMetrics session) {
+        sessions.remove(session.getId());
+        
+        synchronized (jmxLock) {
+            if (jmxName != null) {
+                unregister(objectName("Session", session.getId()));
+            }
+        }
+    }
+    
+    private RequestMetrics create(Map<String, RequestMetrics> registry, String type, String name) {
+        String key = registry.size() < MAX_NAMES ? name : OTHER;
+        return registry.computeIfAbsent(key, k -> {
+            RequestMetrics metrics = new RequestMetrics(k);
+            synchronized (jmxLock) {
+                if (jmxName != null) {
+                    register(objectName(type, k), metrics);
+                }
+            }
+            return metrics;
+        });
+    }
+    
+    private ObjectName objectName(String type, String name) {
+        try {
+            StringBuilder value = new StringBuilder(JMX_DOMAIN)
+                .append(":type=").append(type)
+                .append(",bridge=").append(ObjectName.quote(jmxName));
+            if (name != null) {
+                value.append(",name=").append(ObjectName.quote(name));
+            }
+            return new ObjectName(value.toString());
+        } catch (JMException e) {
+            throw new IllegalArgumentException("Invalid MBean name for " + type + " " + name, e);
+        }
+    }
+    
+    private static void register(ObjectName name, Object mbean) {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            if (!server.isRegistered(name)) {
+                server.registerMBean(mbean, name);
+            }
+        } catch (JMException e) {
+            log.warn("Failed to register MBean {}", name, e);
+        }
+    }
+    
+    private static void unregister(ObjectName name) {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            if (server.isRegistered(name)) {
+                server.unregisterMBean(name);
+            }
+        } catch (JMException e) {
+            log.warn("Failed to unregister MBean {}", name, e);
+        }
+    }
+    
+    @Override
+    public int getActiveConnections() {
+        return sessions.size();
+    }
+    
+    @Override
+    public long getAcceptedConnections() {
+        return acceptedConnections.sum();
+    }
+    
+    @Override
+    public long getRejectedConnections() {
+        return rejectedConnections.sum();
+    }
+    
+    @Override
+    public long getBytesIn() {
+        return bytesIn.sum();
+    }
+    
+    @Override
+    public long getBytesOut() {
+        return bytesOut.sum();
+    }
+    
+    @Override
+    public int getPendingWrites() {
+        return pendingWrites.get();
+    }
+    
+    @Override
+    public long getParseErrors() {
+        return parseErrors.sum();
+    }
+    
+    @Override
+    public long getOversizedFrames() {
+        return oversizedFrames.sum();
+    }
+    
+    @Override
+    public Map<String, Long> getRequestCounts() {
+        Map<String, Long> counts = new TreeMap<>();
+        methods.forEach((method, metrics) -> counts.put(method, metrics.getRequestCount()));
+        return counts;
+    }
+}
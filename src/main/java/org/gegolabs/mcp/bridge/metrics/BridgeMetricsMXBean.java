@@ -0,0 +1,27 @@
+package org.gegolabs.mcp.bridge.metrics;
+
+import java.util.Map;
+
+/**
+ * JMX view of bridge-wide connection and traffic counters.
+ */
+public interface BridgeMetricsMXBean {
+    
+    int getActiveConnections();
+    
+    long getAcceptedConnections();
+    
+    long getRejectedConnections();
+    
+    long getBytesIn();
+    
+    long getBytesOut();
+    
+    int getPendingWrites();
+    
+    long getParseErrors();
+    
+    long getOversizedFrames();
+    
+    Map<String, Long> getRequestCounts();
+}
@@ -0,0 +1,145 @@
+package org.gegolabs.mcp.bridge.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free latency histogram with HDR-style log-linear buckets.
+ * 
+ * Values are grouped by power of two, and each power of two is split into
+ * {@value #SUB_BUCKET_COUNT} linear sub-buckets, so any recorded value is reported
+ * with a relative error of about 3%. All storage is allocated up front:
+ * {@link #record(long)} never allocates and only performs a few atomic increments,
+ * which makes it safe to call on the message hot path.
+ */
+public class LatencyHistogram {
+    
+    static final int SUB_BUCKET_BITS = 5;
+    static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    static final int BUCKET_COUNT = (64 - SUB_BUCKET_BITS) * SUB_BUCKET_COUNT;
+    
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+    private final AtomicLong totalCount = new AtomicLong();
+    private final AtomicLong totalNanos = new AtomicLong();
+    private final AtomicLong maxNanos = new AtomicLong();
+    
+    /**
+     * Records a single latency value.
+     * 
+     * @param nanos The latency in nanoseconds; negative values are recorded as zero
+     */
+    public void record(long nanos) {
+        long value = Math.max(0, nanos);
+        counts.incrementAndGet(indexFor(value));
+        totalCount.incrementAndGet();
+        totalNanos.addAndGet(value);
+        
+        long max = maxNanos.get();
+        while (value > max && !maxNanos.compareAndSet(max, value)) {
+            max = maxNanos.get();
+        }
+    }
+    
+    public long getCount() {
+        return totalCount.get();
+    }
+    
+    public long getMaxNanos() {
+        return maxNanos.get();
+    }
+    
+    public double getMeanNanos() {
+        long count = totalCount.get();
+        return count == 0 ? 0 : (double) totalNanos.get() / count;
+    }
+    
+    public long getTotalNanos() {
+        return totalNanos.get();
+    }
+    
+    /**
+     * Returns the value below which the given percentage of recorded values fall.
+     * The result is the upper bound of the matching bucket, so it never under-reports.
+     * 
+     * @param percentile Percentile between 0 and 100, e.g. 99.9
+     * @return The latency in nanoseconds, or 0 if nothing was recorded
+     */
+    public long getValueAtPercentile(double percentile) {
+        long[] snapshot = new long[BUCKET_COUNT];
+        long total = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            snapshot[i] = counts.get(i);
+            total += snapshot[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+        
+        long target = Math.max(1, (long) Math.ceil(total * Math.min(100.0, Math.max(0.0, percentile)) / 100.0));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += snapshot[i];
+            if (seen >= target) {
+                return Math.min(highestValueInBucket(i), maxNanos.get());
+            }
+        }
+        return maxNanos.get();
+    }
+    
+    /**
+     * Visits every non-empty bucket in ascending order.
+     * 
+     * @param visitor Receives the inclusive upper bound of each bucket and its count
+     */
+    public void forEachBucket(BucketVisitor visitor) {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            long count = counts.get(i);
+            if (count > 0) {
+                visitor.visit(highestValueInBucket(i), count);
+            }
+        }
+    }
+    
+    /**
+     * Clears all recorded values. Values recorded concurrently may be partially lost.
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts.set(i, 0);
+        }
+        totalCount.set(0);
+        totalNanos.set(0);
+        maxNanos.set(0);
+    }
+    
+    static int indexFor(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int shift = exponent - SUB_BUCKET_BITS;
+        int subBucket = (int) (value >>> shift) & (SUB_BUCKET_COUNT - 1);
+        return (shift + 1) * SUB_BUCKET_COUNT + subBucket;
+    }
+    
+    static long lowestValueInBucket(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int shift = index / SUB_BUCKET_COUNT - 1;
+        long subBucket = index % SUB_BUCKET_COUNT;
+        return (SUB_BUCKET_COUNT + subBucket) << shift;
+    }
+    
+    static long highestValueInBucket(int index) {
+        return index == BUCKET_COUNT - 1 ? Long.MAX_VALUE : lowestValueInBucket(index + 1) - 1;
+    }
+    
+    /**
+     * Callback for {@link #forEachBucket(BucketVisitor)}.
+     */
+    @FunctionalInterface
+    public interface BucketVisitor {
+        void visit(long upperBoundNanos, long count);
+    }
+}
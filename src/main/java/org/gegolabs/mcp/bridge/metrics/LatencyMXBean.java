@@ -0,0 +1,25 @@
+package org.gegolabs.mcp.bridge.metrics;
+
+/**
+ * JMX view of the request metrics for one JSON-RPC method or tool.
+ */
+public interface LatencyMXBean {
+    
+    long getRequestCount();
+    
+    long getErrorCount();
+    
+    double getMeanMillis();
+    
+    double getMaxMillis();
+    
+    double get50thPercentileMillis();
+    
+    double get90thPercentileMillis();
+    
+    double get99thPercentileMillis();
+    
+    double get999thPercentileMillis();
+    
+    void reset();
+}
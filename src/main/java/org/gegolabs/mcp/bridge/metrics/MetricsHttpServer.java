@@ -0,0 +1,97 @@
+package org.gegolabs.mcp.bridge.metrics;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Minimal HTTP listener exposing bridge metrics to Prometheus.
+ * 
+ * Serves two endpoints:
+ * <ul>
+ *   <li>{@code /metrics} - the registry in Prometheus text format</li>
+ *   <li>{@code /ready} - 200 while the readiness check passes, 503 otherwise</li>
+ * </ul>
+ * Requests are handled on a single daemon thread, which is plenty for scrapes
+ * and keeps the listener from competing with MCP traffic.
+ */
+@Slf4j
+public class MetricsHttpServer implements AutoCloseable {
+    
+    private final HttpServer server;
+    private final ExecutorService executor;
+    
+    private MetricsHttpServer(HttpServer server, ExecutorService executor) {
+        this.server = server;
+        this.executor = executor;
+    }
+    
+    /**
+     * Starts listening on the given address.
+     * 
+     * @param address Address to bind; port 0 picks a free port
+     * @param metrics Registry to expose
+     * @param readiness Check reported by {@code /ready}
+     */
+    public static MetricsHttpServer start(InetSocketAddress address, BridgeMetrics metrics,
+                                          BooleanSupplier readiness) throws IOException {
+        PrometheusExporter exporter = new PrometheusExporter(metrics);
+        HttpServer server = HttpServer.create(address, 0);
+        ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "mcp-bridge-metrics-http");
+            thread.setDaemon(true);
+            return thread;
+        });
+        
+        server.createContext("/metrics", exchange -> {
+            if (!"GET".equals(exchange.getRequestMethod()) && !"HEAD".equals(exchange.getRequestMethod())) {
+                respond(exchange, 405, "text/plain; charset=utf-8", "Method Not Allowed\n");
+                return;
+            }
+            respond(exchange, 200, PrometheusExporter.CONTENT_TYPE, exporter.scrape());
+        });
+        server.createContext("/ready", exchange -> {
+            boolean ready = readiness.getAsBoolean();
+            respond(exchange, ready ? 200 : 503, "text/plain; charset=utf-8", ready ? "ready\n" : "not ready\n");
+        });
+        server.setExecutor(executor);
+        server.start();
+        
+        log.info("Metrics endpoint listening on {}", server.getAddress());
+        return new MetricsHttpServer(server, executor);
+    }
+    
+    private static void respond(HttpExchange exchange, int status, String contentType, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        boolean head = "HEAD".equals(exchange.getRequestMethod());
+        exchange.sendResponseHeaders(status, head ? -1 : bytes.length);
+        if (!head) {
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        }
+        exchange.close();
+    }
+    
+    /**
+     * Returns the bound address, including the actual port when 0 was requested.
+     */
+    public InetSocketAddress getAddress() {
+        return server.getAddress();
+    }
+    
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,164 @@
+package org.gegolabs.mcp.bridge.metrics;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Renders a {@link BridgeMetrics} registry in the Prometheus text exposition format (version 0.0.4).
+ * 
+ * Latency histograms are folded from the registry's fine-grained buckets into a
+ * fixed set of {@code le} buckets, in seconds, so that series from different
+ * instances can be aggregated.
+ * 
+ * Usage:
+ * <pre>
+ * String body = new PrometheusExporter(provider.getMetrics()).scrape();
+ * </pre>
+ */
+public class PrometheusExporter {
+    
+    public static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+    
+    static final double[] BUCKETS_SECONDS = {
+        0.0005, 0.001, 0.0025, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10, 30, 60
+    };
+    
+    private static final double NANOS_PER_SECOND = 1_000_000_000.0;
+    private static final long[] BUCKET_BOUNDS_NANOS = new long[BUCKETS_SECONDS.length];
+    
+    static {
+        for (int i = 0; i < BUCKETS_SECONDS.length; i++) {
+            BUCKET_BOUNDS_NANOS[i] = (long) (BUCKETS_SECONDS[i] * NANOS_PER_SECOND);
+        }
+    }
+    
+    private final BridgeMetrics metrics;
+    
+    public PrometheusExporter(BridgeMetrics metrics) {
+        this.metrics = metrics;
+    }
+    
+    /**
+     * Returns the current value of every metric in the registry.
+     */
+    public String scrape() {
+        StringBuilder out = new StringBuilder(4096);
+        
+        gauge(out, "mcp_bridge_connections_active", "Currently open client connections",
+            metrics.getActiveConnections());
+        counter(out, "mcp_bridge_connections_accepted_total", "Client connections accepted",
+            metrics.getAcceptedConnections());
+        counter(out, "mcp_bridge_connections_rejected_total", "Client connections rejected by the connection limit or during setup",
+            metrics.getRejectedConnections());
+        counter(out, "mcp_bridge_received_bytes_total", "Bytes read from clients", metrics.getBytesIn());
+        counter(out, "mcp_bridge_sent_bytes_total", "Bytes written to clients", metrics.getBytesOut());
+        gauge(out, "mcp_bridge_pending_writes", "Writes waiting for a connection to become writable",
+            metrics.getPendingWrites());
+        counter(out, "mcp_bridge_parse_errors_total", "Lines that could not be parsed as JSON-RPC",
+            metrics.getParseErrors());
+        counter(out, "mcp_bridge_oversized_frames_total", "Messages discarded for exceeding the frame size limit",
+            metrics.getOversizedFrames());
+        
+        requests(out, "mcp_bridge_requests", "method", "JSON-RPC requests", sorted(metrics.getMethods()));
+        requests(out, "mcp_bridge_tool_calls", "tool", "Tool calls", sorted(metrics.getTools()));
+        return out.toString();
+    }
+    
+    private static List<RequestMetrics> sorted(Iterable<RequestMetrics> source) {
+        List<RequestMetrics> list = new ArrayList<>();
+        source.forEach(list::add);
+        list.sort(Comparator.comparing(RequestMetrics::getName));
+        return list;
+    }
+    
+    private static void requests(StringBuilder out, String prefix, String label, String what,
+                                 List<RequestMetrics> entries) {
+        header(out, prefix + "_total", "counter", what + " completed");
+        for (RequestMetrics entry : entries) {
+            sample(out, prefix + "_total", label, entry.getName(), null, entry.getRequestCount());
+        }
+        header(out, prefix + "_errors_total", "counter", what + " answered with an error");
+        for (RequestMetrics entry : entries) {
+            sample(out, prefix + "_errors_total", label, entry.getName(), null, entry.getErrorCount());
+        }
+        
+        String histogram = prefix + "_duration_seconds";
+        header(out, histogram, "histogram", what + " latency from read to response flush");
+        for (RequestMetrics entry : entries) {
+            LatencyHistogram latency = entry.getLatency();
+            long[] buckets = new long[BUCKET_BOUNDS_NANOS.length + 1];
+            latency.forEachBucket((upperBoundNanos, count) -> buckets[bucketFor(upperBoundNanos)] += count);
+            
+            long cumulative = 0;
+            for (int i = 0; i < buckets.length; i++) {
+                cumulative += buckets[i];
+                String le = i < BUCKETS_SECONDS.length ? format(BUCKETS_SECONDS[i]) : "+Inf";
+                sample(out, histogram + "_bucket", label, entry.getName(), le, cumulative);
+            }
+            out.append(histogram).append("_sum");
+            labels(out, label, entry.getName(), null);
+            out.append(' ').append(format(latency.getTotalNanos() / NANOS_PER_SECOND)).append('\n');
+            sample(out, histogram + "_count", label, entry.getName(), null, cumulative);
+        }
+    }
+    
+    static int bucketFor(long upperBoundNanos) {
+        for (int i = 0; i < BUCKET_BOUNDS_NANOS.length; i++) {
+            if (upperBoundNanos <= BUCKET_BOUNDS_NANOS[i]) {
+                return i;
+            }
+        }
+        return BUCKET_BOUNDS_NANOS.length;
+    }
+    
+    private static void counter(StringBuilder out, String name, String help, long value) {
+        header(out, name, "counter", help);
+        out.append(name).append(' ').append(value).append('\n');
+    }
+    
+    private static void gauge(StringBuilder out, String name, String help, long value) {
+        header(out, name, "gauge", help);
+        out.append(name).append(' ').append(value).append('\n');
+    }
+    
+    private static void header(StringBuilder out, String name, String type, String help) {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+    
+    private static void sample(StringBuilder out, String name, String label, String value, String le, long count) {
+        out.append(name);
+        labels(out, label, value, le);
+        out.append(' ').append(count).append('\n');
+    }
+    
+    private static void labels(StringBuilder out, String label, String value, String le) {
+        out.append('{').append(label).append("=\"");
+        escape(out, value);
+        out.append('"');
+        if (le != null) {
+            out.append(",le=\"").append(le).append('"');
+        }
+        out.append('}');
+    }
+    
+    static void escape(StringBuilder out, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\' -> out.append("\\\\");
+                case '"' -> out.append("\\\"");
+                case '\n' -> out.append("\\n");
+                default -> out.append(c);
+            }
+        }
+    }
+    
+    private static String format(double value) {
+        String text = String.format(Locale.ROOT, "%.9f", value);
+        text = text.replaceAll("0+$", "");
+        return text.endsWith(".") ? text + "0" : text;
+    }
+}
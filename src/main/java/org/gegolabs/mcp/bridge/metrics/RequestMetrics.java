@@ -0,0 +1,89 @@
+package org.gegolabs.mcp.bridge.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Request count, error count and read-to-response latency for one method or tool.
+ */
+public class RequestMetrics implements LatencyMXBean {
+    
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+    
+    private final String name;
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LatencyHistogram latency = new LatencyHistogram();
+    
+    RequestMetrics(String name) {
+        this.name = name;
+    }
+    
+    /**
+     * Records a completed request.
+     * 
+     * @param nanos Time from reading the request to writing its response
+     * @param error Whether the response carried a JSON-RPC error
+     */
+    public void record(long nanos, boolean error) {
+        requests.increment();
+        if (error) {
+            errors.increment();
+        }
+        latency.record(nanos);
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    public LatencyHistogram getLatency() {
+        return latency;
+    }
+    
+    @Override
+    public long getRequestCount() {
+        return requests.sum();
+    }
+    
+    @Override
+    public long getErrorCount() {
+        return errors.sum();
+    }
+    
+    @Override
+    public double getMeanMillis() {
+        return latency.getMeanNanos() / NANOS_PER_MILLI;
+    }
+    
+    @Override
+    public double getMaxMillis() {
+        return latency.getMaxNanos() / NANOS_PER_MILLI;
+    }
+    
+    @Override
+    public double get50thPercentileMillis() {
+        return latency.getValueAtPercentile(50) / NANOS_PER_MILLI;
+    }
+    
+    @Override
+    public double get90thPercentileMillis() {
+        return latency.getValueAtPercentile(90) / NANOS_PER_MILLI;
+    }
+    
+    @Override
+    public double get99thPercentileMillis() {
+        return latency.getValueAtPercentile(99) / NANOS_PER_MILLI;
+    }
+    
+    @Override
+    public double get999thPercentileMillis() {
+        return latency.getValueAtPercentile(99.9) / NANOS_PER_MILLI;
+    }
+    
+    @Override
+    public void reset() {
+        requests.reset();
+        errors.reset();
+        latency.reset();
+    }
+}
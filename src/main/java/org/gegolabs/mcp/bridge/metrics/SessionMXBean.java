@@ -0,0 +1,21 @@
+package org.gegolabs.mcp.bridge.metrics;
+
+/**
+ * JMX view of a single client connection.
+ */
+public interface SessionMXBean {
+    
+    String getRemoteAddress();
+    
+    long getBytesIn();
+    
+    long getBytesOut();
+    
+    long getMessagesIn();
+    
+    long getMessagesOut();
+    
+    int getPendingWrites();
+    
+    long getConnectedMillis();
+}
@@ -0,0 +1,111 @@
+package org.gegolabs.mcp.bridge.metrics;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Traffic counters for one client connection. Every update is also applied to
+ * the owning {@link BridgeMetrics} totals.
+ */
+public class SessionMetrics implements SessionMXBean {
+    
+    private final BridgeMetrics parent;
+    private final String id;
+    private final String remoteAddress;
+    private final long connectedAt = System.currentTimeMillis();
+    private final LongAdder bytesIn = new LongAdder();
+    private final LongAdder bytesOut = new LongAdder();
+    private final LongAdder messagesIn = new LongAdder();
+    private final LongAdder messagesOut = new LongAdder();
+    private final AtomicInteger pendingWrites = new AtomicInteger();
+    private final AtomicBoolean closed = new AtomicBoolean(false);
+    
+    SessionMetrics(BridgeMetrics parent, String id, String remoteAddress) {
+        this.parent = parent;
+        this.id = id;
+        this.remoteAddress = remoteAddress;
+    }
+    
+    public void addBytesIn(long bytes) {
+        bytesIn.add(bytes);
+        parent.addBytesIn(bytes);
+    }
+    
+    public void addBytesOut(long bytes) {
+        bytesOut.add(bytes);
+        parent.addBytesOut(bytes);
+    }
+    
+    public void messageIn() {
+        messagesIn.increment();
+    }
+    
+    public void messageOut() {
+        messagesOut.increment();
+    }
+    
+    /**
+     * Called when a message is queued for writing.
+     */
+    public void writeQueued() {
+        pendingWrites.incrementAndGet();
+        parent.writeQueued();
+    }
+    
+    /**
+     * Called when a queued message has been written or abandoned.
+     */
+    public void writeDequeued() {
+        pendingWrites.decrementAndGet();
+        parent.writeDequeued();
+    }
+    
+    /**
+     * Detaches this session from the bridge totals. Safe to call more than once.
+     */
+    public void close() {
+        if (closed.compareAndSet(false, true)) {
+            parent.sessionClosed(this);
+        }
+    }
+    
+    public String getId() {
+        return id;
+    }
+    
+    @Override
+    public String getRemoteAddress() {
+        return remoteAddress;
+    }
+    
+    @Override
+    public long getBytesIn() {
+        return bytesIn.sum();
+    }
+    
+    @Override
+    public long getBytesOut() {
+        return bytesOut.sum();
+    }
+    
+    @Override
+    public long getMessagesIn() {
+        return messagesIn.sum();
+    }
+    
+    @Override
+    public long getMessagesOut() {
+        return messagesOut.sum();
+    }
+    
+    @Override
+    public int getPendingWrites() {
+        return pendingWrites.get();
+    }
+    
+    @Override
+    public long getConnectedMillis() {
+        return System.currentTimeMillis() - connectedAt;
+    }
+}
@@ -0,0 +1,479 @@
+package org.gegolabs.mcp.bridge.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.RecordComponentElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Generates JSON schemas for classes marked with
+ * {@link org.gegolabs.mcp.bridge.utils.JsonSchemaUtils.GenerateSchema} at compile time.
+ * 
+ * For each marked class {@code com.example.SearchArgs} a class
+ * {@code com.example.SearchArgs_JsonSchema} is generated holding the schema in a
+ * {@code SCHEMA} constant, which {@code JsonSchemaUtils} picks up instead of
+ * reflecting over the class at runtime. Nested classes are named after their
+ * binary name with {@code $} replaced by {@code _}. The schema follows exactly the
+ * same rules as the runtime generator.
+ * 
+ * The processor is registered through {@code META-INF/services}, so Maven picks it
+ * up from the classpath; Gradle builds add this library to {@code annotationProcessor}.
+ */
+@SupportedAnnotationTypes(JsonSchemaProcessor.GENERATE_SCHEMA)
+public class JsonSchemaProcessor extends AbstractProcessor {
+    
+    static final String GENERATE_SCHEMA = "org.gegolabs.mcp.bridge.utils.JsonSchemaUtils.GenerateSchema";
+    static final String DESCRIPTION = "org.gegolabs.mcp.bridge.utils.JsonSchemaUtils.Description";
+    static final String REQUIRED = "org.gegolabs.mcp.bridge.utils.JsonSchemaUtils.Required";
+    
+    // Must match JsonSchemaUtils.GENERATED_SUFFIX and GENERATED_FIELD
+    private static final String SUFFIX = "_JsonSchema";
+    private static final String FIELD = "SCHEMA";
+    private static final int MAX_LITERAL_CHARS = 16_000;
+    
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+    
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        TypeElement marker = processingEnv.getElementUtils().getTypeElement(GENERATE_SCHEMA);
+        if (marker == null) {
+            return false;
+        }
+        for (Element element : roundEnv.getElementsAnnotatedWith(marker)) {
+            if (element.getKind() != ElementKind.CLASS && element.getKind() != ElementKind.RECORD) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                    "@GenerateSchema can only be applied to classes and records", element);
+                continue;
+            }
+            TypeElement type = (TypeElement) element;
+            try {
+                Map<String, Object> schema = new Generator().generateRoot(type);
+                write(type, toJson(schema));
+            } catch (IOException e) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                    "Failed to write JSON schema for " + type + ": " + e.getMessage(), element);
+            }
+        }
+        return true;
+    }
+    
+    private void write(TypeElement type, String json) throws IOException {
+        PackageElement pkg = processingEnv.getElementUtils().getPackageOf(type);
+        String packageName = pkg.isUnnamed() ? "" : pkg.getQualifiedName().toString();
+        String binaryName = processingEnv.getElementUtils().getBinaryName(type).toString();
+        String simpleName = (packageName.isEmpty() ? binaryName : binaryName.substring(packageName.length() + 1))
+            .replace('$', '_') + SUFFIX;
+        String qualifiedName = packageName.isEmpty() ? simpleName : packageName + "." + simpleName;
+        
+        JavaFileObject file = processingEnv.getFiler().createSourceFile(qualifiedName, type);
+        try (Writer out = file.openWriter()) {
+            if (!packageName.isEmpty()) {
+                out.write("package " + packageName + ";\n\n");
+            }
+            out.write("/**\n * JSON schema of {@link " + type.getQualifiedName() + "}, generated at compile time.\n */\n");
+            out.write("@javax.annotation.processing.Generated(\"" + JsonSchemaProcessor.class.getName() + "\")\n");
+            out.write("public final class " + simpleName + " {\n\n");
+            out.write("    public static final String " + FIELD + " = ");
+            if (json.length() <= MAX_LITERAL_CHARS) {
+                out.write(javaLiteral(json));
+            } else {
+                // Constant strings are limited to 64 KB in the class file
+                out.write("new StringBuilder(" + json.length() + ")");
+                for (int i = 0; i < json.length(); i += MAX_LITERAL_CHARS) {
+                    String chunk = json.substring(i, Math.min(json.length(), i + MAX_LITERAL_CHARS));
+                    out.write("\n        .append(" + javaLiteral(chunk) + ")");
+                }
+                out.write("\n        .toString()");
+            }
+            out.write(";\n\n    private " + simpleName + "() {\n    }\n}\n");
+        }
+    }
+    
+    /**
+     * Compile-time counterpart of the runtime generator in {@code JsonSchemaUtils},
+     * working on the language model instead of reflection.
+     */
+    private final class Generator {
+        private final Deque<TypeElement> inProgress = new ArrayDeque<>();
+        private final Set<TypeElement> recursive = new HashSet<>();
+        private final Map<TypeElement, String> defNames = new HashMap<>();
+        private final Map<String, Object> defs = new LinkedHashMap<>();
+        
+        Map<String, Object> generateRoot(TypeElement type) {
+            Map<String, Object> schema = objectSchema(type);
+            if (!defs.isEmpty()) {
+                schema.put("$defs", new LinkedHashMap<>(defs));
+            }
+            return schema;
+        }
+        
+        private Map<String, Object> objectSchema(TypeElement type) {
+            inProgress.push(type);
+            Map<String, Object> schema = new LinkedHashMap<>();
+            schema.put("type", "object");
+            Map<String, Object> properties = new LinkedHashMap<>();
+            schema.put("properties", properties);
+            List<String> required = new ArrayList<>();
+            for (Element field : schemaFields(type)) {
+                Map<String, Object> fieldSchema = schemaFor(field.asType());
+                String description = description(field);
+                if (description != null) {
+                    fieldSchema.put("description", description);
+                }
+                String name = propertyName(field.getSimpleName().toString());
+                properties.put(name, fieldSchema);
+                if (annotation(field, REQUIRED) != null) {
+                    required.add(name);
+                }
+            }
+            if (!required.isEmpty()) {
+                schema.put("required", required);
+            }
+            inProgress.pop();
+            
+            if (recursive.contains(type)) {
+                defs.put(defName(type), deepCopy(schema));
+            }
+            return schema;
+        }
+        
+        private Map<String, Object> schemaFor(TypeMirror type) {
+            if (type.getKind().isPrimitive()) {
+                return typed(primitiveType(type.getKind()));
+            }
+            if (type.getKind() == TypeKind.ARRAY) {
+                return arraySchema(schemaFor(((ArrayType) type).getComponentType()));
+            }
+            if (type.getKind() != TypeKind.DECLARED) {
+                // Type variables and wildcards: anything goes
+                return new LinkedHashMap<>();
+            }
+            DeclaredType declared = (DeclaredType) type;
+            TypeElement element = (TypeElement) declared.asElement();
+            List<? extends TypeMirror> args = declared.getTypeArguments();
+            if (!args.isEmpty()) {
+                if (isSubtype(type, "java.util.Collection")) {
+                    return arraySchema(schemaFor(args.get(0)));
+                }
+                if (isSubtype(type, "java.util.Map")) {
+                    Map<String, Object> schema = typed("object");
+                    if (args.size() > 1 && !isNamed(args.get(1), "java.lang.Object")) {
+                        schema.put("additionalProperties", schemaFor(args.get(1)));
+                    }
+                    return schema;
+                }
+                if (element.getQualifiedName().contentEquals("java.util.Optional")) {
+                    return schemaFor(args.get(0));
+                }
+            }
+            return schemaForElement(element, type);
+        }
+        
+        private Map<String, Object> schemaForElement(TypeElement element, TypeMirror type) {
+            String name = element.getQualifiedName().toString();
+            String simple = simpleType(name);
+            if (simple != null) {
+                return typed(simple);
+            }
+            String format = stringFormat(name);
+            if (format != null) {
+                Map<String, Object> schema = typed("string");
+                if (!format.isEmpty()) {
+                    schema.put("format", format);
+                }
+                return schema;
+            }
+            if (element.getKind() == ElementKind.ENUM) {
+                Map<String, Object> schema = typed("string");
+                List<Object> values = new ArrayList<>();
+                for (Element constant : element.getEnclosedElements()) {
+                    if (constant.getKind() == ElementKind.ENUM_CONSTANT) {
+                        values.add(constant.getSimpleName().toString());
+                    }
+                }
+                schema.put("enum", values);
+                return schema;
+            }
+            if (isSubtype(type, "java.util.Collection")) {
+                return arraySchema(new LinkedHashMap<>());
+            }
+            if (name.equals("java.lang.Object")
+                    || isSubtype(type, "com.fasterxml.jackson.databind.JsonNode")
+                    || isSubtype(type, "com.google.gson.JsonElement")) {
+                boolean object = isSubtype(type, "com.fasterxml.jackson.databind.node.ObjectNode")
+                    || isSubtype(type, "com.google.gson.JsonObject");
+                return object ? typed("object") : new LinkedHashMap<>();
+            }
+            if (isSubtype(type, "java.util.Map") || isPlatform(name)) {
+                return typed("object");
+            }
+            if (inProgress.contains(element)) {
+                recursive.add(element);
+                Map<String, Object> ref = new LinkedHashMap<>();
+                ref.put("$ref", "#/$defs/" + defName(element));
+                return ref;
+            }
+            return objectSchema(element);
+        }
+        
+        private String defName(TypeElement element) {
+            return defNames.computeIfAbsent(element, e -> {
+                String name = e.getSimpleName().length() == 0 ? "Type" : e.getSimpleName().toString();
+                String candidate = name;
+                for (int i = 2; defNames.containsValue(candidate); i++) {
+                    candidate = name + i;
+                }
+                return candidate;
+            });
+        }
+    }
+    
+    private List<Element> schemaFields(TypeElement type) {
+        List<Element> fields = new ArrayList<>();
+        if (type.getKind() == ElementKind.RECORD) {
+            for (RecordComponentElement component : type.getRecordComponents()) {
+                fields.add(component);
+            }
+            return fields;
+        }
+        List<TypeElement> hierarchy = new ArrayList<>();
+        for (TypeElement c = type; c != null && !isPlatform(c.getQualifiedName().toString()); c = superclass(c)) {
+            hierarchy.add(0, c);
+        }
+        for (TypeElement c : hierarchy) {
+            for (Element member : c.getEnclosedElements()) {
+                if (member.getKind() == ElementKind.FIELD
+                        && !member.getModifiers().contains(Modifier.STATIC)
+                        && !member.getModifiers().contains(Modifier.TRANSIENT)) {
+                    fields.add(member);
+                }
+            }
+        }
+        return fields;
+    }
+    
+    private static TypeElement superclass(TypeElement type) {
+        TypeMirror superclass = type.getSuperclass();
+        return superclass.getKind() == TypeKind.DECLARED ? (TypeElement) ((DeclaredType) superclass).asElement() : null;
+    }
+    
+    private boolean isSubtype(TypeMirror type, String qualifiedName) {
+        TypeElement target = processingEnv.getElementUtils().getTypeElement(qualifiedName);
+        if (target == null) {
+            return false;
+        }
+        var types = processingEnv.getTypeUtils();
+        return types.isSubtype(types.erasure(type), types.erasure(target.asType()));
+    }
+    
+    private static boolean isNamed(TypeMirror type, String qualifiedName) {
+        return type.getKind() == TypeKind.DECLARED
+            && ((TypeElement) ((DeclaredType) type).asElement()).getQualifiedName().contentEquals(qualifiedName);
+    }
+    
+    private static String description(Element element) {
+        AnnotationMirror annotation = annotation(element, DESCRIPTION);
+        if (annotation != null) {
+            for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry
+                    : annotation.getElementValues().entrySet()) {
+                if (entry.getKey().getSimpleName().contentEquals("value")) {
+                    return String.valueOf(entry.getValue().getValue());
+                }
+            }
+        }
+        return null;
+    }
+    
+    private static AnnotationMirror annotation(Element element, String qualifiedName) {
+        for (AnnotationMirror annotation : element.getAnnotationMirrors()) {
+            TypeElement annotationType = (TypeElement) annotation.getAnnotationType().asElement();
+            if (annotationType.getQualifiedName().contentEquals(qualifiedName)) {
+                return annotation;
+            }
+        }
+        return null;
+    }
+    
+    private static boolean isPlatform(String name) {
+        return name.startsWith("java.") || name.startsWith("javax.") || name.startsWith("jdk.");
+    }
+    
+    private static String primitiveType(TypeKind kind) {
+        return switch (kind) {
+            case BOOLEAN -> "boolean";
+            case CHAR -> "string";
+            case FLOAT, DOUBLE -> "number";
+            default -> "integer";
+        };
+    }
+    
+    private static String simpleType(String name) {
+        return switch (name) {
+            case "java.lang.String", "java.lang.Character" -> "string";
+            case "java.lang.Integer", "java.lang.Long", "java.lang.Short", "java.lang.Byte",
+                 "java.math.BigInteger" -> "integer";
+            case "java.lang.Double", "java.lang.Float", "java.math.BigDecimal" -> "number";
+            case "java.lang.Boolean" -> "boolean";
+            default -> null;
+        };
+    }
+    
+    private static String stringFormat(String name) {
+        return switch (name) {
+            case "java.time.Instant", "java.time.OffsetDateTime", "java.time.ZonedDateTime" -> "date-time";
+            case "java.time.LocalDateTime" -> "";
+            case "java.time.LocalDate" -> "date";
+            case "java.time.LocalTime" -> "time";
+            case "java.util.UUID" -> "uuid";
+            case "java.net.URI", "java.net.URL" -> "uri";
+            default -> null;
+        };
+    }
+    
+    // Same rules as JsonSchemaUtils.toCamelCase
+    static String propertyName(String name) {
+        if (name.contains("_")) {
+            StringBuilder result = new StringBuilder();
+            boolean capitalizeNext = false;
+            for (char c : name.toCharArray()) {
+                if (c == '_') {
+                    capitalizeNext = true;
+                } else if (capitalizeNext) {
+                    result.append(Character.toUpperCase(c));
+                    capitalizeNext = false;
+                } else {
+                    result.append(c);
+                }
+            }
+            return result.toString();
+        }
+        return name.substring(0, 1).toLowerCase() + name.substring(1);
+    }
+    
+    private static Map<String, Object> typed(String type) {
+        Map<String, Object> schema = new LinkedHashMap<>();
+        schema.put("type", type);
+        return schema;
+    }
+    
+    private static Map<String, Object> arraySchema(Map<String, Object> items) {
+        Map<String, Object> schema = typed("array");
+        schema.put("items", items);
+        return schema;
+    }
+    
+    @SuppressWarnings("unchecked")
+    private static Object deepCopy(Object value) {
+        if (value instanceof Map<?, ?> map) {
+            Map<String, Object> copy = new LinkedHashMap<>();
+            ((Map<String, Object>) map).forEach((k, v) -> copy.put(k, deepCopy(v)));
+            return copy;
+        }
+        if (value instanceof List<?> list) {
+            List<Object> copy = new ArrayList<>();
+            list.forEach(v -> copy.add(deepCopy(v)));
+            return copy;
+        }
+        return value;
+    }
+    
+    static String toJson(Object value) {
+        StringBuilder out = new StringBuilder();
+        appendJson(out, value);
+        return out.toString();
+    }
+    
+    private static void appendJson(StringBuilder out, Object value) {
+        if (value instanceof Map<?, ?> map) {
+            out.append('{');
+            boolean first = true;
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                if (!first) {
+                    out.append(',');
+                }
+                first = false;
+                appendString(out, String.valueOf(entry.getKey()));
+                out.append(':');
+                appendJson(out, entry.getValue());
+            }
+            out.append('}');
+        } else if (value instanceof List<?> list) {
+            out.append('[');
+            for (int i = 0; i < list.size(); i++) {
+                if (i > 0) {
+                    out.append(',');
+                }
+                appendJson(out, list.get(i));
+            }
+            out.append(']');
+        } else {
+            appendString(out, String.valueOf(value));
+        }
+    }
+    
+    private static void appendString(StringBuilder out, String value) {
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> out.append("\\\"");
+                case '\\' -> out.append("\\\\");
+                case '\n' -> out.append("\\n");
+                case '\r' -> out.append("\\r");
+                case '\t' -> out.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        out.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.append(c);
+                    }
+                }
+            }
+        }
+        out.append('"');
+    }
+    
+    private static String javaLiteral(String value) {
+        StringBuilder out = new StringBuilder(value.length() + 16).append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                out.append('\\').append(c);
+            } else if (c < 0x20 || c > 0x7e) {
+                out.append(String.format("\\u%04x", (int) c));
+            } else {
+                out.append(c);
+            }
+        }
+        return out.append('"').toString();
+    }
+}
@@ -0,0 +1,546 @@
+package org.gegolabs.mcp.bridge.resources;
+
+import io.modelcontextprotocol.server.McpAsyncServer;
+import io.modelcontextprotocol.server.McpServerFeatures;
+import io.modelcontextprotocol.spec.McpSchema;
+import lombok.Builder;
+import lombok.extern.slf4j.Slf4j;
+import org.gegolabs.mcp.bridge.tools.StreamingContent;
+import reactor.core.publisher.Mono;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Predicate;
+
+/**
+ * Serves the files under a directory as MCP resources.
+ * 
+ * Each regular file becomes a resource whose URI is its {@code file:} URI and
+ * whose name is its path relative to the root. Files with a textual MIME type
+ * are returned as text, all others as base64 blobs. How a file is read depends on
+ * its size:
+ * <ul>
+ *   <li>up to {@code cacheFileBytes}: read once through a {@link FileChannel} and
+ *       the encoded contents cached;</li>
+ *   <li>up to {@code mapThresholdBytes}: streamed from a {@link FileChannel};</li>
+ *   <li>larger: memory-mapped and streamed from the mapping.</li>
+ * </ul>
+ * Streamed contents use {@link StreamingContent}, so the bridge transport encodes
+ * them straight into the outbound buffer without building the payload in memory.
+ * 
+ * File metadata and cached contents are invalidated by a {@link WatchService}
+ * once {@link #watch()} has been called; otherwise each read checks the file's
+ * modification time. After {@link #attach(McpAsyncServer)}, created and deleted
+ * files are added to and removed from the server.
+ * 
+ * Usage:
+ * <pre>
+ * FileResourceProvider docs = FileResourceProvider.builder()
+ *     .root(Path.of("docs"))
+ *     .build();
+ * 
+ * McpAsyncServer server = McpServer.async(transport)
+ *     .capabilities(McpSchema.ServerCapabilities.builder().resources(false, true).build())
+ *     .resources(docs.specifications())
+ *     .build();
+ * docs.attach(server);
+ * docs.watch();
+ * </pre>
+ */
+@Slf4j
+@Builder
+public class FileResourceProvider implements Closeable {
+    
+    private static final Set<String> TEXT_TYPES = Set.of(
+        "application/json", "application/xml", "application/javascript", "application/x-yaml",
+        "application/yaml", "application/toml", "application/x-sh", "application/sql");
+    
+    private static final Map<String, String> EXTENSION_TYPES = Map.ofEntries(
+        Map.entry("md", "text/markdown"), Map.entry("txt", "text/plain"), Map.entry("java", "text/x-java"),
+        Map.entry("kt", "text/x-kotlin"), Map.entry("py", "text/x-python"), Map.entry("js", "application/javascript"),
+        Map.entry("ts", "text/x-typescript"), Map.entry("json", "application/json"), Map.entry("xml", "application/xml"),
+        Map.entry("yml", "application/yaml"), Map.entry("yaml", "application/yaml"), Map.entry("toml", "application/toml"),
+        Map.entry("html", "text/html"), Map.entry("css", "text/css"), Map.entry("csv", "text/csv"),
+        Map.entry("sh", "application/x-sh"), Map.entry("sql", "application/sql"), Map.entry("gradle", "text/plain"),
+        Map.entry("properties", "text/plain"), Map.entry("png", "image/png"), Map.entry("jpg", "image/jpeg"),
+        Map.entry("jpeg", "image/jpeg"), Map.entry("gif", "image/gif"), Map.entry("pdf", "application/pdf"));
+    
+    /**
+     * Directory whose files are served.
+     */
+    private final Path root;
+    
+    /**
+     * Which files to serve. By default, everything except hidden files and directories.
+     */
+    @Builder.Default
+    private final Predicate<Path> filter = path -> !path.getFileName().toString().startsWith(".");
+    
+    /**
+     * Maximum number of files served; further files are ignored.
+     */
+    @Builder.Default
+    private final int maxFiles = 10_000;
+    
+    /**
+     * Files up to this size are read in one go and their contents cached.
+     */
+    @Builder.Default
+    private final long cacheFileBytes = 64 * 1024;
+    
+    /**
+     * Maximum memory taken by cached contents, counting text at two bytes per character.
+     */
+    @Builder.Default
+    private final long maxCachedBytes = 32L * 1024 * 1024;
+    
+    /**
+     * Files of at least this size are memory-mapped instead of read through a channel.
+     */
+    @Builder.Default
+    private final long mapThresholdBytes = 1024 * 1024;
+    
+    private final Map<String, FileEntry> entries = new ConcurrentHashMap<>();
+    private final Map<WatchKey, Path> watchedDirectories = new ConcurrentHashMap<>();
+    private final AtomicLong cachedBytes = new AtomicLong();
+    private final AtomicLong cacheHits = new AtomicLong();
+    private final AtomicLong cacheMisses = new AtomicLong();
+    private volatile McpAsyncServer server;
+    private volatile WatchService watchService;
+    
+    /**
+     * Metadata of one served file and, for small files, its encoded contents.
+     */
+    private static final class FileEntry {
+        final Path path;
+        final McpSchema.Resource resource;
+        final boolean text;
+        final long size;
+        final FileTime modified;
+        final AtomicReference<McpSchema.ResourceContents> cached = new AtomicReference<>();
+        
+        FileEntry(Path path, McpSchema.Resource resource, boolean text, long size, FileTime modified) {
+            this.path = path;
+            this.resource = resource;
+            this.text = text;
+            this.size = size;
+            this.modified = modified;
+        }
+    }
+    
+    /**
+     * Scans the root directory and returns one resource specification per file.
+     */
+    public List<McpServerFeatures.AsyncResourceSpecification> specifications() throws IOException {
+        walk(root);
+        List<McpServerFeatures.AsyncResourceSpecification> specifications = new ArrayList<>(entries.size());
+        for (FileEntry entry : entries.values()) {
+            specifications.add(specification(entry));
+        }
+        return specifications;
+    }
+    
+    /**
+     * Adds resources for files created after the specifications were taken, and
+     * removes resources of deleted files, on the given server. Requires {@link #watch()}.
+     */
+    public void attach(McpAsyncServer server) {
+        this.server = server;
+    }
+    
+    /**
+     * Starts watching the root directory tree for changes on a daemon thread.
+     */
+    public synchronized void watch() throws IOException {
+        if (watchService != null) {
+            return;
+        }
+        watchService = FileSystems.getDefault().newWatchService();
+        walk(root);
+        Thread thread = new Thread(this::processEvents, "mcp-bridge-resources-" + root.getFileName());
+        thread.setDaemon(true);
+        thread.start();
+    }
+    
+    /**
+     * Stops watching for changes.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (watchService != null) {
+            watchService.close();
+            watchService = null;
+        }
+    }
+    
+    /**
+     * Returns the contents of a served resource.
+     * 
+     * @throws IllegalArgumentException if no file is served under the URI
+     */
+    McpSchema.ReadResourceResult read(String uri) throws IOException {
+        FileEntry entry = entries.get(uri);
+        if (entry != null && watchService == null) {
+            entry = revalidate(entry);
+        }
+        if (entry == null) {
+            throw new IllegalArgumentException("Resource not found: " + uri);
+        }
+        
+        McpSchema.ResourceContents contents = entry.cached.get();
+        if (contents != null) {
+            cacheHits.incrementAndGet();
+            return new McpSchema.ReadResourceResult(List.of(contents));
+        }
+        cacheMisses.incrementAndGet();
+        
+        if (entry.size <= cacheFileBytes) {
+            contents = readSmall(entry);
+            long weight = weight(entry);
+            // Counted once per entry: a concurrent read of the same file keeps its own copy uncached
+            if (cachedBytes.addAndGet(weight) > maxCachedBytes || !entry.cached.compareAndSet(null, contents)) {
+                cachedBytes.addAndGet(-weight);
+            } else if (entries.get(uri) != entry) {
+                // Replaced or deleted meanwhile, possibly before its contents were set
+                uncache(entry);
+            }
+        } else {
+            contents = stream(entry);
+        }
+        return new McpSchema.ReadResourceResult(List.of(contents));
+    }
+    
+    public int getFileCount() {
+        return entries.size();
+    }
+    
+    public long getCachedBytes() {
+        return cachedBytes.get();
+    }
+    
+    public long getCacheHits() {
+        return cacheHits.get();
+    }
+    
+    public long getCacheMisses() {
+        return cacheMisses.get();
+    }
+    
+    private McpServerFeatures.AsyncResourceSpecification specification(FileEntry entry) {
+        String uri = entry.resource.uri();
+        return new McpServerFeatures.AsyncResourceSpecification(entry.resource,
+            (exchange, request) -> Mono.fromCallable(() -> read(uri)));
+    }
+    
+    /**
+     * Adds the files below {@code start}, registering its directories for watching once watching has started.
+     */
+    private void walk(Path start) throws IOException {
+        Files.walkFileTree(start, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attributes) throws IOException {
+                if (!dir.equals(root) && !filter.test(dir)) {
+                    return FileVisitResult.SKIP_SUBTREE;
+                }
+                WatchService service = watchService;
+                if (service != null) {
+                    WatchKey key = dir.register(service, StandardWatchEventKinds.ENTRY_CREATE,
+                        StandardWatchEventKinds.ENTRY_DELETE, StandardWatchEventKinds.ENTRY_MODIFY);
+                    watchedDirectories.put(key, dir);
+                }
+                return FileVisitResult.CONTINUE;
+            }
+            
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) {
+                if (attributes.isRegularFile() && filter.test(file)) {
+                    add(entry(file, attributes));
+                }
+                return FileVisitResult.CONTINUE;
+            }
+            
+            @Override
+            public FileVisitResult visitFileFailed(Path file, IOException e) {
+                log.debug("Skipping unreadable file {}", file, e);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+    
+    private FileEntry entry(Path file, BasicFileAttributes attributes) {
+        String mimeType = mimeType(file);
+        boolean text = mimeType.startsWith("text/") || TEXT_TYPES.contains(mimeType);
+        String name = root.relativize(file).toString().replace(file.getFileSystem().getSeparator(), "/");
+        McpSchema.Resource resource = new McpSchema.Resource(file.toUri().toString(), name, null, mimeType, null);
+        return new FileEntry(file, resource, text, attributes.size(), attributes.lastModifiedTime());
+    }
+    
+    static String mimeType(Path file) {
+        String name = file.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        String known = dot >= 0 ? EXTENSION_TYPES.get(name.substring(dot + 1).toLowerCase()) : null;
+        if (known != null) {
+            return known;
+        }
+        try {
+            String probed = Files.probeContentType(file);
+            if (probed != null) {
+                return probed;
+            }
+        } catch (IOException e) {
+            log.debug("Could not probe the content type of {}", file, e);
+        }
+        return "application/octet-stream";
+    }
+    
+    /**
+     * Returns the entry, refreshed if the file changed since it was cached, or null if the file is gone.
+     */
+    private FileEntry revalidate(FileEntry entry) throws IOException {
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(entry.path, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+        } catch (IOException e) {
+            invalidate(entry.path, true);
+            return null;
+        }
+        if (!attributes.isRegularFile()) {
+            // Replaced by a symbolic link, which may point outside the root
+            invalidate(entry.path, true);
+            return null;
+        }
+        if (attributes.size() == entry.size && attributes.lastModifiedTime().equals(entry.modified)) {
+            return entry;
+        }
+        FileEntry refreshed = entry(entry.path, attributes);
+        replace(refreshed);
+        return refreshed;
+    }
+    
+    private McpSchema.ResourceContents readSmall(FileEntry entry) throws IOException {
+        byte[] data;
+        try (FileChannel channel = FileChannel.open(entry.path, StandardOpenOption.READ, LinkOption.NOFOLLOW_LINKS)) {
+            ByteBuffer buffer = ByteBuffer.allocate((int) channel.size());
+            while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                // Read until the buffer is full or the file ended early
+            }
+            data = Arrays.copyOf(buffer.array(), buffer.position());
+        }
+        String uri = entry.resource.uri();
+        String mimeType = entry.resource.mimeType();
+        return entry.text
+            ? new McpSchema.TextResourceContents(uri, mimeType, new String(data, StandardCharsets.UTF_8))
+            : new McpSchema.BlobResourceContents(uri, mimeType, Base64.getEncoder().encodeToString(data));
+    }
+    
+    private McpSchema.ResourceContents stream(FileEntry entry) throws IOException {
+        InputStream in;
+        long size;
+        try (FileChannel channel = FileChannel.open(entry.path, StandardOpenOption.READ, LinkOption.NOFOLLOW_LINKS)) {
+            size = channel.size();
+            if (size >= mapThresholdBytes && size <= Integer.MAX_VALUE) {
+                // The mapping stays valid after the channel is closed
+                in = new MappedInputStream(channel.map(FileChannel.MapMode.READ_ONLY, 0, size));
+            } else {
+                in = null;
+            }
+        }
+        if (in == null) {
+            in = Channels.newInputStream(FileChannel.open(entry.path, StandardOpenOption.READ, LinkOption.NOFOLLOW_LINKS));
+        }
+        String uri = entry.resource.uri();
+        String mimeType = entry.resource.mimeType();
+        return entry.text
+            ? StreamingContent.textResource(uri, mimeType, new InputStreamReader(in, StandardCharsets.UTF_8))
+            : StreamingContent.blobResource(uri, mimeType, in, size, null);
+    }
+    
+    private void processEvents() {
+        WatchService service = watchService;
+        try {
+            while (true) {
+                WatchKey key = service.take();
+                Path dir = watchedDirectories.get(key);
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (event.kind() == StandardWatchEventKinds.OVERFLOW || dir == null) {
+                        rescan();
+                        continue;
+                    }
+                    Path changed = dir.resolve((Path) event.context());
+                    try {
+                        handle(event.kind(), changed);
+                    } catch (IOException | UncheckedIOException e) {
+                        log.debug("Could not process change of {}", changed, e);
+                    }
+                }
+                if (!key.reset()) {
+                    watchedDirectories.remove(key);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) {
+            // Closed by close()
+        }
+    }
+    
+    private void handle(WatchEvent.Kind<?> kind, Path changed) throws IOException {
+        if (kind == StandardWatchEventKinds.ENTRY_DELETE) {
+            invalidate(changed, true);
+            return;
+        }
+        if (!filter.test(changed)) {
+            return;
+        }
+        // Symbolic links are not followed, as in the initial walk, so they cannot expose files outside the root
+        BasicFileAttributes attributes = Files.readAttributes(changed, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+        if (attributes.isDirectory()) {
+            if (kind == StandardWatchEventKinds.ENTRY_CREATE) {
+                walk(changed);
+            }
+        } else if (attributes.isRegularFile()) {
+            FileEntry entry = entry(changed, attributes);
+            if (entries.containsKey(entry.resource.uri())) {
+                replace(entry);
+            } else {
+                add(entry);
+            }
+        } else {
+            invalidate(changed, true);
+        }
+    }
+    
+    private void add(FileEntry entry) {
+        if (entries.containsKey(entry.resource.uri())) {
+            return;
+        }
+        if (entries.size() >= maxFiles) {
+            log.warn("Not serving {}, already serving {} files", entry.path, maxFiles);
+            return;
+        }
+        if (entries.putIfAbsent(entry.resource.uri(), entry) != null) {
+            return;
+        }
+        McpAsyncServer target = server;
+        if (target != null) {
+            target.addResource(specification(entry)).subscribe(null,
+                e -> log.warn("Could not add resource {}", entry.resource.uri(), e));
+        }
+    }
+    
+    private void replace(FileEntry entry) {
+        FileEntry previous = entries.put(entry.resource.uri(), entry);
+        if (previous != null) {
+            uncache(previous);
+        }
+    }
+    
+    /**
+     * Forgets a deleted file, or every file below a deleted directory.
+     */
+    private void invalidate(Path deleted, boolean notify) {
+        String prefix = deleted.toUri().toString();
+        String directoryPrefix = prefix.endsWith("/") ? prefix : prefix + "/";
+        for (FileEntry entry : entries.values()) {
+            String uri = entry.resource.uri();
+            if ((uri.equals(prefix) || uri.startsWith(directoryPrefix)) && entries.remove(uri, entry)) {
+                uncache(entry);
+                McpAsyncServer target = server;
+                if (notify && target != null) {
+                    target.removeResource(uri).subscribe(null,
+                        e -> log.warn("Could not remove resource {}", uri, e));
+                }
+            }
+        }
+    }
+    
+    private void uncache(FileEntry entry) {
+        if (entry.cached.getAndSet(null) != null) {
+            cachedBytes.addAndGet(-weight(entry));
+        }
+    }
+    
+    /**
+     * Estimated memory of an entry's cached contents: text at two bytes per character,
+     * binary files as Base64.
+     */
+    private static long weight(FileEntry entry) {
+        return entry.text ? 2 * entry.size : entry.size * 8 / 3;
+    }
+    
+    private void rescan() {
+        for (FileEntry entry : entries.values()) {
+            try {
+                revalidate(entry);
+            } catch (IOException e) {
+                log.debug("Could not revalidate {}", entry.path, e);
+            }
+        }
+        try {
+            walk(root);
+        } catch (IOException e) {
+            log.warn("Rescan of {} failed", root, e);
+        }
+    }
+    
+    /**
+     * Reads a memory-mapped file without copying it to the heap first.
+     */
+    private static final class MappedInputStream extends InputStream {
+        private final ByteBuffer buffer;
+        
+        MappedInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+        
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+        
+        @Override
+        public int read(byte[] target, int offset, int length) {
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            int n = Math.min(length, buffer.remaining());
+            buffer.get(target, offset, n);
+            return n;
+        }
+        
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+    }
+}
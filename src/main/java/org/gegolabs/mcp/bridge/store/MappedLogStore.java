@@ -0,0 +1,610 @@
+package org.gegolabs.mcp.bridge.store;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Persistent key-value store: a concurrent in-memory index over an append-only,
+ * memory-mapped log.
+ * 
+ * Every write appends a record to the active log segment, a file mapped into
+ * memory, and then points the index at it. Reads look the key up in a
+ * {@link ConcurrentSkipListMap} and copy the value straight out of the mapping,
+ * without taking any lock, so they scale with the number of cores. Writes are
+ * serialized on a short append lock that covers a memory copy, not a system call.
+ * 
+ * On open, the segments are replayed in order to rebuild the index. Each record
+ * carries a CRC, so a record torn by a crash ends the replay of its segment
+ * instead of corrupting the store. Overwritten and deleted records stay in the
+ * log until compaction copies the live records into fresh segments and deletes
+ * the old ones. Compaction runs periodically once enough of the log is dead, or
+ * on demand through {@link #compact()}. {@link #snapshot(Path)} writes a compact,
+ * point-in-time copy that can be opened as a store of its own.
+ * 
+ * Record layout: {@code int length, int crc, byte type, int keyLength, key, value},
+ * where length and CRC cover everything after the CRC.
+ * 
+ * Usage:
+ * <pre>
+ * try (MappedLogStore store = MappedLogStore.open(Path.of("data"))) {
+ *     store.putString("greeting", "hello");
+ *     String greeting = store.getString("greeting");
+ * }
+ * </pre>
+ */
+@Slf4j
+public class MappedLogStore implements Closeable {
+    
+    static final int HEADER_SIZE = 8;
+    private static final int BODY_PREFIX = 5;
+    private static final byte PUT = 1;
+    private static final byte DELETE = 2;
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    
+    private final Path directory;
+    private final StoreOptions options;
+    private final FileChannel lockChannel;
+    private final FileLock fileLock;
+    private final ConcurrentSkipListMap<String, Location> index = new ConcurrentSkipListMap<>();
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final List<Segment> segments = new ArrayList<>();
+    private final AtomicLong liveBytes = new AtomicLong();
+    private final AtomicLong totalBytes = new AtomicLong();
+    private final AtomicLong compactions = new AtomicLong();
+    private final ScheduledExecutorService maintenance;
+    private Segment active;
+    private volatile boolean closed = false;
+    
+    /**
+     * One mapped log file. Bytes below {@code position} are immutable.
+     */
+    private static final class Segment {
+        final long id;
+        final Path path;
+        final FileChannel channel;
+        final MappedByteBuffer buffer;
+        int position;
+        volatile boolean dirty;
+        
+        Segment(long id, Path path, FileChannel channel, MappedByteBuffer buffer) {
+            this.id = id;
+            this.path = path;
+            this.channel = channel;
+            this.buffer = buffer;
+        }
+    }
+    
+    /**
+     * Where the current record of a key lives.
+     */
+    private record Location(Segment segment, int offset, int recordSize, int valueOffset, int valueLength) {
+    }
+    
+    private MappedLogStore(Path directory, StoreOptions options) throws IOException {
+        this.directory = directory;
+        this.options = options;
+        Files.createDirectories(directory);
+        
+        this.lockChannel = FileChannel.open(directory.resolve("LOCK"),
+            StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        FileLock acquired;
+        try {
+            acquired = lockChannel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            acquired = null;
+        }
+        if (acquired == null) {
+            lockChannel.close();
+            throw new IOException("Store " + directory + " is already open");
+        }
+        this.fileLock = acquired;
+        
+        try {
+            recover();
+        } catch (IOException | RuntimeException e) {
+            closeSegments(segments);
+            fileLock.release();
+            lockChannel.close();
+            throw e;
+        }
+        
+        boolean sync = !options.syncInterval.isZero();
+        boolean compact = !options.compactionInterval.isZero();
+        if (sync || compact) {
+            maintenance = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "mcp-bridge-store-" + directory.getFileName());
+                thread.setDaemon(true);
+                return thread;
+            });
+            if (sync) {
+                long millis = options.syncInterval.toMillis();
+                maintenance.scheduleWithFixedDelay(this::syncQuietly, millis, millis, TimeUnit.MILLISECONDS);
+            }
+            if (compact) {
+                long millis = options.compactionInterval.toMillis();
+                maintenance.scheduleWithFixedDelay(this::compactIfDue, millis, millis, TimeUnit.MILLISECONDS);
+            }
+        } else {
+            maintenance = null;
+        }
+    }
+    
+    /**
+     * Opens or creates a store in the given directory with default options.
+     */
+    public static MappedLogStore open(Path directory) throws IOException {
+        return open(directory, StoreOptions.defaults());
+    }
+    
+    /**
+     * Opens or creates a store in the given directory. Only one store may have a
+     * directory open at a time, across processes as well.
+     */
+    public static MappedLogStore open(Path directory, StoreOptions options) throws IOException {
+        if (options.segmentBytes < HEADER_SIZE + BODY_PREFIX) {
+            throw new IllegalArgumentException("segmentBytes is too small");
+        }
+        return new MappedLogStore(directory, options);
+    }
+    
+    /**
+     * Returns the value stored under a key, or null.
+     */
+    public byte[] get(String key) {
+        ensureOpen();
+        Location location = index.get(key);
+        if (location == null) {
+            return null;
+        }
+        byte[] value = new byte[location.valueLength()];
+        location.segment().buffer.get(location.valueOffset(), value);
+        return value;
+    }
+    
+    /**
+     * Returns the value stored under a key as UTF-8 text, or null.
+     */
+    public String getString(String key) {
+        byte[] value = get(key);
+        return value != null ? new String(value, StandardCharsets.UTF_8) : null;
+    }
+    
+    public boolean containsKey(String key) {
+        ensureOpen();
+        return index.containsKey(key);
+    }
+    
+    /**
+     * Stores a value, replacing any previous value of the key.
+     * 
+     * @throws UncheckedIOException if a new segment could not be created
+     */
+    public void put(String key, byte[] value) {
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        writeLock.lock();
+        try {
+            ensureOpen();
+            Location location = append(PUT, keyBytes, value);
+            Location previous = index.put(key, location);
+            liveBytes.addAndGet(location.recordSize() - (previous != null ? previous.recordSize() : 0));
+        } finally {
+            writeLock.unlock();
+        }
+    }
+    
+    /**
+     * Stores a value as UTF-8 text.
+     */
+    public void putString(String key, String value) {
+        put(key, value.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    /**
+     * Deletes a key.
+     * 
+     * @return Whether the key existed
+     */
+    public boolean delete(String key) {
+        writeLock.lock();
+        try {
+            ensureOpen();
+            Location previous = index.get(key);
+            if (previous == null) {
+                return false;
+            }
+            append(DELETE, key.getBytes(StandardCharsets.UTF_8), new byte[0]);
+            index.remove(key);
+            liveBytes.addAndGet(-previous.recordSize());
+            return true;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+    
+    /**
+     * Returns the keys starting with a prefix, in sorted order. The set is a live,
+     * weakly consistent view of the index.
+     */
+    public NavigableSet<String> keys(String prefix) {
+        ensureOpen();
+        return index.subMap(prefix, true, prefix + Character.MAX_VALUE, false).navigableKeySet();
+    }
+    
+    /**
+     * Calls {@code action} with every key starting with a prefix and its value, in key order.
+     */
+    public void forEach(String prefix, BiConsumer<String, byte[]> action) {
+        for (String key : keys(prefix)) {
+            byte[] value = get(key);
+            if (value != null) {
+                action.accept(key, value);
+            }
+        }
+    }
+    
+    /**
+     * Returns the number of keys.
+     */
+    public int size() {
+        return index.size();
+    }
+    
+    /**
+     * Forces written segments to disk.
+     */
+    public void sync() throws IOException {
+        List<Segment> dirty = new ArrayList<>();
+        writeLock.lock();
+        try {
+            for (Segment segment : segments) {
+                if (segment.dirty) {
+                    segment.dirty = false;
+                    dirty.add(segment);
+                }
+            }
+        } finally {
+            writeLock.unlock();
+        }
+        for (Segment segment : dirty) {
+            segment.buffer.force();
+        }
+    }
+    
+    /**
+     * Copies the live records into fresh segments and deletes the old ones. Writes
+     * wait while compaction runs; reads continue.
+     */
+    public void compact() throws IOException {
+        writeLock.lock();
+        try {
+            ensureOpen();
+            List<Segment> old = new ArrayList<>(segments);
+            long before = totalBytes.get();
+            segments.clear();
+            active = null;
+            
+            long written = 0;
+            for (Map.Entry<String, Location> entry : index.entrySet()) {
+                Location location = entry.getValue();
+                Segment target = segmentFor(location.recordSize(), old);
+                int offset = target.position;
+                target.buffer.put(offset, location.segment().buffer, location.offset(), location.recordSize());
+                target.position += location.recordSize();
+                index.put(entry.getKey(), new Location(target, offset, location.recordSize(),
+                    offset + (location.valueOffset() - location.offset()), location.valueLength()));
+                written += location.recordSize();
+            }
+            if (active == null) {
+                segmentFor(0, old);
+            }
+            for (Segment segment : segments) {
+                segment.buffer.force();
+                segment.dirty = false;
+            }
+            
+            // Delete oldest first, so a crash part way leaves tombstones after the records they cover
+            for (Segment segment : old) {
+                segment.channel.close();
+                try {
+                    Files.delete(segment.path);
+                } catch (IOException e) {
+                    log.warn("Could not delete compacted segment {}", segment.path, e);
+                }
+            }
+            totalBytes.set(written);
+            liveBytes.set(written);
+            compactions.incrementAndGet();
+            log.info("Compacted store {} from {} to {} bytes", directory, before, written);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+    
+    /**
+     * Writes the current live records to a new store in {@code target}, which must
+     * not contain a store already. Writes wait until the copy is done.
+     */
+    public void snapshot(Path target) throws IOException {
+        if (Files.isDirectory(target)) {
+            try (Stream<Path> files = Files.list(target)) {
+                if (files.anyMatch(MappedLogStore::isSegment)) {
+                    throw new IOException("Snapshot target " + target + " already contains a store");
+                }
+            }
+        }
+        StoreOptions snapshotOptions = StoreOptions.builder()
+            .segmentBytes(options.segmentBytes)
+            .syncInterval(Duration.ZERO)
+            .compactionInterval(Duration.ZERO)
+            .build();
+        writeLock.lock();
+        try (MappedLogStore copy = open(target, snapshotOptions)) {
+            ensureOpen();
+            for (Map.Entry<String, Location> entry : index.entrySet()) {
+                copy.put(entry.getKey(), get(entry.getKey()));
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+    
+    /**
+     * Returns the number of segment files.
+     */
+    public int getSegmentCount() {
+        writeLock.lock();
+        try {
+            return segments.size();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+    
+    /**
+     * Returns the bytes taken by the current record of every key.
+     */
+    public long getLiveBytes() {
+        return liveBytes.get();
+    }
+    
+    /**
+     * Returns the bytes of all records in the log, live or dead.
+     */
+    public long getTotalBytes() {
+        return totalBytes.get();
+    }
+    
+    public long getCompactions() {
+        return compactions.get();
+    }
+    
+    @Override
+    public void close() throws IOException {
+        writeLock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+        } finally {
+            writeLock.unlock();
+        }
+        if (maintenance != null) {
+            maintenance.shutdownNow();
+        }
+        writeLock.lock();
+        try {
+            for (Segment segment : segments) {
+                segment.buffer.force();
+            }
+            closeSegments(segments);
+        } finally {
+            writeLock.unlock();
+            fileLock.release();
+            lockChannel.close();
+        }
+    }
+    
+    private void ensureOpen() {
+        if (closed) {
+            throw new IllegalStateException("Store " + directory + " is closed");
+        }
+    }
+    
+    /**
+     * Appends one record to the active segment, rolling to a new segment if it does
+     * not fit. The length is written last, so the record only becomes visible to
+     * recovery once it is complete.
+     */
+    private Location append(byte type, byte[] key, byte[] value) {
+        int bodySize = BODY_PREFIX + key.length + value.length;
+        int recordSize = HEADER_SIZE + bodySize;
+        Segment segment;
+        try {
+            segment = segmentFor(recordSize, List.of());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not create a segment in " + directory, e);
+        }
+        
+        MappedByteBuffer buffer = segment.buffer;
+        int offset = segment.position;
+        int body = offset + HEADER_SIZE;
+        buffer.put(body, type);
+        buffer.putInt(body + 1, key.length);
+        buffer.put(body + BODY_PREFIX, key);
+        buffer.put(body + BODY_PREFIX + key.length, value);
+        buffer.putInt(offset + 4, crc(buffer, body, bodySize));
+        buffer.putInt(offset, bodySize);
+        
+        segment.position += recordSize;
+        segment.dirty = true;
+        totalBytes.addAndGet(recordSize);
+        return new Location(segment, offset, recordSize, body + BODY_PREFIX + key.length, value.length);
+    }
+    
+    /**
+     * Returns the active segment if the record fits, otherwise a new active segment.
+     * 
+     * @param retired Segments being replaced, whose ids new segments must follow
+     */
+    private Segment segmentFor(int recordSize, List<Segment> retired) throws IOException {
+        if (active != null && active.buffer.capacity() - active.position >= recordSize) {
+            return active;
+        }
+        long id = 0;
+        for (Segment segment : segments) {
+            id = Math.max(id, segment.id + 1);
+        }
+        for (Segment segment : retired) {
+            id = Math.max(id, segment.id + 1);
+        }
+        active = mapSegment(id, Math.max(options.segmentBytes, recordSize));
+        segments.add(active);
+        return active;
+    }
+    
+    private Segment mapSegment(long id, int size) throws IOException {
+        Path path = directory.resolve(String.format("%s%016d%s", SEGMENT_PREFIX, id, SEGMENT_SUFFIX));
+        FileChannel channel = FileChannel.open(path,
+            StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            int mapped = (int) Math.max(size, channel.size());
+            return new Segment(id, path, channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, mapped));
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+    
+    /**
+     * Maps the existing segments in order and replays them into the index.
+     */
+    private void recover() throws IOException {
+        List<Path> paths;
+        try (Stream<Path> files = Files.list(directory)) {
+            paths = files.filter(MappedLogStore::isSegment).sorted().toList();
+        }
+        for (Path path : paths) {
+            String name = path.getFileName().toString();
+            long id = Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+            Segment segment = mapSegment(id, 0);
+            segments.add(segment);
+            replay(segment);
+        }
+        if (!segments.isEmpty()) {
+            active = segments.get(segments.size() - 1);
+        }
+        if (!index.isEmpty()) {
+            log.info("Recovered {} keys from {} segments in {}", index.size(), segments.size(), directory);
+        }
+    }
+    
+    private void replay(Segment segment) {
+        MappedByteBuffer buffer = segment.buffer;
+        int capacity = buffer.capacity();
+        int offset = 0;
+        while (offset + HEADER_SIZE <= capacity) {
+            int bodySize = buffer.getInt(offset);
+            if (bodySize == 0) {
+                break;
+            }
+            int body = offset + HEADER_SIZE;
+            if (bodySize < BODY_PREFIX || bodySize > capacity - body
+                || buffer.getInt(offset + 4) != crc(buffer, body, bodySize)) {
+                log.warn("Discarding torn record at offset {} of {}", offset, segment.path);
+                int end = bodySize >= 0 && bodySize <= capacity - body ? body + bodySize : capacity;
+                for (int i = offset; i < end; i++) {
+                    buffer.put(i, (byte) 0);
+                }
+                break;
+            }
+            
+            byte type = buffer.get(body);
+            int keyLength = buffer.getInt(body + 1);
+            byte[] keyBytes = new byte[keyLength];
+            buffer.get(body + BODY_PREFIX, keyBytes);
+            String key = new String(keyBytes, StandardCharsets.UTF_8);
+            int recordSize = HEADER_SIZE + bodySize;
+            
+            Location previous;
+            if (type == PUT) {
+                int valueOffset = body + BODY_PREFIX + keyLength;
+                Location location = new Location(segment, offset, recordSize, valueOffset, bodySize - BODY_PREFIX - keyLength);
+                previous = index.put(key, location);
+                liveBytes.addAndGet(recordSize);
+            } else {
+                previous = index.remove(key);
+            }
+            if (previous != null) {
+                liveBytes.addAndGet(-previous.recordSize());
+            }
+            totalBytes.addAndGet(recordSize);
+            offset += recordSize;
+        }
+        segment.position = offset;
+    }
+    
+    private void compactIfDue() {
+        long dead = totalBytes.get() - liveBytes.get();
+        if (closed || dead < options.minCompactionBytes
+            || dead < options.compactionThreshold * totalBytes.get()) {
+            return;
+        }
+        try {
+            compact();
+        } catch (IOException | RuntimeException e) {
+            log.warn("Compaction of store {} failed", directory, e);
+        }
+    }
+    
+    private void syncQuietly() {
+        try {
+            sync();
+        } catch (RuntimeException | IOException e) {
+            log.warn("Sync of store {} failed", directory, e);
+        }
+    }
+    
+    private static int crc(MappedByteBuffer buffer, int offset, int length) {
+        CRC32 crc = new CRC32();
+        crc.update(buffer.slice(offset, length));
+        return (int) crc.getValue();
+    }
+    
+    private static boolean isSegment(Path path) {
+        String name = path.getFileName().toString();
+        return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+    }
+    
+    private static void closeSegments(List<Segment> segments) throws IOException {
+        for (Segment segment : segments) {
+            segment.channel.close();
+        }
+    }
+}
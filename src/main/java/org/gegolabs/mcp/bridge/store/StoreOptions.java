@@ -0,0 +1,59 @@
+package org.gegolabs.mcp.bridge.store;
+
+import lombok.Builder;
+
+import java.time.Duration;
+
+/**
+ * Options for {@link MappedLogStore#open(java.nio.file.Path, StoreOptions)}.
+ * 
+ * Usage:
+ * <pre>
+ * MappedLogStore store = MappedLogStore.open(Path.of("data"), StoreOptions.builder()
+ *     .segmentBytes(16 * 1024 * 1024)
+ *     .syncInterval(Duration.ZERO)
+ *     .build());
+ * </pre>
+ */
+@Builder
+public class StoreOptions {
+    
+    /**
+     * Size of each memory-mapped log segment. A record larger than this gets a segment of its own.
+     */
+    @Builder.Default
+    final int segmentBytes = 64 * 1024 * 1024;
+    
+    /**
+     * How often written segments are forced to disk. Zero only forces them on
+     * {@link MappedLogStore#sync()} and close; writes still survive a process crash,
+     * but not an operating system crash or power loss.
+     */
+    @Builder.Default
+    final Duration syncInterval = Duration.ofSeconds(1);
+    
+    /**
+     * How often the store checks whether compaction is due. Zero disables periodic compaction.
+     */
+    @Builder.Default
+    final Duration compactionInterval = Duration.ofMinutes(1);
+    
+    /**
+     * Share of the log taken by overwritten and deleted records at which compaction runs.
+     */
+    @Builder.Default
+    final double compactionThreshold = 0.5;
+    
+    /**
+     * Minimum number of dead bytes before compaction runs, so small stores are left alone.
+     */
+    @Builder.Default
+    final long minCompactionBytes = 4L * 1024 * 1024;
+    
+    /**
+     * Returns the default options.
+     */
+    public static StoreOptions defaults() {
+        return builder().build();
+    }
+}
@@ -0,0 +1,489 @@
+package org.gegolabs.mcp.bridge.tools;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import io.modelcontextprotocol.spec.McpSchema;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+
+import java.io.Closeable;
+import java.io.FilterInputStream;
+import java.io.FilterReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Tool result and resource content that is streamed into the socket instead of being held in memory.
+ * 
+ * The factory methods return ordinary MCP content whose text or data is a unique
+ * placeholder. When the bridge transport writes a response containing a
+ * placeholder, it serializes the response incrementally and copies the source into
+ * the socket in place of the placeholder: text is JSON-escaped on the fly and
+ * binary data is base64-encoded on the fly. Memory per call is therefore bounded
+ * by the serializer's buffers, whatever the size of the result. Sources are closed
+ * once written.
+ * 
+ * Only transports of this bridge understand placeholders; a result containing
+ * them must be returned through one of them. The in-process transport reads the
+ * source into memory instead of streaming it. A placeholder can be written only
+ * once, so results holding one are neither cached by {@link ToolResultCache} nor
+ * shared between callers by {@link ToolCallCoalescer}. A placeholder that is
+ * never written, for example because the handler failed after creating it, is
+ * released with {@link #discard} or after {@link #ABANDON_AFTER_MINUTES} minutes.
+ * 
+ * Usage:
+ * <pre>
+ * (exchange, args) -&gt; Mono.fromCallable(() -&gt; new McpSchema.CallToolResult(
+ *     List.of(StreamingContent.text(Path.of((String) args.get("path")))), false))
+ * </pre>
+ */
+@Slf4j
+public final class StreamingContent {
+    
+    /**
+     * Placeholders start with a NUL character, which never appears in ordinary text content.
+     */
+    static final String TOKEN_PREFIX = "\u0000mcp-bridge-stream:";
+    
+    public static final long ABANDON_AFTER_MINUTES = 10;
+    
+    private static final Map<String, Source> pending = new ConcurrentHashMap<>();
+    private static volatile ScheduledExecutorService sweeper;
+    
+    private StreamingContent() {
+    }
+    
+    /**
+     * Receives the progress of a source while it is being written.
+     */
+    @FunctionalInterface
+    public interface ProgressListener {
+        
+        /**
+         * @param written Characters of text or bytes of binary data written so far
+         * @param total The total if known in advance, otherwise -1
+         */
+        void onProgress(long written, long total);
+    }
+    
+    /**
+     * Streams text read from a reader, which is closed afterwards.
+     */
+    public static McpSchema.TextContent text(Reader reader) {
+        return text(reader, -1, null);
+    }
+    
+    /**
+     * Streams text read from a reader, which is closed afterwards, reporting progress to a listener.
+     * 
+     * @param length Number of characters if known, otherwise -1
+     */
+    public static McpSchema.TextContent text(Reader reader, long length, ProgressListener listener) {
+        return new McpSchema.TextContent(register(new TextSource(reader, length, listener)));
+    }
+    
+    /**
+     * Streams a UTF-8 text file. The file is opened when it is written.
+     */
+    public static McpSchema.TextContent text(Path file) {
+        return text(file, null);
+    }
+    
+    /**
+     * Streams a UTF-8 text file, reporting progress in bytes of the file.
+     */
+    public static McpSchema.TextContent text(Path file, ProgressListener listener) {
+        return new McpSchema.TextContent(register(new FileSource(file, listener)));
+    }
+    
+    /**
+     * Streams text chunks as they are produced. The flux is subscribed when the
+     * result is written, with bounded prefetch, and cancelled if writing fails.
+     */
+    public static McpSchema.TextContent text(Flux<String> chunks) {
+        return text(new ChunkReader(chunks), -1, null);
+    }
+    
+    /**
+     * Streams an image as base64 data. The stream is closed afterwards.
+     */
+    public static McpSchema.ImageContent image(InputStream data, String mimeType) {
+        return new McpSchema.ImageContent(null, register(new BinarySource(data, -1, null)), mimeType);
+    }
+    
+    /**
+     * Streams binary data as an embedded blob resource. The stream is closed afterwards.
+     * 
+     * @param length Number of bytes if known, otherwise -1
+     */
+    public static McpSchema.EmbeddedResource blob(String uri, String mimeType, InputStream data, long length,
+                                                  ProgressListener listener) {
+        return new McpSchema.EmbeddedResource(null, blobResource(uri, mimeType, data, length, listener));
+    }
+    
+    /**
+     * Streams text as resource contents, for {@code resources/read} results. The reader is closed afterwards.
+     */
+    public static McpSchema.TextResourceContents textResource(String uri, String mimeType, Reader reader) {
+        return new McpSchema.TextResourceContents(uri, mimeType, register(new TextSource(reader, -1, null)));
+    }
+    
+    /**
+     * Streams binary data as blob resource contents, for {@code resources/read} results.
+     * The stream is closed afterwards.
+     * 
+     * @param length Number of bytes if known, otherwise -1
+     */
+    public static McpSchema.BlobResourceContents blobResource(String uri, String mimeType, InputStream data,
+                                                              long length, ProgressListener listener) {
+        return new McpSchema.BlobResourceContents(uri, mimeType, register(new BinarySource(data, length, listener)));
+    }
+    
+    /**
+     * Releases the source behind a placeholder that will not be written.
+     */
+    public static void discard(McpSchema.Content content) {
+        if (content instanceof McpSchema.TextContent text) {
+            discard(text.text());
+        } else if (content instanceof McpSchema.ImageContent image) {
+            discard(image.data());
+        } else if (content instanceof McpSchema.EmbeddedResource embedded) {
+            discard(embedded.resource());
+        }
+    }
+    
+    /**
+     * Releases the source behind resource contents that will not be written.
+     */
+    public static void discard(McpSchema.ResourceContents contents) {
+        if (contents instanceof McpSchema.TextResourceContents text) {
+            discard(text.text());
+        } else if (contents instanceof McpSchema.BlobResourceContents blob) {
+            discard(blob.blob());
+        }
+    }
+    
+    /**
+     * Returns whether content carries a placeholder, which can be written only once and
+     * so must not be kept for reuse.
+     */
+    static boolean isStreamed(McpSchema.Content content) {
+        if (content instanceof McpSchema.TextContent text) {
+            return isToken(text.text());
+        }
+        if (content instanceof McpSchema.ImageContent image) {
+            return isToken(image.data());
+        }
+        if (content instanceof McpSchema.EmbeddedResource embedded) {
+            return embedded.resource() instanceof McpSchema.TextResourceContents text && isToken(text.text())
+                || embedded.resource() instanceof McpSchema.BlobResourceContents blob && isToken(blob.blob());
+        }
+        return false;
+    }
+    
+    /**
+     * Returns whether a tool or resource result carries a placeholder. Other results never do.
+     * Only the content objects are inspected, so this is cheap enough for every response.
+     */
+    public static boolean hasStreamedContent(Object result) {
+        if (result instanceof McpSchema.CallToolResult call) {
+            return call.content() != null && call.content().stream().anyMatch(StreamingContent::isStreamed);
+        }
+        if (result instanceof McpSchema.ReadResourceResult read) {
+            return read.contents() != null && read.contents().stream().anyMatch(contents ->
+                contents instanceof McpSchema.TextResourceContents text && isToken(text.text())
+                    || contents instanceof McpSchema.BlobResourceContents blob && isToken(blob.blob()));
+        }
+        return false;
+    }
+    
+    private static boolean isToken(String text) {
+        return text != null && text.startsWith(TOKEN_PREFIX);
+    }
+    
+    private static void discard(String token) {
+        Source source = token != null ? pending.remove(token) : null;
+        if (source != null) {
+            closeQuietly(source);
+        }
+    }
+    
+    /**
+     * Returns whether any placeholder is waiting to be written; a cheap check
+     * that lets transports skip looking for placeholders.
+     */
+    public static boolean hasPending() {
+        return !pending.isEmpty();
+    }
+    
+    /**
+     * Returns whether a JSON tree contains a placeholder.
+     */
+    public static boolean containsPlaceholder(JsonNode node) {
+        if (node.isTextual()) {
+            return isPlaceholder(node.textValue());
+        }
+        for (JsonNode child : node) {
+            if (containsPlaceholder(child)) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Writes a JSON tree, replacing placeholders with the content of their sources.
+     * 
+     * @throws IOException if writing fails or a source cannot be read; the output
+     *                     is then incomplete
+     */
+    public static void writeTree(JsonGenerator generator, JsonNode node) throws IOException {
+        if (node.isObject()) {
+            generator.writeStartObject();
+            for (Iterator<Map.Entry<String, JsonNode>> it = node.fields(); it.hasNext(); ) {
+                Map.Entry<String, JsonNode> field = it.next();
+                generator.writeFieldName(field.getKey());
+                writeTree(generator, field.getValue());
+            }
+            generator.writeEndObject();
+        } else if (node.isArray()) {
+            generator.writeStartArray();
+            for (JsonNode element : node) {
+                writeTree(generator, element);
+            }
+            generator.writeEndArray();
+        } else if (node.isTextual() && isPlaceholder(node.textValue())) {
+            Source source = pending.remove(node.textValue());
+            if (source == null) {
+                throw new IOException("Streaming content was already written or discarded");
+            }
+            try (source) {
+                source.writeTo(generator);
+            }
+        } else {
+            generator.writeTree(node);
+        }
+    }
+    
+    static boolean isPlaceholder(String text) {
+        return text != null && text.startsWith(TOKEN_PREFIX) && pending.containsKey(text);
+    }
+    
+    static int pendingCount() {
+        return pending.size();
+    }
+    
+    private static String register(Source source) {
+        startSweeper();
+        String token = TOKEN_PREFIX + UUID.randomUUID();
+        pending.put(token, source);
+        return token;
+    }
+    
+    /**
+     * Starts the background sweep of abandoned sources on first use, so that they are
+     * closed even if no further streaming content is created.
+     */
+    private static void startSweeper() {
+        if (sweeper != null) {
+            return;
+        }
+        synchronized (StreamingContent.class) {
+            if (sweeper == null) {
+                ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(r -> {
+                    Thread thread = new Thread(r, "mcp-bridge-streaming-sweeper");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+                executor.scheduleWithFixedDelay(StreamingContent::sweepAbandoned, 1, 1, TimeUnit.MINUTES);
+                sweeper = executor;
+            }
+        }
+    }
+    
+    private static void sweepAbandoned() {
+        long now = System.nanoTime();
+        pending.entrySet().removeIf(entry -> {
+            boolean abandoned = now - entry.getValue().createdNanos > TimeUnit.MINUTES.toNanos(ABANDON_AFTER_MINUTES);
+            if (abandoned) {
+                log.warn("Discarding streaming content that was never written");
+                closeQuietly(entry.getValue());
+            }
+            return abandoned;
+        });
+    }
+    
+    private static void closeQuietly(Closeable closeable) {
+        try {
+            closeable.close();
+        } catch (IOException e) {
+            log.debug("Error closing streaming content source", e);
+        }
+    }
+    
+    private abstract static class Source implements Closeable {
+        final long createdNanos = System.nanoTime();
+        
+        abstract void writeTo(JsonGenerator generator) throws IOException;
+    }
+    
+    private static final class TextSource extends Source {
+        private final Reader reader;
+        
+        TextSource(Reader reader, long length, ProgressListener listener) {
+            this.reader = listener == null ? reader : new FilterReader(reader) {
+                private long written;
+                
+                @Override
+                public int read(char[] buffer, int offset, int count) throws IOException {
+                    int n = super.read(buffer, offset, count);
+                    if (n > 0) {
+                        written += n;
+                        listener.onProgress(written, length);
+                    }
+                    return n;
+                }
+            };
+        }
+        
+        @Override
+        void writeTo(JsonGenerator generator) throws IOException {
+            generator.writeString(reader, -1);
+        }
+        
+        @Override
+        public void close() throws IOException {
+            reader.close();
+        }
+    }
+    
+    private static final class FileSource extends Source {
+        private final Path file;
+        private final ProgressListener listener;
+        
+        FileSource(Path file, ProgressListener listener) {
+            this.file = file;
+            this.listener = listener;
+        }
+        
+        @Override
+        void writeTo(JsonGenerator generator) throws IOException {
+            long size = Files.size(file);
+            InputStream in = Files.newInputStream(file);
+            if (listener != null) {
+                in = new ProgressInputStream(in, size, listener);
+            }
+            try (Reader reader = new InputStreamReader(in, StandardCharsets.UTF_8)) {
+                generator.writeString(reader, -1);
+            }
+        }
+        
+        @Override
+        public void close() {
+        }
+    }
+    
+    private static final class BinarySource extends Source {
+        private final InputStream data;
+        
+        BinarySource(InputStream data, long length, ProgressListener listener) {
+            this.data = listener == null ? data : new ProgressInputStream(data, length, listener);
+        }
+        
+        @Override
+        void writeTo(JsonGenerator generator) throws IOException {
+            generator.writeBinary(data, -1);
+        }
+        
+        @Override
+        public void close() throws IOException {
+            data.close();
+        }
+    }
+    
+    private static final class ProgressInputStream extends FilterInputStream {
+        private final long length;
+        private final ProgressListener listener;
+        private long written;
+        
+        ProgressInputStream(InputStream in, long length, ProgressListener listener) {
+            super(in);
+            this.length = length;
+            this.listener = listener;
+        }
+        
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                listener.onProgress(++written, length);
+            }
+            return b;
+        }
+        
+        @Override
+        public int read(byte[] buffer, int offset, int count) throws IOException {
+            int n = super.read(buffer, offset, count);
+            if (n > 0) {
+                written += n;
+                listener.onProgress(written, length);
+            }
+            return n;
+        }
+    }
+    
+    /**
+     * Reads a stream of text chunks; closing it cancels the underlying subscription.
+     */
+    private static final class ChunkReader extends Reader {
+        private final Flux<String> source;
+        private Stream<String> chunks;
+        private Iterator<String> iterator;
+        private String current = "";
+        private int position;
+        
+        ChunkReader(Flux<String> source) {
+            this.source = source;
+        }
+        
+        @Override
+        public int read(char[] buffer, int offset, int count) {
+            if (iterator == null) {
+                // Subscribes only now, when the result is being written
+                chunks = source.toStream(16);
+                iterator = chunks.iterator();
+            }
+            while (position == current.length()) {
+                if (!iterator.hasNext()) {
+                    return -1;
+                }
+                current = iterator.next();
+                position = 0;
+            }
+            int n = Math.min(count, current.length() - position);
+            current.getChars(position, position + n, buffer, offset);
+            position += n;
+            return n;
+        }
+        
+        @Override
+        public void close() {
+            if (chunks != null) {
+                chunks.close();
+            }
+        }
+    }
+}
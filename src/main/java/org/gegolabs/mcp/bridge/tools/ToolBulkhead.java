@@ -0,0 +1,129 @@
+package org.gegolabs.mcp.bridge.tools;
+
+import lombok.Builder;
+import org.gegolabs.mcp.bridge.metrics.LatencyHistogram;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Concurrency limit, wait queue and priority for one tool or group of tools run
+ * by a {@link ToolScheduler}.
+ * 
+ * Passing the same bulkhead for several tools makes them share its limit. A
+ * bulkhead belongs to a single scheduler.
+ * 
+ * Usage:
+ * <pre>
+ * ToolBulkhead reports = ToolBulkhead.builder()
+ *     .name("reports")
+ *     .maxConcurrent(2)
+ *     .maxQueued(50)
+ *     .queueTimeout(Duration.ofMinutes(1))
+ *     .priority(ToolScheduler.Priority.BATCH)
+ *     .build();
+ * </pre>
+ */
+@Builder
+public class ToolBulkhead implements ToolBulkheadMXBean {
+    
+    /**
+     * Name shown in metrics, usually the tool name.
+     */
+    private final String name;
+    
+    /**
+     * Maximum number of calls running at once.
+     */
+    @Builder.Default
+    final int maxConcurrent = 4;
+    
+    /**
+     * Maximum number of calls waiting to run; further calls are rejected.
+     */
+    @Builder.Default
+    final int maxQueued = 32;
+    
+    /**
+     * How long a call may wait to run before it is rejected.
+     */
+    @Builder.Default
+    final Duration queueTimeout = Duration.ofSeconds(10);
+    
+    /**
+     * Priority of waiting calls relative to other bulkheads.
+     */
+    @Builder.Default
+    final ToolScheduler.Priority priority = ToolScheduler.Priority.NORMAL;
+    
+    // Changed under the owning scheduler's lock, read without it
+    final AtomicInteger active = new AtomicInteger();
+    final AtomicInteger queued = new AtomicInteger();
+    
+    final LongAdder started = new LongAdder();
+    final LongAdder rejected = new LongAdder();
+    final LongAdder timedOut = new LongAdder();
+    final LatencyHistogram queueWait = new LatencyHistogram();
+    
+    /**
+     * Returns a bulkhead with default limits.
+     */
+    public static ToolBulkhead of(String name, ToolScheduler.Priority priority) {
+        return builder().name(name).priority(priority).build();
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    @Override
+    public String getPriority() {
+        return priority.name();
+    }
+    
+    @Override
+    public int getMaxConcurrent() {
+        return maxConcurrent;
+    }
+    
+    @Override
+    public int getActive() {
+        return active.get();
+    }
+    
+    @Override
+    public int getQueued() {
+        return queued.get();
+    }
+    
+    @Override
+    public double getUtilization() {
+        return (double) active.get() / maxConcurrent;
+    }
+    
+    @Override
+    public long getStarted() {
+        return started.sum();
+    }
+    
+    @Override
+    public long getRejected() {
+        return rejected.sum();
+    }
+    
+    @Override
+    public long getTimedOut() {
+        return timedOut.sum();
+    }
+    
+    @Override
+    public double getMeanQueueWaitMillis() {
+        return queueWait.getMeanNanos() / 1_000_000.0;
+    }
+    
+    @Override
+    public double get99thPercentileQueueWaitMillis() {
+        return queueWait.getValueAtPercentile(99.0) / 1_000_000.0;
+    }
+}
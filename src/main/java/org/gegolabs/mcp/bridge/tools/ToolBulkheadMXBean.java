@@ -0,0 +1,27 @@
+package org.gegolabs.mcp.bridge.tools;
+
+/**
+ * JMX view of a {@link ToolBulkhead}.
+ */
+public interface ToolBulkheadMXBean {
+    
+    String getPriority();
+    
+    int getMaxConcurrent();
+    
+    int getActive();
+    
+    int getQueued();
+    
+    double getUtilization();
+    
+    long getStarted();
+    
+    long getRejected();
+    
+    long getTimedOut();
+    
+    double getMeanQueueWaitMillis();
+    
+    double get99thPercentileQueueWaitMillis();
+}
@@ -0,0 +1,118 @@
+package org.gegolabs.mcp.bridge.tools;
+
+import io.modelcontextprotocol.server.McpAsyncServerExchange;
+import io.modelcontextprotocol.server.McpServerFeatures;
+import io.modelcontextprotocol.spec.McpSchema;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Collapses identical concurrent tool calls into one execution.
+ * 
+ * While a call to a wrapped tool is running, further calls with the same tool
+ * name and arguments (compared like {@link ToolResultCache} keys) subscribe to
+ * the running call instead of invoking the handler again, and all of them get its
+ * result or error. Once the call finishes, the next identical call runs the
+ * handler again; combine with a {@link ToolResultCache} to also reuse finished
+ * results.
+ * 
+ * A waiter that goes away, for example because its client disconnected, only
+ * stops waiting. The shared execution is cancelled when the last waiter
+ * cancels. The handler sees the exchange of the call that started the
+ * execution, so tools that talk back to their client through the exchange
+ * should not be coalesced.
+ * 
+ * A result holding {@link StreamingContent} can be written only once, so it goes
+ * to the call that started the execution alone; every call that joined runs the
+ * handler again for a result of its own.
+ * 
+ * Usage:
+ * <pre>
+ * ToolCallCoalescer coalescer = new ToolCallCoalescer();
+ * 
+ * McpServer.async(transport)
+ *     .tools(coalescer.coalesced(cache.cached(lookupTool)))
+ *     .build();
+ * </pre>
+ */
+public class ToolCallCoalescer {
+    
+    private final Map<String, Flight> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder executions = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    
+    /**
+     * One running execution, shared by everyone waiting for it.
+     */
+    private static final class Flight {
+        Mono<McpSchema.CallToolResult> result;
+    }
+    
+    /**
+     * Wraps a tool so that identical concurrent calls share one execution.
+     */
+    public McpServerFeatures.AsyncToolSpecification coalesced(McpServerFeatures.AsyncToolSpecification spec) {
+        String tool = spec.tool().name();
+        return new McpServerFeatures.AsyncToolSpecification(spec.tool(), (exchange, arguments) -> Mono.defer(() -> {
+            String key = ToolResultCache.key(tool, arguments);
+            Flight existing = inFlight.get(key);
+            if (existing != null) {
+                return join(existing, spec, exchange, arguments);
+            }
+            
+            Flight flight = new Flight();
+            flight.result = Mono.defer(() -> {
+                    executions.increment();
+                    return spec.call().apply(exchange, arguments);
+                })
+                .doFinally(signal -> inFlight.remove(key, flight))
+                .flux()
+                .publish()
+                .refCount()
+                .singleOrEmpty();
+            
+            existing = inFlight.putIfAbsent(key, flight);
+            if (existing != null) {
+                return join(existing, spec, exchange, arguments);
+            }
+            return flight.result;
+        }));
+    }
+    
+    private Mono<McpSchema.CallToolResult> join(Flight flight, McpServerFeatures.AsyncToolSpecification spec,
+                                                McpAsyncServerExchange exchange, Map<String, Object> arguments) {
+        coalesced.increment();
+        return flight.result.flatMap(result -> {
+            if (!StreamingContent.hasStreamedContent(result)) {
+                return Mono.just(result);
+            }
+            // The starting call writes the placeholder; this one needs its own source
+            executions.increment();
+            return spec.call().apply(exchange, arguments);
+        });
+    }
+    
+    /**
+     * Returns the number of times a wrapped handler was actually invoked.
+     */
+    public long getExecutions() {
+        return executions.sum();
+    }
+    
+    /**
+     * Returns the number of calls that joined an execution already in flight.
+     */
+    public long getCoalescedCalls() {
+        return coalesced.sum();
+    }
+    
+    /**
+     * Returns the number of executions currently in flight.
+     */
+    public int getInFlight() {
+        return inFlight.size();
+    }
+}
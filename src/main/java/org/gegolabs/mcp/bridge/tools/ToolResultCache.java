@@ -0,0 +1,344 @@
+package org.gegolabs.mcp.bridge.tools;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.modelcontextprotocol.server.McpServerFeatures;
+import io.modelcontextprotocol.spec.McpSchema;
+import lombok.Builder;
+import lombok.extern.slf4j.Slf4j;
+import org.gegolabs.mcp.bridge.metrics.BridgeMetrics;
+import reactor.core.publisher.Mono;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Caches the results of idempotent tools.
+ * 
+ * Tools opt in by being wrapped with {@link #cached}. Results are keyed by tool
+ * name and canonical arguments, meaning JSON with object keys sorted, so argument
+ * order does not matter. Entries expire after a time to live and are evicted least
+ * recently used first once the cache exceeds its entry count or its estimated
+ * memory weight. Error results and results holding {@link StreamingContent} are
+ * never cached.
+ * 
+ * Usage:
+ * <pre>
+ * ToolResultCache cache = ToolResultCache.builder()
+ *     .ttl(Duration.ofSeconds(30))
+ *     .maxWeightBytes(16 * 1024 * 1024)
+ *     .build();
+ * 
+ * McpServer.async(transport)
+ *     .tools(cache.cached(lookupTool), updateTool)
+ *     .build();
+ * 
+ * cache.invalidate("lookup"); // after updateTool changed the data
+ * </pre>
+ */
+@Slf4j
+@Builder
+public class ToolResultCache implements ToolResultCacheMXBean {
+    
+    private static final ObjectMapper canonicalMapper = new ObjectMapper()
+        .configure(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS, true);
+    
+    /**
+     * Maximum number of cached results.
+     */
+    @Builder.Default
+    private final int maxEntries = 10_000;
+    
+    /**
+     * Maximum estimated memory taken by cached results and their keys.
+     * Results estimated above a quarter of this are not cached.
+     */
+    @Builder.Default
+    private final long maxWeightBytes = 64L * 1024 * 1024;
+    
+    /**
+     * Default time to live of cached results.
+     */
+    @Builder.Default
+    private final Duration ttl = Duration.ofMinutes(1);
+    
+    /**
+     * Time source in nanoseconds, replaceable for tests.
+     */
+    @Builder.Default
+    private final LongSupplier clock = System::nanoTime;
+    
+    private final Object lock = new Object();
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private final AtomicLong weight = new AtomicLong();
+    private final Map<String, Long> toolInvalidations = new HashMap<>();
+    // Final so that the builder does not expose them; changed under the lock
+    private final AtomicLong invalidations = new AtomicLong();
+    private final AtomicLong allInvalidated = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+    private final AtomicReference<ObjectName> mbeanName = new AtomicReference<>();
+    
+    private record Entry(String tool, McpSchema.CallToolResult result, long expiresAt, long weight) {
+    }
+    
+    /**
+     * Returns a cache with default settings.
+     */
+    public static ToolResultCache defaults() {
+        return builder().build();
+    }
+    
+    /**
+     * Wraps a tool so that its successful results are cached for the default time to live.
+     */
+    public McpServerFeatures.AsyncToolSpecification cached(McpServerFeatures.AsyncToolSpecification spec) {
+        return cached(spec, ttl);
+    }
+    
+    /**
+     * Wraps a tool so that its successful results are cached for the given time to live.
+     */
+    public McpServerFeatures.AsyncToolSpecification cached(McpServerFeatures.AsyncToolSpecification spec,
+                                                           Duration toolTtl) {
+        String tool = spec.tool().name();
+        long ttlNanos = toolTtl.toNanos();
+        return new McpServerFeatures.AsyncToolSpecification(spec.tool(), (exchange, arguments) -> Mono.defer(() -> {
+            String key = key(tool, arguments);
+            McpSchema.CallToolResult cachedResult = get(key);
+            if (cachedResult != null) {
+                return Mono.just(cachedResult);
+            }
+            long generation = generation(tool);
+            return spec.call().apply(exchange, arguments)
+                .doOnNext(result -> put(key, tool, result, ttlNanos, generation));
+        }));
+    }
+    
+    /**
+     * Removes all cached results of a tool.
+     */
+    public void invalidate(String tool) {
+        synchronized (lock) {
+            toolInvalidations.put(tool, invalidations.incrementAndGet());
+            entries.values().removeIf(entry -> {
+                boolean match = entry.tool().equals(tool);
+                if (match) {
+                    weight.addAndGet(-entry.weight());
+                }
+                return match;
+            });
+        }
+    }
+    
+    /**
+     * Removes the cached result of one call.
+     */
+    public void invalidate(String tool, Map<String, Object> arguments) {
+        String key = key(tool, arguments);
+        synchronized (lock) {
+            toolInvalidations.put(tool, invalidations.incrementAndGet());
+            Entry removed = entries.remove(key);
+            if (removed != null) {
+                weight.addAndGet(-removed.weight());
+            }
+        }
+    }
+    
+    @Override
+    public void invalidateAll() {
+        synchronized (lock) {
+            allInvalidated.set(invalidations.incrementAndGet());
+            toolInvalidations.clear();
+            entries.clear();
+            weight.set(0);
+        }
+    }
+    
+    /**
+     * Returns the cache key for a call: the tool name and its arguments as JSON with sorted keys.
+     */
+    static String key(String tool, Map<String, Object> arguments) {
+        try {
+            return tool + '\0' + canonicalMapper.writeValueAsString(arguments != null ? arguments : Map.of());
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Tool arguments are not serializable", e);
+        }
+    }
+    
+    /**
+     * Returns the last invalidation affecting a tool. Invalidating one tool leaves the
+     * generation of the others unchanged, so their results computed meanwhile are kept.
+     */
+    long generation(String tool) {
+        synchronized (lock) {
+            return toolInvalidations.getOrDefault(tool, allInvalidated.get());
+        }
+    }
+    
+    McpSchema.CallToolResult get(String key) {
+        synchronized (lock) {
+            Entry entry = entries.get(key);
+            if (entry != null && entry.expiresAt() - clock.getAsLong() > 0) {
+                hits.increment();
+                return entry.result();
+            }
+            if (entry != null) {
+                entries.remove(key);
+                weight.addAndGet(-entry.weight());
+                expirations.increment();
+            }
+        }
+        misses.increment();
+        return null;
+    }
+    
+    /**
+     * Stores a result unless the tool was invalidated since {@code generation} was
+     * read, which would mean the result may predate the invalidation.
+     */
+    void put(String key, String tool, McpSchema.CallToolResult result, long ttlNanos, long generation) {
+        if (Boolean.TRUE.equals(result.isError()) || ttlNanos <= 0) {
+            return;
+        }
+        // A placeholder is consumed when first written; replaying it would send the raw token
+        if (StreamingContent.hasStreamedContent(result)) {
+            log.debug("Not caching {} result with streaming content", tool);
+            return;
+        }
+        long entryWeight = weigh(key, result);
+        if (entryWeight > maxWeightBytes / 4) {
+            log.debug("Not caching {} result of about {} bytes", tool, entryWeight);
+            return;
+        }
+        synchronized (lock) {
+            if (toolInvalidations.getOrDefault(tool, allInvalidated.get()) != generation) {
+                return;
+            }
+            Entry previous = entries.put(key, new Entry(tool, result, clock.getAsLong() + ttlNanos, entryWeight));
+            weight.addAndGet(entryWeight - (previous != null ? previous.weight() : 0));
+            
+            Iterator<Entry> eldest = entries.values().iterator();
+            while ((entries.size() > maxEntries || weight.get() > maxWeightBytes) && eldest.hasNext()) {
+                Entry evicted = eldest.next();
+                eldest.remove();
+                weight.addAndGet(-evicted.weight());
+                evictions.increment();
+            }
+        }
+    }
+    
+    /**
+     * Estimates the heap taken by a cached result, counting strings at two bytes per character.
+     */
+    static long weigh(String key, McpSchema.CallToolResult result) {
+        long total = 96 + 2L * key.length();
+        if (result.content() == null) {
+            return total;
+        }
+        for (McpSchema.Content content : result.content()) {
+            total += 48;
+            if (content instanceof McpSchema.TextContent text && text.text() != null) {
+                total += 2L * text.text().length();
+            } else if (content instanceof McpSchema.ImageContent image && image.data() != null) {
+                total += 2L * image.data().length();
+            } else if (content instanceof McpSchema.EmbeddedResource embedded) {
+                if (embedded.resource() instanceof McpSchema.TextResourceContents text && text.text() != null) {
+                    total += 2L * text.text().length();
+                } else if (embedded.resource() instanceof McpSchema.BlobResourceContents blob && blob.blob() != null) {
+                    total += 2L * blob.blob().length();
+                }
+            }
+        }
+        return total;
+    }
+    
+    /**
+     * Publishes this cache's statistics as a JMX MBean.
+     * 
+     * @param name Name identifying this cache
+     */
+    public void registerMBean(String name) {
+        try {
+            ObjectName objectName = new ObjectName(BridgeMetrics.JMX_DOMAIN
+                + ":type=ToolResultCache,name=" + ObjectName.quote(name));
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            if (mbeanName.compareAndSet(null, objectName) && !server.isRegistered(objectName)) {
+                server.registerMBean(this, objectName);
+            }
+        } catch (JMException e) {
+            log.warn("Failed to register tool result cache MBean {}", name, e);
+        }
+    }
+    
+    /**
+     * Removes the MBean registered by {@link #registerMBean(String)}.
+     */
+    public void unregisterMBean() {
+        ObjectName objectName = mbeanName.getAndSet(null);
+        if (objectName == null) {
+            return;
+        }
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            if (server.isRegistered(objectName)) {
+                server.unregisterMBean(objectName);
+            }
+        } catch (JMException e) {
+            log.warn("Failed to unregister tool result cache MBean {}", objectName, e);
+        }
+    }
+    
+    @Override
+    public long getHits() {
+        return hits.sum();
+    }
+    
+    @Override
+    public long getMisses() {
+        return misses.sum();
+    }
+    
+    @Override
+    public double getHitRatio() {
+        long hitCount = hits.sum();
+        long total = hitCount + misses.sum();
+        return total == 0 ? 0.0 : (double) hitCount / total;
+    }
+    
+    @Override
+    public long getEvictions() {
+        return evictions.sum();
+    }
+    
+    @Override
+    public long getExpirations() {
+        return expirations.sum();
+    }
+    
+    @Override
+    public int getSize() {
+        synchronized (lock) {
+            return entries.size();
+        }
+    }
+    
+    @Override
+    public long getWeight() {
+        return weight.get();
+    }
+}
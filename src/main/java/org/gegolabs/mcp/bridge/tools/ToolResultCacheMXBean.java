@@ -0,0 +1,23 @@
+package org.gegolabs.mcp.bridge.tools;
+
+/**
+ * JMX view of a {@link ToolResultCache}.
+ */
+public interface ToolResultCacheMXBean {
+    
+    long getHits();
+    
+    long getMisses();
+    
+    double getHitRatio();
+    
+    long getEvictions();
+    
+    long getExpirations();
+    
+    int getSize();
+    
+    long getWeight();
+    
+    void invalidateAll();
+}
@@ -0,0 +1,411 @@
+package org.gegolabs.mcp.bridge.tools;
+
+import io.modelcontextprotocol.server.McpServerFeatures;
+import io.modelcontextprotocol.spec.McpSchema;
+import lombok.Builder;
+import lombok.extern.slf4j.Slf4j;
+import org.gegolabs.mcp.bridge.metrics.BridgeMetrics;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Runs tool calls behind per-tool bulkheads and a shared, priority-aware limit.
+ * 
+ * Each wrapped tool gets a {@link ToolBulkhead} limiting how many of its calls
+ * run at once. Calls over that limit wait in a bounded queue and are rejected
+ * with an error result when the queue is full or their wait times out. On top of
+ * that, at most {@code maxConcurrent} calls run across all tools, and waiting
+ * calls are started in priority order, oldest first within a priority. The last
+ * {@code interactiveReserve} slots are kept for {@link Priority#INTERACTIVE}
+ * calls, so cheap interactive tools still start while heavy tools keep the rest
+ * busy.
+ * 
+ * Handlers are subscribed on {@code scheduler}, so a handler that blocks while
+ * building its {@code Mono} only holds a worker of that scheduler.
+ * 
+ * Usage:
+ * <pre>
+ * ToolScheduler tools = ToolScheduler.builder()
+ *     .maxConcurrent(32)
+ *     .interactiveReserve(8)
+ *     .build();
+ * 
+ * McpServer.async(transport)
+ *     .tools(tools.isolated(lookupTool, ToolBulkhead.of("lookup", ToolScheduler.Priority.INTERACTIVE)),
+ *            tools.isolated(reportTool, reports))
+ *     .build();
+ * </pre>
+ */
+@Slf4j
+@Builder
+public class ToolScheduler implements ToolSchedulerMXBean {
+    
+    /**
+     * Order in which waiting calls are started.
+     */
+    public enum Priority {
+        INTERACTIVE, NORMAL, BATCH
+    }
+    
+    /**
+     * Maximum number of calls running at once across all bulkheads.
+     */
+    @Builder.Default
+    private final int maxConcurrent = 64;
+    
+    /**
+     * Slots of {@code maxConcurrent} that only interactive calls may use.
+     */
+    @Builder.Default
+    private final int interactiveReserve = 8;
+    
+    /**
+     * Scheduler that tool handlers are subscribed on.
+     */
+    @Builder.Default
+    private final Scheduler scheduler = Schedulers.boundedElastic();
+    
+    /**
+     * Scheduler used for queue timeouts.
+     */
+    @Builder.Default
+    private final Scheduler timer = Schedulers.parallel();
+    
+    private final Object lock = new Object();
+    private final TreeSet<Call> queue = new TreeSet<>(Call.ORDER);
+    private final AtomicInteger running = new AtomicInteger();
+    private final AtomicLong sequence = new AtomicLong();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder timedOut = new LongAdder();
+    private final Map<String, ToolBulkhead> bulkheads = new ConcurrentHashMap<>();
+    private final AtomicReference<ObjectName> mbeanName = new AtomicReference<>();
+    
+    private enum State {
+        NEW, QUEUED, RUNNING, DONE
+    }
+    
+    /**
+     * One call passing through the scheduler. Its state is guarded by the scheduler lock.
+     */
+    static final class Call {
+        
+        static final Comparator<Call> ORDER = Comparator
+            .comparingInt((Call call) -> call.bulkhead.priority.ordinal())
+            .thenComparingLong(call -> call.sequence);
+        
+        final ToolBulkhead bulkhead;
+        final long sequence;
+        final long submittedAt = System.nanoTime();
+        final Consumer<Call> start;
+        final Consumer<String> reject;
+        State state = State.NEW;
+        Disposable timeout;
+        volatile Disposable execution;
+        volatile boolean cancelled;
+        
+        Call(ToolBulkhead bulkhead, long sequence, Consumer<Call> start, Consumer<String> reject) {
+            this.bulkhead = bulkhead;
+            this.sequence = sequence;
+            this.start = start;
+            this.reject = reject;
+        }
+    }
+    
+    /**
+     * Returns a scheduler with default limits.
+     */
+    public static ToolScheduler defaults() {
+        return builder().build();
+    }
+    
+    /**
+     * Wraps a tool in its own bulkhead with default limits.
+     */
+    public McpServerFeatures.AsyncToolSpecification isolated(McpServerFeatures.AsyncToolSpecification spec,
+                                                             Priority priority) {
+        return isolated(spec, ToolBulkhead.of(spec.tool().name(), priority));
+    }
+    
+    /**
+     * Wraps a tool so that its calls are admitted through the given bulkhead.
+     */
+    public McpServerFeatures.AsyncToolSpecification isolated(McpServerFeatures.AsyncToolSpecification spec,
+                                                             ToolBulkhead bulkhead) {
+        String tool = spec.tool().name();
+        String name = bulkhead.getName() != null ? bulkhead.getName() : tool;
+        if (bulkheads.putIfAbsent(name, bulkhead) == null && mbeanName.get() != null) {
+            registerBulkheadMBean(mbeanName.get(), name, bulkhead);
+        }
+        
+        return new McpServerFeatures.AsyncToolSpecification(spec.tool(), (exchange, arguments) ->
+            Mono.<McpSchema.CallToolResult>create(sink -> {
+                Call call = new Call(bulkhead, sequence.incrementAndGet(), self -> {
+                        self.execution = Mono.defer(() -> spec.call().apply(exchange, arguments))
+                            .subscribeOn(scheduler)
+                            .doFinally(signal -> release(self))
+                            .subscribe(sink::success, sink::error, sink::success);
+                        if (self.cancelled) {
+                            self.execution.dispose();
+                        }
+                    },
+                    reason -> sink.success(new McpSchema.CallToolResult("Tool " + tool + " is busy: " + reason, true)));
+                sink.onDispose(() -> cancel(call));
+                submit(call);
+            }));
+    }
+    
+    /**
+     * Starts a call if both its bulkhead and the shared limit allow it, and
+     * otherwise queues or rejects it.
+     */
+    void submit(Call call) {
+        ToolBulkhead bulkhead = call.bulkhead;
+        String rejection = null;
+        boolean started = false;
+        synchronized (lock) {
+            if (call.cancelled) {
+                return;
+            }
+            if (canStart(bulkhead)) {
+                acquire(call);
+                started = true;
+            } else if (bulkhead.queued.get() >= bulkhead.maxQueued) {
+                call.state = State.DONE;
+                bulkhead.rejected.increment();
+                rejected.increment();
+                rejection = "too many calls waiting";
+            } else {
+                call.state = State.QUEUED;
+                queue.add(call);
+                bulkhead.queued.incrementAndGet();
+                call.timeout = timer.schedule(() -> expire(call),
+                    bulkhead.queueTimeout.toNanos(), TimeUnit.NANOSECONDS);
+            }
+        }
+        if (rejection != null) {
+            call.reject.accept(rejection);
+        } else if (started) {
+            call.start.accept(call);
+        }
+    }
+    
+    /**
+     * Frees the slot of a finished call and starts waiting calls that now fit.
+     */
+    void release(Call call) {
+        List<Call> ready;
+        synchronized (lock) {
+            if (call.state != State.RUNNING) {
+                return;
+            }
+            call.state = State.DONE;
+            call.bulkhead.active.decrementAndGet();
+            running.decrementAndGet();
+            ready = drain();
+        }
+        ready.forEach(next -> next.start.accept(next));
+    }
+    
+    /**
+     * Removes a waiting call from the queue, or cancels a running one.
+     */
+    void cancel(Call call) {
+        call.cancelled = true;
+        synchronized (lock) {
+            if (call.state == State.QUEUED) {
+                dequeue(call);
+                call.state = State.DONE;
+                return;
+            }
+        }
+        Disposable execution = call.execution;
+        if (execution != null) {
+            execution.dispose();
+        }
+    }
+    
+    /**
+     * Rejects a call that is still waiting when its queue timeout elapses.
+     */
+    void expire(Call call) {
+        synchronized (lock) {
+            if (call.state != State.QUEUED) {
+                return;
+            }
+            dequeue(call);
+            call.state = State.DONE;
+            call.bulkhead.timedOut.increment();
+            timedOut.increment();
+        }
+        call.reject.accept("timed out after " + call.bulkhead.queueTimeout.toMillis() + " ms waiting to run");
+    }
+    
+    private boolean canStart(ToolBulkhead bulkhead) {
+        int limit = bulkhead.priority == Priority.INTERACTIVE
+            ? maxConcurrent
+            : Math.max(1, maxConcurrent - interactiveReserve);
+        return bulkhead.active.get() < bulkhead.maxConcurrent && running.get() < limit;
+    }
+    
+    /**
+     * Marks a call as running. Calls that start at once are recorded in the queue wait
+     * statistics too, with the little time they spent in {@link #submit}.
+     */
+    private void acquire(Call call) {
+        call.bulkhead.queueWait.record(System.nanoTime() - call.submittedAt);
+        call.state = State.RUNNING;
+        call.bulkhead.active.incrementAndGet();
+        call.bulkhead.started.increment();
+        running.incrementAndGet();
+    }
+    
+    private void dequeue(Call call) {
+        queue.remove(call);
+        call.bulkhead.queued.decrementAndGet();
+        if (call.timeout != null) {
+            call.timeout.dispose();
+        }
+    }
+    
+    /**
+     * Takes every waiting call that can start now, highest priority first.
+     */
+    private List<Call> drain() {
+        List<Call> ready = new ArrayList<>();
+        Iterator<Call> waiting = queue.iterator();
+        while (waiting.hasNext() && running.get() < maxConcurrent) {
+            Call next = waiting.next();
+            if (canStart(next.bulkhead)) {
+                waiting.remove();
+                next.bulkhead.queued.decrementAndGet();
+                if (next.timeout != null) {
+                    next.timeout.dispose();
+                }
+                acquire(next);
+                ready.add(next);
+            }
+        }
+        return ready;
+    }
+    
+    /**
+     * Returns the bulkheads in use, by name.
+     */
+    public Map<String, ToolBulkhead> getBulkheads() {
+        return Map.copyOf(bulkheads);
+    }
+    
+    /**
+     * Publishes this scheduler and its bulkheads as JMX MBeans. Bulkheads added
+     * later are published as they are added.
+     * 
+     * @param name Name identifying this scheduler
+     */
+    public void registerMBean(String name) {
+        try {
+            ObjectName objectName = new ObjectName(BridgeMetrics.JMX_DOMAIN
+                + ":type=ToolScheduler,name=" + ObjectName.quote(name));
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            if (mbeanName.compareAndSet(null, objectName) && !server.isRegistered(objectName)) {
+                server.registerMBean(this, objectName);
+            }
+        } catch (JMException e) {
+            log.warn("Failed to register tool scheduler MBean {}", name, e);
+            return;
+        }
+        bulkheads.forEach((bulkheadName, bulkhead) -> registerBulkheadMBean(mbeanName.get(), bulkheadName, bulkhead));
+    }
+    
+    private void registerBulkheadMBean(ObjectName scheduler, String name, ToolBulkhead bulkhead) {
+        try {
+            ObjectName objectName = bulkheadName(scheduler, name);
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            if (!server.isRegistered(objectName)) {
+                server.registerMBean(bulkhead, objectName);
+            }
+        } catch (JMException e) {
+            log.warn("Failed to register tool bulkhead MBean {}", name, e);
+        }
+    }
+    
+    private static ObjectName bulkheadName(ObjectName scheduler, String name) throws JMException {
+        return new ObjectName(BridgeMetrics.JMX_DOMAIN + ":type=ToolBulkhead,scheduler="
+            + scheduler.getKeyProperty("name") + ",name=" + ObjectName.quote(name));
+    }
+    
+    /**
+     * Removes the MBeans registered by {@link #registerMBean(String)}.
+     */
+    public void unregisterMBean() {
+        ObjectName objectName = mbeanName.getAndSet(null);
+        if (objectName == null) {
+            return;
+        }
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            for (String name : bulkheads.keySet()) {
+                ObjectName bulkhead = bulkheadName(objectName, name);
+                if (server.isRegistered(bulkhead)) {
+                    server.unregisterMBean(bulkhead);
+                }
+            }
+            if (server.isRegistered(objectName)) {
+                server.unregisterMBean(objectName);
+            }
+        } catch (JMException e) {
+            log.warn("Failed to unregister tool scheduler MBean {}", objectName, e);
+        }
+    }
+    
+    @Override
+    public int getMaxConcurrent() {
+        return maxConcurrent;
+    }
+    
+    @Override
+    public int getRunning() {
+        return running.get();
+    }
+    
+    @Override
+    public int getQueued() {
+        synchronized (lock) {
+            return queue.size();
+        }
+    }
+    
+    @Override
+    public double getUtilization() {
+        return (double) running.get() / maxConcurrent;
+    }
+    
+    @Override
+    public long getRejected() {
+        return rejected.sum();
+    }
+    
+    @Override
+    public long getTimedOut() {
+        return timedOut.sum();
+    }
+}
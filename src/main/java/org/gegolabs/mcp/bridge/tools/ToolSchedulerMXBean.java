@@ -0,0 +1,19 @@
+package org.gegolabs.mcp.bridge.tools;
+
+/**
+ * JMX view of a {@link ToolScheduler}.
+ */
+public interface ToolSchedulerMXBean {
+    
+    int getMaxConcurrent();
+    
+    int getRunning();
+    
+    int getQueued();
+    
+    double getUtilization();
+    
+    long getRejected();
+    
+    long getTimedOut();
+}
@@ -0,0 +1,130 @@
+package org.gegolabs.mcp.bridge.tracing;
+
+/**
+ * Timestamps for the lifecycle of a single JSON-RPC request on a bridge connection.
+ * 
+ * A trace is created when the request line has been read and parsed, and is
+ * completed once the response has been flushed to the socket. Stage timestamps
+ * are {@link System#nanoTime()} values; a stage that never happened reports 0.
+ */
+public class RequestTrace {
+    
+    /**
+     * Intervals between consecutive timestamps, in lifecycle order.
+     */
+    public enum Stage {
+        /** From the end of the read to the end of JSON parsing. */
+        PARSE,
+        /** From parsing until the session started handling the message. */
+        DISPATCH,
+        /** From dispatch until the response was handed to the transport. */
+        HANDLER,
+        /** From receiving the response until it was serialized. */
+        SERIALIZE,
+        /** From serialization until the bytes were flushed to the socket. */
+        FLUSH
+    }
+    
+    private final Object id;
+    private final String method;
+    private final String tool;
+    private final long readNanos;
+    private final long parsedNanos;
+    private volatile long dispatchedNanos;
+    private volatile long handledNanos;
+    private volatile long serializedNanos;
+    private volatile long flushedNanos;
+    
+    public RequestTrace(Object id, String method, String tool, long readNanos, long parsedNanos) {
+        this.id = id;
+        this.method = method;
+        this.tool = tool;
+        this.readNanos = readNanos;
+        this.parsedNanos = parsedNanos;
+    }
+    
+    public void markDispatched() {
+        dispatchedNanos = System.nanoTime();
+    }
+    
+    public void markHandled() {
+        handledNanos = System.nanoTime();
+    }
+    
+    public void markSerialized() {
+        serializedNanos = System.nanoTime();
+    }
+    
+    public void markFlushed() {
+        flushedNanos = System.nanoTime();
+    }
+    
+    public Object getId() {
+        return id;
+    }
+    
+    public String getMethod() {
+        return method;
+    }
+    
+    /**
+     * Returns the tool name for {@code tools/call} requests, otherwise null.
+     */
+    public String getTool() {
+        return tool;
+    }
+    
+    public long getReadNanos() {
+        return readNanos;
+    }
+    
+    /**
+     * Time from reading the request to flushing its response, or to now if it has not been flushed yet.
+     */
+    public long getTotalNanos() {
+        long end = flushedNanos != 0 ? flushedNanos : System.nanoTime();
+        return end - readNanos;
+    }
+    
+    /**
+     * Returns the duration of a stage, or 0 if either of its timestamps is missing.
+     */
+    public long getStageNanos(Stage stage) {
+        return switch (stage) {
+            case PARSE -> between(readNanos, parsedNanos);
+            case DISPATCH -> between(parsedNanos, dispatchedNanos);
+            case HANDLER -> between(dispatchedNanos != 0 ? dispatchedNanos : parsedNanos, handledNanos);
+            case SERIALIZE -> between(handledNanos, serializedNanos);
+            case FLUSH -> between(serializedNanos, flushedNanos);
+        };
+    }
+    
+    private static long between(long start, long end) {
+        return start != 0 && end != 0 ? Math.max(0, end - start) : 0;
+    }
+    
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder()
+            .append("id=").append(id)
+            .append(" method=").append(method);
+        if (tool != null) {
+            sb.append(" tool=").append(tool);
+        }
+        sb.append(" total=").append(formatMillis(getTotalNanos())).append("ms [");
+        
+        Stage[] stages = Stage.values();
+        for (int i = 0; i < stages.length; i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            sb.append(stages[i].name().toLowerCase())
+                .append('=').append(formatMillis(getStageNanos(stages[i]))).append("ms");
+        }
+        return sb.append(']').toString();
+    }
+    
+    private static String formatMillis(long nanos) {
+        return String.format("%.3f", nanos / 1_000_000.0);
+    }
+}
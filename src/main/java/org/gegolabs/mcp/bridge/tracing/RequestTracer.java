@@ -0,0 +1,92 @@
+package org.gegolabs.mcp.bridge.tracing;
+
+import lombok.Builder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+
+/**
+ * Decides which completed {@link RequestTrace}s are reported, and reports them.
+ * 
+ * Requests slower than {@link #slowThreshold} are logged at WARN with their stage
+ * breakdown; a random {@link #sampleRate} fraction of the remaining requests is
+ * logged at INFO. Both go to the {@value #LOGGER_NAME} logger so they can be routed
+ * to a separate file. With the defaults nothing is reported.
+ * 
+ * Usage:
+ * <pre>
+ * var tracer = RequestTracer.builder()
+ *     .slowThreshold(Duration.ofMillis(500))
+ *     .sampleRate(0.01)
+ *     .build();
+ * </pre>
+ */
+@Builder
+public class RequestTracer {
+    
+    public static final String LOGGER_NAME = "org.gegolabs.mcp.bridge.slow";
+    
+    private static final Logger slowLog = LoggerFactory.getLogger(LOGGER_NAME);
+    
+    /**
+     * Requests taking at least this long are logged; null or zero disables the slow log.
+     */
+    private final Duration slowThreshold;
+    
+    /**
+     * Fraction (0.0 - 1.0) of requests below the threshold that are logged anyway.
+     */
+    private final double sampleRate;
+    
+    /**
+     * Optional callback receiving every reported trace, in addition to the log.
+     */
+    private final Consumer<RequestTrace> listener;
+    
+    /**
+     * Returns a tracer that never reports anything.
+     */
+    public static RequestTracer disabled() {
+        return builder().build();
+    }
+    
+    /**
+     * Returns whether this tracer can report anything at all.
+     */
+    public boolean isEnabled() {
+        return slowThresholdNanos() > 0 || sampleRate > 0;
+    }
+    
+    /**
+     * Called once the response for a traced request has been flushed.
+     */
+    public void complete(RequestTrace trace) {
+        long threshold = slowThresholdNanos();
+        long total = trace.getTotalNanos();
+        
+        if (threshold > 0 && total >= threshold) {
+            slowLog.warn("Slow request {}", trace);
+            notifyListener(trace);
+        } else if (sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate) {
+            slowLog.info("Sampled request {}", trace);
+            notifyListener(trace);
+        }
+    }
+    
+    private void notifyListener(RequestTrace trace) {
+        if (listener != null) {
+            try {
+                listener.accept(trace);
+            } catch (RuntimeException e) {
+                slowLog.warn("Request trace listener failed", e);
+            }
+        }
+    }
+    
+    private long slowThresholdNanos() {
+        return slowThreshold != null ? slowThreshold.toNanos() : 0;
+    }
+}
@@ -1,33 +1,113 @@
 package org.gegolabs.mcp.bridge.transport;
 
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.modelcontextprotocol.spec.McpSchema;
 import io.modelcontextprotocol.spec.McpSchema.JSONRPCMessage;
-import io.modelcontextprotocol.spec.McpServerTransport;
 import lombok.extern.slf4j.Slf4j;
+import org.gegolabs.mcp.bridge.buffer.BufferPool;
+import org.gegolabs.mcp.bridge.buffer.PooledOutputStream;
+import org.gegolabs.mcp.bridge.capture.CaptureFrame;
+import org.gegolabs.mcp.bridge.capture.TrafficRecorder;
+import org.gegolabs.mcp.bridge.jfr.FrameReadEvent;
+import org.gegolabs.mcp.bridge.jfr.MessageParsedEvent;
+import org.gegolabs.mcp.bridge.jfr.MessageWrittenEvent;
+import org.gegolabs.mcp.bridge.jfr.WriteStallEvent;
+import org.gegolabs.mcp.bridge.metrics.BridgeMetrics;
+import org.gegolabs.mcp.bridge.metrics.SessionMetrics;
+import org.gegolabs.mcp.bridge.tracing.RequestTrace;
+import org.gegolabs.mcp.bridge.tools.StreamingContent;
+import org.gegolabs.mcp.bridge.tracing.RequestTracer;
+import org.gegolabs.mcp.bridge.utils.LoggingUtils;
+import org.gegolabs.mcp.bridge.utils.PayloadLogPolicy;
+import org.gegolabs.mcp.bridge.validation.ToolValidators;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
 import reactor.core.scheduler.Schedulers;
 
 import java.io.*;
 import java.net.Socket;
-import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
 
 @Slf4j
-public class BridgeTransport implements McpServerTransport {
+public class BridgeTransport implements SessionTransport {
+    
+    /**
+     * How much of an unparseable line goes into the error log.
+     */
+    private static final PayloadLogPolicy PARSE_ERROR_PREVIEW = PayloadLogPolicy.truncate(256);
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+    private static final int INITIAL_WRITE_BUFFER = 4096;
+    
+    /**
+     * Sent by a server whose tools changed, which makes learned tool schemas stale.
+     */
+    static final String TOOLS_LIST_CHANGED = "notifications/tools/list_changed";
     
     private final Socket socket;
-    private final BufferedReader reader;
-    private final PrintWriter writer;
+    private final InputStream in;
+    private final FrameReader reader;
+    private final int maxFrameBytes;
+    private final OutputStream out;
+    private final BufferPool bufferPool;
     private final ObjectMapper objectMapper;
     private final AtomicBoolean closed = new AtomicBoolean(false);
-    private final Object writeLock = new Object();
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final Scheduler scheduler;
+    private final boolean inlineWrites;
+    private final BridgeMetrics metrics;
+    private final SessionMetrics sessionMetrics;
+    private final RequestTracer tracer;
+    private final Map<Object, RequestTrace> inFlight = new ConcurrentHashMap<>();
+    private final TrafficRecorder recorder;
+    private final ToolValidators toolValidators;
     
     public BridgeTransport(Socket socket) throws IOException {
+        this(socket, TransportOptions.defaults());
+    }
+    
+    /**
+     * Creates a transport that performs writes and shutdown on the given scheduler.
+     * 
+     * @param socket The connected client socket
+     * @param scheduler Scheduler used for writes that cannot run inline and for closing
+     * @param inlineWrites Whether to write on the calling thread when no other write is in progress
+     */
+    public BridgeTransport(Socket socket, Scheduler scheduler, boolean inlineWrites) throws IOException {
+        this(socket, TransportOptions.builder().scheduler(scheduler).inlineWrites(inlineWrites).build());
+    }
+    
+    public BridgeTransport(Socket socket, TransportOptions options) throws IOException {
+        this(socket, socket.getInputStream(), options);
+    }
+    
+    /**
+     * Creates a transport that reads from {@code input} instead of the socket's own stream,
+     * for connections whose first bytes were already read to pick a route.
+     */
+    BridgeTransport(Socket socket, InputStream input, TransportOptions options) throws IOException {
         this.socket = socket;
-        this.reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
-        this.writer = new PrintWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8), true);
+        this.scheduler = options.scheduler;
+        this.inlineWrites = options.inlineWrites;
+        this.metrics = options.metrics;
+        this.tracer = options.tracer;
+        this.recorder = options.recorder;
+        this.toolValidators = options.toolValidators;
+        this.sessionMetrics = metrics.openSession(String.valueOf(socket.getRemoteSocketAddress()));
+        this.bufferPool = options.bufferPool;
+        this.in = new CountingInputStream(input, sessionMetrics);
+        this.maxFrameBytes = options.maxFrameBytes;
+        this.reader = new FrameReader(in, maxFrameBytes, bufferPool);
+        this.out = new CountingOutputStream(socket.getOutputStream(), sessionMetrics);
         this.objectMapper = new ObjectMapper();
         
         log.info("Bridge transport created for {}", socket.getRemoteSocketAddress());
@@ -35,29 +115,270 @@ public class BridgeTransport implements McpServerTransport {
     
     @Override
     public Mono<Void> sendMessage(JSONRPCMessage message) {
-        return Mono.fromRunnable(() -> {
-            if (closed.get()) {
-                throw new IllegalStateException("Transport is closed");
+        if (message instanceof McpSchema.JSONRPCResponse response
+                && StreamingContent.hasStreamedContent(response.result())) {
+            return Mono.defer(() -> {
+                JsonNode tree = objectMapper.valueToTree(message);
+                return StreamingContent.containsPlaceholder(tree)
+                    ? sendStreamed(message, tree)
+                    : sendBuffered(message);
+            });
+        }
+        return sendBuffered(message);
+    }
+    
+    private Mono<Void> sendBuffered(JSONRPCMessage message) {
+        if (!inlineWrites) {
+            return Mono.defer(() -> {
+                RequestTrace trace = markHandled(message);
+                sessionMetrics.writeQueued();
+                return Mono.fromRunnable(() -> {
+                        PooledOutputStream json = serialize(message, trace);
+                        try {
+                            writeLine(message, json);
+                        } finally {
+                            json.release();
+                        }
+                    })
+                    .subscribeOn(scheduler)
+                    .doFinally(signal -> sessionMetrics.writeDequeued());
+            }).then();
+        }
+        
+        return Mono.defer(() -> {
+            PooledOutputStream json = serialize(message, markHandled(message));
+            
+            // Fast path: nobody else is writing, so skip the scheduler hop
+            if (writeLock.tryLock()) {
+                try {
+                    doWrite(message, json);
+                } finally {
+                    writeLock.unlock();
+                    json.release();
+                }
+                return Mono.<Void>empty();
             }
             
-            try {
-                String json = objectMapper.writeValueAsString(message);
-                
-                // Escape newlines as per MCP protocol
-                json = json.replace("\n", "\\n");
-                
-                synchronized (writeLock) {
-                    writer.println(json);
-                    writer.flush();
+            sessionMetrics.writeQueued();
+            // Whoever claims the buffer releases it: the write once it has finished, or
+            // doFinally if the send was cancelled before the write started
+            AtomicBoolean claimed = new AtomicBoolean(false);
+            return Mono.fromRunnable(() -> {
+                    if (!claimed.compareAndSet(false, true)) {
+                        return;
+                    }
+                    try {
+                        writeLine(message, json);
+                    } finally {
+                        json.release();
+                    }
+                })
+                .subscribeOn(scheduler)
+                .doFinally(signal -> {
+                    sessionMetrics.writeDequeued();
+                    if (claimed.compareAndSet(false, true)) {
+                        json.release();
+                    }
+                })
+                .then();
+        });
+    }
+    
+    /**
+     * Writes a response holding {@link StreamingContent} placeholders by serializing it
+     * straight into the socket, always off the calling thread since sources may block.
+     */
+    private Mono<Void> sendStreamed(JSONRPCMessage message, JsonNode tree) {
+        RequestTrace trace = markHandled(message);
+        if (trace != null) {
+            trace.markSerialized();
+        }
+        sessionMetrics.writeQueued();
+        return Mono.fromRunnable(() -> {
+                lockForWrite();
+                try {
+                    doWriteStreamed(message, tree);
+                } finally {
+                    writeLock.unlock();
                 }
-                
-                log.debug("Sent message: {}", json);
-                
-            } catch (Exception e) {
-                log.error("Failed to send message", e);
-                throw new RuntimeException("Failed to send message", e);
+            })
+            .subscribeOn(scheduler)
+            .doFinally(signal -> sessionMetrics.writeDequeued())
+            .then();
+    }
+    
+    private RequestTrace markHandled(JSONRPCMessage message) {
+        if (message instanceof McpSchema.JSONRPCResponse response && response.id() != null) {
+            RequestTrace trace = inFlight.get(response.id());
+            if (trace != null) {
+                trace.markHandled();
+            }
+            return trace;
+        }
+        return null;
+    }
+    
+    /**
+     * Serializes a message and its terminating newline into a pooled buffer, which the
+     * caller must release. Jackson escapes control characters inside strings, so the
+     * only newline in the output is the terminator.
+     */
+    private PooledOutputStream serialize(JSONRPCMessage message, RequestTrace trace) {
+        if (closed.get()) {
+            throw new IllegalStateException("Transport is closed");
+        }
+        
+        PooledOutputStream json = new PooledOutputStream(bufferPool, INITIAL_WRITE_BUFFER);
+        try {
+            objectMapper.writeValue(json, message);
+            json.write('\n');
+        } catch (Exception e) {
+            json.release();
+            log.error("Failed to send message", e);
+            throw new RuntimeException("Failed to send message", e);
+        }
+        if (trace != null) {
+            trace.markSerialized();
+        }
+        return json;
+    }
+    
+    private void writeLine(JSONRPCMessage message, PooledOutputStream json) {
+        lockForWrite();
+        try {
+            doWrite(message, json);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+    
+    private void lockForWrite() {
+        if (!writeLock.tryLock()) {
+            WriteStallEvent stall = new WriteStallEvent();
+            stall.begin();
+            writeLock.lock();
+            stall.end();
+            if (stall.shouldCommit()) {
+                stall.sessionId = sessionMetrics.getId();
+                stall.queuedWrites = sessionMetrics.getPendingWrites();
+                stall.commit();
+            }
+        }
+    }
+    
+    private void doWrite(JSONRPCMessage message, PooledOutputStream json) {
+        if (closed.get()) {
+            throw new IllegalStateException("Transport is closed");
+        }
+        
+        MessageWrittenEvent event = new MessageWrittenEvent();
+        event.begin();
+        try {
+            json.writeTo(out);
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write message", e);
+        }
+        event.end();
+        sessionMetrics.messageOut();
+        if (event.shouldCommit()) {
+            event.sessionId = sessionMetrics.getId();
+            event.method = writtenMethod(message);
+            event.size = json.size();
+            event.queuedWrites = sessionMetrics.getPendingWrites();
+            event.commit();
+        }
+        boolean logPayload = LoggingUtils.shouldLogPayload(log);
+        if (recorder != null || logPayload) {
+            // Decoded only when someone reads it
+            String line = json.toString(json.size() - 1);
+            if (recorder != null) {
+                recorder.record(sessionMetrics.getId(), CaptureFrame.Direction.SERVER_TO_CLIENT, line);
+            }
+            if (logPayload) {
+                LoggingUtils.logPayload(log, "Sent message: {}", line);
+            }
+        }
+        
+        if (message instanceof McpSchema.JSONRPCResponse response) {
+            learnTools(response);
+            completeRequest(response);
+        } else if (toolValidators != null && message instanceof McpSchema.JSONRPCNotification notification
+                && TOOLS_LIST_CHANGED.equals(notification.method())) {
+            toolValidators.forgetLearned();
+        }
+    }
+    
+    private void doWriteStreamed(JSONRPCMessage message, JsonNode tree) {
+        if (closed.get()) {
+            throw new IllegalStateException("Transport is closed");
+        }
+        
+        MessageWrittenEvent event = new MessageWrittenEvent();
+        event.begin();
+        long bytesBefore = sessionMetrics.getBytesOut();
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)) {
+            StreamingContent.writeTree(generator, tree);
+            generator.flush();
+            out.write('\n');
+            out.flush();
+        } catch (IOException e) {
+            // Part of the line may already be on the wire; the stream cannot be resynchronized
+            log.error("Failed to stream response, closing connection", e);
+            closeGracefully().subscribe();
+            throw new UncheckedIOException("Failed to stream response", e);
+        }
+        event.end();
+        sessionMetrics.messageOut();
+        if (event.shouldCommit()) {
+            event.sessionId = sessionMetrics.getId();
+            event.method = writtenMethod(message);
+            event.size = sessionMetrics.getBytesOut() - bytesBefore;
+            event.queuedWrites = sessionMetrics.getPendingWrites();
+            event.commit();
+        }
+        boolean logPayload = LoggingUtils.shouldLogPayload(log);
+        if (recorder != null || logPayload) {
+            // Streamed content appears as its placeholder
+            String json = tree.toString();
+            if (recorder != null) {
+                recorder.record(sessionMetrics.getId(), CaptureFrame.Direction.SERVER_TO_CLIENT, json);
+            }
+            if (logPayload) {
+                LoggingUtils.logPayload(log, "Sent streamed message: {}", json);
+            }
+        }
+        
+        if (message instanceof McpSchema.JSONRPCResponse response) {
+            completeRequest(response);
+        }
+    }
+    
+    private void learnTools(McpSchema.JSONRPCResponse response) {
+        if (toolValidators != null && response.result() != null && "tools/list".equals(writtenMethod(response))) {
+            try {
+                toolValidators.learn(objectMapper.valueToTree(response.result()));
+            } catch (IllegalArgumentException e) {
+                log.warn("Failed to read tool schemas from tools/list response", e);
             }
-        }).subscribeOn(Schedulers.boundedElastic()).then();
+        }
+    }
+    
+    private void completeRequest(McpSchema.JSONRPCResponse response) {
+        RequestTrace trace = response.id() != null ? inFlight.remove(response.id()) : null;
+        if (trace == null) {
+            return;
+        }
+        trace.markFlushed();
+        
+        long nanos = trace.getTotalNanos();
+        boolean error = response.error() != null;
+        metrics.method(trace.getMethod()).record(nanos, error);
+        if (trace.getTool() != null) {
+            metrics.tool(trace.getTool()).record(nanos, error);
+        }
+        tracer.complete(trace);
     }
     
     @Override
@@ -70,25 +391,28 @@ public class BridgeTransport implements McpServerTransport {
         return Mono.fromRunnable(() -> {
             if (closed.compareAndSet(false, true)) {
                 log.info("Closing bridge transport for {}", socket.getRemoteSocketAddress());
+                sessionMetrics.close();
+                inFlight.clear();
                 
                 try {
-                    if (reader != null) {
-                        reader.close();
+                    reader.close();
+                    if (in != null) {
+                        in.close();
                     }
                     
-                    if (writer != null) {
-                        writer.close();
+                    if (out != null) {
+                        out.close();
                     }
                     
                     if (socket != null && !socket.isClosed()) {
                         socket.close();
                     }
-                    
+                
                 } catch (IOException e) {
                     log.error("Error closing transport", e);
                 }
             }
-        }).subscribeOn(Schedulers.boundedElastic()).then();
+        }).subscribeOn(scheduler).then();
     }
     
     /**
@@ -96,23 +420,187 @@ public class BridgeTransport implements McpServerTransport {
      * This should be called by the session handler.
      */
     public JSONRPCMessage readMessage() throws IOException {
-        String line = reader.readLine();
-        if (line == null) {
+        FrameReadEvent frameEvent = new FrameReadEvent();
+        frameEvent.begin();
+        FrameReader.Frame frame = reader.next();
+        if (frame == null) {
             throw new EOFException("End of stream reached");
         }
+        long readNanos = System.nanoTime();
+        frameEvent.end();
+        if (frameEvent.shouldCommit()) {
+            frameEvent.sessionId = sessionMetrics.getId();
+            frameEvent.size = frame.size() + 1;
+            frameEvent.commit();
+        }
         
+        if (frame.oversized()) {
+            rejectOversized(frame);
+            return null;
+        }
+        String line = frame.text();
         if (line.trim().isEmpty()) {
             return null; // Skip empty lines
         }
+        if (recorder != null) {
+            recorder.record(sessionMetrics.getId(), CaptureFrame.Direction.CLIENT_TO_SERVER, line);
+        }
         
+        JSONRPCMessage message;
+        MessageParsedEvent parseEvent = new MessageParsedEvent();
+        parseEvent.begin();
         try {
-            return McpSchema.deserializeJsonRpcMessage(objectMapper, line);
+            message = McpSchema.deserializeJsonRpcMessage(objectMapper, line);
+            parseEvent.end();
+            if (parseEvent.shouldCommit()) {
+                parseEvent.sessionId = sessionMetrics.getId();
+                parseEvent.messageType = messageType(message);
+                parseEvent.method = methodOf(message);
+                parseEvent.requestId = idOf(message);
+                parseEvent.commit();
+            }
         } catch (Exception e) {
-            log.error("Failed to parse message: {}", line, e);
+            parseEvent.end();
+            if (parseEvent.shouldCommit()) {
+                parseEvent.sessionId = sessionMetrics.getId();
+                parseEvent.messageType = "invalid";
+                parseEvent.commit();
+            }
+            metrics.parseError();
+            log.error("Failed to parse message: {}", PARSE_ERROR_PREVIEW.render(line), e);
             throw new IOException("Failed to parse JSON-RPC message", e);
         }
+        
+        sessionMetrics.messageIn();
+        if (message instanceof McpSchema.JSONRPCRequest request && request.id() != null) {
+            inFlight.put(request.id(),
+                new RequestTrace(request.id(), request.method(), toolName(request), readNanos, System.nanoTime()));
+        }
+        return message;
+    }
+    
+    /**
+     * Answers a frame that was discarded for exceeding the size limit. The connection stays
+     * open; when the start of the frame shows a request and its id, the client gets an
+     * error response instead of waiting for a reply that never comes. Oversized responses
+     * and notifications are only dropped, since nobody waits for an answer to them.
+     */
+    private void rejectOversized(FrameReader.Frame frame) {
+        metrics.oversizedFrame();
+        Object id = recoverId(frame.prefix());
+        log.warn("Discarded {} byte frame from {} (limit {} bytes, id {})",
+            frame.size(), socket.getRemoteSocketAddress(), maxFrameBytes, id);
+        if (id == null) {
+            return;
+        }
+        McpSchema.JSONRPCResponse.JSONRPCError error = new McpSchema.JSONRPCResponse.JSONRPCError(
+            McpSchema.ErrorCodes.INVALID_REQUEST,
+            "Message of " + frame.size() + " bytes exceeds the limit of " + maxFrameBytes + " bytes",
+            Map.of("size", frame.size(), "maxFrameBytes", maxFrameBytes));
+        sendMessage(new McpSchema.JSONRPCResponse(McpSchema.JSONRPC_VERSION, id, null, error))
+            .subscribe(null, e -> log.warn("Failed to reject oversized frame {}", id, e));
+    }
+    
+    /**
+     * Returns the top-level {@code id} of a possibly truncated JSON-RPC request, or null
+     * if the given bytes do not show both the id and a top-level {@code method}.
+     */
+    static Object recoverId(byte[] prefix) {
+        Object id = null;
+        boolean request = false;
+        try (JsonParser parser = JSON_FACTORY.createParser(prefix)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return null;
+            }
+            JsonToken token;
+            while ((token = parser.nextToken()) != null && token != JsonToken.END_OBJECT) {
+                // Only field names at depth one reach this point; nested values are skipped
+                String field = parser.currentName();
+                token = parser.nextToken();
+                if ("id".equals(field)) {
+                    id = switch (token) {
+                        case VALUE_STRING -> parser.getText();
+                        case VALUE_NUMBER_INT -> parser.getNumberValue();
+                        default -> null;
+                    };
+                } else if ("method".equals(field)) {
+                    request = token == JsonToken.VALUE_STRING;
+                }
+                if (id != null && request) {
+                    return id;
+                }
+                parser.skipChildren();
+            }
+        } catch (IOException e) {
+            // The prefix ended before the id or the method
+        }
+        return null;
+    }
+    
+    /**
+     * Records that a message returned by {@link #readMessage()} is now being handled by the session.
+     */
+    @Override
+    public void markDispatched(JSONRPCMessage message) {
+        if (message instanceof McpSchema.JSONRPCRequest request && request.id() != null) {
+            RequestTrace trace = inFlight.get(request.id());
+            if (trace != null) {
+                trace.markDispatched();
+            }
+        }
+    }
+    
+    /**
+     * Returns the method of a request or notification, or null for responses.
+     */
+    static String methodOf(JSONRPCMessage message) {
+        if (message instanceof McpSchema.JSONRPCRequest request) {
+            return request.method();
+        }
+        if (message instanceof McpSchema.JSONRPCNotification notification) {
+            return notification.method();
+        }
+        return null;
     }
     
+    private static String messageType(JSONRPCMessage message) {
+        if (message instanceof McpSchema.JSONRPCRequest) {
+            return "request";
+        }
+        if (message instanceof McpSchema.JSONRPCNotification) {
+            return "notification";
+        }
+        return "response";
+    }
+    
+    private static String idOf(JSONRPCMessage message) {
+        if (message instanceof McpSchema.JSONRPCRequest request && request.id() != null) {
+            return String.valueOf(request.id());
+        }
+        if (message instanceof McpSchema.JSONRPCResponse response && response.id() != null) {
+            return String.valueOf(response.id());
+        }
+        return null;
+    }
+    
+    private String writtenMethod(JSONRPCMessage message) {
+        if (message instanceof McpSchema.JSONRPCResponse response && response.id() != null) {
+            RequestTrace trace = inFlight.get(response.id());
+            return trace != null ? trace.getMethod() : null;
+        }
+        return methodOf(message);
+    }
+    
+    static String toolName(McpSchema.JSONRPCRequest request) {
+        if ("tools/call".equals(request.method())
+                && request.params() instanceof Map<?, ?> params
+                && params.get("name") instanceof String name) {
+            return name;
+        }
+        return null;
+    }
+    
+    @Override
     public boolean isClosed() {
         return closed.get();
     }
@@ -120,4 +608,60 @@ public class BridgeTransport implements McpServerTransport {
     public Socket getSocket() {
         return socket;
     }
-}
\ No newline at end of file
+    
+    /**
+     * Returns the traffic counters for this connection.
+     */
+    @Override
+    public SessionMetrics getSessionMetrics() {
+        return sessionMetrics;
+    }
+    
+    private static final class CountingInputStream extends FilterInputStream {
+        private final SessionMetrics metrics;
+        
+        CountingInputStream(InputStream in, SessionMetrics metrics) {
+            super(in);
+            this.metrics = metrics;
+        }
+        
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                metrics.addBytesIn(1);
+            }
+            return b;
+        }
+        
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                metrics.addBytesIn(n);
+            }
+            return n;
+        }
+    }
+    
+    static final class CountingOutputStream extends FilterOutputStream {
+        private final SessionMetrics metrics;
+        
+        CountingOutputStream(OutputStream out, SessionMetrics metrics) {
+            super(out);
+            this.metrics = metrics;
+        }
+        
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            metrics.addBytesOut(1);
+        }
+        
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            metrics.addBytesOut(len);
+        }
+    }
+}
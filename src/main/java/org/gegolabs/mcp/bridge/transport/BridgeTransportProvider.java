@@ -1,27 +1,74 @@
 package org.gegolabs.mcp.bridge.transport;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.modelcontextprotocol.spec.McpSchema;
 import io.modelcontextprotocol.spec.McpServerSession;
 import io.modelcontextprotocol.spec.McpServerTransportProvider;
 import lombok.Builder;
 import lombok.extern.slf4j.Slf4j;
+import org.gegolabs.mcp.bridge.buffer.BufferPool;
+import org.gegolabs.mcp.bridge.capture.TrafficRecorder;
+import org.gegolabs.mcp.bridge.jfr.ConnectionAcceptedEvent;
+import org.gegolabs.mcp.bridge.jfr.ConnectionClosedEvent;
+import org.gegolabs.mcp.bridge.jfr.MessageDispatchedEvent;
+import org.gegolabs.mcp.bridge.metrics.SessionMetrics;
+import org.gegolabs.mcp.bridge.metrics.BridgeMetrics;
+import org.gegolabs.mcp.bridge.metrics.MetricsHttpServer;
+import org.gegolabs.mcp.bridge.tracing.RequestTracer;
+import org.gegolabs.mcp.bridge.validation.ToolValidators;
+import org.gegolabs.mcp.bridge.validation.Violation;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
 import reactor.core.scheduler.Schedulers;
 
 import java.io.EOFException;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
 import java.net.ServerSocket;
 import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
+/**
+ * Serves MCP sessions over TCP and, with {@link #httpPort} set, over Streamable HTTP.
+ * The provider itself carries one server; further servers can share its listeners,
+ * threads and buffers through {@link #route(String)}. TCP clients pick one with a
+ * {@link RoutePreamble}, HTTP clients with the path {@code /mcp/<name>}.
+ */
 @Slf4j
 @Builder
 public class BridgeTransportProvider implements McpServerTransportProvider {
     
+    /**
+     * Path of the Streamable HTTP endpoint; named routes are served below it.
+     */
+    public static final String HTTP_PATH = "/mcp";
+    
+    /**
+     * Header carrying the id of an HTTP session.
+     */
+    public static final String SESSION_HEADER = "Mcp-Session-Id";
+    
     @Builder.Default
     private final int port = 3000;
     
@@ -36,16 +83,193 @@ public class BridgeTransportProvider implements McpServerTransportProvider {
         return thread;
     });
     
-    private ServerSocket serverSocket;
-    private McpServerSession.Factory sessionFactory;
+    /**
+     * Scheduler used for outbound writes and transport shutdown.
+     * Not disposed by this provider; callers that pass their own scheduler own its lifecycle.
+     */
+    @Builder.Default
+    private final Scheduler scheduler = Schedulers.boundedElastic();
+    
+    /**
+     * Scheduler on which incoming messages are handed to the MCP session.
+     * The default runs them directly on the connection's reader thread. Messages of one
+     * session are handed over one at a time, in the order they were read.
+     */
+    @Builder.Default
+    private final Scheduler dispatchScheduler = Schedulers.immediate();
+    
+    /**
+     * Writes responses on the calling thread when no other write is in progress,
+     * falling back to {@link #scheduler} only when the connection is contended.
+     */
+    @Builder.Default
+    private final boolean inlineWrites = false;
+    
+    /**
+     * Maximum number of concurrent client connections; 0 means unlimited.
+     * Connections beyond the limit are closed immediately and counted as rejected.
+     */
+    @Builder.Default
+    private final int maxConnections = 0;
+    
+    /**
+     * How long a new connection may take to send its first bytes. Until then it holds a
+     * connection slot and a thread, so a silent client is closed once this elapses.
+     */
+    @Builder.Default
+    private final Duration preambleTimeout = Duration.ofSeconds(10);
+    
+    /**
+     * Registry receiving connection, traffic and latency metrics.
+     */
+    @Builder.Default
+    private final BridgeMetrics metrics = new BridgeMetrics();
+    
+    /**
+     * Whether to publish {@link #metrics} as JMX MBeans while the provider is running.
+     */
+    @Builder.Default
+    private final boolean jmxEnabled = false;
+    
+    /**
+     * Reports slow and sampled requests with their per-stage timings.
+     */
+    @Builder.Default
+    private final RequestTracer tracer = RequestTracer.disabled();
+    
+    /**
+     * Records all traffic of all sessions; null disables capture.
+     * Closed by this provider when it shuts down.
+     */
+    @Builder.Default
+    private final TrafficRecorder recorder = null;
+    
+    /**
+     * Port of the HTTP listener serving {@code /metrics} in Prometheus format and
+     * {@code /ready}; -1 disables it and 0 picks a free port.
+     */
+    @Builder.Default
+    private final int metricsPort = -1;
+    
+    /**
+     * Address the metrics listener binds to; null binds all interfaces.
+     */
+    @Builder.Default
+    private final String metricsHost = null;
+    
+    /**
+     * Validators run on {@code tools/call} arguments before the call is dispatched;
+     * invalid calls are answered with an invalid-params error. Registered tools are
+     * validated from the first call; others once the server has listed them. Null,
+     * the default, disables validation.
+     */
+    @Builder.Default
+    private final ToolValidators toolValidators = null;
+    
+    /**
+     * Largest inbound message, in bytes, buffered per connection; see {@link TransportOptions}.
+     */
+    @Builder.Default
+    private final int maxFrameBytes = TransportOptions.DEFAULT_MAX_FRAME_BYTES;
+    
+    /**
+     * Pool that connections lease their read and write buffers from. Published over JMX
+     * together with {@link #metrics}.
+     */
+    @Builder.Default
+    private final BufferPool bufferPool = BufferPool.shared();
+    
+    /**
+     * Port of the Streamable HTTP endpoint at {@code /mcp}; -1 disables it and 0 picks a
+     * free port. HTTP sessions count towards {@link #maxConnections} and share the
+     * metrics, routes and buffers of TCP sessions.
+     */
+    @Builder.Default
+    private final int httpPort = -1;
+    
+    /**
+     * Address the HTTP endpoint binds to; null binds all interfaces.
+     */
+    @Builder.Default
+    private final String httpHost = "localhost";
+    
+    /**
+     * Browser origins, such as {@code https://app.example.com}, allowed to call the HTTP
+     * endpoint. Requests from other origins get 403 so that a page cannot reach the
+     * endpoint through DNS rebinding. Loopback origins and requests without an
+     * {@code Origin} header are always allowed.
+     */
+    @Builder.Default
+    private final Set<String> httpAllowedOrigins = Set.of();
+    
+    /**
+     * Interval of the comments written to open event streams so that proxies keep them open.
+     */
+    @Builder.Default
+    private final Duration httpKeepAlive = Duration.ofSeconds(15);
+    
+    /**
+     * How long an HTTP session without traffic or open streams is kept before it is closed.
+     */
+    @Builder.Default
+    private final Duration httpSessionTimeout = Duration.ofMinutes(30);
+    
+    private volatile ServerSocket serverSocket;
+    private volatile Route defaultRoute;
+    private final Map<String, Route> routes = new ConcurrentHashMap<>();
     private final List<BridgeSession> activeSessions = new CopyOnWriteArrayList<>();
+    private final AtomicInteger reservedConnections = new AtomicInteger();
     private final AtomicBoolean running = new AtomicBoolean(false);
-    private Thread acceptThread;
+    private volatile Thread acceptThread;
+    private MetricsHttpServer metricsServer;
+    private HttpServer httpServer;
+    private ScheduledExecutorService httpSweeper;
+    private final Map<String, BridgeSession> httpSessions = new ConcurrentHashMap<>();
+    private final ObjectMapper objectMapper = new ObjectMapper();
     
+    /**
+     * Sets the server for connections that send no {@link RoutePreamble}, and starts the listener.
+     */
     @Override
     public void setSessionFactory(McpServerSession.Factory sessionFactory) {
-        this.sessionFactory = sessionFactory;
-        
+        if (defaultRoute != null) {
+            throw new IllegalStateException("Bridge transport provider is already running");
+        }
+        defaultRoute = new Route(null, toolValidators);
+        defaultRoute.setSessionFactory(sessionFactory);
+    }
+    
+    /**
+     * Returns a transport provider for another server hosted on this provider's port.
+     * Clients reach it by sending {@code MCP-ROUTE <name>} before their first message.
+     * 
+     * Every route shares the accept loop, executor, schedulers, buffer pool and metrics
+     * of this provider and learns its own tool schemas. Closing a route closes only its
+     * sessions; the listener runs until this provider is closed.
+     * 
+     * <pre>
+     * BridgeTransportProvider provider = BridgeTransportProvider.builder().port(3000).build();
+     * McpServer.async(provider.route("search")).tools(searchTools).build();
+     * McpServer.async(provider.route("files")).tools(fileTools).build();
+     * </pre>
+     * 
+     * @throws IllegalArgumentException if the name is not a valid route or is already taken
+     */
+    public McpServerTransportProvider route(String name) {
+        if (!RoutePreamble.isValidName(name)) {
+            throw new IllegalArgumentException("Invalid route name: " + name);
+        }
+        Route route = new Route(name, toolValidators != null ? new ToolValidators() : null);
+        if (routes.putIfAbsent(name, route) != null) {
+            throw new IllegalArgumentException("Route already registered: " + name);
+        }
+        return route;
+    }
+    
+    private synchronized void ensureStarted() {
+        if (running.get()) {
+            return;
+        }
         try {
             start();
         } catch (IOException e) {
@@ -54,30 +278,319 @@ public class BridgeTransportProvider implements McpServerTransportProvider {
     }
     
     private void start() throws IOException {
-        if (running.get()) {
-            throw new IllegalStateException("Bridge transport provider is already running");
-        }
-        
         log.info("Starting bridge transport provider on {}:{}", host, port);
         
         serverSocket = new ServerSocket(port);
         running.set(true);
         
+        if (jmxEnabled) {
+            metrics.registerMBeans(host + ":" + serverSocket.getLocalPort());
+            bufferPool.registerMBean(host + ":" + serverSocket.getLocalPort());
+        }
+        
         acceptThread = new Thread(this::acceptConnections, "mcp-bridge-accept");
         acceptThread.start();
         
+        if (metricsPort >= 0) {
+            InetSocketAddress address = metricsHost != null
+                ? new InetSocketAddress(metricsHost, metricsPort)
+                : new InetSocketAddress(metricsPort);
+            metricsServer = MetricsHttpServer.start(address, metrics, this::isReady);
+        }
+        if (httpPort >= 0) {
+            startHttp();
+        }
+        
         log.info("Bridge transport provider started successfully on port {}", port);
     }
     
+    private void startHttp() throws IOException {
+        InetSocketAddress address = httpHost != null
+            ? new InetSocketAddress(httpHost, httpPort)
+            : new InetSocketAddress(httpPort);
+        httpServer = HttpServer.create(address, 0);
+        httpServer.createContext(HTTP_PATH, this::handleHttp);
+        httpServer.setExecutor(executor);
+        httpServer.start();
+        
+        long keepAliveMillis = httpKeepAlive.toMillis();
+        httpSweeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "mcp-bridge-http-keepalive");
+            thread.setDaemon(true);
+            return thread;
+        });
+        httpSweeper.scheduleAtFixedRate(this::sweepHttpSessions, keepAliveMillis, keepAliveMillis, TimeUnit.MILLISECONDS);
+        log.info("Streamable HTTP endpoint listening on {}{}", httpServer.getAddress(), HTTP_PATH);
+    }
+    
+    /**
+     * Keeps open event streams alive and closes HTTP sessions that have been idle too long.
+     */
+    private void sweepHttpSessions() {
+        long deadline = System.nanoTime() - httpSessionTimeout.toNanos();
+        for (BridgeSession session : httpSessions.values()) {
+            HttpSessionTransport transport = (HttpSessionTransport) session.transport;
+            if (transport.idleSince(deadline)) {
+                log.info("Closing idle HTTP session {}", transport.getId());
+                session.close().subscribe();
+            } else {
+                transport.keepAlive();
+            }
+        }
+    }
+    
+    private void handleHttp(HttpExchange exchange) throws IOException {
+        try {
+            String path = exchange.getRequestURI().getPath();
+            String routeName = path.startsWith(HTTP_PATH + "/") && path.length() > HTTP_PATH.length() + 1
+                ? path.substring(HTTP_PATH.length() + 1)
+                : null;
+            if (routeName == null && !path.equals(HTTP_PATH) && !path.equals(HTTP_PATH + "/")) {
+                respond(exchange, 404, "Not Found");
+                return;
+            }
+            String origin = exchange.getRequestHeaders().getFirst("Origin");
+            if (!isAllowedOrigin(origin, httpAllowedOrigins)) {
+                log.warn("Refusing HTTP request from {} with origin {}", exchange.getRemoteAddress(), origin);
+                respond(exchange, 403, "Origin not allowed");
+                return;
+            }
+            switch (exchange.getRequestMethod()) {
+                case "POST" -> handlePost(exchange, routeName);
+                case "GET" -> handleGet(exchange);
+                case "DELETE" -> handleDelete(exchange);
+                default -> {
+                    exchange.getResponseHeaders().set("Allow", "GET, POST, DELETE");
+                    respond(exchange, 405, "Method Not Allowed");
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            log.error("Error handling HTTP request", e);
+            exchange.close();
+        }
+    }
+    
+    /**
+     * Returns whether a request with the given {@code Origin} header may use the HTTP
+     * endpoint: it has none, it is on the allowlist, or it names a loopback host.
+     * Hosts are compared as written, never resolved.
+     */
+    static boolean isAllowedOrigin(String origin, Set<String> allowed) {
+        if (origin == null || allowed.contains(origin)) {
+            return true;
+        }
+        String host;
+        try {
+            host = URI.create(origin).getHost();
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+        return host != null && (host.equalsIgnoreCase("localhost") || host.equals("[::1]")
+            || host.matches("127\\.\\d{1,3}\\.\\d{1,3}\\.\\d{1,3}"));
+    }
+    
+    /**
+     * Delivers the messages of a POST. Requests are answered on an event stream in the
+     * POST's response; a body holding only notifications and responses gets 202.
+     */
+    private void handlePost(HttpExchange exchange, String routeName) throws IOException {
+        byte[] body = readBody(exchange.getRequestBody());
+        long readNanos = System.nanoTime();
+        if (body == null) {
+            metrics.oversizedFrame();
+            respond(exchange, 413, "Message exceeds the limit of " + maxFrameBytes + " bytes");
+            return;
+        }
+        List<McpSchema.JSONRPCMessage> messages;
+        try {
+            messages = HttpSessionTransport.parse(objectMapper, body);
+        } catch (IOException e) {
+            metrics.parseError();
+            respond(exchange, 400, "Invalid JSON-RPC message");
+            return;
+        }
+        
+        String sessionId = exchange.getRequestHeaders().getFirst(SESSION_HEADER);
+        BridgeSession bridgeSession;
+        if (sessionId != null) {
+            bridgeSession = httpSessions.get(sessionId);
+            if (bridgeSession == null) {
+                respond(exchange, 404, "Unknown session");
+                return;
+            }
+        } else if (messages.stream().anyMatch(m -> m instanceof McpSchema.JSONRPCRequest request
+                && McpSchema.METHOD_INITIALIZE.equals(request.method()))) {
+            bridgeSession = openHttpSession(exchange, routeName);
+            if (bridgeSession == null) {
+                return;
+            }
+        } else {
+            respond(exchange, 400, "Missing " + SESSION_HEADER + " header");
+            return;
+        }
+        
+        HttpSessionTransport transport = (HttpSessionTransport) bridgeSession.transport;
+        transport.received(body, messages, readNanos);
+        exchange.getResponseHeaders().set(SESSION_HEADER, transport.getId());
+        List<Object> requestIds = new ArrayList<>();
+        for (McpSchema.JSONRPCMessage message : messages) {
+            if (message instanceof McpSchema.JSONRPCRequest request && request.id() != null) {
+                requestIds.add(request.id());
+            }
+        }
+        if (requestIds.isEmpty()) {
+            exchange.sendResponseHeaders(202, -1);
+            exchange.close();
+        } else {
+            startEventStream(exchange);
+            transport.openResponseStream(exchange, requestIds);
+        }
+        for (McpSchema.JSONRPCMessage message : messages) {
+            bridgeSession.dispatch(message, readNanos);
+        }
+    }
+    
+    private BridgeSession openHttpSession(HttpExchange exchange, String routeName) throws IOException {
+        Route route = selectRoute(routeName);
+        if (route == null) {
+            log.warn("Refusing HTTP session from {}: no server for route {}",
+                exchange.getRemoteAddress(), routeName);
+            respond(exchange, 404, "No server for route " + routeName);
+            return null;
+        }
+        if (!reserveConnection()) {
+            log.warn("Rejecting HTTP session from {}: limit of {} connections reached",
+                exchange.getRemoteAddress(), maxConnections);
+            metrics.connectionRejected();
+            respond(exchange, 503, "Connection limit reached");
+            return null;
+        }
+        metrics.connectionAccepted();
+        
+        BridgeSession[] holder = new BridgeSession[1];
+        HttpSessionTransport transport;
+        BridgeSession bridgeSession;
+        try {
+            transport = new HttpSessionTransport(String.valueOf(exchange.getRemoteAddress()),
+                objectMapper, TransportOptions.builder()
+                    .scheduler(scheduler)
+                    .metrics(metrics)
+                    .tracer(tracer)
+                    .recorder(recorder)
+                    .toolValidators(route.toolValidators)
+                    .maxFrameBytes(maxFrameBytes)
+                    .bufferPool(bufferPool)
+                    .build(),
+                () -> holder[0].close().subscribe());
+            bridgeSession = new BridgeSession(route, transport, route.sessionFactory.create(transport));
+        } catch (RuntimeException e) {
+            releaseConnection();
+            throw e;
+        }
+        holder[0] = bridgeSession;
+        activeSessions.add(bridgeSession);
+        route.sessions.add(bridgeSession);
+        httpSessions.put(transport.getId(), bridgeSession);
+        log.info("HTTP session {} started for {}{}", transport.getId(), exchange.getRemoteAddress(),
+            route.name != null ? " on route " + route.name : "");
+        return bridgeSession;
+    }
+    
+    /**
+     * Opens the stream for server-initiated messages of a session.
+     */
+    private void handleGet(HttpExchange exchange) throws IOException {
+        BridgeSession bridgeSession = httpSession(exchange);
+        if (bridgeSession != null) {
+            HttpSessionTransport transport = (HttpSessionTransport) bridgeSession.transport;
+            exchange.getResponseHeaders().set(SESSION_HEADER, transport.getId());
+            startEventStream(exchange);
+            transport.attachStream(exchange);
+        }
+    }
+    
+    private void handleDelete(HttpExchange exchange) throws IOException {
+        BridgeSession bridgeSession = httpSession(exchange);
+        if (bridgeSession != null) {
+            bridgeSession.close().subscribe();
+            exchange.sendResponseHeaders(204, -1);
+            exchange.close();
+        }
+    }
+    
+    /**
+     * Returns the session named by the request's session header, answering the request
+     * with an error if there is none.
+     */
+    private BridgeSession httpSession(HttpExchange exchange) throws IOException {
+        String sessionId = exchange.getRequestHeaders().getFirst(SESSION_HEADER);
+        if (sessionId == null) {
+            respond(exchange, 400, "Missing " + SESSION_HEADER + " header");
+            return null;
+        }
+        BridgeSession bridgeSession = httpSessions.get(sessionId);
+        if (bridgeSession == null) {
+            respond(exchange, 404, "Unknown session");
+        }
+        return bridgeSession;
+    }
+    
+    /**
+     * Sends the headers of a chunked {@code text/event-stream} response.
+     */
+    private static void startEventStream(HttpExchange exchange) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", HttpSessionTransport.EVENT_STREAM);
+        exchange.getResponseHeaders().set("Cache-Control", "no-cache");
+        exchange.sendResponseHeaders(200, 0);
+    }
+    
+    /**
+     * Reads a request body, or returns null if it is longer than {@link #maxFrameBytes}.
+     */
+    private byte[] readBody(InputStream in) throws IOException {
+        try (in) {
+            byte[] body = in.readNBytes(maxFrameBytes + 1);
+            return body.length > maxFrameBytes ? null : body;
+        }
+    }
+    
+    private static void respond(HttpExchange exchange, int status, String message) throws IOException {
+        byte[] bytes = (message + "\n").getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+        exchange.close();
+    }
+    
     private void acceptConnections() {
         while (running.get()) {
             try {
                 Socket clientSocket = serverSocket.accept();
                 log.info("New connection from {}", clientSocket.getRemoteSocketAddress());
                 
+                boolean rejected = !reserveConnection();
+                ConnectionAcceptedEvent event = new ConnectionAcceptedEvent();
+                if (event.shouldCommit()) {
+                    event.remoteAddress = String.valueOf(clientSocket.getRemoteSocketAddress());
+                    event.rejected = rejected;
+                    event.activeConnections = reservedConnections.get();
+                    event.commit();
+                }
+                
+                if (rejected) {
+                    log.warn("Rejecting connection from {}: limit of {} connections reached",
+                        clientSocket.getRemoteSocketAddress(), maxConnections);
+                    metrics.connectionRejected();
+                    clientSocket.close();
+                    continue;
+                }
+                metrics.connectionAccepted();
+                
                 // Handle each client connection in a separate thread
                 executor.execute(() -> handleClient(clientSocket));
-                
+            
             } catch (IOException e) {
                 if (running.get()) {
                     log.error("Error accepting connection", e);
@@ -86,25 +599,64 @@ public class BridgeTransportProvider implements McpServerTransportProvider {
         }
     }
     
+    /**
+     * Sets up the session of an accepted connection, which holds a reserved connection
+     * slot. The slot is given back if no session is created.
+     */
     private void handleClient(Socket clientSocket) {
+        BridgeSession bridgeSession = null;
         try {
+            clientSocket.setSoTimeout((int) preambleTimeout.toMillis());
+            RoutePreamble.Result preamble = RoutePreamble.read(clientSocket.getInputStream());
+            clientSocket.setSoTimeout(0);
+            Route route = selectRoute(preamble.route());
+            if (route == null) {
+                log.warn("Closing connection from {}: no server for route {}",
+                    clientSocket.getRemoteSocketAddress(), preamble.route());
+                releaseConnection();
+                clientSocket.close();
+                return;
+            }
+            
             // Create transport for this client
-            BridgeTransport transport = new BridgeTransport(clientSocket);
+            BridgeTransport transport = new BridgeTransport(clientSocket, preamble.input(), TransportOptions.builder()
+                .scheduler(scheduler)
+                .inlineWrites(inlineWrites)
+                .metrics(metrics)
+                .tracer(tracer)
+                .recorder(recorder)
+                .toolValidators(route.toolValidators)
+                .maxFrameBytes(maxFrameBytes)
+                .bufferPool(bufferPool)
+                .build());
             
             // Create session for this client
-            McpServerSession session = sessionFactory.create(transport);
+            McpServerSession session = route.sessionFactory.create(transport);
             
             // Create bridge session to manage the lifecycle
-            BridgeSession bridgeSession = new BridgeSession(transport, session);
+            bridgeSession = new BridgeSession(route, transport, session);
             activeSessions.add(bridgeSession);
+            route.sessions.add(bridgeSession);
             
             // Start processing messages
-            bridgeSession.start();
-            
-            log.info("Client session started for {}", clientSocket.getRemoteSocketAddress());
+            bridgeSession.startReading(transport);
             
+            log.info("Client session started for {}{}", clientSocket.getRemoteSocketAddress(),
+                route.name != null ? " on route " + route.name : "");
+        
         } catch (Exception e) {
-            log.error("Error handling client", e);
+            // Already counted as accepted, so this is not a rejection
+            if (e instanceof SocketTimeoutException) {
+                log.warn("Closing connection from {}: nothing received within {}",
+                    clientSocket.getRemoteSocketAddress(), preambleTimeout);
+            } else {
+                log.error("Error handling client", e);
+            }
+            if (bridgeSession != null) {
+                bridgeSession.close().subscribe();
+                return;
+            }
+            releaseConnection();
             try {
                 clientSocket.close();
             } catch (IOException ex) {
@@ -113,9 +665,46 @@ public class BridgeTransportProvider implements McpServerTransportProvider {
         }
     }
     
+    /**
+     * Takes one of the {@link #maxConnections} slots, or returns false if none is free.
+     * The slot is taken when the connection is accepted, not when its session starts,
+     * so a burst of connections cannot overshoot the limit.
+     */
+    private boolean reserveConnection() {
+        int current;
+        do {
+            current = reservedConnections.get();
+            if (maxConnections > 0 && current >= maxConnections) {
+                return false;
+            }
+        } while (!reservedConnections.compareAndSet(current, current + 1));
+        return true;
+    }
+    
+    private void releaseConnection() {
+        reservedConnections.decrementAndGet();
+    }
+    
+    /**
+     * Returns the route a connection asked for. Without a preamble, or when no named
+     * routes exist, the connection goes to the default server.
+     */
+    private Route selectRoute(String name) {
+        Route route = name != null && !routes.isEmpty() ? routes.get(name) : defaultRoute;
+        return route != null && route.sessionFactory != null ? route : null;
+    }
+    
+    /**
+     * Notifies the sessions of the default server; routes notify their own sessions.
+     */
     @Override
     public Mono<Void> notifyClients(String method, Object params) {
-        return Flux.fromIterable(activeSessions)
+        Route route = defaultRoute;
+        return route != null ? route.notifyClients(method, params) : Mono.empty();
+    }
+    
+    private static Mono<Void> notifySessions(List<BridgeSession> sessions, String method, Object params) {
+        return Flux.fromIterable(sessions)
             .filter(session -> !session.isClosed())
             .flatMap(session -> session.getSession()
                 .sendNotification(method, params)
@@ -140,7 +729,17 @@ public class BridgeTransportProvider implements McpServerTransportProvider {
                 log.error("Error closing server socket", e);
             }
             
+            if (httpServer != null) {
+                httpSweeper.shutdownNow();
+                httpServer.stop(0);
+            }
             executor.shutdown();
+            routes.clear();
+            metrics.unregisterMBeans();
+            bufferPool.unregisterMBean();
+            if (metricsServer != null) {
+                metricsServer.close();
+            }
             
             if (acceptThread != null) {
                 try {
@@ -153,39 +752,118 @@ public class BridgeTransportProvider implements McpServerTransportProvider {
         .then(Flux.fromIterable(activeSessions)
             .flatMap(session -> session.close())
             .then())
+        .then(Mono.<Void>fromRunnable(() -> {
+            if (recorder != null) {
+                try {
+                    recorder.close();
+                } catch (IOException e) {
+                    log.error("Error closing traffic capture", e);
+                }
+            }
+        }))
         .subscribeOn(Schedulers.boundedElastic());
     }
     
+    /**
+     * Returns whether the accept loop is running and able to take new connections.
+     */
+    public boolean isReady() {
+        Thread thread = acceptThread;
+        ServerSocket socket = serverSocket;
+        return running.get() && thread != null && thread.isAlive() && socket != null && !socket.isClosed();
+    }
+    
+    /**
+     * Returns the address of the metrics listener, or null if it is disabled or not started.
+     */
+    public InetSocketAddress getMetricsAddress() {
+        return metricsServer != null ? metricsServer.getAddress() : null;
+    }
+    
+    /**
+     * Returns the address of the HTTP endpoint, or null if it is disabled or not started.
+     */
+    public InetSocketAddress getHttpAddress() {
+        return httpServer != null ? httpServer.getAddress() : null;
+    }
+    
+    /**
+     * Returns the metrics registry for this provider.
+     */
+    public BridgeMetrics getMetrics() {
+        return metrics;
+    }
+    
+    /**
+     * One server behind the shared listener and the sessions connected to it.
+     * The default route has no name.
+     */
+    private class Route implements McpServerTransportProvider {
+        private final String name;
+        private final ToolValidators toolValidators;
+        private final List<BridgeSession> sessions = new CopyOnWriteArrayList<>();
+        private volatile McpServerSession.Factory sessionFactory;
+        
+        Route(String name, ToolValidators toolValidators) {
+            this.name = name;
+            this.toolValidators = toolValidators;
+        }
+        
+        @Override
+        public void setSessionFactory(McpServerSession.Factory sessionFactory) {
+            this.sessionFactory = sessionFactory;
+            ensureStarted();
+        }
+        
+        @Override
+        public Mono<Void> notifyClients(String method, Object params) {
+            return notifySessions(sessions, method, params);
+        }
+        
+        @Override
+        public Mono<Void> closeGracefully() {
+            return Mono.defer(() -> {
+                log.info("Closing route {}", name);
+                routes.remove(name, this);
+                return Flux.fromIterable(sessions)
+                    .flatMap(session -> session.close())
+                    .then();
+            });
+        }
+    }
+    
     /**
      * Internal class to manage a client session
      */
     private class BridgeSession {
-        private final BridgeTransport transport;
+        private final Route route;
+        private final SessionTransport transport;
         private final McpServerSession session;
         private Thread readerThread;
         private final AtomicBoolean closed = new AtomicBoolean(false);
         
-        public BridgeSession(BridgeTransport transport, McpServerSession session) {
+        private final OrderedDispatcher dispatcher = new OrderedDispatcher(dispatchScheduler);
+        
+        public BridgeSession(Route route, SessionTransport transport, McpServerSession session) {
+            this.route = route;
             this.transport = transport;
             this.session = session;
         }
         
-        public void start() {
+        /**
+         * Reads messages from a TCP connection on a dedicated thread until it ends.
+         */
+        public void startReading(BridgeTransport connection) {
             readerThread = new Thread(() -> {
                 try {
-                    while (!transport.isClosed() && !closed.get()) {
-                        var message = transport.readMessage();
+                    while (!connection.isClosed() && !closed.get()) {
+                        var message = connection.readMessage();
                         if (message != null) {
-                            session.handle(message)
-                                .onErrorResume(e -> {
-                                    log.error("Error handling message", e);
-                                    return Mono.empty();
-                                })
-                                .subscribe();
+                            dispatch(message, System.nanoTime());
                         }
                     }
                 } catch (EOFException e) {
-                    log.info("Client disconnected: {}", transport.getSocket().getRemoteSocketAddress());
+                    log.info("Client disconnected: {}", connection.getSocket().getRemoteSocketAddress());
                 } catch (IOException e) {
                     if (!closed.get()) {
                         log.error("Error reading from client", e);
@@ -193,19 +871,101 @@ public class BridgeTransportProvider implements McpServerTransportProvider {
                 } finally {
                     close().subscribe();
                 }
-            }, "mcp-bridge-reader-" + transport.getSocket().getPort());
+            }, "mcp-bridge-reader-" + connection.getSocket().getPort());
             
             readerThread.start();
         }
         
+        /**
+         * Hands a received message to the MCP session on the dispatch scheduler.
+         */
+        void dispatch(McpSchema.JSONRPCMessage message, long readNanos) {
+            if (rejectInvalidToolCall(message)) {
+                return;
+            }
+            try {
+                dispatcher.execute(() -> Mono.defer(() -> {
+                        transport.markDispatched(message);
+                        MessageDispatchedEvent event = new MessageDispatchedEvent();
+                        if (event.shouldCommit()) {
+                            event.sessionId = transport.getSessionMetrics().getId();
+                            event.method = BridgeTransport.methodOf(message);
+                            event.queueTime = System.nanoTime() - readNanos;
+                            event.commit();
+                        }
+                        return session.handle(message);
+                    })
+                    .onErrorResume(e -> {
+                        log.error("Error handling message", e);
+                        return Mono.empty();
+                    })
+                    .subscribe());
+            } catch (RejectedExecutionException e) {
+                log.debug("Dropping message for closed session: {}", BridgeTransport.methodOf(message));
+            }
+        }
+        
+        /**
+         * Answers a {@code tools/call} whose arguments do not match the tool's input
+         * schema with an invalid-params error, so that it never reaches the tool.
+         */
+        private boolean rejectInvalidToolCall(McpSchema.JSONRPCMessage message) {
+            if (route.toolValidators == null
+                    || !(message instanceof McpSchema.JSONRPCRequest request)
+                    || !"tools/call".equals(request.method())
+                    || !(request.params() instanceof Map<?, ?> params)
+                    || !(params.get("name") instanceof String tool)) {
+                return false;
+            }
+            List<Violation> violations = route.toolValidators.validate(tool, params.get("arguments"));
+            if (violations.isEmpty()) {
+                return false;
+            }
+            
+            log.debug("Rejecting call to tool {}: {}", tool, violations);
+            List<Map<String, String>> data = violations.stream()
+                .map(v -> Map.of("path", v.path(), "message", v.message()))
+                .toList();
+            var error = new McpSchema.JSONRPCResponse.JSONRPCError(McpSchema.ErrorCodes.INVALID_PARAMS,
+                "Invalid arguments for tool " + tool + ": " + violations.get(0)
+                    + (violations.size() > 1 ? " (and " + (violations.size() - 1) + " more)" : ""),
+                Map.of("violations", data));
+            transport.sendMessage(new McpSchema.JSONRPCResponse(McpSchema.JSONRPC_VERSION, request.id(), null, error))
+                .onErrorResume(e -> {
+                    log.error("Failed to send validation error", e);
+                    return Mono.empty();
+                })
+                .subscribe();
+            return true;
+        }
+        
         public Mono<Void> close() {
             return Mono.fromRunnable(() -> {
                 if (closed.compareAndSet(false, true)) {
                     activeSessions.remove(this);
+                    releaseConnection();
+                    route.sessions.remove(this);
+                    if (transport instanceof HttpSessionTransport http) {
+                        httpSessions.remove(http.getId(), this);
+                    }
+                    
+                    ConnectionClosedEvent event = new ConnectionClosedEvent();
+                    if (event.shouldCommit()) {
+                        SessionMetrics stats = transport.getSessionMetrics();
+                        event.sessionId = stats.getId();
+                        event.remoteAddress = stats.getRemoteAddress();
+                        event.connectedTime = stats.getConnectedMillis();
+                        event.bytesIn = stats.getBytesIn();
+                        event.bytesOut = stats.getBytesOut();
+                        event.messagesIn = stats.getMessagesIn();
+                        event.messagesOut = stats.getMessagesOut();
+                        event.commit();
+                    }
                     
                     if (readerThread != null) {
                         readerThread.interrupt();
                     }
+                    dispatcher.dispose();
                     
                     transport.closeGracefully().subscribe();
                 }
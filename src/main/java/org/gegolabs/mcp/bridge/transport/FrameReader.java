@@ -0,0 +1,185 @@
+package org.gegolabs.mcp.bridge.transport;
+
+import org.gegolabs.mcp.bridge.buffer.BufferPool;
+import org.gegolabs.mcp.bridge.buffer.PooledBuffer;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Reads newline-delimited frames from a stream without ever buffering more than a
+ * fixed number of bytes.
+ * 
+ * A frame longer than the limit is not buffered: the reader keeps its first
+ * {@value #PREFIX_BYTES} bytes, so the request id can still be recovered, and
+ * skips the rest up to the next newline. A trailing carriage return is removed.
+ * 
+ * The read and line buffers are leased from a {@link BufferPool}. They go back to the
+ * pool on {@link #close()}, or from the reading thread if it is inside {@link #next()}
+ * at that time.
+ */
+final class FrameReader {
+    
+    /**
+     * Bytes of an oversized frame kept for recovering its id.
+     */
+    static final int PREFIX_BYTES = 1024;
+    
+    private static final int CHUNK_SIZE = 8192;
+    private static final int INITIAL_LINE_SIZE = 1024;
+    
+    /**
+     * Line buffers grown past this size go back to the pool after use, so an idle
+     * connection does not hold on to the memory of its largest message.
+     */
+    private static final int RETAINED_LINE_SIZE = 64 * 1024;
+    
+    private static final int IDLE = 0;
+    private static final int READING = 1;
+    private static final int CLOSED = 2;
+    
+    private final InputStream in;
+    private final int maxFrameBytes;
+    private final BufferPool pool;
+    private final AtomicInteger state = new AtomicInteger(IDLE);
+    private final PooledBuffer chunkBuffer;
+    private final byte[] chunk;
+    private int chunkPosition;
+    private int chunkLimit;
+    private PooledBuffer lineBuffer;
+    private byte[] line;
+    
+    /**
+     * One frame: its text, or for an oversized frame the retained prefix.
+     */
+    record Frame(String text, long size, byte[] prefix) {
+    
+        boolean oversized() {
+            return text == null;
+        }
+    }
+    
+    FrameReader(InputStream in, int maxFrameBytes) {
+        this(in, maxFrameBytes, BufferPool.shared());
+    }
+    
+    FrameReader(InputStream in, int maxFrameBytes, BufferPool pool) {
+        if (maxFrameBytes <= 0) {
+            throw new IllegalArgumentException("maxFrameBytes must be positive");
+        }
+        this.in = in;
+        this.maxFrameBytes = maxFrameBytes;
+        this.pool = pool;
+        this.chunkBuffer = pool.acquire(CHUNK_SIZE);
+        this.chunk = chunkBuffer.array();
+        this.lineBuffer = pool.acquire(INITIAL_LINE_SIZE);
+        this.line = lineBuffer.array();
+    }
+    
+    /**
+     * Returns the next frame, or null at the end of the stream.
+     */
+    Frame next() throws IOException {
+        if (!state.compareAndSet(IDLE, READING)) {
+            throw new EOFException("Frame reader is closed");
+        }
+        try {
+            return read();
+        } finally {
+            if (!state.compareAndSet(READING, IDLE)) {
+                // Closed while this thread was reading; the buffers are ours to return
+                releaseBuffers();
+            }
+        }
+    }
+    
+    /**
+     * Returns the buffers to the pool. The stream itself is not closed.
+     */
+    void close() {
+        if (state.getAndSet(CLOSED) == IDLE) {
+            releaseBuffers();
+        }
+    }
+    
+    private Frame read() throws IOException {
+        int length = 0;
+        long size = 0;
+        boolean oversized = false;
+        boolean sawData = false;
+        
+        while (true) {
+            if (chunkPosition == chunkLimit) {
+                int n = in.read(chunk, 0, CHUNK_SIZE);
+                if (n < 0) {
+                    if (!sawData) {
+                        return null;
+                    }
+                    break;
+                }
+                chunkPosition = 0;
+                chunkLimit = n;
+            }
+            sawData = true;
+            
+            int start = chunkPosition;
+            int newline = -1;
+            for (int i = start; i < chunkLimit; i++) {
+                if (chunk[i] == '\n') {
+                    newline = i;
+                    break;
+                }
+            }
+            int end = newline >= 0 ? newline : chunkLimit;
+            int count = end - start;
+            chunkPosition = newline >= 0 ? newline + 1 : chunkLimit;
+            size += count;
+            
+            if (!oversized && size > maxFrameBytes) {
+                oversized = true;
+            }
+            int keep = oversized ? Math.max(0, Math.min(count, PREFIX_BYTES - length)) : count;
+            if (keep > 0) {
+                ensureCapacity(length, length + keep);
+                System.arraycopy(chunk, start, line, length, keep);
+                length += keep;
+            }
+            if (newline >= 0) {
+                break;
+            }
+        }
+        
+        if (!oversized && length > 0 && line[length - 1] == '\r') {
+            length--;
+        }
+        Frame frame = oversized
+            ? new Frame(null, size, Arrays.copyOf(line, Math.min(length, PREFIX_BYTES)))
+            : new Frame(new String(line, 0, length, StandardCharsets.UTF_8), size, null);
+        if (line.length > RETAINED_LINE_SIZE) {
+            replaceLineBuffer(pool.acquire(INITIAL_LINE_SIZE), 0);
+        }
+        return frame;
+    }
+    
+    private void ensureCapacity(int length, int capacity) {
+        if (capacity > line.length) {
+            replaceLineBuffer(pool.acquire(Math.max(capacity, Math.min(line.length * 2, maxFrameBytes))), length);
+        }
+    }
+    
+    private void replaceLineBuffer(PooledBuffer replacement, int length) {
+        System.arraycopy(line, 0, replacement.array(), 0, length);
+        lineBuffer.release();
+        lineBuffer = replacement;
+        line = replacement.array();
+    }
+    
+    private void releaseBuffers() {
+        chunkBuffer.release();
+        lineBuffer.release();
+    }
+}
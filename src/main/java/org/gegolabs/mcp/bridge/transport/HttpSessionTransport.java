@@ -0,0 +1,533 @@
+package org.gegolabs.mcp.bridge.transport;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import io.modelcontextprotocol.spec.McpSchema;
+import io.modelcontextprotocol.spec.McpSchema.JSONRPCMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.gegolabs.mcp.bridge.buffer.BufferPool;
+import org.gegolabs.mcp.bridge.buffer.PooledOutputStream;
+import org.gegolabs.mcp.bridge.capture.CaptureFrame;
+import org.gegolabs.mcp.bridge.capture.TrafficRecorder;
+import org.gegolabs.mcp.bridge.metrics.BridgeMetrics;
+import org.gegolabs.mcp.bridge.metrics.SessionMetrics;
+import org.gegolabs.mcp.bridge.tools.StreamingContent;
+import org.gegolabs.mcp.bridge.tracing.RequestTrace;
+import org.gegolabs.mcp.bridge.tracing.RequestTracer;
+import org.gegolabs.mcp.bridge.utils.LoggingUtils;
+import org.gegolabs.mcp.bridge.validation.ToolValidators;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Server side of one Streamable HTTP session.
+ * 
+ * Messages arrive in POST bodies. A response goes out as a server-sent event on the
+ * POST that carried its request, and that stream ends once all of its requests are
+ * answered. Everything else the server sends goes to the session's GET stream, and
+ * waits in a bounded backlog while no GET stream is open.
+ * 
+ * A response holding {@link StreamingContent} is written straight into its event
+ * stream, which is chunked, with the sources copied in place of their placeholders
+ * as on TCP connections. Such a response is never kept in the backlog.
+ */
+@Slf4j
+final class HttpSessionTransport implements SessionTransport {
+    
+    static final String EVENT_STREAM = "text/event-stream";
+    
+    /**
+     * Server-initiated messages kept for a client that has no GET stream open.
+     */
+    static final int MAX_BACKLOG = 1024;
+    
+    private static final byte[] EVENT_PREFIX = "event: message\ndata: ".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] EVENT_SUFFIX = "\n\n".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] KEEP_ALIVE = ": keep-alive\n\n".getBytes(StandardCharsets.US_ASCII);
+    private static final int INITIAL_WRITE_BUFFER = 4096;
+    
+    private final String id = UUID.randomUUID().toString();
+    private final ObjectMapper objectMapper;
+    private final Scheduler scheduler;
+    private final BridgeMetrics metrics;
+    private final SessionMetrics sessionMetrics;
+    private final RequestTracer tracer;
+    private final TrafficRecorder recorder;
+    private final ToolValidators toolValidators;
+    private final BufferPool bufferPool;
+    private final Runnable onClose;
+    private final Map<Object, RequestTrace> inFlight = new ConcurrentHashMap<>();
+    private final Map<Object, EventStream> responseStreams = new ConcurrentHashMap<>();
+    private final Set<EventStream> openStreams = ConcurrentHashMap.newKeySet();
+    private final Deque<byte[]> backlog = new ArrayDeque<>();
+    private final AtomicBoolean closed = new AtomicBoolean(false);
+    private EventStream getStream;
+    private volatile long lastActivity = System.nanoTime();
+    
+    HttpSessionTransport(String remoteAddress, ObjectMapper objectMapper, TransportOptions options, Runnable onClose) {
+        this.objectMapper = objectMapper;
+        this.scheduler = options.scheduler;
+        this.metrics = options.metrics;
+        this.tracer = options.tracer;
+        this.recorder = options.recorder;
+        this.toolValidators = options.toolValidators;
+        this.bufferPool = options.bufferPool;
+        this.onClose = onClose;
+        this.sessionMetrics = metrics.openSession("http:" + remoteAddress);
+    }
+    
+    /**
+     * Parses a POST body holding one JSON-RPC message or a batch of them.
+     * 
+     * @throws IOException if the body is not valid JSON-RPC
+     */
+    static List<JSONRPCMessage> parse(ObjectMapper objectMapper, byte[] body) throws IOException {
+        JsonNode root = objectMapper.readTree(body);
+        List<JSONRPCMessage> messages = new ArrayList<>();
+        try {
+            if (root != null && root.isArray()) {
+                for (JsonNode element : root) {
+                    messages.add(McpSchema.deserializeJsonRpcMessage(objectMapper, element.toString()));
+                }
+            } else if (root != null) {
+                messages.add(McpSchema.deserializeJsonRpcMessage(objectMapper, root.toString()));
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            throw new IOException("Invalid JSON-RPC message", e);
+        }
+        if (messages.isEmpty()) {
+            throw new IOException("Empty JSON-RPC message");
+        }
+        return messages;
+    }
+    
+    /**
+     * Accounts for messages received in one POST and starts tracing its requests.
+     */
+    void received(byte[] body, List<JSONRPCMessage> messages, long readNanos) {
+        lastActivity = System.nanoTime();
+        sessionMetrics.addBytesIn(body.length);
+        if (recorder != null) {
+            recorder.record(sessionMetrics.getId(), CaptureFrame.Direction.CLIENT_TO_SERVER,
+                new String(body, StandardCharsets.UTF_8));
+        }
+        for (JSONRPCMessage message : messages) {
+            sessionMetrics.messageIn();
+            if (message instanceof McpSchema.JSONRPCRequest request && request.id() != null) {
+                inFlight.put(request.id(), new RequestTrace(request.id(), request.method(),
+                    BridgeTransport.toolName(request), readNanos, System.nanoTime()));
+            }
+        }
+    }
+    
+    /**
+     * Makes an exchange whose response headers have been sent the stream for the
+     * responses to the given requests. The exchange is closed after the last of them.
+     */
+    void openResponseStream(HttpExchange exchange, List<Object> requestIds) {
+        EventStream stream = new EventStream(exchange, requestIds.size());
+        openStreams.add(stream);
+        requestIds.forEach(requestId -> responseStreams.put(requestId, stream));
+    }
+    
+    /**
+     * Makes an exchange the stream for server-initiated messages, replacing any earlier
+     * one, and sends the backlog.
+     */
+    void attachStream(HttpExchange exchange) {
+        EventStream stream = new EventStream(exchange, -1);
+        EventStream previous;
+        List<byte[]> pending;
+        synchronized (this) {
+            previous = getStream;
+            getStream = stream;
+            pending = new ArrayList<>(backlog);
+            backlog.clear();
+        }
+        openStreams.add(stream);
+        if (previous != null) {
+            previous.close();
+        }
+        lastActivity = System.nanoTime();
+        for (byte[] event : pending) {
+            stream.write(event, 0, event.length);
+        }
+    }
+    
+    @Override
+    public Mono<Void> sendMessage(JSONRPCMessage message) {
+        return Mono.defer(() -> {
+            RequestTrace trace = message instanceof McpSchema.JSONRPCResponse response && response.id() != null
+                ? inFlight.get(response.id())
+                : null;
+            if (trace != null) {
+                trace.markHandled();
+            }
+            sessionMetrics.writeQueued();
+            return Mono.fromRunnable(() -> deliver(message, trace))
+                .subscribeOn(scheduler)
+                .doFinally(signal -> sessionMetrics.writeDequeued());
+        }).then();
+    }
+    
+    private void deliver(JSONRPCMessage message, RequestTrace trace) {
+        if (closed.get()) {
+            throw new IllegalStateException("Transport is closed");
+        }
+        if (message instanceof McpSchema.JSONRPCResponse response
+                && StreamingContent.hasStreamedContent(response.result())) {
+            deliverStreamed(response, trace);
+            return;
+        }
+        PooledOutputStream event = serialize(message);
+        try {
+            if (trace != null) {
+                trace.markSerialized();
+            }
+            EventStream stream = message instanceof McpSchema.JSONRPCResponse response && response.id() != null
+                ? responseStreams.remove(response.id())
+                : null;
+            if (stream != null) {
+                stream.write(event.array(), 0, event.size());
+                stream.answered();
+            } else {
+                sendToGetStream(event);
+            }
+            sessionMetrics.messageOut();
+            sessionMetrics.addBytesOut(event.size());
+            boolean logPayload = LoggingUtils.shouldLogPayload(log);
+            if (recorder != null || logPayload) {
+                String json = event.toString().substring(EVENT_PREFIX.length).stripTrailing();
+                if (recorder != null) {
+                    recorder.record(sessionMetrics.getId(), CaptureFrame.Direction.SERVER_TO_CLIENT, json);
+                }
+                if (logPayload) {
+                    LoggingUtils.logPayload(log, "Sent message: {}", json);
+                }
+            }
+            if (message instanceof McpSchema.JSONRPCResponse response) {
+                learnTools(response);
+                completeRequest(response);
+            } else if (toolValidators != null && message instanceof McpSchema.JSONRPCNotification notification
+                    && BridgeTransport.TOOLS_LIST_CHANGED.equals(notification.method())) {
+                toolValidators.forgetLearned();
+            }
+        } finally {
+            event.release();
+        }
+    }
+    
+    private void sendToGetStream(PooledOutputStream event) {
+        EventStream stream;
+        synchronized (this) {
+            stream = getStream;
+            if (stream == null || stream.isClosed()) {
+                if (backlog.size() == MAX_BACKLOG) {
+                    backlog.removeFirst();
+                    log.warn("Dropping oldest queued message for HTTP session {}: no event stream open", id);
+                }
+                byte[] copy = new byte[event.size()];
+                System.arraycopy(event.array(), 0, copy, 0, event.size());
+                backlog.addLast(copy);
+                return;
+            }
+        }
+        stream.write(event.array(), 0, event.size());
+    }
+    
+    /**
+     * Writes a response holding streamed content into the event stream of its request,
+     * or the GET stream if that one is gone, without buffering the content. With no
+     * stream open the response is dropped and its sources are released.
+     */
+    private void deliverStreamed(McpSchema.JSONRPCResponse response, RequestTrace trace) {
+        JsonNode tree = objectMapper.valueToTree(response);
+        if (trace != null) {
+            trace.markSerialized();
+        }
+        EventStream stream = response.id() != null ? responseStreams.remove(response.id()) : null;
+        boolean answers = stream != null;
+        if (stream == null) {
+            synchronized (this) {
+                stream = getStream;
+            }
+        }
+        if (stream == null || !stream.writeStreamed(tree)) {
+            log.warn("Dropping streamed response {} of HTTP session {}: no event stream open", response.id(), id);
+            discardStreamed(response.result());
+            inFlight.remove(response.id());
+            return;
+        }
+        if (answers) {
+            stream.answered();
+        }
+        sessionMetrics.messageOut();
+        boolean logPayload = LoggingUtils.shouldLogPayload(log);
+        if (recorder != null || logPayload) {
+            // Streamed content appears as its placeholder
+            String json = tree.toString();
+            if (recorder != null) {
+                recorder.record(sessionMetrics.getId(), CaptureFrame.Direction.SERVER_TO_CLIENT, json);
+            }
+            if (logPayload) {
+                LoggingUtils.logPayload(log, "Sent streamed message: {}", json);
+            }
+        }
+        completeRequest(response);
+    }
+    
+    private static void discardStreamed(Object result) {
+        if (result instanceof McpSchema.CallToolResult call && call.content() != null) {
+            call.content().forEach(StreamingContent::discard);
+        } else if (result instanceof McpSchema.ReadResourceResult read && read.contents() != null) {
+            read.contents().forEach(StreamingContent::discard);
+        }
+    }
+    
+    /**
+     * Serializes a message as a server-sent event into a pooled buffer, which the caller
+     * must release.
+     */
+    private PooledOutputStream serialize(JSONRPCMessage message) {
+        PooledOutputStream event = new PooledOutputStream(bufferPool, INITIAL_WRITE_BUFFER);
+        try {
+            event.write(EVENT_PREFIX, 0, EVENT_PREFIX.length);
+            objectMapper.writeValue(event, message);
+            event.write(EVENT_SUFFIX, 0, EVENT_SUFFIX.length);
+            return event;
+        } catch (IOException | RuntimeException e) {
+            event.release();
+            throw new IllegalStateException("Failed to serialize message", e);
+        }
+    }
+    
+    private void learnTools(McpSchema.JSONRPCResponse response) {
+        RequestTrace trace = inFlight.get(response.id());
+        if (toolValidators != null && response.result() != null && trace != null
+                && "tools/list".equals(trace.getMethod())) {
+            try {
+                toolValidators.learn(objectMapper.valueToTree(response.result()));
+            } catch (IllegalArgumentException e) {
+                log.warn("Failed to read tool schemas from tools/list response", e);
+            }
+        }
+    }
+    
+    private void completeRequest(McpSchema.JSONRPCResponse response) {
+        RequestTrace trace = inFlight.remove(response.id());
+        if (trace == null) {
+            return;
+        }
+        trace.markFlushed();
+        long nanos = trace.getTotalNanos();
+        boolean error = response.error() != null;
+        metrics.method(trace.getMethod()).record(nanos, error);
+        if (trace.getTool() != null) {
+            metrics.tool(trace.getTool()).record(nanos, error);
+        }
+        tracer.complete(trace);
+    }
+    
+    /**
+     * Writes a comment to every open stream so that proxies keep them open.
+     */
+    void keepAlive() {
+        for (EventStream stream : openStreams) {
+            stream.keepAlive();
+        }
+    }
+    
+    /**
+     * Returns whether the session has had no traffic and no open stream since the given time.
+     */
+    boolean idleSince(long nanos) {
+        return lastActivity - nanos < 0 && openStreams.isEmpty();
+    }
+    
+    @Override
+    public void markDispatched(JSONRPCMessage message) {
+        if (message instanceof McpSchema.JSONRPCRequest request && request.id() != null) {
+            RequestTrace trace = inFlight.get(request.id());
+            if (trace != null) {
+                trace.markDispatched();
+            }
+        }
+    }
+    
+    @Override
+    public <T> T unmarshalFrom(Object data, TypeReference<T> typeRef) {
+        return objectMapper.convertValue(data, typeRef);
+    }
+    
+    @Override
+    public Mono<Void> closeGracefully() {
+        return Mono.<Void>fromRunnable(() -> {
+            if (closed.compareAndSet(false, true)) {
+                log.info("Closing HTTP session {}", id);
+                openStreams.forEach(EventStream::close);
+                responseStreams.clear();
+                inFlight.clear();
+                synchronized (this) {
+                    backlog.clear();
+                }
+                sessionMetrics.close();
+                onClose.run();
+            }
+        }).subscribeOn(scheduler).then();
+    }
+    
+    @Override
+    public boolean isClosed() {
+        return closed.get();
+    }
+    
+    /**
+     * Returns the value of the {@code Mcp-Session-Id} header for this session.
+     */
+    String getId() {
+        return id;
+    }
+    
+    @Override
+    public SessionMetrics getSessionMetrics() {
+        return sessionMetrics;
+    }
+    
+    /**
+     * One open {@code text/event-stream} response. POST streams close themselves once
+     * their last request is answered; GET streams stay open until replaced or closed.
+     */
+    private final class EventStream {
+        private final HttpExchange exchange;
+        private final OutputStream out;
+        private final ReentrantLock lock = new ReentrantLock();
+        private int remaining;
+        private boolean closed;
+        
+        EventStream(HttpExchange exchange, int remaining) {
+            this.exchange = exchange;
+            this.out = exchange.getResponseBody();
+            this.remaining = remaining;
+        }
+        
+        void write(byte[] bytes, int offset, int length) {
+            lock.lock();
+            try {
+                doWrite(bytes, offset, length);
+            } finally {
+                lock.unlock();
+            }
+        }
+        
+        /**
+         * Writes a keep-alive comment unless an event is being written, which keeps the
+         * stream busy anyway and may take long when its content is streamed.
+         */
+        void keepAlive() {
+            if (lock.tryLock()) {
+                try {
+                    doWrite(KEEP_ALIVE, 0, KEEP_ALIVE.length);
+                } finally {
+                    lock.unlock();
+                }
+            }
+        }
+        
+        private void doWrite(byte[] bytes, int offset, int length) {
+            if (closed) {
+                return;
+            }
+            try {
+                out.write(bytes, offset, length);
+                out.flush();
+            } catch (IOException e) {
+                log.debug("HTTP event stream of session {} closed by client: {}", id, e.getMessage());
+                close();
+            }
+        }
+        
+        /**
+         * Writes an event whose placeholders are replaced by their sources while it is
+         * written. JSON output holds no raw newlines, so the event keeps one data line.
+         * 
+         * @return false if the stream was already closed and nothing was written
+         */
+        boolean writeStreamed(JsonNode tree) {
+            lock.lock();
+            try {
+                if (closed) {
+                    return false;
+                }
+                OutputStream counted = new BridgeTransport.CountingOutputStream(out, sessionMetrics);
+                try (JsonGenerator generator = objectMapper.getFactory().createGenerator(counted, JsonEncoding.UTF8)
+                        .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)) {
+                    counted.write(EVENT_PREFIX, 0, EVENT_PREFIX.length);
+                    StreamingContent.writeTree(generator, tree);
+                    generator.flush();
+                    counted.write(EVENT_SUFFIX, 0, EVENT_SUFFIX.length);
+                    counted.flush();
+                } catch (IOException e) {
+                    // Part of the event may already be sent, so the stream cannot carry further events
+                    log.warn("Failed to stream response of HTTP session {}, closing its event stream", id, e);
+                    close();
+                }
+                return true;
+            } finally {
+                lock.unlock();
+            }
+        }
+        
+        void answered() {
+            lock.lock();
+            try {
+                if (remaining > 0 && --remaining == 0) {
+                    close();
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+        
+        boolean isClosed() {
+            lock.lock();
+            try {
+                return closed;
+            } finally {
+                lock.unlock();
+            }
+        }
+        
+        void close() {
+            lock.lock();
+            try {
+                if (closed) {
+                    return;
+                }
+                closed = true;
+                openStreams.remove(this);
+                responseStreams.values().removeIf(stream -> stream == this);
+                exchange.close();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
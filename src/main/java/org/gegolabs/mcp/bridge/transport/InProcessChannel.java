@@ -0,0 +1,115 @@
+package org.gegolabs.mcp.bridge.transport;
+
+import io.modelcontextprotocol.spec.McpSchema.JSONRPCMessage;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * One direction of an in-process connection: a bounded queue of messages drained by a
+ * dedicated thread.
+ * 
+ * A send completes once its message is queued. When the queue is full the send waits on
+ * the given scheduler until the receiver has caught up, so a fast producer is slowed to
+ * the pace of the consumer instead of filling memory.
+ */
+@Slf4j
+final class InProcessChannel {
+    
+    private static final long CLOSE_CHECK_MILLIS = 100;
+    
+    private final BlockingQueue<JSONRPCMessage> queue;
+    private final Scheduler scheduler;
+    private volatile boolean closed;
+    private Thread consumer;
+    
+    InProcessChannel(int capacity, Scheduler scheduler) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.scheduler = scheduler;
+    }
+    
+    /**
+     * Queues a message, waiting for space on the scheduler if the queue is full.
+     */
+    Mono<Void> send(JSONRPCMessage message) {
+        return Mono.defer(() -> {
+            if (closed) {
+                return Mono.error(new IllegalStateException("In-process transport is closed"));
+            }
+            // Fast path: there is room, so no thread hop is needed
+            if (queue.offer(message)) {
+                return Mono.empty();
+            }
+            return Mono.<Void>fromRunnable(() -> put(message)).subscribeOn(scheduler);
+        });
+    }
+    
+    private void put(JSONRPCMessage message) {
+        try {
+            while (!queue.offer(message, CLOSE_CHECK_MILLIS, TimeUnit.MILLISECONDS)) {
+                if (closed) {
+                    throw new IllegalStateException("In-process transport is closed");
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for queue space", e);
+        }
+    }
+    
+    /**
+     * Starts the thread that hands queued messages to the receiver, in order.
+     */
+    synchronized void start(String threadName, Consumer<JSONRPCMessage> receiver) {
+        if (consumer != null) {
+            throw new IllegalStateException("Channel already started");
+        }
+        consumer = new Thread(() -> {
+            while (!closed) {
+                JSONRPCMessage message;
+                try {
+                    message = queue.take();
+                } catch (InterruptedException e) {
+                    break;
+                }
+                try {
+                    receiver.accept(message);
+                } catch (RuntimeException e) {
+                    log.error("Error delivering in-process message", e);
+                }
+            }
+        }, threadName);
+        consumer.setDaemon(true);
+        consumer.start();
+    }
+    
+    /**
+     * Stops delivery and drops queued messages. Waiting senders fail.
+     */
+    synchronized void close() {
+        closed = true;
+        if (consumer != null && consumer != Thread.currentThread()) {
+            consumer.interrupt();
+        }
+        queue.clear();
+    }
+    
+    boolean isClosed() {
+        return closed;
+    }
+    
+    /**
+     * Returns the number of messages waiting for the receiver.
+     */
+    int size() {
+        return queue.size();
+    }
+}
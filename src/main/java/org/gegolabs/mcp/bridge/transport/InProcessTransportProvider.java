@@ -0,0 +1,321 @@
+package org.gegolabs.mcp.bridge.transport;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import io.modelcontextprotocol.spec.McpClientTransport;
+import io.modelcontextprotocol.spec.McpSchema;
+import io.modelcontextprotocol.spec.McpSchema.JSONRPCMessage;
+import io.modelcontextprotocol.spec.McpServerSession;
+import io.modelcontextprotocol.spec.McpServerTransport;
+import io.modelcontextprotocol.spec.McpServerTransportProvider;
+import lombok.Builder;
+import lombok.extern.slf4j.Slf4j;
+import org.gegolabs.mcp.bridge.metrics.BridgeMetrics;
+import org.gegolabs.mcp.bridge.metrics.SessionMetrics;
+import org.gegolabs.mcp.bridge.tools.StreamingContent;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Connects MCP clients to a server in the same JVM without sockets or JSON.
+ * 
+ * Each client transport from {@link #newClientTransport()} is linked to the server by
+ * two bounded queues that carry the {@link JSONRPCMessage} objects themselves. Senders
+ * wait while a queue is full. Messages are passed by reference and must not be changed
+ * after sending; the {@code McpSchema} records are immutable. A response holding
+ * {@link StreamingContent} is read into memory before it is queued, since the client
+ * receives objects rather than a byte stream.
+ * 
+ * <pre>
+ * InProcessTransportProvider transport = McpBridge.inProcessTransport();
+ * McpServer.async(transport).tools(myTools).build();
+ * McpAsyncClient client = McpClient.async(transport.newClientTransport()).build();
+ * </pre>
+ */
+@Slf4j
+@Builder
+public class InProcessTransportProvider implements McpServerTransportProvider {
+    
+    public static final int DEFAULT_QUEUE_CAPACITY = 256;
+    
+    /**
+     * Messages each direction of a connection holds before senders wait.
+     */
+    @Builder.Default
+    private final int queueCapacity = DEFAULT_QUEUE_CAPACITY;
+    
+    /**
+     * Scheduler on which senders wait for queue space.
+     * Not disposed by this provider.
+     */
+    @Builder.Default
+    private final Scheduler scheduler = Schedulers.boundedElastic();
+    
+    /**
+     * Scheduler on which incoming messages are handed to the MCP session.
+     * The default runs them directly on the connection's delivery thread. Messages of one
+     * connection are handed over one at a time, in the order they were sent.
+     */
+    @Builder.Default
+    private final Scheduler dispatchScheduler = Schedulers.immediate();
+    
+    /**
+     * Maximum number of concurrent connections; 0 means unlimited.
+     */
+    @Builder.Default
+    private final int maxConnections = 0;
+    
+    /**
+     * Registry receiving connection and message counts.
+     */
+    @Builder.Default
+    private final BridgeMetrics metrics = new BridgeMetrics();
+    
+    private volatile McpServerSession.Factory sessionFactory;
+    private final List<Connection> connections = new CopyOnWriteArrayList<>();
+    private final AtomicLong connectionIds = new AtomicLong();
+    private final AtomicInteger reservedConnections = new AtomicInteger();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    
+    @Override
+    public void setSessionFactory(McpServerSession.Factory sessionFactory) {
+        this.sessionFactory = sessionFactory;
+    }
+    
+    /**
+     * Returns a new, unconnected client transport. The server session is created when
+     * the client connects.
+     */
+    public McpClientTransport newClientTransport() {
+        return new Connection(connectionIds.incrementAndGet()).client;
+    }
+    
+    @Override
+    public Mono<Void> notifyClients(String method, Object params) {
+        return Flux.fromIterable(connections)
+            .flatMap(connection -> connection.session
+                .sendNotification(method, params)
+                .onErrorResume(e -> {
+                    log.error("Failed to send notification to client", e);
+                    return Mono.empty();
+                }))
+            .then();
+    }
+    
+    @Override
+    public Mono<Void> closeGracefully() {
+        return Flux.fromIterable(connections)
+            .flatMap(connection -> connection.server.closeGracefully())
+            .then();
+    }
+    
+    /**
+     * Returns the number of connected clients.
+     */
+    public int getConnectionCount() {
+        return connections.size();
+    }
+    
+    /**
+     * Returns the metrics registry for this provider.
+     */
+    public BridgeMetrics getMetrics() {
+        return metrics;
+    }
+    
+    /**
+     * Takes a connection slot in one step, so that clients connecting at the same
+     * time cannot overshoot {@link #maxConnections}.
+     */
+    private boolean reserveConnection() {
+        int current;
+        do {
+            current = reservedConnections.get();
+            if (maxConnections > 0 && current >= maxConnections) {
+                return false;
+            }
+        } while (!reservedConnections.compareAndSet(current, current + 1));
+        return true;
+    }
+    
+    /**
+     * Returns {@code data} itself when it already has the requested type, and otherwise
+     * converts it as a serializing transport would.
+     */
+    @SuppressWarnings("unchecked")
+    static <T> T unmarshal(ObjectMapper objectMapper, Object data, TypeReference<T> typeRef) {
+        Type type = typeRef.getType();
+        if (data == null || type instanceof Class<?> target && target.isInstance(data)) {
+            return (T) data;
+        }
+        return objectMapper.convertValue(data, typeRef);
+    }
+    
+    /**
+     * Returns the response with {@link StreamingContent} placeholders replaced by the
+     * content of their sources, or the response itself if it holds none. Sources are
+     * read and closed here, so call this off the event loop.
+     * 
+     * @throws IllegalStateException if a source cannot be read
+     */
+    static McpSchema.JSONRPCResponse resolveStreamed(ObjectMapper objectMapper, McpSchema.JSONRPCResponse response) {
+        JsonNode tree = objectMapper.valueToTree(response);
+        if (!StreamingContent.containsPlaceholder(tree)) {
+            return response;
+        }
+        try (TokenBuffer buffer = new TokenBuffer(objectMapper, false)) {
+            StreamingContent.writeTree(buffer, tree);
+            return objectMapper.readValue(buffer.asParser(), McpSchema.JSONRPCResponse.class);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to read streaming content", e);
+        }
+    }
+    
+    /**
+     * Both ends of one in-process connection.
+     */
+    private class Connection {
+        private final long id;
+        private final InProcessChannel toServer = new InProcessChannel(queueCapacity, scheduler);
+        private final InProcessChannel toClient = new InProcessChannel(queueCapacity, scheduler);
+        private final ServerEnd server = new ServerEnd();
+        private final ClientEnd client = new ClientEnd();
+        private final AtomicBoolean connected = new AtomicBoolean(false);
+        private final AtomicBoolean closed = new AtomicBoolean(false);
+        private final OrderedDispatcher dispatcher = new OrderedDispatcher(dispatchScheduler);
+        private McpServerSession session;
+        private SessionMetrics sessionMetrics;
+        
+        Connection(long id) {
+            this.id = id;
+        }
+        
+        void open(Function<Mono<JSONRPCMessage>, Mono<JSONRPCMessage>> handler) {
+            McpServerSession.Factory factory = sessionFactory;
+            if (factory == null) {
+                throw new IllegalStateException("No MCP server is attached to this transport");
+            }
+            if (!connected.compareAndSet(false, true)) {
+                throw new IllegalStateException("Client transport already connected");
+            }
+            if (!reserveConnection()) {
+                metrics.connectionRejected();
+                throw new IllegalStateException("Limit of " + maxConnections + " connections reached");
+            }
+            metrics.connectionAccepted();
+            sessionMetrics = metrics.openSession("in-process-" + id);
+            try {
+                session = factory.create(server);
+            } catch (RuntimeException e) {
+                sessionMetrics.close();
+                reservedConnections.decrementAndGet();
+                throw e;
+            }
+            connections.add(this);
+            
+            toServer.start("mcp-bridge-in-process-server-" + id, message -> {
+                sessionMetrics.messageIn();
+                try {
+                    dispatcher.execute(() -> Mono.defer(() -> session.handle(message))
+                        .onErrorResume(e -> {
+                            log.error("Error handling message", e);
+                            return Mono.empty();
+                        })
+                        .subscribe());
+                } catch (RejectedExecutionException e) {
+                    log.debug("Dropping message for disconnected client {}", id);
+                }
+            });
+            toClient.start("mcp-bridge-in-process-client-" + id, message -> handler.apply(Mono.just(message))
+                .onErrorResume(e -> {
+                    log.error("Error handling message in client", e);
+                    return Mono.empty();
+                })
+                .subscribe());
+            log.debug("In-process client {} connected", id);
+        }
+        
+        Mono<Void> disconnect() {
+            return Mono.fromRunnable(() -> {
+                if (closed.compareAndSet(false, true)) {
+                    if (connections.remove(this)) {
+                        reservedConnections.decrementAndGet();
+                    }
+                    toServer.close();
+                    toClient.close();
+                    dispatcher.dispose();
+                    if (sessionMetrics != null) {
+                        sessionMetrics.close();
+                    }
+                    log.debug("In-process client {} disconnected", id);
+                }
+            });
+        }
+        
+        private class ServerEnd implements McpServerTransport {
+        
+            @Override
+            public Mono<Void> sendMessage(JSONRPCMessage message) {
+                return Mono.defer(() -> {
+                    sessionMetrics.writeQueued();
+                    // Placeholders mean nothing to the client, so streamed sources are read now
+                    Mono<JSONRPCMessage> resolved = message instanceof McpSchema.JSONRPCResponse response
+                            && StreamingContent.hasStreamedContent(response.result())
+                        ? Mono.<JSONRPCMessage>fromCallable(() -> resolveStreamed(objectMapper, response))
+                            .subscribeOn(scheduler)
+                        : Mono.just(message);
+                    return resolved.flatMap(toClient::send)
+                        .doOnSuccess(ignored -> sessionMetrics.messageOut())
+                        .doFinally(signal -> sessionMetrics.writeDequeued());
+                });
+            }
+            
+            @Override
+            public <T> T unmarshalFrom(Object data, TypeReference<T> typeRef) {
+                return unmarshal(objectMapper, data, typeRef);
+            }
+            
+            @Override
+            public Mono<Void> closeGracefully() {
+                return disconnect();
+            }
+        }
+        
+        private class ClientEnd implements McpClientTransport {
+        
+            @Override
+            public Mono<Void> connect(Function<Mono<JSONRPCMessage>, Mono<JSONRPCMessage>> handler) {
+                return Mono.fromRunnable(() -> open(handler));
+            }
+            
+            @Override
+            public Mono<Void> sendMessage(JSONRPCMessage message) {
+                return toServer.send(message);
+            }
+            
+            @Override
+            public <T> T unmarshalFrom(Object data, TypeReference<T> typeRef) {
+                return unmarshal(objectMapper, data, typeRef);
+            }
+            
+            @Override
+            public Mono<Void> closeGracefully() {
+                return disconnect();
+            }
+        }
+    }
+}
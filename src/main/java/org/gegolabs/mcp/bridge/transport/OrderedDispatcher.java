@@ -0,0 +1,67 @@
+package org.gegolabs.mcp.bridge.transport;
+
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.scheduler.Scheduler;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs the tasks of one session on a shared scheduler, one at a time and in the order
+ * they were submitted.
+ * 
+ * Handing each message to the scheduler separately lets a multi-threaded scheduler start
+ * a later message before an earlier one. Reactor workers do not help either, since those
+ * of {@code Schedulers.fromExecutor} may run concurrently. Instead tasks are queued, and
+ * whichever submission finds the queue idle schedules a single drain that runs them all.
+ * Sessions still dispatch in parallel with each other.
+ */
+@Slf4j
+final class OrderedDispatcher {
+    
+    private final Scheduler scheduler;
+    private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pending = new AtomicInteger();
+    private volatile boolean disposed;
+    
+    OrderedDispatcher(Scheduler scheduler) {
+        this.scheduler = scheduler;
+    }
+    
+    /**
+     * Queues a task behind the ones already submitted.
+     * 
+     * @throws RejectedExecutionException if the dispatcher has been disposed
+     */
+    void execute(Runnable task) {
+        if (disposed) {
+            throw new RejectedExecutionException("Dispatcher is disposed");
+        }
+        tasks.add(task);
+        if (pending.getAndIncrement() == 0) {
+            scheduler.schedule(this::drain);
+        }
+    }
+    
+    /**
+     * Drops queued tasks and rejects new ones.
+     */
+    void dispose() {
+        disposed = true;
+    }
+    
+    private void drain() {
+        do {
+            Runnable task = tasks.poll();
+            if (!disposed) {
+                try {
+                    task.run();
+                } catch (RuntimeException e) {
+                    log.error("Error dispatching message", e);
+                }
+            }
+        } while (pending.decrementAndGet() != 0);
+    }
+}
@@ -0,0 +1,107 @@
+package org.gegolabs.mcp.bridge.transport;
+
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * The line a client sends right after connecting to pick one of the servers hosted
+ * behind a {@link BridgeTransportProvider}: {@code MCP-ROUTE <name>} followed by a newline.
+ * 
+ * The preamble is optional. A connection whose first byte does not start it goes to the
+ * default server, and the bytes read while checking are handed back to the transport.
+ */
+public final class RoutePreamble {
+    
+    public static final String PREFIX = "MCP-ROUTE ";
+    
+    /**
+     * Longest route name, in bytes.
+     */
+    static final int MAX_NAME_BYTES = 256;
+    
+    private static final byte[] PREFIX_BYTES = PREFIX.getBytes(StandardCharsets.US_ASCII);
+    
+    private RoutePreamble() {
+    }
+    
+    /**
+     * The route a connection asked for, or null for the default server, and the stream
+     * its messages are read from.
+     */
+    record Result(String route, InputStream input) {
+    }
+    
+    /**
+     * Returns the preamble line for a route.
+     * 
+     * @throws IllegalArgumentException if the name is empty, too long or contains whitespace
+     */
+    public static byte[] encode(String route) {
+        if (!isValidName(route)) {
+            throw new IllegalArgumentException("Invalid route name: " + route);
+        }
+        return (PREFIX + route + "\n").getBytes(StandardCharsets.UTF_8);
+    }
+    
+    /**
+     * Returns whether a name can be used as a route: non-empty, at most
+     * {@value #MAX_NAME_BYTES} bytes, and free of whitespace and control characters.
+     */
+    public static boolean isValidName(String route) {
+        if (route == null || route.isEmpty() || route.getBytes(StandardCharsets.UTF_8).length > MAX_NAME_BYTES) {
+            return false;
+        }
+        return route.codePoints().noneMatch(c -> Character.isWhitespace(c) || Character.isISOControl(c));
+    }
+    
+    /**
+     * Reads the preamble if the stream starts with one. Reads single bytes so that nothing
+     * after the preamble is consumed; a JSON message is told apart by its first byte.
+     * 
+     * @throws IOException if the preamble is malformed or the stream ends inside it
+     */
+    static Result read(InputStream in) throws IOException {
+        for (int i = 0; i < PREFIX_BYTES.length; i++) {
+            int b = in.read();
+            if (b != PREFIX_BYTES[i]) {
+                byte[] consumed = Arrays.copyOf(PREFIX_BYTES, b < 0 ? i : i + 1);
+                if (b >= 0) {
+                    consumed[i] = (byte) b;
+                }
+                InputStream input = consumed.length == 0
+                    ? in
+                    : new SequenceInputStream(new ByteArrayInputStream(consumed), in);
+                return new Result(null, input);
+            }
+        }
+        
+        byte[] name = new byte[MAX_NAME_BYTES + 1];
+        int length = 0;
+        while (true) {
+            int b = in.read();
+            if (b < 0) {
+                throw new EOFException("Connection closed inside the route preamble");
+            }
+            if (b == '\n') {
+                break;
+            }
+            if (length == name.length) {
+                throw new IOException("Route name longer than " + MAX_NAME_BYTES + " bytes");
+            }
+            name[length++] = (byte) b;
+        }
+        if (length > 0 && name[length - 1] == '\r') {
+            length--;
+        }
+        String route = new String(name, 0, length, StandardCharsets.UTF_8);
+        if (!isValidName(route)) {
+            throw new IOException("Invalid route name in preamble: " + route);
+        }
+        return new Result(route, in);
+    }
+}
@@ -0,0 +1,24 @@
+package org.gegolabs.mcp.bridge.transport;
+
+import io.modelcontextprotocol.spec.McpSchema.JSONRPCMessage;
+import io.modelcontextprotocol.spec.McpServerTransport;
+import org.gegolabs.mcp.bridge.metrics.SessionMetrics;
+
+/**
+ * A server transport whose sessions are managed by {@link BridgeTransportProvider},
+ * whichever protocol carries them.
+ */
+interface SessionTransport extends McpServerTransport {
+    
+    /**
+     * Records that a received message is now being handled by the session.
+     */
+    void markDispatched(JSONRPCMessage message);
+    
+    boolean isClosed();
+    
+    /**
+     * Returns the traffic counters for this session.
+     */
+    SessionMetrics getSessionMetrics();
+}
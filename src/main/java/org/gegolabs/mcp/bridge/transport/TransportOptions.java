@@ -0,0 +1,88 @@
+package org.gegolabs.mcp.bridge.transport;
+
+import lombok.Builder;
+import org.gegolabs.mcp.bridge.buffer.BufferPool;
+import org.gegolabs.mcp.bridge.capture.TrafficRecorder;
+import org.gegolabs.mcp.bridge.metrics.BridgeMetrics;
+import org.gegolabs.mcp.bridge.tracing.RequestTracer;
+import org.gegolabs.mcp.bridge.validation.ToolValidators;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Per-connection settings that {@link BridgeTransportProvider} hands to each {@link BridgeTransport}.
+ * 
+ * Usage:
+ * <pre>
+ * var options = TransportOptions.builder()
+ *     .scheduler(Schedulers.boundedElastic())
+ *     .inlineWrites(true)
+ *     .build();
+ * var transport = new BridgeTransport(socket, options);
+ * </pre>
+ */
+@Builder
+public class TransportOptions {
+    
+    /**
+     * Default inbound message limit of 16 MiB.
+     */
+    public static final int DEFAULT_MAX_FRAME_BYTES = 16 * 1024 * 1024;
+    
+    /**
+     * Scheduler used for writes that cannot run inline and for closing the connection.
+     */
+    @Builder.Default
+    final Scheduler scheduler = Schedulers.boundedElastic();
+    
+    /**
+     * Whether to write on the calling thread when no other write is in progress.
+     */
+    @Builder.Default
+    final boolean inlineWrites = false;
+    
+    /**
+     * Registry that receives traffic and latency metrics for the connection.
+     */
+    @Builder.Default
+    final BridgeMetrics metrics = new BridgeMetrics();
+    
+    /**
+     * Reports slow and sampled requests from the connection.
+     */
+    @Builder.Default
+    final RequestTracer tracer = RequestTracer.disabled();
+    
+    /**
+     * Records every line read and written on the connection; null disables capture.
+     */
+    @Builder.Default
+    final TrafficRecorder recorder = null;
+    
+    /**
+     * Learns tool input schemas from {@code tools/list} responses written on the connection;
+     * null disables learning.
+     */
+    @Builder.Default
+    final ToolValidators toolValidators = null;
+    
+    /**
+     * Largest inbound message, in bytes, that the connection will buffer. Longer lines are
+     * skipped without being read into memory and answered with an error when their id is known.
+     */
+    @Builder.Default
+    final int maxFrameBytes = DEFAULT_MAX_FRAME_BYTES;
+    
+    /**
+     * Pool that the connection's read and write buffers are leased from.
+     */
+    @Builder.Default
+    final BufferPool bufferPool = BufferPool.shared();
+    
+    /**
+     * Returns options with all defaults.
+     */
+    public static TransportOptions defaults() {
+        return builder().build();
+    }
+}
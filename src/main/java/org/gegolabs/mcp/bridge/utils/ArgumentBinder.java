@@ -0,0 +1,559 @@
+package org.gegolabs.mcp.bridge.utils;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+import io.modelcontextprotocol.server.McpAsyncServerExchange;
+import io.modelcontextprotocol.server.McpServerFeatures;
+import io.modelcontextprotocol.spec.McpSchema;
+import reactor.core.publisher.Mono;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.RecordComponent;
+import java.lang.reflect.Type;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.net.MalformedURLException;
+import java.net.URI;
+import java.net.URL;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Binds tool call arguments to a POJO or record, the same class that describes the
+ * tool's input schema through {@link JsonSchemaUtils}.
+ * 
+ * Binding uses exactly the properties that appear in the schema. The constructor,
+ * field setters and a converter for every property are resolved once per class;
+ * a call then walks the precomputed properties, looks each one up in the arguments
+ * and converts it, without reflection or an intermediate tree. Arguments may be the
+ * {@code Map} the MCP SDK passes to tool handlers or a Jackson tree.
+ * 
+ * Missing and null values leave a class's field at its initial value; record
+ * components get null, zero or {@code Optional.empty()}. Properties marked with
+ * {@link JsonSchemaUtils.Required} must be present and not null. Unknown arguments are
+ * ignored. Values of the wrong type fail with an {@link ArgumentBindingException}
+ * naming the offending path.
+ * 
+ * Usage:
+ * <pre>
+ * record SearchArgs(String query, int limit) {}
+ * 
+ * var spec = ArgumentBinder.asyncTool("search", "Searches documents", SearchArgs.class,
+ *     (exchange, args) -&gt; Mono.just(search(args.query(), args.limit())));
+ * </pre>
+ */
+public final class ArgumentBinder<T> {
+    
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+    private static final MethodType SETTER = MethodType.methodType(void.class, Object.class, Object.class);
+    
+    private static final ClassValue<ArgumentBinder<?>> binders = new ClassValue<>() {
+        @Override
+        protected ArgumentBinder<?> computeValue(Class<?> type) {
+            return new ArgumentBinder<>(type);
+        }
+    };
+    
+    private final Class<T> type;
+    private final Property[] properties;
+    private final MethodHandle constructor;
+    private final boolean record;
+    
+    private ArgumentBinder(Class<T> type) {
+        if (type.isInterface() || Modifier.isAbstract(type.getModifiers()) || type.isEnum() || type.isArray()
+                || type.isPrimitive() || type.getName().startsWith("java.")) {
+            throw new IllegalArgumentException("Cannot bind arguments to " + type.getName());
+        }
+        this.type = type;
+        this.record = type.isRecord();
+        List<Field> fields = JsonSchemaUtils.schemaFields(type);
+        this.properties = new Property[fields.size()];
+        try {
+            for (int i = 0; i < properties.length; i++) {
+                Field field = fields.get(i);
+                MethodHandle setter = null;
+                if (!record) {
+                    field.setAccessible(true);
+                    setter = MethodHandles.lookup().unreflectSetter(field).asType(SETTER);
+                }
+                properties[i] = new Property(JsonSchemaUtils.toCamelCase(field.getName()),
+                    converterFor(field.getGenericType()), setter, missingValue(field.getType()),
+                    field.isAnnotationPresent(JsonSchemaUtils.Required.class));
+            }
+            
+            Constructor<T> ctor = record
+                ? type.getDeclaredConstructor(componentTypes(type))
+                : type.getDeclaredConstructor();
+            ctor.setAccessible(true);
+            MethodHandle handle = MethodHandles.lookup().unreflectConstructor(ctor);
+            this.constructor = record
+                ? handle.asType(handle.type().generic()).asSpreader(Object[].class, properties.length)
+                : handle.asType(MethodType.methodType(Object.class));
+        } catch (NoSuchMethodException e) {
+            throw new IllegalArgumentException(type.getName() + " needs a no-argument constructor to bind arguments", e);
+        } catch (IllegalAccessException | RuntimeException e) {
+            throw new IllegalArgumentException("Cannot bind arguments to " + type.getName() + ": " + e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * Returns the binder for a class, creating it on first use.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> ArgumentBinder<T> of(Class<T> type) {
+        return (ArgumentBinder<T>) binders.get(type);
+    }
+    
+    /**
+     * Binds arguments as received by an MCP SDK tool handler.
+     * 
+     * @param arguments The arguments; null binds an empty object
+     * @return A new instance of the arguments class
+     * @throws ArgumentBindingException if a value has the wrong type or a required one is missing
+     */
+    public T bind(Map<String, Object> arguments) {
+        return type.cast(bindObject(arguments != null ? arguments : Map.of(), ""));
+    }
+    
+    /**
+     * Binds arguments given as a Jackson tree, e.g. the {@code arguments} of raw
+     * {@code tools/call} params.
+     * 
+     * @param arguments The arguments object; null or JSON null binds an empty object
+     * @return A new instance of the arguments class
+     * @throws ArgumentBindingException if a value has the wrong type or a required one is missing
+     */
+    public T bind(JsonNode arguments) {
+        return type.cast(bindObject(arguments == null || arguments.isNull() ? Map.of() : arguments, ""));
+    }
+    
+    public Class<T> getType() {
+        return type;
+    }
+    
+    /**
+     * Creates a tool whose input schema is generated from {@code argumentsType} and
+     * whose handler receives the bound arguments. Arguments that cannot be bound
+     * produce an error result without calling the handler.
+     */
+    public static <T> McpServerFeatures.AsyncToolSpecification asyncTool(
+            String name, String description, Class<T> argumentsType,
+            BiFunction<McpAsyncServerExchange, T, Mono<McpSchema.CallToolResult>> handler) {
+        ArgumentBinder<T> binder = of(argumentsType);
+        var tool = new McpSchema.Tool(name, description, JsonSchemaUtils.toolInputSchema(argumentsType));
+        return new McpServerFeatures.AsyncToolSpecification(tool, (exchange, arguments) -> {
+            T bound;
+            try {
+                bound = binder.bind(arguments);
+            } catch (ArgumentBindingException e) {
+                return Mono.just(new McpSchema.CallToolResult("Invalid arguments: " + e.getMessage(), true));
+            }
+            return handler.apply(exchange, bound);
+        });
+    }
+    
+    private Object bindObject(Object source, String path) {
+        if (!(source instanceof Map<?, ?>) && !(source instanceof ObjectNode)) {
+            throw new ArgumentBindingException(path, "expected object");
+        }
+        try {
+            if (record) {
+                Object[] values = new Object[properties.length];
+                for (int i = 0; i < properties.length; i++) {
+                    Property property = properties[i];
+                    Object value = valueOf(source, property.name);
+                    values[i] = value == null ? property.missing(path) : property.convert(value, path);
+                }
+                return constructor.invokeExact(values);
+            }
+            Object target = constructor.invokeExact();
+            for (Property property : properties) {
+                Object value = valueOf(source, property.name);
+                if (value != null) {
+                    property.setter.invokeExact(target, property.convert(value, path));
+                } else {
+                    property.missing(path);
+                }
+            }
+            return target;
+        } catch (ArgumentBindingException e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new ArgumentBindingException(path, "cannot create " + type.getSimpleName() + ": " + e);
+        }
+    }
+    
+    private static Object valueOf(Object source, String name) {
+        if (source instanceof ObjectNode node) {
+            JsonNode value = node.get(name);
+            return value == null || value.isNull() ? null : value;
+        }
+        return ((Map<?, ?>) source).get(name);
+    }
+    
+    private static Class<?>[] componentTypes(Class<?> type) {
+        RecordComponent[] components = type.getRecordComponents();
+        Class<?>[] types = new Class<?>[components.length];
+        for (int i = 0; i < components.length; i++) {
+            types[i] = components[i].getType();
+        }
+        return types;
+    }
+    
+    private static Object missingValue(Class<?> type) {
+        if (type == Optional.class) {
+            return Optional.empty();
+        }
+        if (!type.isPrimitive()) {
+            return null;
+        }
+        try {
+            return MethodHandles.zero(type).invoke();
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+    
+    private record Property(String name, Converter converter, MethodHandle setter, Object missing, boolean required) {
+    
+        Object convert(Object value, String parent) {
+            return converter.convert(value, path(parent));
+        }
+        
+        /**
+         * Returns the value for an absent argument, or fails if the argument is required.
+         */
+        Object missing(String parent) {
+            if (required) {
+                throw new ArgumentBindingException(path(parent), "is required");
+            }
+            return missing;
+        }
+        
+        private String path(String parent) {
+            return parent.isEmpty() ? name : parent + "." + name;
+        }
+    }
+    
+    /**
+     * Converts one JSON value, from either a Java map tree or a Jackson tree.
+     */
+    @FunctionalInterface
+    private interface Converter {
+        Object convert(Object value, String path);
+    }
+    
+    private static Converter converterFor(Type type) {
+        if (type instanceof Class<?> clazz) {
+            return converterForClass(clazz);
+        }
+        if (type instanceof ParameterizedType parameterized && parameterized.getRawType() instanceof Class<?> raw) {
+            Type[] args = parameterized.getActualTypeArguments();
+            if (Collection.class.isAssignableFrom(raw)) {
+                return collection(collectionFactory(raw), converterFor(args[0]));
+            }
+            if (Map.class.isAssignableFrom(raw)) {
+                return map(raw, converterFor(args[1]));
+            }
+            if (raw == Optional.class) {
+                Converter value = converterFor(args[0]);
+                return (v, path) -> Optional.ofNullable(value.convert(v, path));
+            }
+            return converterForClass(raw);
+        }
+        if (type instanceof GenericArrayType array) {
+            Type component = array.getGenericComponentType();
+            Class<?> raw = component instanceof ParameterizedType p && p.getRawType() instanceof Class<?> c ? c : Object.class;
+            return array(raw, converterFor(component));
+        }
+        // Type variables and wildcards: plain Java values
+        return ArgumentBinder::plain;
+    }
+    
+    private static Converter converterForClass(Class<?> clazz) {
+        if (clazz == String.class) {
+            return (v, path) -> text(v, path);
+        }
+        if (clazz == char.class || clazz == Character.class) {
+            return (v, path) -> {
+                String text = text(v, path);
+                if (text.length() != 1) {
+                    throw new ArgumentBindingException(path, "expected a single character");
+                }
+                return text.charAt(0);
+            };
+        }
+        if (clazz == boolean.class || clazz == Boolean.class) {
+            return (v, path) -> {
+                if (v instanceof Boolean b) return b;
+                if (v instanceof JsonNode node && node.isBoolean()) return node.booleanValue();
+                throw new ArgumentBindingException(path, "expected boolean");
+            };
+        }
+        if (clazz == int.class || clazz == Integer.class) {
+            return (v, path) -> (int) integral(v, path, Integer.MIN_VALUE, Integer.MAX_VALUE);
+        }
+        if (clazz == long.class || clazz == Long.class) {
+            return (v, path) -> integral(v, path, Long.MIN_VALUE, Long.MAX_VALUE);
+        }
+        if (clazz == short.class || clazz == Short.class) {
+            return (v, path) -> (short) integral(v, path, Short.MIN_VALUE, Short.MAX_VALUE);
+        }
+        if (clazz == byte.class || clazz == Byte.class) {
+            return (v, path) -> (byte) integral(v, path, Byte.MIN_VALUE, Byte.MAX_VALUE);
+        }
+        if (clazz == double.class || clazz == Double.class) {
+            return (v, path) -> number(v, path).doubleValue();
+        }
+        if (clazz == float.class || clazz == Float.class) {
+            return (v, path) -> number(v, path).floatValue();
+        }
+        if (clazz == BigDecimal.class) {
+            return (v, path) -> {
+                Number n = number(v, path);
+                return n instanceof BigDecimal d ? d : new BigDecimal(n.toString());
+            };
+        }
+        if (clazz == BigInteger.class) {
+            return (v, path) -> {
+                Number n = number(v, path);
+                if (n instanceof BigInteger i) return i;
+                try {
+                    return new BigDecimal(n.toString()).toBigIntegerExact();
+                } catch (ArithmeticException e) {
+                    throw new ArgumentBindingException(path, "expected integer");
+                }
+            };
+        }
+        if (clazz == Instant.class) return parsed(Instant::parse, "date-time");
+        if (clazz == OffsetDateTime.class) return parsed(OffsetDateTime::parse, "date-time");
+        if (clazz == ZonedDateTime.class) return parsed(ZonedDateTime::parse, "date-time");
+        if (clazz == LocalDateTime.class) return parsed(LocalDateTime::parse, "date-time");
+        if (clazz == LocalDate.class) return parsed(LocalDate::parse, "date");
+        if (clazz == LocalTime.class) return parsed(LocalTime::parse, "time");
+        if (clazz == UUID.class) return parsed(UUID::fromString, "uuid");
+        if (clazz == URI.class) return parsed(URI::create, "uri");
+        if (clazz == URL.class) {
+            return parsed(s -> {
+                try {
+                    return URI.create(s).toURL();
+                } catch (MalformedURLException e) {
+                    throw new IllegalArgumentException(e);
+                }
+            }, "url");
+        }
+        if (clazz.isEnum()) {
+            Map<String, Object> constants = new HashMap<>();
+            for (Object constant : clazz.getEnumConstants()) {
+                constants.put(((Enum<?>) constant).name(), constant);
+            }
+            return (v, path) -> {
+                Object constant = constants.get(text(v, path));
+                if (constant == null) {
+                    throw new ArgumentBindingException(path, "expected one of " + constants.keySet());
+                }
+                return constant;
+            };
+        }
+        if (clazz.isArray()) {
+            return array(clazz.getComponentType(), converterForClass(clazz.getComponentType()));
+        }
+        if (Collection.class.isAssignableFrom(clazz)) {
+            return collection(collectionFactory(clazz), ArgumentBinder::plain);
+        }
+        if (JsonNode.class.isAssignableFrom(clazz)) {
+            return (v, path) -> {
+                JsonNode node = v instanceof JsonNode n ? n : objectMapper.valueToTree(v);
+                if (!clazz.isInstance(node)) {
+                    throw new ArgumentBindingException(path, "expected " + jsonType(clazz));
+                }
+                return node;
+            };
+        }
+        if (JsonElement.class.isAssignableFrom(clazz)) {
+            return (v, path) -> {
+                JsonElement element = JsonParser.parseString(toJson(v));
+                if (!clazz.isInstance(element)) {
+                    throw new ArgumentBindingException(path, "expected " + jsonType(clazz));
+                }
+                return element;
+            };
+        }
+        if (clazz == Object.class) {
+            return ArgumentBinder::plain;
+        }
+        if (Map.class.isAssignableFrom(clazz)) {
+            return map(clazz, ArgumentBinder::plain);
+        }
+        if (clazz.getName().startsWith("java.") || clazz.getName().startsWith("javax.")) {
+            throw new IllegalArgumentException("Unsupported argument type " + clazz.getName());
+        }
+        // Nested objects are bound by their own binder, looked up lazily so that
+        // classes referring to themselves do not recurse while being set up
+        return (v, path) -> of(clazz).bindObject(v, path);
+    }
+    
+    private static Supplier<Collection<Object>> collectionFactory(Class<?> raw) {
+        if (raw.isAssignableFrom(ArrayList.class)) return ArrayList::new;
+        if (raw.isAssignableFrom(LinkedHashSet.class)) return LinkedHashSet::new;
+        if (raw.isAssignableFrom(TreeSet.class)) return TreeSet::new;
+        throw new IllegalArgumentException("Unsupported collection type " + raw.getName());
+    }
+    
+    private static Converter collection(Supplier<Collection<Object>> factory, Converter element) {
+        return (v, path) -> {
+            Collection<Object> result = factory.get();
+            int i = 0;
+            for (Iterator<?> it = elements(v, path); it.hasNext(); i++) {
+                Object item = it.next();
+                result.add(isNull(item) ? null : element.convert(item, path + "[" + i + "]"));
+            }
+            return result;
+        };
+    }
+    
+    private static Converter array(Class<?> componentType, Converter element) {
+        return (v, path) -> {
+            List<Object> items = new ArrayList<>();
+            elements(v, path).forEachRemaining(items::add);
+            Object result = Array.newInstance(componentType, items.size());
+            for (int i = 0; i < items.size(); i++) {
+                Object item = items.get(i);
+                if (isNull(item)) {
+                    if (componentType.isPrimitive()) {
+                        throw new ArgumentBindingException(path + "[" + i + "]", "must not be null");
+                    }
+                    continue;
+                }
+                Array.set(result, i, element.convert(item, path + "[" + i + "]"));
+            }
+            return result;
+        };
+    }
+    
+    private static Converter map(Class<?> raw, Converter value) {
+        Supplier<Map<String, Object>> maps;
+        if (raw.isAssignableFrom(LinkedHashMap.class)) {
+            maps = LinkedHashMap::new;
+        } else if (raw.isAssignableFrom(TreeMap.class)) {
+            maps = TreeMap::new;
+        } else {
+            throw new IllegalArgumentException("Unsupported map type " + raw.getName());
+        }
+        return (v, path) -> {
+            Map<String, Object> result = maps.get();
+            if (v instanceof ObjectNode node) {
+                node.fields().forEachRemaining(e -> result.put(e.getKey(),
+                    e.getValue().isNull() ? null : value.convert(e.getValue(), path + "." + e.getKey())));
+            } else if (v instanceof Map<?, ?> map) {
+                map.forEach((k, item) -> result.put(String.valueOf(k),
+                    item == null ? null : value.convert(item, path + "." + k)));
+            } else {
+                throw new ArgumentBindingException(path, "expected object");
+            }
+            return result;
+        };
+    }
+    
+    private static Converter parsed(Function<String, Object> parser, String format) {
+        return (v, path) -> {
+            try {
+                return parser.apply(text(v, path));
+            } catch (RuntimeException e) {
+                throw new ArgumentBindingException(path, "expected " + format + " string");
+            }
+        };
+    }
+    
+    private static Iterator<?> elements(Object v, String path) {
+        if (v instanceof ArrayNode node) return node.elements();
+        if (v instanceof Collection<?> collection) return collection.iterator();
+        throw new ArgumentBindingException(path, "expected array");
+    }
+    
+    private static boolean isNull(Object v) {
+        return v == null || (v instanceof JsonNode node && node.isNull());
+    }
+    
+    private static String text(Object v, String path) {
+        if (v instanceof String s) return s;
+        if (v instanceof JsonNode node && node.isTextual()) return node.textValue();
+        throw new ArgumentBindingException(path, "expected string");
+    }
+    
+    private static Number number(Object v, String path) {
+        if (v instanceof Number n) return n;
+        if (v instanceof JsonNode node && node.isNumber()) return node.numberValue();
+        throw new ArgumentBindingException(path, "expected number");
+    }
+    
+    private static long integral(Object v, String path, long min, long max) {
+        Number n = number(v, path);
+        long value;
+        if (n instanceof Integer || n instanceof Long || n instanceof Short || n instanceof Byte) {
+            value = n.longValue();
+        } else {
+            try {
+                value = new BigDecimal(n.toString()).longValueExact();
+            } catch (ArithmeticException | NumberFormatException e) {
+                throw new ArgumentBindingException(path, "expected integer");
+            }
+        }
+        if (value < min || value > max) {
+            throw new ArgumentBindingException(path, "must be between " + min + " and " + max);
+        }
+        return value;
+    }
+    
+    /**
+     * Converts a free-form value to plain Java maps, lists and scalars.
+     */
+    private static Object plain(Object v, String path) {
+        return v instanceof JsonNode node ? objectMapper.convertValue(node, Object.class) : v;
+    }
+    
+    private static String toJson(Object v) {
+        try {
+            return v instanceof JsonNode node ? node.toString() : objectMapper.writeValueAsString(v);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+    
+    private static String jsonType(Class<?> clazz) {
+        return clazz.getSimpleName().contains("Object") ? "object"
+            : clazz.getSimpleName().contains("Array") ? "array" : "JSON value";
+    }
+}
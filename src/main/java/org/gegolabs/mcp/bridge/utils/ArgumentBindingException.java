@@ -0,0 +1,22 @@
+package org.gegolabs.mcp.bridge.utils;
+
+/**
+ * Thrown when tool arguments cannot be bound to the arguments class.
+ */
+public class ArgumentBindingException extends IllegalArgumentException {
+    
+    private final String path;
+    
+    public ArgumentBindingException(String path, String message) {
+        super((path.isEmpty() ? "arguments" : "'" + path + "'") + ": " + message);
+        this.path = path;
+    }
+    
+    /**
+     * Returns the path of the offending value, e.g. {@code range.from} or
+     * {@code tags[2]}; empty for the arguments object itself.
+     */
+    public String getPath() {
+        return path;
+    }
+}
@@ -1,29 +1,99 @@
 package org.gegolabs.mcp.bridge.utils;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
 import com.fasterxml.jackson.databind.node.ObjectNode;
-import com.google.gson.Gson;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import io.modelcontextprotocol.spec.McpSchema;
 import lombok.extern.slf4j.Slf4j;
 
 import java.lang.reflect.Field;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.Modifier;
 import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.RecordComponent;
 import java.lang.reflect.Type;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.net.URI;
+import java.net.URL;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.ZonedDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
 
 /**
  * Utility class for generating JSON schemas from Java classes.
  * Migrated and adapted from uMCP's MiscTools.
+ * 
+ * Schemas are generated once per class and cached. Nested objects, records,
+ * enums and collections of either are described in full; a class that refers
+ * back to itself, directly or indirectly, is described once under {@code $defs}
+ * and referenced with {@code $ref}. Static, transient and synthetic fields are
+ * ignored. Fields marked with {@link Required} are listed under {@code required}.
+ * Classes marked with {@link GenerateSchema} use the schema generated at
+ * compile time, when available, instead of reflection.
+ * 
+ * Usage:
+ * <pre>
+ * var tool = new McpSchema.Tool("search", "Searches documents",
+ *     JsonSchemaUtils.toolInputSchema(SearchArguments.class));
+ * </pre>
  */
 @Slf4j
 public class JsonSchemaUtils {
     
-    private static final ObjectMapper objectMapper = new ObjectMapper();
-    private static final Gson gson = new Gson();
+    private static final ObjectMapper objectMapper = new ObjectMapper()
+        .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    private static final JsonNodeFactory nodes = JsonNodeFactory.instance;
+    
+    /**
+     * Suffix of classes generated by {@link org.gegolabs.mcp.bridge.processor.JsonSchemaProcessor}.
+     */
+    public static final String GENERATED_SUFFIX = "_JsonSchema";
+    
+    /**
+     * Name of the constant holding the schema in generated classes.
+     */
+    public static final String GENERATED_FIELD = "SCHEMA";
+    
+    private static final ClassValue<CachedSchema> cache = new ClassValue<>() {
+        @Override
+        protected CachedSchema computeValue(Class<?> type) {
+            ObjectNode schema = type.isAnnotationPresent(GenerateSchema.class) ? generatedSchema(type) : null;
+            if (schema == null) {
+                schema = new Generator().generateRoot(type);
+            }
+            try {
+                return new CachedSchema(schema, objectMapper.writeValueAsString(schema));
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("Failed to serialize schema for " + type.getName(), e);
+            }
+        }
+    };
+    
+    private record CachedSchema(ObjectNode node, String json) {
+    }
     
     /**
      * Generates a JSON schema for a given class.
@@ -32,8 +102,33 @@ public class JsonSchemaUtils {
      * @return JSON schema as string
      */
     public static String generateJsonSchema(Class<?> clazz) {
-        JsonObject schema = generateSchemaObject(clazz);
-        return gson.toJson(schema);
+        return cache.get(clazz).json();
+    }
+    
+    /**
+     * Generates a JSON schema for a given class as a Jackson tree.
+     * The returned node is a copy and may be modified freely.
+     * 
+     * @param clazz The class to generate schema for
+     * @return JSON schema as ObjectNode
+     */
+    public static ObjectNode generateSchemaNode(Class<?> clazz) {
+        return cache.get(clazz).node().deepCopy();
+    }
+    
+    /**
+     * Generates the input schema of a tool whose arguments are described by the given class,
+     * ready to pass to {@link McpSchema.Tool} without going through a JSON string.
+     * 
+     * @param clazz The arguments class
+     * @return The tool input schema
+     */
+    public static McpSchema.JsonSchema toolInputSchema(Class<?> clazz) {
+        try {
+            return objectMapper.treeToValue(cache.get(clazz).node(), McpSchema.JsonSchema.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to convert schema for " + clazz.getName(), e);
+        }
     }
     
     /**
@@ -43,79 +138,243 @@ public class JsonSchemaUtils {
      * @return JSON schema as JsonObject
      */
     public static JsonObject generateSchemaObject(Class<?> clazz) {
-        JsonObject schema = new JsonObject();
-        schema.addProperty("type", "object");
+        return JsonParser.parseString(generateJsonSchema(clazz)).getAsJsonObject();
+    }
+    
+    /**
+     * Returns the name of the class holding the compile-time schema of the given class,
+     * e.g. {@code com.example.Outer_Args_JsonSchema} for {@code com.example.Outer.Args}.
+     */
+    public static String generatedSchemaClassName(Class<?> type) {
+        String packageName = type.getPackageName();
+        String simpleName = type.getName().substring(packageName.isEmpty() ? 0 : packageName.length() + 1);
+        return (packageName.isEmpty() ? "" : packageName + ".") + simpleName.replace('$', '_') + GENERATED_SUFFIX;
+    }
+    
+    /**
+     * Loads the schema generated at compile time for a class annotated with
+     * {@link GenerateSchema}, or returns null if the processor did not run.
+     */
+    private static ObjectNode generatedSchema(Class<?> type) {
+        try {
+            Class<?> holder = Class.forName(generatedSchemaClassName(type), true, type.getClassLoader());
+            String json = (String) holder.getField(GENERATED_FIELD).get(null);
+            return (ObjectNode) objectMapper.readTree(json);
+        } catch (ClassNotFoundException e) {
+            log.debug("No generated schema for {}, falling back to reflection", type.getName());
+            return null;
+        } catch (ReflectiveOperationException | JsonProcessingException | ClassCastException e) {
+            log.warn("Ignoring invalid generated schema for {}", type.getName(), e);
+            return null;
+        }
+    }
+    
+    /**
+     * Generates a schema by reflection, bypassing the cache and any compile-time schema.
+     */
+    static ObjectNode reflectSchema(Class<?> type) {
+        return new Generator().generateRoot(type);
+    }
+    
+    /**
+     * Walks one root class. Classes currently being described are kept on a stack;
+     * meeting one of them again means a cycle, which is broken with a {@code $ref}.
+     */
+    private static final class Generator {
+        private final Deque<Class<?>> inProgress = new ArrayDeque<>();
+        private final Set<Class<?>> recursive = new HashSet<>();
+        private final Map<Class<?>, String> defNames = new HashMap<>();
+        private final Map<String, JsonNode> defs = new LinkedHashMap<>();
         
-        JsonObject properties = new JsonObject();
-        Field[] fields = clazz.getDeclaredFields();
+        ObjectNode generateRoot(Class<?> type) {
+            ObjectNode schema = objectSchema(type);
+            if (!defs.isEmpty()) {
+                ObjectNode defsNode = schema.putObject("$defs");
+                defs.forEach(defsNode::set);
+            }
+            return schema;
+        }
         
-        for (Field field : fields) {
-            String fieldName = field.getName();
-            JsonObject fieldSchema = getFieldSchema(field);
-            if (fieldSchema != null) {
-                properties.add(toCamelCase(fieldName), fieldSchema);
+        private ObjectNode objectSchema(Class<?> type) {
+            inProgress.push(type);
+            ObjectNode schema = nodes.objectNode();
+            schema.put("type", "object");
+            ObjectNode properties = schema.putObject("properties");
+            List<String> required = new ArrayList<>();
+            for (Field field : schemaFields(type)) {
+                ObjectNode fieldSchema = schemaFor(field.getGenericType());
+                Description desc = field.getAnnotation(Description.class);
+                if (desc != null) {
+                    fieldSchema.put("description", desc.value());
+                }
+                String name = toCamelCase(field.getName());
+                properties.set(name, fieldSchema);
+                if (field.isAnnotationPresent(Required.class)) {
+                    required.add(name);
+                }
+            }
+            if (!required.isEmpty()) {
+                ArrayNode requiredNode = schema.putArray("required");
+                required.forEach(requiredNode::add);
+            }
+            inProgress.pop();
+            
+            if (recursive.contains(type)) {
+                defs.put(defName(type), schema.deepCopy());
             }
+            return schema;
         }
         
-        schema.add("properties", properties);
-        return schema;
-    }
-    
-    private static JsonObject getFieldSchema(Field field) {
-        JsonObject fieldSchema = new JsonObject();
-        Class<?> fieldType = field.getType();
+        private ObjectNode schemaFor(Type type) {
+            if (type instanceof Class<?> clazz) {
+                return schemaForClass(clazz);
+            }
+            if (type instanceof ParameterizedType parameterized && parameterized.getRawType() instanceof Class<?> raw) {
+                Type[] args = parameterized.getActualTypeArguments();
+                if (Collection.class.isAssignableFrom(raw)) {
+                    return arraySchema(args.length > 0 ? schemaFor(args[0]) : nodes.objectNode());
+                }
+                if (Map.class.isAssignableFrom(raw)) {
+                    ObjectNode schema = nodes.objectNode().put("type", "object");
+                    if (args.length > 1 && !(args[1] instanceof Class<?> value && value == Object.class)) {
+                        schema.set("additionalProperties", schemaFor(args[1]));
+                    }
+                    return schema;
+                }
+                if (raw == Optional.class && args.length > 0) {
+                    return schemaFor(args[0]);
+                }
+                return schemaForClass(raw);
+            }
+            if (type instanceof GenericArrayType array) {
+                return arraySchema(schemaFor(array.getGenericComponentType()));
+            }
+            // Type variables and wildcards: anything goes
+            return nodes.objectNode();
+        }
         
-        if (fieldType == String.class) {
-            fieldSchema.addProperty("type", "string");
-        } else if (fieldType == int.class || fieldType == Integer.class) {
-            fieldSchema.addProperty("type", "integer");
-        } else if (fieldType == long.class || fieldType == Long.class) {
-            fieldSchema.addProperty("type", "integer");
-        } else if (fieldType == double.class || fieldType == Double.class) {
-            fieldSchema.addProperty("type", "number");
-        } else if (fieldType == float.class || fieldType == Float.class) {
-            fieldSchema.addProperty("type", "number");
-        } else if (fieldType == boolean.class || fieldType == Boolean.class) {
-            fieldSchema.addProperty("type", "boolean");
-        } else if (List.class.isAssignableFrom(fieldType)) {
-            fieldSchema.addProperty("type", "array");
-            
-            Type genericType = field.getGenericType();
-            if (genericType instanceof ParameterizedType) {
-                ParameterizedType paramType = (ParameterizedType) genericType;
-                Type[] typeArgs = paramType.getActualTypeArguments();
-                if (typeArgs.length > 0 && typeArgs[0] instanceof Class) {
-                    JsonObject itemSchema = new JsonObject();
-                    Class<?> itemClass = (Class<?>) typeArgs[0];
-                    itemSchema.addProperty("type", getSimpleTypeName(itemClass));
-                    fieldSchema.add("items", itemSchema);
+        private ObjectNode schemaForClass(Class<?> clazz) {
+            String simple = getSimpleTypeName(clazz);
+            if (simple != null) {
+                return nodes.objectNode().put("type", simple);
+            }
+            String format = stringFormat(clazz);
+            if (format != null) {
+                ObjectNode schema = nodes.objectNode().put("type", "string");
+                if (!format.isEmpty()) {
+                    schema.put("format", format);
+                }
+                return schema;
+            }
+            if (clazz.isEnum()) {
+                ObjectNode schema = nodes.objectNode().put("type", "string");
+                ArrayNode values = schema.putArray("enum");
+                for (Object constant : clazz.getEnumConstants()) {
+                    values.add(((Enum<?>) constant).name());
                 }
+                return schema;
+            }
+            if (clazz.isArray()) {
+                return arraySchema(schemaFor(clazz.getComponentType()));
+            }
+            if (Collection.class.isAssignableFrom(clazz)) {
+                return arraySchema(nodes.objectNode());
+            }
+            if (clazz == Object.class || JsonNode.class.isAssignableFrom(clazz) || JsonElement.class.isAssignableFrom(clazz)) {
+                // Free-form JSON; JSON object wrappers are still objects
+                boolean object = ObjectNode.class.isAssignableFrom(clazz) || JsonObject.class.isAssignableFrom(clazz);
+                return object ? nodes.objectNode().put("type", "object") : nodes.objectNode();
+            }
+            if (Map.class.isAssignableFrom(clazz) || isPlatformClass(clazz)) {
+                return nodes.objectNode().put("type", "object");
+            }
+            if (inProgress.contains(clazz)) {
+                recursive.add(clazz);
+                return nodes.objectNode().put("$ref", "#/$defs/" + defName(clazz));
             }
-        } else if (Map.class.isAssignableFrom(fieldType)) {
-            fieldSchema.addProperty("type", "object");
-        } else {
-            // Complex object
-            fieldSchema.addProperty("type", "object");
-            // Could recursively generate schema for nested objects
+            return objectSchema(clazz);
         }
         
-        // Add description if available (could be from annotations)
-        Description desc = field.getAnnotation(Description.class);
-        if (desc != null) {
-            fieldSchema.addProperty("description", desc.value());
+        private static ObjectNode arraySchema(ObjectNode items) {
+            ObjectNode schema = nodes.objectNode().put("type", "array");
+            schema.set("items", items);
+            return schema;
         }
         
-        return fieldSchema;
+        private String defName(Class<?> clazz) {
+            return defNames.computeIfAbsent(clazz, c -> {
+                String name = c.getSimpleName().isEmpty() ? "Type" : c.getSimpleName();
+                String candidate = name;
+                for (int i = 2; defNames.containsValue(candidate); i++) {
+                    candidate = name + i;
+                }
+                return candidate;
+            });
+        }
+    }
+    
+    /**
+     * Returns the fields that make up the schema of a class: record components in
+     * declaration order, or the instance fields of the class and its superclasses.
+     */
+    static List<Field> schemaFields(Class<?> type) {
+        List<Field> fields = new ArrayList<>();
+        if (type.isRecord()) {
+            for (RecordComponent component : type.getRecordComponents()) {
+                try {
+                    fields.add(type.getDeclaredField(component.getName()));
+                } catch (NoSuchFieldException e) {
+                    throw new IllegalStateException("Record component without field: " + component, e);
+                }
+            }
+            return fields;
+        }
+        List<Class<?>> hierarchy = new ArrayList<>();
+        for (Class<?> c = type; c != null && !isPlatformClass(c); c = c.getSuperclass()) {
+            hierarchy.add(0, c);
+        }
+        for (Class<?> c : hierarchy) {
+            for (Field field : c.getDeclaredFields()) {
+                int modifiers = field.getModifiers();
+                if (!Modifier.isStatic(modifiers) && !Modifier.isTransient(modifiers) && !field.isSynthetic()) {
+                    fields.add(field);
+                }
+            }
+        }
+        return fields;
+    }
+    
+    private static boolean isPlatformClass(Class<?> clazz) {
+        String name = clazz.getName();
+        return clazz.isPrimitive() || name.startsWith("java.") || name.startsWith("javax.") || name.startsWith("jdk.");
     }
     
     private static String getSimpleTypeName(Class<?> clazz) {
-        if (clazz == String.class) return "string";
+        if (clazz == String.class || clazz == char.class || clazz == Character.class) return "string";
         if (clazz == Integer.class || clazz == int.class) return "integer";
         if (clazz == Long.class || clazz == long.class) return "integer";
+        if (clazz == Short.class || clazz == short.class) return "integer";
+        if (clazz == Byte.class || clazz == byte.class) return "integer";
+        if (clazz == BigInteger.class) return "integer";
         if (clazz == Double.class || clazz == double.class) return "number";
         if (clazz == Float.class || clazz == float.class) return "number";
+        if (clazz == BigDecimal.class) return "number";
         if (clazz == Boolean.class || clazz == boolean.class) return "boolean";
-        return "object";
+        return null;
+    }
+    
+    /**
+     * Returns the string format for value types serialized as strings, "" for
+     * such types without a standard format, or null for anything else.
+     */
+    private static String stringFormat(Class<?> clazz) {
+        if (clazz == Instant.class || clazz == OffsetDateTime.class || clazz == ZonedDateTime.class) return "date-time";
+        if (clazz == LocalDateTime.class) return "";
+        if (clazz == LocalDate.class) return "date";
+        if (clazz == LocalTime.class) return "time";
+        if (clazz == UUID.class) return "uuid";
+        if (clazz == URI.class || clazz == URL.class) return "uri";
+        return null;
     }
     
     /**
@@ -152,12 +411,32 @@ public class JsonSchemaUtils {
         return str.substring(0, 1).toLowerCase() + str.substring(1);
     }
     
+    /**
+     * Marks a tool arguments class whose schema is generated at compile time by
+     * {@link org.gegolabs.mcp.bridge.processor.JsonSchemaProcessor}. Schemas for marked
+     * classes are loaded from the generated constant instead of being built by reflection.
+     */
+    @java.lang.annotation.Retention(java.lang.annotation.RetentionPolicy.RUNTIME)
+    @java.lang.annotation.Target(java.lang.annotation.ElementType.TYPE)
+    public @interface GenerateSchema {
+    }
+    
+    /**
+     * Marks a field or record component that must be present in the arguments. It is
+     * listed under {@code required} in the schema, and {@link ArgumentBinder} rejects
+     * arguments that omit it.
+     */
+    @java.lang.annotation.Retention(java.lang.annotation.RetentionPolicy.RUNTIME)
+    @java.lang.annotation.Target({java.lang.annotation.ElementType.FIELD, java.lang.annotation.ElementType.RECORD_COMPONENT})
+    public @interface Required {
+    }
+    
     /**
      * Annotation for field descriptions in JSON schema.
      */
     @java.lang.annotation.Retention(java.lang.annotation.RetentionPolicy.RUNTIME)
-    @java.lang.annotation.Target(java.lang.annotation.ElementType.FIELD)
+    @java.lang.annotation.Target({java.lang.annotation.ElementType.FIELD, java.lang.annotation.ElementType.RECORD_COMPONENT})
     public @interface Description {
         String value();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,87 @@
+package org.gegolabs.mcp.bridge.utils;
+
+import lombok.Builder;
+
+/**
+ * Options for {@link LoggingUtils#initializeFileLogging(String, LoggingOptions)}.
+ * 
+ * The defaults favour throughput: events are handed to a bounded queue and written
+ * by a background thread, events are dropped instead of blocking callers when the
+ * queue is full, files roll over by size and day, and message bodies are truncated.
+ * 
+ * Usage:
+ * <pre>
+ * LoggingUtils.initializeFileLogging("my-server.log", LoggingOptions.builder()
+ *     .level("INFO")
+ *     .payloadPolicy(PayloadLogPolicy.off())
+ *     .build());
+ * </pre>
+ */
+@Builder
+public class LoggingOptions {
+    
+    /**
+     * Root log level.
+     */
+    @Builder.Default
+    final String level = "DEBUG";
+    
+    /**
+     * Whether to write through a background thread instead of on the logging thread.
+     */
+    @Builder.Default
+    final boolean async = true;
+    
+    /**
+     * Capacity of the async queue, in events.
+     */
+    @Builder.Default
+    final int queueSize = 8192;
+    
+    /**
+     * When fewer than this many slots are free, TRACE, DEBUG and INFO events are dropped.
+     * -1 uses Logback's default of one fifth of the queue size; 0 never drops by level.
+     */
+    @Builder.Default
+    final int discardingThreshold = -1;
+    
+    /**
+     * Drop events instead of blocking the caller when the queue is full.
+     */
+    @Builder.Default
+    final boolean neverBlock = true;
+    
+    /**
+     * Roll the log file over by size and date instead of growing a single file.
+     */
+    @Builder.Default
+    final boolean rolling = true;
+    
+    /**
+     * Size at which the current file is rolled over, e.g. {@code 50MB}.
+     */
+    @Builder.Default
+    final String maxFileSize = "50MB";
+    
+    /**
+     * Number of days of rolled files to keep.
+     */
+    @Builder.Default
+    final int maxHistory = 7;
+    
+    /**
+     * Upper bound on the size of all rolled files together.
+     */
+    @Builder.Default
+    final String totalSizeCap = "1GB";
+    
+    /**
+     * How JSON-RPC message bodies are written to debug logs.
+     */
+    @Builder.Default
+    final PayloadLogPolicy payloadPolicy = PayloadLogPolicy.truncate(1024);
+    
+    public static LoggingOptions defaults() {
+        return builder().build();
+    }
+}
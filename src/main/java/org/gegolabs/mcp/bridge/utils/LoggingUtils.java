@@ -5,7 +5,12 @@ import ch.qos.logback.classic.Logger;
 import ch.qos.logback.classic.LoggerContext;
 import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
 import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.core.Appender;
 import ch.qos.logback.core.FileAppender;
+import ch.qos.logback.core.rolling.RollingFileAppender;
+import ch.qos.logback.core.rolling.SizeAndTimeBasedRollingPolicy;
+import ch.qos.logback.core.util.FileSize;
 import org.slf4j.LoggerFactory;
 
 import java.nio.file.Path;
@@ -17,6 +22,10 @@ import java.nio.file.Paths;
  */
 public class LoggingUtils {
     
+    private static final String PATTERN = "%d{yyyy-MM-dd HH:mm:ss.SSS} [%thread] %-5level %logger{36} - %msg%n";
+    
+    private static volatile PayloadLogPolicy payloadPolicy = PayloadLogPolicy.full();
+    
     /**
      * Initializes file-based logging for the MCP Bridge.
      * This is essential for debugging MCP communication issues.
@@ -41,7 +50,7 @@ public class LoggingUtils {
         
         PatternLayoutEncoder encoder = new PatternLayoutEncoder();
         encoder.setContext(loggerContext);
-        encoder.setPattern("%d{yyyy-MM-dd HH:mm:ss.SSS} [%thread] %-5level %logger{36} - %msg%n");
+        encoder.setPattern(PATTERN);
         encoder.start();
         
         fileAppender.setEncoder(encoder);
@@ -57,6 +66,152 @@ public class LoggingUtils {
         log.info("Logging initialized to file: {}", logFile);
     }
     
+    /**
+     * Initializes file-based logging with explicit options.
+     * 
+     * With the default options, events are written by a background thread through a
+     * bounded queue that drops events rather than blocking when full, files roll over
+     * by size and day, and message bodies are truncated. Calling this again replaces
+     * the appenders installed by a previous call.
+     * 
+     * @param filename The name of the log file (without path)
+     * @param options Appender, rollover and payload settings
+     */
+    public static void initializeFileLogging(String filename, LoggingOptions options) {
+        LoggerContext loggerContext = (LoggerContext) LoggerFactory.getILoggerFactory();
+        Logger rootLogger = loggerContext.getLogger(Logger.ROOT_LOGGER_NAME);
+        stopAppender(rootLogger, "ASYNC_FILE");
+        stopAppender(rootLogger, "FILE");
+        
+        Path logDir = Paths.get(System.getProperty("user.home"), ".mcp-bridge", "logs");
+        Path logFile = logDir.resolve(filename);
+        logDir.toFile().mkdirs();
+        
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(loggerContext);
+        encoder.setPattern(PATTERN);
+        encoder.start();
+        
+        FileAppender<ILoggingEvent> fileAppender;
+        if (options.rolling) {
+            RollingFileAppender<ILoggingEvent> rollingAppender = new RollingFileAppender<>();
+            rollingAppender.setContext(loggerContext);
+            rollingAppender.setFile(logFile.toString());
+            
+            SizeAndTimeBasedRollingPolicy<ILoggingEvent> policy = new SizeAndTimeBasedRollingPolicy<>();
+            policy.setContext(loggerContext);
+            policy.setParent(rollingAppender);
+            policy.setFileNamePattern(logDir.resolve(rolledFilePattern(filename)).toString());
+            policy.setMaxFileSize(FileSize.valueOf(options.maxFileSize));
+            policy.setMaxHistory(options.maxHistory);
+            policy.setTotalSizeCap(FileSize.valueOf(options.totalSizeCap));
+            policy.start();
+            
+            rollingAppender.setRollingPolicy(policy);
+            fileAppender = rollingAppender;
+        } else {
+            fileAppender = new FileAppender<>();
+            fileAppender.setContext(loggerContext);
+            fileAppender.setFile(logFile.toString());
+        }
+        fileAppender.setName("FILE");
+        fileAppender.setEncoder(encoder);
+        fileAppender.start();
+        
+        if (options.async) {
+            AsyncAppender asyncAppender = new AsyncAppender();
+            asyncAppender.setContext(loggerContext);
+            asyncAppender.setName("ASYNC_FILE");
+            asyncAppender.setQueueSize(options.queueSize);
+            asyncAppender.setDiscardingThreshold(options.discardingThreshold);
+            asyncAppender.setNeverBlock(options.neverBlock);
+            asyncAppender.setIncludeCallerData(false);
+            asyncAppender.addAppender(fileAppender);
+            asyncAppender.start();
+            rootLogger.addAppender(asyncAppender);
+        } else {
+            rootLogger.addAppender(fileAppender);
+        }
+        rootLogger.setLevel(Level.toLevel(options.level, Level.DEBUG));
+        setPayloadLogPolicy(options.payloadPolicy);
+        
+        org.slf4j.Logger log = LoggerFactory.getLogger(LoggingUtils.class);
+        log.info("Logging initialized to file: {} (async={}, rolling={}, payloads={})",
+            logFile, options.async, options.rolling, options.payloadPolicy);
+    }
+    
+    /**
+     * Sets how JSON-RPC message bodies are written to debug logs.
+     * 
+     * @param policy The payload policy to apply
+     */
+    public static void setPayloadLogPolicy(PayloadLogPolicy policy) {
+        if (policy == null) {
+            throw new IllegalArgumentException("policy must not be null");
+        }
+        payloadPolicy = policy;
+    }
+    
+    /**
+     * Returns the payload policy currently in effect.
+     */
+    public static PayloadLogPolicy getPayloadLogPolicy() {
+        return payloadPolicy;
+    }
+    
+    /**
+     * Logs a message body at DEBUG level according to the current payload policy.
+     * Nothing is rendered or formatted when DEBUG is disabled for the logger or the
+     * policy skips the message.
+     * 
+     * @param log The logger to write to
+     * @param format The message format with a single placeholder for the body
+     * @param payload The message body
+     */
+    public static void debugPayload(org.slf4j.Logger log, String format, String payload) {
+        if (shouldLogPayload(log)) {
+            logPayload(log, format, payload);
+        }
+    }
+    
+    /**
+     * Returns whether the next message body should be logged: DEBUG is enabled for the
+     * logger and the payload policy takes this message. Lets callers decide before
+     * decoding a body that would only be thrown away. Under a sampling policy this
+     * advances the sample, so call it once per message and follow a {@code true} with
+     * {@link #logPayload}.
+     */
+    public static boolean shouldLogPayload(org.slf4j.Logger log) {
+        return log.isDebugEnabled() && payloadPolicy.shouldLog();
+    }
+    
+    /**
+     * Logs a message body at DEBUG level, rendered by the current payload policy,
+     * after {@link #shouldLogPayload} accepted it.
+     * 
+     * @param log The logger to write to
+     * @param format The message format with a single placeholder for the body
+     * @param payload The message body
+     */
+    public static void logPayload(org.slf4j.Logger log, String format, String payload) {
+        log.debug(format, payloadPolicy.render(payload));
+    }
+    
+    static String rolledFilePattern(String filename) {
+        int dot = filename.lastIndexOf('.');
+        String base = dot > 0 ? filename.substring(0, dot) : filename;
+        String extension = dot > 0 ? filename.substring(dot) : ".log";
+        return base + ".%d{yyyy-MM-dd}.%i" + extension + ".gz";
+    }
+    
+    private static void stopAppender(Logger logger, String name) {
+        Appender<ILoggingEvent> appender = logger.getAppender(name);
+        if (appender != null) {
+            logger.detachAppender(name);
+            appender.stop();
+        }
+    }
+    
     /**
      * Configures logging level for specific packages.
      * 
@@ -0,0 +1,176 @@
+package org.gegolabs.mcp.bridge.utils;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Controls how JSON-RPC message bodies appear in debug logs.
+ * 
+ * Message bodies can be large and are logged on the I/O path, so logging every
+ * body in full can dominate the cost of a request. A policy can drop bodies
+ * entirely, keep a prefix, log only every Nth body, or log just a hash that
+ * still lets identical payloads be correlated. Sizes are UTF-8 bytes, as the
+ * body is written to the log file.
+ * 
+ * Usage:
+ * <pre>
+ * LoggingUtils.setPayloadLogPolicy(PayloadLogPolicy.truncate(512));
+ * </pre>
+ */
+public final class PayloadLogPolicy {
+    
+    public enum Mode {
+        OFF,
+        FULL,
+        TRUNCATE,
+        SAMPLE,
+        HASH
+    }
+    
+    private final Mode mode;
+    private final int limit;
+    private final AtomicLong counter = new AtomicLong();
+    
+    private PayloadLogPolicy(Mode mode, int limit) {
+        this.mode = mode;
+        this.limit = limit;
+    }
+    
+    /**
+     * Never logs message bodies.
+     */
+    public static PayloadLogPolicy off() {
+        return new PayloadLogPolicy(Mode.OFF, 0);
+    }
+    
+    /**
+     * Logs every message body in full.
+     */
+    public static PayloadLogPolicy full() {
+        return new PayloadLogPolicy(Mode.FULL, 0);
+    }
+    
+    /**
+     * Logs at most the first {@code maxBytes} bytes of each body, encoded as UTF-8.
+     * A character is never split.
+     */
+    public static PayloadLogPolicy truncate(int maxBytes) {
+        if (maxBytes <= 0) {
+            throw new IllegalArgumentException("maxBytes must be positive");
+        }
+        return new PayloadLogPolicy(Mode.TRUNCATE, maxBytes);
+    }
+    
+    /**
+     * Logs one body out of every {@code everyN}, in full.
+     */
+    public static PayloadLogPolicy sample(int everyN) {
+        if (everyN <= 0) {
+            throw new IllegalArgumentException("everyN must be positive");
+        }
+        return new PayloadLogPolicy(Mode.SAMPLE, everyN);
+    }
+    
+    /**
+     * Logs a 64-bit hash and the size of each body instead of its contents.
+     */
+    public static PayloadLogPolicy hash() {
+        return new PayloadLogPolicy(Mode.HASH, 0);
+    }
+    
+    /**
+     * Parses a policy from configuration, e.g. {@code off}, {@code full}, {@code hash},
+     * {@code truncate:1024} or {@code sample:100}.
+     */
+    public static PayloadLogPolicy parse(String value) {
+        String[] parts = value.trim().toLowerCase().split(":", 2);
+        return switch (parts[0]) {
+            case "off" -> off();
+            case "full" -> full();
+            case "hash" -> hash();
+            case "truncate" -> truncate(parts.length > 1 ? Integer.parseInt(parts[1]) : 1024);
+            case "sample" -> sample(parts.length > 1 ? Integer.parseInt(parts[1]) : 100);
+            default -> throw new IllegalArgumentException("Unknown payload log policy: " + value);
+        };
+    }
+    
+    public Mode getMode() {
+        return mode;
+    }
+    
+    /**
+     * Returns whether the next body should be logged at all. For sampling policies
+     * this advances the sample counter, so call it once per candidate message.
+     */
+    public boolean shouldLog() {
+        return switch (mode) {
+            case OFF -> false;
+            case SAMPLE -> counter.getAndIncrement() % limit == 0;
+            default -> true;
+        };
+    }
+    
+    /**
+     * Renders a body according to this policy.
+     */
+    public String render(String payload) {
+        if (payload == null) {
+            return null;
+        }
+        return switch (mode) {
+            case TRUNCATE -> truncated(payload);
+            case HASH -> String.format("#%016x (%d bytes)", fnv1a(payload), utf8Length(payload));
+            default -> payload;
+        };
+    }
+    
+    private String truncated(String payload) {
+        // Each char encodes to at most three bytes, so short bodies need no scan
+        if ((long) payload.length() * 3 <= limit) {
+            return payload;
+        }
+        int end = -1;
+        long bytes = 0;
+        for (int i = 0; i < payload.length(); i += Character.charCount(payload.codePointAt(i))) {
+            int size = utf8Length(payload.codePointAt(i));
+            if (end < 0 && bytes + size > limit) {
+                end = i;
+            }
+            bytes += size;
+        }
+        return end < 0 ? payload : payload.substring(0, end) + "... (" + bytes + " bytes)";
+    }
+    
+    private static long utf8Length(String value) {
+        long bytes = 0;
+        for (int i = 0; i < value.length(); i += Character.charCount(value.codePointAt(i))) {
+            bytes += utf8Length(value.codePointAt(i));
+        }
+        return bytes;
+    }
+    
+    private static int utf8Length(int codePoint) {
+        if (codePoint < 0x80) {
+            return 1;
+        }
+        if (codePoint < 0x800) {
+            return 2;
+        }
+        return codePoint < 0x10000 ? 3 : 4;
+    }
+    
+    private static long fnv1a(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+    
+    @Override
+    public String toString() {
+        return mode == Mode.TRUNCATE || mode == Mode.SAMPLE
+            ? mode.name().toLowerCase() + ":" + limit
+            : mode.name().toLowerCase();
+    }
+}
@@ -0,0 +1,527 @@
+package org.gegolabs.mcp.bridge.validation;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.modelcontextprotocol.spec.McpSchema;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Validates JSON values against a JSON schema that was compiled once into a tree
+ * of checks.
+ * 
+ * Compiling resolves everything that does not depend on the value: property
+ * lookups, required lists, enum sets, regular expressions and {@code $ref}
+ * targets. Validating then only walks the checks that apply. Values are the plain
+ * Java trees the MCP SDK deserializes params into: maps, lists, strings, numbers,
+ * booleans and null.
+ * 
+ * Supported keywords are {@code type}, {@code enum}, {@code const},
+ * {@code properties}, {@code required}, {@code additionalProperties}, {@code items},
+ * {@code minItems}, {@code maxItems}, {@code uniqueItems}, {@code minLength},
+ * {@code maxLength}, {@code pattern}, {@code minimum}, {@code maximum},
+ * {@code exclusiveMinimum}, {@code exclusiveMaximum}, {@code allOf}, {@code anyOf},
+ * {@code oneOf}, {@code not} and local {@code $ref}s into {@code $defs} or
+ * {@code definitions}. Other keywords, such as {@code format}, are ignored.
+ * 
+ * Usage:
+ * <pre>
+ * SchemaValidator validator = SchemaValidator.compile(tool.inputSchema());
+ * List&lt;Violation&gt; violations = validator.validate(arguments);
+ * </pre>
+ */
+public final class SchemaValidator {
+    
+    /**
+     * Validation stops after this many violations.
+     */
+    public static final int MAX_VIOLATIONS = 20;
+    
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+    private static final Check ACCEPT = (value, path, result) -> { };
+    
+    private final Check root;
+    
+    private SchemaValidator(Check root) {
+        this.root = root;
+    }
+    
+    /**
+     * Compiles a schema given as a Jackson tree.
+     * 
+     * @throws IllegalArgumentException if the schema is malformed or has an unresolvable {@code $ref}
+     */
+    public static SchemaValidator compile(JsonNode schema) {
+        return new SchemaValidator(new Compiler(schema).compile(schema));
+    }
+    
+    /**
+     * Compiles the input schema of a tool.
+     * 
+     * @throws IllegalArgumentException if the schema is malformed or has an unresolvable {@code $ref}
+     */
+    public static SchemaValidator compile(McpSchema.JsonSchema schema) {
+        return compile(objectMapper.valueToTree(schema));
+    }
+    
+    /**
+     * Validates a value.
+     * 
+     * @return The violations found, at most {@link #MAX_VIOLATIONS}; empty if the value is valid
+     */
+    public List<Violation> validate(Object value) {
+        Result result = new Result();
+        root.check(value, "", result);
+        return result.violations;
+    }
+    
+    public boolean isValid(Object value) {
+        return validate(value).isEmpty();
+    }
+    
+    @FunctionalInterface
+    private interface Check {
+        void check(Object value, String path, Result result);
+    }
+    
+    private static final class Result {
+        final List<Violation> violations = new ArrayList<>();
+        
+        void add(String path, String message) {
+            if (violations.size() < MAX_VIOLATIONS) {
+                violations.add(new Violation(path, message));
+            }
+        }
+        
+        boolean full() {
+            return violations.size() >= MAX_VIOLATIONS;
+        }
+    }
+    
+    /**
+     * A {@code $ref} target; filled in after the definition is compiled, so that
+     * recursive schemas can refer to themselves.
+     */
+    private static final class Ref implements Check {
+        Check target;
+        
+        @Override
+        public void check(Object value, String path, Result result) {
+            target.check(value, path, result);
+        }
+    }
+    
+    private static final class Compiler {
+        private final JsonNode rootSchema;
+        private final Map<String, Ref> refs = new HashMap<>();
+        
+        Compiler(JsonNode rootSchema) {
+            this.rootSchema = rootSchema;
+        }
+        
+        Check compile(JsonNode schema) {
+            if (schema == null || schema.isNull() || (schema.isBoolean() && schema.booleanValue())) {
+                return ACCEPT;
+            }
+            if (schema.isBoolean()) {
+                return (value, path, result) -> result.add(path, "is not allowed");
+            }
+            if (!schema.isObject()) {
+                throw new IllegalArgumentException("Schema must be an object or a boolean: " + schema);
+            }
+            if (field(schema, "$ref") != null) {
+                return ref(field(schema, "$ref").asText());
+            }
+            
+            Check type = typeCheck(field(schema, "type"));
+            List<Check> checks = new ArrayList<>();
+            addEnum(schema, checks);
+            addNumeric(schema, checks);
+            addString(schema, checks);
+            addArray(schema, checks);
+            addObject(schema, checks);
+            addCombinators(schema, checks);
+            Check[] all = checks.toArray(new Check[0]);
+            
+            if (type == null && all.length == 0) {
+                return ACCEPT;
+            }
+            return (value, path, result) -> {
+                if (type != null) {
+                    int before = result.violations.size();
+                    type.check(value, path, result);
+                    if (result.violations.size() > before) {
+                        // Further checks would only repeat the type mismatch
+                        return;
+                    }
+                }
+                for (Check check : all) {
+                    if (result.full()) {
+                        return;
+                    }
+                    check.check(value, path, result);
+                }
+            };
+        }
+        
+        private Check ref(String pointer) {
+            Ref ref = refs.get(pointer);
+            if (ref != null) {
+                return ref;
+            }
+            JsonNode target;
+            if (pointer.equals("#")) {
+                target = rootSchema;
+            } else if (pointer.startsWith("#/")) {
+                target = rootSchema.at(pointer.substring(1));
+            } else {
+                throw new IllegalArgumentException("Only local $refs are supported: " + pointer);
+            }
+            if (target.isMissingNode()) {
+                throw new IllegalArgumentException("Unresolvable $ref: " + pointer);
+            }
+            ref = new Ref();
+            refs.put(pointer, ref);
+            ref.target = compile(target);
+            return ref;
+        }
+        
+        private static Check typeCheck(JsonNode type) {
+            if (type == null) {
+                return null;
+            }
+            Set<String> types = new LinkedHashSet<>();
+            if (type.isArray()) {
+                type.forEach(t -> types.add(t.asText()));
+            } else {
+                types.add(type.asText());
+            }
+            String expected = types.size() == 1 ? types.iterator().next() : String.join(" or ", types);
+            return (value, path, result) -> {
+                if (!matchesType(value, types)) {
+                    result.add(path, "expected " + expected + " but got " + typeOf(value));
+                }
+            };
+        }
+        
+        private static void addEnum(JsonNode schema, List<Check> checks) {
+            JsonNode values = field(schema, "enum");
+            if (values != null && values.isArray()) {
+                Set<Object> allowed = new HashSet<>();
+                values.forEach(v -> allowed.add(normalize(objectMapper.convertValue(v, Object.class))));
+                String display = values.toString();
+                checks.add((value, path, result) -> {
+                    if (!allowed.contains(normalize(value))) {
+                        result.add(path, "must be one of " + display);
+                    }
+                });
+            }
+            JsonNode constant = field(schema, "const");
+            if (constant != null) {
+                Object expected = normalize(objectMapper.convertValue(constant, Object.class));
+                String display = constant.toString();
+                checks.add((value, path, result) -> {
+                    if (!Objects.equals(expected, normalize(value))) {
+                        result.add(path, "must be " + display);
+                    }
+                });
+            }
+        }
+        
+        private static void addNumeric(JsonNode schema, List<Check> checks) {
+            addBound(schema, "minimum", checks, (v, bound) -> v.compareTo(bound) >= 0, ">=");
+            addBound(schema, "maximum", checks, (v, bound) -> v.compareTo(bound) <= 0, "<=");
+            addBound(schema, "exclusiveMinimum", checks, (v, bound) -> v.compareTo(bound) > 0, ">");
+            addBound(schema, "exclusiveMaximum", checks, (v, bound) -> v.compareTo(bound) < 0, "<");
+        }
+        
+        private interface Bound {
+            boolean test(BigDecimal value, BigDecimal bound);
+        }
+        
+        private static void addBound(JsonNode schema, String keyword, List<Check> checks, Bound bound, String op) {
+            JsonNode limit = schema.get(keyword);
+            if (limit == null || !limit.isNumber()) {
+                return;
+            }
+            BigDecimal boundValue = limit.decimalValue();
+            String message = "must be " + op + " " + limit.asText();
+            checks.add((value, path, result) -> {
+                if (value instanceof Number number && !bound.test(decimal(number), boundValue)) {
+                    result.add(path, message);
+                }
+            });
+        }
+        
+        private static void addString(JsonNode schema, List<Check> checks) {
+            int minLength = intField(schema, "minLength", 0);
+            int maxLength = intField(schema, "maxLength", Integer.MAX_VALUE);
+            if (minLength > 0 || maxLength < Integer.MAX_VALUE) {
+                checks.add((value, path, result) -> {
+                    if (value instanceof String s) {
+                        int length = s.codePointCount(0, s.length());
+                        if (length < minLength) {
+                            result.add(path, "must be at least " + minLength + " characters");
+                        } else if (length > maxLength) {
+                            result.add(path, "must be at most " + maxLength + " characters");
+                        }
+                    }
+                });
+            }
+            JsonNode pattern = field(schema, "pattern");
+            if (pattern != null && pattern.isTextual()) {
+                Pattern compiled = Pattern.compile(pattern.textValue());
+                String message = "must match " + pattern.textValue();
+                checks.add((value, path, result) -> {
+                    if (value instanceof String s && !compiled.matcher(s).find()) {
+                        result.add(path, message);
+                    }
+                });
+            }
+        }
+        
+        private void addArray(JsonNode schema, List<Check> checks) {
+            int minItems = intField(schema, "minItems", 0);
+            int maxItems = intField(schema, "maxItems", Integer.MAX_VALUE);
+            boolean unique = field(schema, "uniqueItems") != null && field(schema, "uniqueItems").asBoolean();
+            if (minItems > 0 || maxItems < Integer.MAX_VALUE || unique) {
+                checks.add((value, path, result) -> {
+                    if (value instanceof List<?> list) {
+                        if (list.size() < minItems) {
+                            result.add(path, "must have at least " + minItems + " items");
+                        } else if (list.size() > maxItems) {
+                            result.add(path, "must have at most " + maxItems + " items");
+                        }
+                        if (unique) {
+                            Set<Object> seen = new HashSet<>();
+                            for (Object item : list) {
+                                if (!seen.add(normalize(item))) {
+                                    result.add(path, "must not contain duplicates");
+                                    break;
+                                }
+                            }
+                        }
+                    }
+                });
+            }
+            JsonNode items = field(schema, "items");
+            if (items != null && items.isObject()) {
+                Check item = compile(items);
+                if (item != ACCEPT) {
+                    checks.add((value, path, result) -> {
+                        if (value instanceof List<?> list) {
+                            for (int i = 0; i < list.size() && !result.full(); i++) {
+                                item.check(list.get(i), path + "[" + i + "]", result);
+                            }
+                        }
+                    });
+                }
+            }
+        }
+        
+        private void addObject(JsonNode schema, List<Check> checks) {
+            Map<String, Check> properties = new LinkedHashMap<>();
+            JsonNode props = field(schema, "properties");
+            if (props != null && props.isObject()) {
+                props.fields().forEachRemaining(e -> properties.put(e.getKey(), compile(e.getValue())));
+                properties.values().removeIf(check -> check == ACCEPT);
+            }
+            List<String> required = new ArrayList<>();
+            JsonNode requiredNode = field(schema, "required");
+            if (requiredNode != null) {
+                requiredNode.forEach(r -> required.add(r.asText()));
+            }
+            String[] requiredNames = required.toArray(new String[0]);
+            
+            JsonNode additional = field(schema, "additionalProperties");
+            boolean closed = additional != null && additional.isBoolean() && !additional.booleanValue();
+            Check additionalCheck = additional != null && additional.isObject() ? compile(additional) : ACCEPT;
+            Set<String> known = new HashSet<>();
+            if (props != null) {
+                props.fieldNames().forEachRemaining(known::add);
+            }
+            if (properties.isEmpty() && requiredNames.length == 0 && !closed && additionalCheck == ACCEPT) {
+                return;
+            }
+            
+            checks.add((value, path, result) -> {
+                if (!(value instanceof Map<?, ?> map)) {
+                    return;
+                }
+                for (String name : requiredNames) {
+                    if (!map.containsKey(name)) {
+                        result.add(child(path, name), "is required");
+                    }
+                }
+                for (Map.Entry<String, Check> property : properties.entrySet()) {
+                    Object propertyValue = map.get(property.getKey());
+                    if ((propertyValue != null || map.containsKey(property.getKey())) && !result.full()) {
+                        property.getValue().check(propertyValue, child(path, property.getKey()), result);
+                    }
+                }
+                if (closed || additionalCheck != ACCEPT) {
+                    for (Map.Entry<?, ?> entry : map.entrySet()) {
+                        String name = String.valueOf(entry.getKey());
+                        if (known.contains(name) || result.full()) {
+                            continue;
+                        }
+                        if (closed) {
+                            result.add(child(path, name), "is not a known property");
+                        } else {
+                            additionalCheck.check(entry.getValue(), child(path, name), result);
+                        }
+                    }
+                }
+            });
+        }
+        
+        private void addCombinators(JsonNode schema, List<Check> checks) {
+            JsonNode allOf = field(schema, "allOf");
+            if (allOf != null && allOf.isArray()) {
+                for (JsonNode sub : allOf) {
+                    checks.add(compile(sub));
+                }
+            }
+            JsonNode anyOf = field(schema, "anyOf");
+            if (anyOf != null && anyOf.isArray()) {
+                Check[] options = compileAll(anyOf);
+                checks.add((value, path, result) -> {
+                    if (countMatches(options, value, path, 1) == 0) {
+                        result.add(path, "does not match any of the allowed schemas");
+                    }
+                });
+            }
+            JsonNode oneOf = field(schema, "oneOf");
+            if (oneOf != null && oneOf.isArray()) {
+                Check[] options = compileAll(oneOf);
+                checks.add((value, path, result) -> {
+                    int matches = countMatches(options, value, path, 2);
+                    if (matches != 1) {
+                        result.add(path, matches == 0
+                            ? "does not match any of the allowed schemas"
+                            : "matches more than one of the allowed schemas");
+                    }
+                });
+            }
+            JsonNode not = field(schema, "not");
+            if (not != null) {
+                Check negated = compile(not);
+                checks.add((value, path, result) -> {
+                    if (countMatches(new Check[] {negated}, value, path, 1) > 0) {
+                        result.add(path, "matches a schema it must not match");
+                    }
+                });
+            }
+        }
+        
+        private Check[] compileAll(JsonNode schemas) {
+            List<Check> compiled = new ArrayList<>();
+            for (JsonNode sub : schemas) {
+                compiled.add(compile(sub));
+            }
+            return compiled.toArray(new Check[0]);
+        }
+    }
+    
+    private static int countMatches(Check[] options, Object value, String path, int stopAt) {
+        int matches = 0;
+        for (Check option : options) {
+            Result trial = new Result();
+            option.check(value, path, trial);
+            if (trial.violations.isEmpty() && ++matches >= stopAt) {
+                break;
+            }
+        }
+        return matches;
+    }
+    
+    /**
+     * Returns a schema keyword, treating explicit nulls as absent.
+     */
+    private static JsonNode field(JsonNode schema, String name) {
+        JsonNode value = schema.get(name);
+        return value == null || value.isNull() ? null : value;
+    }
+    
+    private static int intField(JsonNode schema, String name, int defaultValue) {
+        JsonNode value = field(schema, name);
+        return value != null && value.canConvertToInt() ? value.intValue() : defaultValue;
+    }
+    
+    private static String child(String path, String name) {
+        return path.isEmpty() ? name : path + "." + name;
+    }
+    
+    private static boolean matchesType(Object value, Set<String> types) {
+        String actual = typeOf(value);
+        if (types.contains(actual)) {
+            return true;
+        }
+        if (actual.equals("integer")) {
+            return types.contains("number");
+        }
+        // 2.0 is a valid integer
+        return actual.equals("number") && types.contains("integer") && isIntegral((Number) value);
+    }
+    
+    private static String typeOf(Object value) {
+        if (value == null) return "null";
+        if (value instanceof String) return "string";
+        if (value instanceof Boolean) return "boolean";
+        if (value instanceof Integer || value instanceof Long || value instanceof Short
+                || value instanceof Byte || value instanceof BigInteger) return "integer";
+        if (value instanceof Number) return "number";
+        if (value instanceof List<?>) return "array";
+        if (value instanceof Map<?, ?>) return "object";
+        return value.getClass().getSimpleName();
+    }
+    
+    private static boolean isIntegral(Number number) {
+        BigDecimal decimal = decimal(number);
+        return decimal != null && decimal.stripTrailingZeros().scale() <= 0;
+    }
+    
+    private static BigDecimal decimal(Number number) {
+        if (number instanceof BigDecimal d) return d;
+        if (number instanceof BigInteger i) return new BigDecimal(i);
+        if (number instanceof Double || number instanceof Float) {
+            double d = number.doubleValue();
+            return Double.isFinite(d) ? BigDecimal.valueOf(d) : null;
+        }
+        return BigDecimal.valueOf(number.longValue());
+    }
+    
+    /**
+     * Makes numerically equal values compare equal regardless of their Java type.
+     */
+    private static Object normalize(Object value) {
+        if (value instanceof Number number) {
+            BigDecimal decimal = decimal(number);
+            return decimal != null ? decimal.stripTrailingZeros() : number;
+        }
+        if (value instanceof List<?> list) {
+            List<Object> normalized = new ArrayList<>(list.size());
+            for (Object item : list) {
+                normalized.add(normalize(item));
+            }
+            return normalized;
+        }
+        if (value instanceof Map<?, ?> map) {
+            Map<Object, Object> normalized = new HashMap<>();
+            map.forEach((k, v) -> normalized.put(k, normalize(v)));
+            return normalized;
+        }
+        return value;
+    }
+}
@@ -0,0 +1,124 @@
+package org.gegolabs.mcp.bridge.validation;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.modelcontextprotocol.spec.McpSchema;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Compiled input schema validators for the tools of a server, keyed by tool name.
+ * 
+ * Tools registered explicitly, for example from the specifications the server is
+ * built with, are validated from the first call. The bridge also learns tools from
+ * the server's own {@code tools/list} responses; a tool known only that way is not
+ * validated before it has been listed. Learned schemas are forgotten when the server
+ * announces that its tools changed, until they are listed again. A schema is compiled
+ * only when it is first seen or has changed.
+ * 
+ * Usage:
+ * <pre>
+ * ToolValidators validators = new ToolValidators();
+ * validators.register(searchSpec.tool());
+ * List&lt;Violation&gt; violations = validators.validate("search", arguments);
+ * </pre>
+ */
+@Slf4j
+public class ToolValidators {
+    
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+    
+    private final Map<String, Entry> validators = new ConcurrentHashMap<>();
+    
+    private record Entry(JsonNode schema, SchemaValidator validator, boolean learned) {
+    }
+    
+    /**
+     * Registers or updates the input schema of a tool.
+     */
+    public void register(McpSchema.Tool tool) {
+        register(tool.name(), objectMapper.valueToTree(tool.inputSchema()));
+    }
+    
+    /**
+     * Registers or updates the input schema of a tool.
+     * 
+     * @throws IllegalArgumentException if the schema cannot be compiled
+     */
+    public void register(String name, JsonNode inputSchema) {
+        register(name, inputSchema, false);
+    }
+    
+    private void register(String name, JsonNode inputSchema, boolean learned) {
+        Entry current = validators.get(name);
+        if (current != null && current.schema().equals(inputSchema)) {
+            if (current.learned() != learned) {
+                validators.put(name, new Entry(inputSchema, current.validator(), learned));
+            }
+            return;
+        }
+        validators.put(name, new Entry(inputSchema, SchemaValidator.compile(inputSchema), learned));
+        log.debug("Compiled input schema validator for tool {}", name);
+    }
+    
+    /**
+     * Registers the tools of a {@code tools/list} result. Tools whose schema cannot
+     * be compiled are logged and left unvalidated.
+     */
+    public void learn(JsonNode listToolsResult) {
+        JsonNode tools = listToolsResult != null ? listToolsResult.get("tools") : null;
+        if (tools == null || !tools.isArray()) {
+            return;
+        }
+        for (JsonNode tool : tools) {
+            String name = tool.path("name").asText(null);
+            if (name == null) {
+                continue;
+            }
+            try {
+                register(name, tool.path("inputSchema"), true);
+            } catch (IllegalArgumentException e) {
+                log.warn("Not validating arguments of tool {}: {}", name, e.getMessage());
+                validators.remove(name);
+            }
+        }
+    }
+    
+    /**
+     * Drops the schemas learned from {@code tools/list}, which may be out of date once the
+     * server sent {@code notifications/tools/list_changed}. Registered tools are kept.
+     */
+    public void forgetLearned() {
+        validators.values().removeIf(Entry::learned);
+    }
+    
+    public void remove(String name) {
+        validators.remove(name);
+    }
+    
+    /**
+     * Returns the validator of a tool, or null if the tool is not known.
+     */
+    public SchemaValidator get(String name) {
+        Entry entry = validators.get(name);
+        return entry != null ? entry.validator() : null;
+    }
+    
+    /**
+     * Validates the arguments of a tool call.
+     * 
+     * @param name The tool name
+     * @param arguments The arguments; null is treated as an empty object
+     * @return The violations found; empty if the arguments are valid or the tool is not known
+     */
+    public List<Violation> validate(String name, Object arguments) {
+        SchemaValidator validator = get(name);
+        if (validator == null) {
+            return List.of();
+        }
+        return validator.validate(arguments != null ? arguments : Map.of());
+    }
+}
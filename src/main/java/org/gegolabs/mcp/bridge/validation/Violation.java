@@ -0,0 +1,15 @@
+package org.gegolabs.mcp.bridge.validation;
+
+/**
+ * A value that does not satisfy its schema.
+ * 
+ * @param path Location of the value, e.g. {@code range.from} or {@code tags[2]}; empty for the root
+ * @param message What is wrong with it
+ */
+public record Violation(String path, String message) {
+    
+    @Override
+    public String toString() {
+        return path.isEmpty() ? message : path + ": " + message;
+    }
+}
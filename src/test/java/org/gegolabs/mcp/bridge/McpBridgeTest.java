@@ -2,6 +2,9 @@ package org.gegolabs.mcp.bridge;
 
 import io.modelcontextprotocol.spec.McpServerTransportProvider;
 import org.junit.jupiter.api.Test;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.Executors;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -37,4 +40,25 @@ class McpBridgeTest {
         assertNotNull(bridge);
         assertNotNull(bridge.getTransportProvider());
     }
+    
+    @Test
+    void testBuilderWithExecutor() {
+        McpBridge bridge = McpBridge.builder()
+            .port(3002)
+            .executor(Executors.newFixedThreadPool(2))
+            .inlineWrites(true)
+            .build();
+        
+        assertNotNull(bridge.getTransportProvider());
+    }
+    
+    @Test
+    void testBuilderWithSchedulers() {
+        McpBridge bridge = McpBridge.builder()
+            .scheduler(Schedulers.newBoundedElastic(4, 100, "mcp-test-io"))
+            .dispatchScheduler(Schedulers.parallel())
+            .build();
+        
+        assertNotNull(bridge.getTransportProvider());
+    }
 }
\ No newline at end of file
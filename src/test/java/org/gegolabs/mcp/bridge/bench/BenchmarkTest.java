@@ -0,0 +1,110 @@
+package org.gegolabs.mcp.bridge.bench;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BenchmarkTest {
+    
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    
+    @Test
+    void testRunAgainstFakeServer() throws Exception {
+        try (ServerSocket server = new ServerSocket(0)) {
+            Thread acceptor = new Thread(() -> serve(server));
+            acceptor.setDaemon(true);
+            acceptor.start();
+            
+            BenchmarkReport report = new Benchmark(BenchmarkConfig.builder()
+                .port(server.getLocalPort())
+                .sessions(3)
+                .rate(300)
+                .warmup(Duration.ofMillis(100))
+                .duration(Duration.ofMillis(500))
+                .listWeight(1)
+                .callWeight(1)
+                .toolName("fail")
+                .timeout(Duration.ofSeconds(5))
+                .build()).run();
+            
+            assertTrue(report.getSent() >= 140 && report.getSent() <= 160, "sent " + report.getSent());
+            assertEquals(report.getSent(), report.getCompleted());
+            assertEquals(0, report.getTimeouts());
+            assertTrue(report.getOperations().containsKey("tools/list"));
+            assertTrue(report.getOperations().containsKey("tools/call"));
+            // Every tools/call is answered with isError=true by the fake server
+            assertEquals(report.getOperations().get("tools/call").count(), report.getErrors());
+            
+            JsonNode json = MAPPER.readTree(report.toJson());
+            assertEquals(report.getCompleted(), json.get("completed").asLong());
+            assertTrue(json.get("latency").get("all").has("p999Millis"));
+            assertEquals(3, json.get("config").get("sessions").asInt());
+        }
+    }
+    
+    @Test
+    void testValidation() {
+        assertThrows(IllegalArgumentException.class,
+            () -> new Benchmark(BenchmarkConfig.builder().sessions(0).build()));
+        assertThrows(IllegalArgumentException.class,
+            () -> new Benchmark(BenchmarkConfig.builder().callWeight(1).build()));
+        assertThrows(IllegalArgumentException.class,
+            () -> new Benchmark(BenchmarkConfig.builder().listWeight(0).build()));
+    }
+    
+    @Test
+    void testParseDuration() {
+        assertEquals(Duration.ofMillis(250), BenchmarkConfig.parseDuration("250ms"));
+        assertEquals(Duration.ofSeconds(30), BenchmarkConfig.parseDuration("30s"));
+        assertEquals(Duration.ofMinutes(2), BenchmarkConfig.parseDuration("2m"));
+        assertEquals(Duration.ofSeconds(10), BenchmarkConfig.parseDuration("10"));
+        assertThrows(IllegalArgumentException.class, () -> BenchmarkConfig.parseDuration("soon"));
+    }
+    
+    private static void serve(ServerSocket server) {
+        while (!server.isClosed()) {
+            try {
+                Socket socket = server.accept();
+                Thread handler = new Thread(() -> handle(socket));
+                handler.setDaemon(true);
+                handler.start();
+            } catch (IOException e) {
+                return;
+            }
+        }
+    }
+    
+    private static void handle(Socket socket) {
+        try (socket;
+             BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+             PrintWriter out = new PrintWriter(socket.getOutputStream(), true, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                JsonNode request = MAPPER.readTree(line);
+                if (!request.has("id")) {
+                    continue;
+                }
+                Object result = "tools/call".equals(request.get("method").asText())
+                    ? Map.of("content", List.of(), "isError", true)
+                    : Map.of("tools", List.of());
+                out.println(MAPPER.writeValueAsString(Map.of(
+                    "jsonrpc", "2.0", "id", request.get("id"), "result", result)));
+            }
+        } catch (IOException e) {
+            // Client went away
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package org.gegolabs.mcp.bridge.buffer;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BufferPoolTest {
+    
+    @Test
+    void testBuffersAreReused() {
+        BufferPool pool = BufferPool.builder().build();
+        
+        PooledBuffer first = pool.acquire(3000);
+        assertEquals(4096, first.capacity());
+        first.release();
+        assertEquals(4096, pool.getRetainedBytes());
+        
+        for (int i = 0; i < 100; i++) {
+            PooledBuffer buffer = pool.acquire(2049 + i);
+            assertSame(first, buffer);
+            buffer.release();
+        }
+        assertEquals(1, pool.getAllocated());
+        assertEquals(101, pool.getAcquired());
+        assertEquals(0, pool.getOutstanding());
+        
+        assertEquals(BufferPool.MIN_BUFFER_SIZE, pool.acquire(1).capacity());
+        assertEquals(1, pool.getOutstanding());
+    }
+    
+    @Test
+    void testLargeBuffersAreNotPooled() {
+        BufferPool pool = BufferPool.builder().maxBufferSize(8192).build();
+        
+        PooledBuffer large = pool.acquire(10_000);
+        assertEquals(10_000, large.capacity());
+        large.release();
+        
+        assertNotSame(large, pool.acquire(10_000));
+        assertEquals(2, pool.getUnpooled());
+        assertEquals(0, pool.getRetainedBytes());
+    }
+    
+    @Test
+    void testRetainedBytesAreBounded() {
+        // Two size classes (1 KiB and 2 KiB) sharing 4 KiB: two 1 KiB buffers, one 2 KiB buffer
+        BufferPool pool = BufferPool.builder().maxBufferSize(2048).maxRetainedBytes(4096).build();
+        PooledBuffer[] small = {pool.acquire(100), pool.acquire(100), pool.acquire(100)};
+        PooledBuffer[] large = {pool.acquire(2000), pool.acquire(2000)};
+        for (PooledBuffer buffer : small) {
+            buffer.release();
+        }
+        for (PooledBuffer buffer : large) {
+            buffer.release();
+        }
+        
+        assertEquals(4096, pool.getRetainedBytes());
+        assertEquals(0, pool.getOutstanding());
+    }
+    
+    @Test
+    void testDoubleReleaseFails() {
+        PooledBuffer buffer = BufferPool.builder().build().acquire(10);
+        buffer.release();
+        assertThrows(IllegalStateException.class, buffer::release);
+    }
+    
+    @Test
+    void testLeakDetection() throws InterruptedException {
+        BufferPool pool = BufferPool.builder().leakDetection(true).build();
+        pool.acquire(100).release();
+        pool.acquire(100);
+        
+        for (int i = 0; i < 50 && pool.getLeaked() == 0; i++) {
+            System.gc();
+            Thread.sleep(20);
+        }
+        assertEquals(1, pool.getLeaked());
+    }
+    
+    @Test
+    void testPooledOutputStreamGrows() throws IOException {
+        BufferPool pool = BufferPool.builder().build();
+        PooledOutputStream out = new PooledOutputStream(pool, 16);
+        String text = "héllo ".repeat(1000);
+        out.write(text.getBytes(StandardCharsets.UTF_8));
+        out.write('\n');
+        
+        assertEquals(text, out.toString(out.size() - 1));
+        ByteArrayOutputStream copy = new ByteArrayOutputStream();
+        out.writeTo(copy);
+        assertEquals(text + "\n", copy.toString(StandardCharsets.UTF_8));
+        
+        out.release();
+        assertEquals(0, pool.getOutstanding());
+        assertThrows(IllegalStateException.class, () -> out.write(1));
+    }
+}
@@ -0,0 +1,227 @@
+package org.gegolabs.mcp.bridge.capture;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.PrintWriter;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TrafficRecorderTest {
+    
+    private static final String INITIALIZE = "{\"jsonrpc\":\"2.0\",\"method\":\"initialize\",\"id\":1}";
+    private static final String PING = "{\"jsonrpc\":\"2.0\",\"method\":\"ping\",\"id\":2}";
+    
+    @Test
+    void testRecordAndReadBack() throws IOException {
+        Path file = Files.createTempFile("capture", ".mcpcap");
+        try {
+            try (TrafficRecorder recorder = TrafficRecorder.open(file)) {
+                recorder.record("s1", CaptureFrame.Direction.CLIENT_TO_SERVER, INITIALIZE);
+                recorder.record("s1", CaptureFrame.Direction.SERVER_TO_CLIENT, "{\"id\":1,\"result\":{}}");
+                recorder.record("s2", CaptureFrame.Direction.CLIENT_TO_SERVER, "{\"text\":\"héllo\"}");
+            }
+            
+            List<CaptureFrame> frames = CaptureReader.readAll(file);
+            
+            assertEquals(3, frames.size());
+            assertEquals("s1", frames.get(0).sessionId());
+            assertEquals(CaptureFrame.Direction.CLIENT_TO_SERVER, frames.get(0).direction());
+            assertEquals(INITIALIZE, frames.get(0).payload());
+            assertEquals(CaptureFrame.Direction.SERVER_TO_CLIENT, frames.get(1).direction());
+            assertEquals("{\"text\":\"héllo\"}", frames.get(2).payload());
+            assertTrue(frames.get(1).offsetNanos() >= frames.get(0).offsetNanos());
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+    
+    @Test
+    void testReopeningAppendsToTheCapture() throws Exception {
+        Path file = Files.createTempFile("capture", ".mcpcap");
+        try {
+            try (TrafficRecorder recorder = TrafficRecorder.open(file)) {
+                recorder.record("s1", CaptureFrame.Direction.CLIENT_TO_SERVER, INITIALIZE);
+                recorder.record("s1", CaptureFrame.Direction.SERVER_TO_CLIENT, INITIALIZE);
+            }
+            long startEpochMillis;
+            try (CaptureReader reader = new CaptureReader(file)) {
+                startEpochMillis = reader.getStartEpochMillis();
+            }
+            // A process killed mid-frame leaves a partial frame behind
+            Files.write(file, new byte[] {0, 0, 0}, StandardOpenOption.APPEND);
+            Thread.sleep(5);
+            try (TrafficRecorder recorder = TrafficRecorder.open(file)) {
+                recorder.record("s2", CaptureFrame.Direction.CLIENT_TO_SERVER, PING);
+                recorder.record("s2", CaptureFrame.Direction.SERVER_TO_CLIENT, PING);
+            }
+            
+            List<CaptureFrame> frames = CaptureReader.readAll(file);
+            assertEquals(4, frames.size());
+            assertEquals("s1", frames.get(0).sessionId());
+            assertEquals("s2", frames.get(2).sessionId());
+            assertEquals(PING, frames.get(2).payload());
+            assertTrue(frames.get(2).offsetNanos() > frames.get(1).offsetNanos());
+            try (CaptureReader reader = new CaptureReader(file)) {
+                assertEquals(startEpochMillis, reader.getStartEpochMillis());
+            }
+            
+            // Both sessions replay
+            try (ServerSocket server = new ServerSocket(0)) {
+                Thread acceptor = new Thread(() -> echo(server));
+                acceptor.setDaemon(true);
+                acceptor.start();
+                
+                TrafficReplayer.ReplayResult result = TrafficReplayer.builder()
+                    .port(server.getLocalPort())
+                    .speed(0)
+                    .drainTimeout(Duration.ofSeconds(5))
+                    .build()
+                    .replay(frames);
+                
+                assertEquals(2, result.sessions());
+                assertEquals(0, result.failedSessions());
+                assertEquals(2, result.linesSent());
+                assertEquals(2, result.linesReceived());
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+    
+    @Test
+    void testRecordsDuringCloseAreWrittenOrIgnored() throws Exception {
+        Path file = Files.createTempFile("capture", ".mcpcap");
+        try {
+            TrafficRecorder recorder = TrafficRecorder.open(file);
+            Thread[] producers = new Thread[4];
+            for (int i = 0; i < producers.length; i++) {
+                String session = "s" + i;
+                producers[i] = new Thread(() -> {
+                    for (int n = 0; n < 2000; n++) {
+                        recorder.record(session, CaptureFrame.Direction.CLIENT_TO_SERVER, PING);
+                    }
+                });
+                producers[i].start();
+            }
+            recorder.close();
+            for (Thread producer : producers) {
+                producer.join();
+            }
+            
+            // Every frame counted as recorded must be in the file
+            assertEquals(recorder.getRecordedCount(), CaptureReader.readAll(file).size());
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+    
+    @Test
+    void testTruncatedFrameEndsCapture() throws IOException {
+        Path file = Files.createTempFile("capture", ".mcpcap");
+        try {
+            try (TrafficRecorder recorder = TrafficRecorder.open(file)) {
+                recorder.record("s1", CaptureFrame.Direction.CLIENT_TO_SERVER, INITIALIZE);
+                recorder.record("s1", CaptureFrame.Direction.CLIENT_TO_SERVER, PING);
+            }
+            byte[] bytes = Files.readAllBytes(file);
+            Files.write(file, Arrays.copyOf(bytes, bytes.length - 5));
+            
+            List<CaptureFrame> frames = CaptureReader.readAll(file);
+            
+            assertEquals(1, frames.size());
+            assertEquals(INITIALIZE, frames.get(0).payload());
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+    
+    @Test
+    void testRejectsOtherFiles() throws IOException {
+        Path file = Files.createTempFile("capture", ".txt");
+        try {
+            Files.writeString(file, "not a capture file at all");
+            assertThrows(IOException.class, () -> new CaptureReader(file));
+            assertThrows(IOException.class, () -> TrafficRecorder.open(file));
+            assertEquals("not a capture file at all", Files.readString(file));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+    
+    @Test
+    void testReplayAgainstEchoServer() throws Exception {
+        List<CaptureFrame> frames = List.of(
+            new CaptureFrame(0, "s1", CaptureFrame.Direction.CLIENT_TO_SERVER, INITIALIZE),
+            new CaptureFrame(1_000, "s1", CaptureFrame.Direction.SERVER_TO_CLIENT, INITIALIZE),
+            new CaptureFrame(2_000, "s1", CaptureFrame.Direction.CLIENT_TO_SERVER, PING),
+            new CaptureFrame(3_000, "s1", CaptureFrame.Direction.SERVER_TO_CLIENT, PING),
+            new CaptureFrame(2_500, "s2", CaptureFrame.Direction.CLIENT_TO_SERVER, PING),
+            new CaptureFrame(3_500, "s2", CaptureFrame.Direction.SERVER_TO_CLIENT, PING));
+        
+        try (ServerSocket server = new ServerSocket(0)) {
+            Thread acceptor = new Thread(() -> echo(server));
+            acceptor.setDaemon(true);
+            acceptor.start();
+            
+            TrafficReplayer.ReplayResult result = TrafficReplayer.builder()
+                .port(server.getLocalPort())
+                .speed(0)
+                .copies(3)
+                .drainTimeout(Duration.ofSeconds(5))
+                .build()
+                .replay(frames);
+            
+            assertEquals(6, result.sessions());
+            assertEquals(0, result.failedSessions());
+            assertEquals(9, result.linesSent());
+            assertEquals(9, result.linesExpected());
+            assertEquals(9, result.linesReceived());
+        }
+    }
+    
+    @Test
+    void testInitializeDetection() {
+        assertTrue(TrafficReplayer.isInitialize(INITIALIZE));
+        assertTrue(TrafficReplayer.isInitialize("{\"method\" : \"initialize\"}"));
+        assertFalse(TrafficReplayer.isInitialize(PING));
+    }
+    
+    private static void echo(ServerSocket server) {
+        while (!server.isClosed()) {
+            try {
+                Socket socket = server.accept();
+                Thread handler = new Thread(() -> {
+                    try (socket;
+                         BufferedReader in = new BufferedReader(
+                             new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8))) {
+                        OutputStream out = socket.getOutputStream();
+                        PrintWriter writer = new PrintWriter(out, true, StandardCharsets.UTF_8);
+                        String line;
+                        while ((line = in.readLine()) != null) {
+                            writer.println(line);
+                        }
+                    } catch (IOException e) {
+                        // Client went away
+                    }
+                });
+                handler.setDaemon(true);
+                handler.start();
+            } catch (IOException e) {
+                return;
+            }
+        }
+    }
+}
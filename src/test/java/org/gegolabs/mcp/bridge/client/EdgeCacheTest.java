@@ -0,0 +1,166 @@
+package org.gegolabs.mcp.bridge.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EdgeCacheTest {
+    
+    private static final String ENDPOINT = "server:3000";
+    private static final String INITIALIZE = "{\"jsonrpc\":\"2.0\",\"id\":0,\"method\":\"initialize\","
+        + "\"params\":{\"protocolVersion\":\"2024-11-05\"}}";
+    private static final String TOOLS_LIST = "{\"jsonrpc\":\"2.0\",\"id\":1,\"method\":\"tools/list\"}";
+    
+    @TempDir
+    Path dir;
+    
+    private final List<String> toClient = new ArrayList<>();
+    private final List<String> toServer = new ArrayList<>();
+    
+    private static String initialized(String version) {
+        return "{\"jsonrpc\":\"2.0\",\"id\":0,\"result\":{\"protocolVersion\":\"2024-11-05\","
+            + "\"serverInfo\":{\"name\":\"demo\",\"version\":\"" + version + "\"}}}";
+    }
+    
+    private static String tools(Object id, String name) {
+        String quoted = id instanceof String ? "\"" + id + "\"" : String.valueOf(id);
+        return "{\"jsonrpc\":\"2.0\",\"id\":" + quoted + ",\"result\":{\"tools\":[{\"name\":\"" + name + "\"}]}}";
+    }
+    
+    private void exchange(EdgeCacheSession session, String request, String response) {
+        session.fromClient(request, toClient, toServer);
+        if (response != null) {
+            session.fromServer(response, toClient);
+        }
+    }
+    
+    private void clear() {
+        toClient.clear();
+        toServer.clear();
+    }
+    
+    @Test
+    void testFirstSessionFillsCacheAndNextProcessAnswersLocally() {
+        Path file = dir.resolve("cache.json");
+        EdgeCacheSession first = new EdgeCacheSession(EdgeCache.open(file), ENDPOINT);
+        exchange(first, INITIALIZE, initialized("1.0"));
+        exchange(first, TOOLS_LIST, tools(1, "echo"));
+        assertEquals(List.of(INITIALIZE, TOOLS_LIST), toServer);
+        assertEquals(List.of(initialized("1.0"), tools(1, "echo")), toClient);
+        clear();
+        
+        EdgeCache reopened = EdgeCache.open(file);
+        assertEquals(2, reopened.size());
+        EdgeCacheSession second = new EdgeCacheSession(reopened, ENDPOINT);
+        second.fromClient(INITIALIZE, toClient, toServer);
+        second.fromClient(TOOLS_LIST, toClient, toServer);
+        assertEquals(List.of(initialized("1.0"), tools(1, "echo")), toClient);
+        
+        // The handshake still reaches the server and the list is revalidated in the background
+        assertEquals(INITIALIZE, toServer.get(0));
+        assertTrue(toServer.get(1).contains("\"id\":\"mcp-bridge-edge-1\""));
+        second.fromServer(initialized("1.0"), toClient);
+        second.fromServer(tools("mcp-bridge-edge-1", "echo"), toClient);
+        assertEquals(2, toClient.size());
+    }
+    
+    @Test
+    void testNewServerVersionInvalidatesAndNotifies() {
+        EdgeCache cache = EdgeCache.open(dir.resolve("cache.json"));
+        EdgeCacheSession first = new EdgeCacheSession(cache, ENDPOINT);
+        exchange(first, INITIALIZE, initialized("1.0"));
+        exchange(first, TOOLS_LIST, tools(1, "echo"));
+        clear();
+        
+        EdgeCacheSession second = new EdgeCacheSession(cache, ENDPOINT);
+        second.fromClient(INITIALIZE, toClient, toServer);
+        second.fromClient(TOOLS_LIST, toClient, toServer);
+        toClient.clear();
+        second.fromServer(initialized("2.0"), toClient);
+        
+        assertEquals(List.of("{\"jsonrpc\":\"2.0\",\"method\":\"notifications/tools/list_changed\"}"), toClient);
+        assertNull(cache.get(ENDPOINT, "tools/list"));
+        assertNotNull(cache.get(ENDPOINT, "initialize@2024-11-05"));
+        
+        // Listing again goes to the server
+        clear();
+        second.fromClient(TOOLS_LIST.replace("\"id\":1", "\"id\":2"), toClient, toServer);
+        assertTrue(toClient.isEmpty());
+        assertEquals(1, toServer.size());
+    }
+    
+    @Test
+    void testChangedListFromRevalidationNotifies() {
+        EdgeCache cache = EdgeCache.open(dir.resolve("cache.json"));
+        EdgeCacheSession session = new EdgeCacheSession(cache, ENDPOINT);
+        exchange(session, TOOLS_LIST, tools(1, "echo"));
+        clear();
+        
+        session.fromClient(TOOLS_LIST, toClient, toServer);
+        session.fromServer(tools("mcp-bridge-edge-1", "search"), toClient);
+        
+        assertEquals(List.of(tools(1, "echo"), "{\"jsonrpc\":\"2.0\",\"method\":\"notifications/tools/list_changed\"}"),
+            toClient);
+        assertTrue(cache.get(ENDPOINT, "tools/list").toString().contains("search"));
+    }
+    
+    @Test
+    void testListChangedNotificationInvalidates() {
+        EdgeCache cache = EdgeCache.open(dir.resolve("cache.json"));
+        EdgeCacheSession session = new EdgeCacheSession(cache, ENDPOINT);
+        exchange(session, TOOLS_LIST, tools(1, "echo"));
+        
+        String notification = "{\"jsonrpc\":\"2.0\",\"method\":\"notifications/tools/list_changed\"}";
+        session.fromServer(notification, toClient);
+        
+        assertEquals(notification, toClient.get(toClient.size() - 1));
+        assertNull(cache.get(ENDPOINT, "tools/list"));
+        assertEquals(0, EdgeCache.open(dir.resolve("cache.json")).size());
+    }
+    
+    @Test
+    void testOnlyFirstPagesAndHandshakesAreCacheable() {
+        EdgeCacheSession session = new EdgeCacheSession(EdgeCache.open(dir.resolve("cache.json")), ENDPOINT);
+        String paged = "{\"jsonrpc\":\"2.0\",\"id\":3,\"method\":\"tools/list\",\"params\":{\"cursor\":\"abc\"}}";
+        String call = "{\"jsonrpc\":\"2.0\",\"id\":4,\"method\":\"tools/call\",\"params\":{\"name\":\"echo\"}}";
+        
+        exchange(session, paged, tools(3, "page2"));
+        exchange(session, call, "{\"jsonrpc\":\"2.0\",\"id\":4,\"result\":{}}");
+        exchange(session, "not json", "also not json");
+        
+        assertEquals(List.of(paged, call, "not json"), toServer);
+        assertEquals(3, toClient.size());
+        assertEquals(0, EdgeCache.open(dir.resolve("cache.json")).size());
+    }
+    
+    @Test
+    void testProcessesSharingTheFileKeepEachOthersEntries() throws Exception {
+        Path file = dir.resolve("cache.json");
+        // Both processes start before either has saved anything
+        EdgeCache first = EdgeCache.open(file);
+        EdgeCache second = EdgeCache.open(file);
+        ObjectMapper mapper = new ObjectMapper();
+        
+        first.put("one:3000", "tools/list", mapper.readTree("{\"tools\":[]}"));
+        second.put("two:3000", "tools/list", mapper.readTree("{\"tools\":[]}"));
+        second.put("two:3000", "prompts/list", mapper.readTree("{\"prompts\":[]}"));
+        first.put("one:3000", "prompts/list", mapper.readTree("{\"prompts\":[]}"));
+        
+        // Saving also picks up what the other process wrote
+        assertNotNull(first.get("two:3000", "tools/list"));
+        first.invalidate("two:3000", "prompts/list");
+        
+        EdgeCache reopened = EdgeCache.open(file);
+        assertNotNull(reopened.get("one:3000", "tools/list"));
+        assertNotNull(reopened.get("one:3000", "prompts/list"));
+        assertNotNull(reopened.get("two:3000", "tools/list"));
+        assertNull(reopened.get("two:3000", "prompts/list"));
+        assertEquals(3, reopened.size());
+    }
+}
@@ -0,0 +1,144 @@
+package org.gegolabs.mcp.bridge.client;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.SocketTimeoutException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EndpointSelectorTest {
+    
+    @Test
+    void testParseEndpointList() {
+        List<Endpoint> endpoints = Endpoint.parseList("node1:3000, node2:3001,[::1]:3002");
+        
+        assertEquals(3, endpoints.size());
+        assertEquals(new Endpoint("node1", 3000), endpoints.get(0));
+        assertEquals(new Endpoint("node2", 3001), endpoints.get(1));
+        assertEquals(new Endpoint("::1", 3002), endpoints.get(2));
+    }
+    
+    @Test
+    void testParseInvalidEndpoint() {
+        assertThrows(IllegalArgumentException.class, () -> Endpoint.parse("localhost"));
+        assertThrows(IllegalArgumentException.class, () -> Endpoint.parse("localhost:abc"));
+        assertThrows(IllegalArgumentException.class, () -> Endpoint.parse("localhost:0"));
+    }
+    
+    @Test
+    void testStrategyFromString() {
+        assertEquals(EndpointSelector.Strategy.LATENCY, EndpointSelector.Strategy.fromString("latency"));
+        assertEquals(EndpointSelector.Strategy.ROTATION, EndpointSelector.Strategy.fromString("rotation"));
+        assertEquals(EndpointSelector.Strategy.ROTATION, EndpointSelector.Strategy.fromString("least-connections"));
+        assertThrows(IllegalArgumentException.class, () -> EndpointSelector.Strategy.fromString("random"));
+    }
+    
+    @Test
+    void testFailoverToReachableEndpoint() throws IOException {
+        try (ServerSocket live = new ServerSocket(0)) {
+            Endpoint dead = new Endpoint("localhost", unusedPort());
+            Endpoint alive = new Endpoint("localhost", live.getLocalPort());
+            
+            for (EndpointSelector.Strategy strategy : EndpointSelector.Strategy.values()) {
+                EndpointSelector selector = new EndpointSelector(List.of(dead, alive), strategy, 1000, null);
+                
+                try (EndpointSelector.Connection connection = selector.connect()) {
+                    assertEquals(alive, connection.getEndpoint());
+                    assertEquals(1, selector.getActiveConnections(alive));
+                    assertEquals(0, selector.getActiveConnections(dead));
+                }
+                assertEquals(0, selector.getActiveConnections(alive));
+            }
+        }
+    }
+    
+    @Test
+    void testRotationSpreadsSessions() throws IOException {
+        try (ServerSocket first = new ServerSocket(0); ServerSocket second = new ServerSocket(0)) {
+            Endpoint a = new Endpoint("localhost", first.getLocalPort());
+            Endpoint b = new Endpoint("localhost", second.getLocalPort());
+            EndpointSelector selector = new EndpointSelector(List.of(a, b), EndpointSelector.Strategy.ROTATION);
+            
+            try (var c1 = selector.connect(); var c2 = selector.connect()) {
+                assertNotEquals(c1.getEndpoint(), c2.getEndpoint());
+                assertEquals(1, selector.getActiveConnections(a));
+                assertEquals(1, selector.getActiveConnections(b));
+            }
+        }
+    }
+    
+    @Test
+    void testNewSelectorsStartAtDifferentEndpoints() {
+        List<Endpoint> endpoints = List.of(new Endpoint("node1", 3000), new Endpoint("node2", 3000));
+        Set<Endpoint> first = new HashSet<>();
+        
+        // Each stub process builds its own selector; they must not all prefer the same node
+        for (int i = 0; i < 64 && first.size() < 2; i++) {
+            first.add(new EndpointSelector(endpoints, EndpointSelector.Strategy.ROTATION)
+                .rotationOrder().get(0));
+        }
+        assertEquals(2, first.size());
+    }
+    
+    @Test
+    void testLatencyOpensOneConnectionAndRemembersConnectTimes() throws IOException {
+        Path file = Files.createTempFile("latency", ".txt");
+        try (ServerSocket first = new ServerSocket(0); ServerSocket second = new ServerSocket(0)) {
+            Endpoint a = new Endpoint("localhost", first.getLocalPort());
+            Endpoint b = new Endpoint("localhost", second.getLocalPort());
+            Files.writeString(file, b + " 1000000 " + System.currentTimeMillis() + "\n"
+                + a + " 5000000 " + System.currentTimeMillis() + "\n");
+            
+            EndpointSelector selector = new EndpointSelector(List.of(a, b), EndpointSelector.Strategy.LATENCY, 1000, file);
+            try (EndpointSelector.Connection connection = selector.connect()) {
+                assertEquals(b, connection.getEndpoint());
+                
+                // The slower backend saw no connection at all
+                first.setSoTimeout(200);
+                assertThrows(SocketTimeoutException.class, first::accept);
+            }
+            
+            // The new measurement was merged into the shared file for the next process
+            LatencyHistory history = new LatencyHistory(file);
+            assertNotEquals(1000000, history.getNanos(b));
+            assertEquals(5000000, history.getNanos(a));
+        } finally {
+            Files.deleteIfExists(file);
+            Files.deleteIfExists(Path.of(file + ".lock"));
+        }
+    }
+    
+    @Test
+    void testLatencyTriesUnmeasuredEndpointsFirst() {
+        Endpoint a = new Endpoint("node1", 3000);
+        Endpoint b = new Endpoint("node2", 3000);
+        Endpoint c = new Endpoint("node3", 3000);
+        LatencyHistory history = new LatencyHistory(null);
+        history.record(a, 3_000_000);
+        history.record(b, 1_000_000);
+        
+        assertEquals(List.of(c, b, a), history.order(List.of(a, b, c)));
+    }
+    
+    @Test
+    void testAllEndpointsDown() throws IOException {
+        EndpointSelector selector = new EndpointSelector(
+            List.of(new Endpoint("localhost", unusedPort())), EndpointSelector.Strategy.ROTATION, 1000);
+        
+        IOException error = assertThrows(IOException.class, selector::connect);
+        assertEquals(1, error.getSuppressed().length);
+    }
+    
+    private static int unusedPort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
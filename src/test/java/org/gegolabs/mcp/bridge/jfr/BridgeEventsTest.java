@@ -0,0 +1,75 @@
+package org.gegolabs.mcp.bridge.jfr;
+
+import io.modelcontextprotocol.spec.McpSchema;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.gegolabs.mcp.bridge.transport.BridgeTransport;
+import org.gegolabs.mcp.bridge.transport.TransportOptions;
+import org.junit.jupiter.api.Test;
+
+import java.io.PrintWriter;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BridgeEventsTest {
+    
+    @Test
+    void testTransportEmitsEventsWhenEnabled() throws Exception {
+        Path file = Files.createTempFile("bridge", ".jfr");
+        try (Recording recording = new Recording();
+             ServerSocket server = new ServerSocket(0);
+             Socket client = new Socket("localhost", server.getLocalPort());
+             Socket accepted = server.accept()) {
+            recording.enable(FrameReadEvent.class);
+            recording.enable(MessageParsedEvent.class);
+            recording.enable(MessageWrittenEvent.class);
+            recording.start();
+            
+            BridgeTransport transport = new BridgeTransport(accepted, TransportOptions.builder().inlineWrites(true).build());
+            PrintWriter out = new PrintWriter(client.getOutputStream(), true, StandardCharsets.UTF_8);
+            out.println("{\"jsonrpc\":\"2.0\",\"method\":\"tools/list\",\"id\":7}");
+            
+            McpSchema.JSONRPCMessage message = transport.readMessage();
+            assertNotNull(message);
+            transport.sendMessage(new McpSchema.JSONRPCResponse("2.0", 7, Map.of(), null)).block();
+            
+            recording.stop();
+            recording.dump(file);
+            
+            Map<String, List<RecordedEvent>> events = RecordingFile.readAllEvents(file).stream()
+                .collect(Collectors.groupingBy(e -> e.getEventType().getName()));
+            
+            RecordedEvent read = events.get("org.gegolabs.mcp.bridge.FrameRead").get(0);
+            assertEquals(47, read.getLong("size"));
+            
+            RecordedEvent parsed = events.get("org.gegolabs.mcp.bridge.MessageParsed").get(0);
+            assertEquals("request", parsed.getString("messageType"));
+            assertEquals("tools/list", parsed.getString("method"));
+            assertEquals("7", parsed.getString("requestId"));
+            
+            RecordedEvent written = events.get("org.gegolabs.mcp.bridge.MessageWritten").get(0);
+            assertEquals("tools/list", written.getString("method"));
+            assertTrue(written.getLong("size") > 0);
+            
+            transport.closeGracefully().block();
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+    
+    @Test
+    void testEventsAreDisabledByDefault() {
+        assertFalse(new MessageWrittenEvent().isEnabled());
+        assertFalse(new FrameReadEvent().isEnabled());
+        assertFalse(new ConnectionAcceptedEvent().isEnabled());
+    }
+}
@@ -0,0 +1,86 @@
+package org.gegolabs.mcp.bridge.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BridgeMetricsTest {
+    
+    @Test
+    void testSessionCountersRollUp() {
+        BridgeMetrics metrics = new BridgeMetrics();
+        SessionMetrics first = metrics.openSession("client-1");
+        SessionMetrics second = metrics.openSession("client-2");
+        
+        first.addBytesIn(100);
+        second.addBytesIn(50);
+        first.addBytesOut(10);
+        first.writeQueued();
+        
+        assertEquals(2, metrics.getActiveConnections());
+        assertEquals(150, metrics.getBytesIn());
+        assertEquals(10, metrics.getBytesOut());
+        assertEquals(1, metrics.getPendingWrites());
+        
+        first.writeDequeued();
+        first.close();
+        first.close();
+        assertEquals(1, metrics.getActiveConnections());
+        assertEquals(0, metrics.getPendingWrites());
+    }
+    
+    @Test
+    void testMethodAndToolMetrics() {
+        BridgeMetrics metrics = new BridgeMetrics();
+        metrics.method("tools/call").record(2_000_000, false);
+        metrics.method("tools/call").record(4_000_000, true);
+        metrics.tool("echo").record(2_000_000, false);
+        
+        assertSame(metrics.method("tools/call"), metrics.method("tools/call"));
+        assertEquals(2, metrics.method("tools/call").getRequestCount());
+        assertEquals(1, metrics.method("tools/call").getErrorCount());
+        assertEquals(Long.valueOf(2), metrics.getRequestCounts().get("tools/call"));
+        assertEquals(1, metrics.getTools().size());
+    }
+    
+    @Test
+    void testNameCardinalityIsBounded() {
+        BridgeMetrics metrics = new BridgeMetrics();
+        for (int i = 0; i < BridgeMetrics.MAX_NAMES + 10; i++) {
+            metrics.method("method-" + i).record(1, false);
+        }
+        
+        assertEquals(BridgeMetrics.MAX_NAMES + 1, metrics.getMethods().size());
+        assertEquals(10, metrics.method(BridgeMetrics.OTHER).getRequestCount());
+    }
+    
+    @Test
+    void testJmxRegistration() throws Exception {
+        BridgeMetrics metrics = new BridgeMetrics();
+        metrics.method("initialize").record(1_000, false);
+        metrics.registerMBeans("test-bridge");
+        
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName bridge = new ObjectName("org.gegolabs.mcp.bridge:type=Bridge,bridge=\"test-bridge\"");
+        ObjectName method = new ObjectName("org.gegolabs.mcp.bridge:type=Method,bridge=\"test-bridge\",name=\"initialize\"");
+        ObjectName tool = new ObjectName("org.gegolabs.mcp.bridge:type=Tool,bridge=\"test-bridge\",name=\"late\"");
+        
+        try {
+            assertTrue(server.isRegistered(bridge));
+            assertTrue(server.isRegistered(method));
+            assertEquals(1L, server.getAttribute(method, "RequestCount"));
+            
+            metrics.tool("late").record(1_000, false);
+            assertTrue(server.isRegistered(tool));
+        } finally {
+            metrics.unregisterMBeans();
+        }
+        
+        assertFalse(server.isRegistered(bridge));
+        assertFalse(server.isRegistered(tool));
+    }
+}
@@ -0,0 +1,56 @@
+package org.gegolabs.mcp.bridge.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LatencyHistogramTest {
+    
+    @Test
+    void testBucketBoundariesAreContiguous() {
+        for (int i = 0; i < LatencyHistogram.BUCKET_COUNT - 1; i++) {
+            long low = LatencyHistogram.lowestValueInBucket(i);
+            long high = LatencyHistogram.highestValueInBucket(i);
+            
+            assertEquals(i, LatencyHistogram.indexFor(low));
+            assertEquals(i, LatencyHistogram.indexFor(high));
+            assertEquals(high + 1, LatencyHistogram.lowestValueInBucket(i + 1));
+        }
+        assertEquals(LatencyHistogram.BUCKET_COUNT - 1, LatencyHistogram.indexFor(Long.MAX_VALUE));
+    }
+    
+    @Test
+    void testPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long micros = 1; micros <= 1000; micros++) {
+            histogram.record(micros * 1000);
+        }
+        
+        assertEquals(1000, histogram.getCount());
+        assertEquals(1_000_000, histogram.getMaxNanos());
+        assertEquals(500_500, histogram.getMeanNanos(), 1);
+        assertWithinPrecision(500_000, histogram.getValueAtPercentile(50));
+        assertWithinPrecision(990_000, histogram.getValueAtPercentile(99));
+        assertEquals(1_000_000, histogram.getValueAtPercentile(100));
+    }
+    
+    @Test
+    void testEmptyAndReset() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.getValueAtPercentile(99));
+        
+        histogram.record(42);
+        histogram.record(-5);
+        assertEquals(2, histogram.getCount());
+        assertEquals(42, histogram.getValueAtPercentile(100));
+        
+        histogram.reset();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getMaxNanos());
+    }
+    
+    private static void assertWithinPrecision(long expected, long actual) {
+        double error = Math.abs(actual - expected) / (double) expected;
+        assertTrue(error < 0.04, "expected ~" + expected + " but was " + actual);
+    }
+}
@@ -0,0 +1,79 @@
+package org.gegolabs.mcp.bridge.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PrometheusExporterTest {
+    
+    @Test
+    void testScrapeFormat() {
+        BridgeMetrics metrics = new BridgeMetrics();
+        metrics.connectionAccepted();
+        metrics.openSession("client-1").addBytesIn(42);
+        metrics.method("tools/call").record(2_000_000, false);
+        metrics.method("tools/call").record(300_000_000, true);
+        metrics.tool("say \"hi\"").record(1_000_000, false);
+        
+        String body = new PrometheusExporter(metrics).scrape();
+        
+        assertTrue(body.contains("# TYPE mcp_bridge_connections_active gauge\nmcp_bridge_connections_active 1\n"));
+        assertTrue(body.contains("mcp_bridge_connections_accepted_total 1\n"));
+        assertTrue(body.contains("mcp_bridge_received_bytes_total 42\n"));
+        assertTrue(body.contains("mcp_bridge_requests_total{method=\"tools/call\"} 2\n"));
+        assertTrue(body.contains("mcp_bridge_requests_errors_total{method=\"tools/call\"} 1\n"));
+        assertTrue(body.contains("mcp_bridge_requests_duration_seconds_bucket{method=\"tools/call\",le=\"0.001\"} 0\n"));
+        assertTrue(body.contains("mcp_bridge_requests_duration_seconds_bucket{method=\"tools/call\",le=\"0.0025\"} 1\n"));
+        assertTrue(body.contains("mcp_bridge_requests_duration_seconds_bucket{method=\"tools/call\",le=\"0.5\"} 2\n"));
+        assertTrue(body.contains("mcp_bridge_requests_duration_seconds_bucket{method=\"tools/call\",le=\"+Inf\"} 2\n"));
+        assertTrue(body.contains("mcp_bridge_requests_duration_seconds_count{method=\"tools/call\"} 2\n"));
+        assertTrue(body.contains("mcp_bridge_requests_duration_seconds_sum{method=\"tools/call\"} 0.302\n"));
+        assertTrue(body.contains("mcp_bridge_tool_calls_total{tool=\"say \\\"hi\\\"\"} 1\n"));
+    }
+    
+    @Test
+    void testBucketFor() {
+        assertEquals(0, PrometheusExporter.bucketFor(1));
+        assertEquals(0, PrometheusExporter.bucketFor(500_000));
+        assertEquals(1, PrometheusExporter.bucketFor(500_001));
+        assertEquals(PrometheusExporter.BUCKETS_SECONDS.length, PrometheusExporter.bucketFor(Long.MAX_VALUE));
+    }
+    
+    @Test
+    void testHttpEndpoints() throws IOException {
+        BridgeMetrics metrics = new BridgeMetrics();
+        metrics.parseError();
+        AtomicBoolean ready = new AtomicBoolean(true);
+        
+        try (MetricsHttpServer server = MetricsHttpServer.start(
+                new InetSocketAddress("localhost", 0), metrics, ready::get)) {
+            String base = "http://localhost:" + server.getAddress().getPort();
+            
+            HttpURLConnection scrape = (HttpURLConnection) new URL(base + "/metrics").openConnection();
+            assertEquals(200, scrape.getResponseCode());
+            assertTrue(scrape.getContentType().startsWith("text/plain; version=0.0.4"));
+            assertTrue(read(scrape.getInputStream()).contains("mcp_bridge_parse_errors_total 1\n"));
+            
+            HttpURLConnection readiness = (HttpURLConnection) new URL(base + "/ready").openConnection();
+            assertEquals(200, readiness.getResponseCode());
+            
+            ready.set(false);
+            HttpURLConnection notReady = (HttpURLConnection) new URL(base + "/ready").openConnection();
+            assertEquals(503, notReady.getResponseCode());
+        }
+    }
+    
+    private static String read(InputStream in) throws IOException {
+        try (in) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
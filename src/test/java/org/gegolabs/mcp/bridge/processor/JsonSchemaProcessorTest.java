@@ -0,0 +1,168 @@
+package org.gegolabs.mcp.bridge.processor;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.gegolabs.mcp.bridge.utils.JsonSchemaUtils;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonSchemaProcessorTest {
+    
+    private static final ObjectMapper mapper = new ObjectMapper();
+    
+    private static final String SOURCE = """
+        package sample;
+        
+        import org.gegolabs.mcp.bridge.utils.JsonSchemaUtils.Description;
+        import org.gegolabs.mcp.bridge.utils.JsonSchemaUtils.GenerateSchema;
+        import org.gegolabs.mcp.bridge.utils.JsonSchemaUtils.Required;
+        import java.time.Instant;
+        import java.util.*;
+        
+        public class Tools {
+            public enum Mode { FAST, THOROUGH }
+            
+            public static class Base {
+                private String requestId;
+                private static int counter;
+            }
+            
+            public record Range(@Required @Description("Lower bound") int from, Integer to) {
+            }
+            
+            public static class Node {
+                private String label;
+                private List<Node> children;
+            }
+            
+            @GenerateSchema
+            public static class SearchArgs extends Base {
+                @Required
+                @Description("Text to search for, with \\"quotes\\"")
+                private String query;
+                private transient String cached;
+                private Mode mode;
+                private Optional<Range> range;
+                private Map<String, Double> weights;
+                private Map<String, Object> extra;
+                private Set<Instant> since;
+                private long[] ids;
+                private Node tree;
+                private java.util.UUID session_id;
+                private com.fasterxml.jackson.databind.JsonNode raw;
+            }
+            
+            @GenerateSchema
+            public record Empty() {
+            }
+        }
+        """;
+    
+    @Test
+    void testGeneratedSchemaMatchesReflection(@TempDir Path dir) throws Exception {
+        ClassLoader loader = compile(dir);
+        
+        for (String name : List.of("sample.Tools$SearchArgs", "sample.Tools$Empty")) {
+            Class<?> holder = loader.loadClass(JsonSchemaUtils.generatedSchemaClassName(loader.loadClass(name)));
+            String json = (String) holder.getField(JsonSchemaUtils.GENERATED_FIELD).get(null);
+            
+            // Without the generated class the runtime falls back to reflection
+            Files.delete(dir.resolve("classes").resolve(holder.getName().replace('.', '/') + ".class"));
+            Class<?> reflected = classLoader(dir).loadClass(name);
+            
+            assertEquals(mapper.readTree(JsonSchemaUtils.generateJsonSchema(reflected)), mapper.readTree(json));
+        }
+    }
+    
+    @Test
+    void testGeneratedSchemaContent(@TempDir Path dir) throws Exception {
+        ClassLoader loader = compile(dir);
+        Class<?> type = loader.loadClass("sample.Tools$SearchArgs");
+        String json = (String) loader.loadClass("sample.Tools_SearchArgs_JsonSchema")
+            .getField(JsonSchemaUtils.GENERATED_FIELD).get(null);
+        JsonNode schema = mapper.readTree(json);
+        JsonNode properties = schema.get("properties");
+        
+        assertEquals("requestId", properties.fieldNames().next());
+        assertFalse(properties.has("cached"));
+        assertFalse(properties.has("counter"));
+        assertEquals("Text to search for, with \"quotes\"", properties.get("query").get("description").asText());
+        assertEquals("[\"query\"]", schema.get("required").toString());
+        assertEquals("[\"from\"]", properties.get("range").get("required").toString());
+        assertEquals("THOROUGH", properties.get("mode").get("enum").get(1).asText());
+        assertEquals("Lower bound", properties.get("range").get("properties").get("from").get("description").asText());
+        assertEquals("number", properties.get("weights").get("additionalProperties").get("type").asText());
+        assertFalse(properties.get("extra").has("additionalProperties"));
+        assertEquals("date-time", properties.get("since").get("items").get("format").asText());
+        assertEquals("integer", properties.get("ids").get("items").get("type").asText());
+        assertEquals("uuid", properties.get("sessionId").get("format").asText());
+        assertTrue(properties.get("raw").isEmpty());
+        assertEquals("#/$defs/Node",
+            properties.get("tree").get("properties").get("children").get("items").get("$ref").asText());
+        assertTrue(schema.get("$defs").has("Node"));
+        
+        // The runtime reads the compiled schema instead of reflecting
+        assertEquals(mapper.readTree(json), mapper.readTree(JsonSchemaUtils.generateJsonSchema(type)));
+    }
+    
+    @Test
+    void testRejectsInterfaces(@TempDir Path dir) throws Exception {
+        Path source = dir.resolve("src/sample/Bad.java");
+        Files.createDirectories(source.getParent());
+        Files.writeString(source, """
+            package sample;
+            
+            @org.gegolabs.mcp.bridge.utils.JsonSchemaUtils.GenerateSchema
+            public interface Bad {
+            }
+            """);
+        
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        assertFalse(run(dir, source, diagnostics));
+        assertTrue(diagnostics.getDiagnostics().stream()
+            .anyMatch(d -> d.getMessage(null).contains("@GenerateSchema")));
+    }
+    
+    private static ClassLoader compile(Path dir) throws Exception {
+        Path source = dir.resolve("src/sample/Tools.java");
+        Files.createDirectories(source.getParent());
+        Files.writeString(source, SOURCE);
+        
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        assertTrue(run(dir, source, diagnostics), () -> diagnostics.getDiagnostics().toString());
+        return classLoader(dir);
+    }
+    
+    private static ClassLoader classLoader(Path dir) throws Exception {
+        return new URLClassLoader(new URL[] {dir.resolve("classes").toUri().toURL()},
+            JsonSchemaProcessorTest.class.getClassLoader());
+    }
+    
+    private static boolean run(Path dir, Path source, DiagnosticCollector<JavaFileObject> diagnostics) throws Exception {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        Path classes = Files.createDirectories(dir.resolve("classes"));
+        Path generated = Files.createDirectories(dir.resolve("generated"));
+        try (StandardJavaFileManager files = compiler.getStandardFileManager(diagnostics, null, StandardCharsets.UTF_8)) {
+            JavaCompiler.CompilationTask task = compiler.getTask(null, files, diagnostics,
+                List.of("-d", classes.toString(), "-s", generated.toString(),
+                    "-classpath", System.getProperty("java.class.path")),
+                null, files.getJavaFileObjects(source));
+            task.setProcessors(List.of(new JsonSchemaProcessor()));
+            return task.call();
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package org.gegolabs.mcp.bridge.resources;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.modelcontextprotocol.spec.McpSchema;
+import org.gegolabs.mcp.bridge.tools.StreamingContent;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FileResourceProviderTest {
+    
+    private static final ObjectMapper mapper = new ObjectMapper();
+    
+    @TempDir
+    Path root;
+    
+    private FileResourceProvider provider(long cacheFileBytes, long mapThresholdBytes) {
+        return FileResourceProvider.builder()
+            .root(root)
+            .cacheFileBytes(cacheFileBytes)
+            .mapThresholdBytes(mapThresholdBytes)
+            .build();
+    }
+    
+    private static String uri(Path file) {
+        return file.toUri().toString();
+    }
+    
+    /**
+     * Serializes a result the way the bridge transport does, streaming any placeholders.
+     */
+    private static JsonNode written(McpSchema.ReadResourceResult result) throws Exception {
+        JsonNode tree = mapper.valueToTree(result);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (JsonGenerator generator = mapper.getFactory().createGenerator(out)) {
+            StreamingContent.writeTree(generator, tree);
+        }
+        return mapper.readTree(out.toByteArray()).get("contents").get(0);
+    }
+    
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+        assertTrue(condition.getAsBoolean());
+    }
+    
+    @Test
+    void testListsFilesWithMetadata() throws Exception {
+        Files.createDirectories(root.resolve("guide"));
+        Files.createDirectories(root.resolve(".git"));
+        Files.writeString(root.resolve("guide/intro.md"), "# Intro");
+        Files.writeString(root.resolve("data.json"), "{}");
+        Files.writeString(root.resolve(".git/config"), "hidden");
+        Files.writeString(root.resolve(".env"), "hidden");
+        
+        FileResourceProvider provider = provider(1024, 4096);
+        List<String> names = provider.specifications().stream()
+            .map(spec -> spec.resource().name() + " " + spec.resource().mimeType())
+            .sorted()
+            .toList();
+        
+        assertEquals(List.of("data.json application/json", "guide/intro.md text/markdown"), names);
+        assertEquals(2, provider.getFileCount());
+        assertEquals("application/octet-stream", FileResourceProvider.mimeType(root.resolve("blob.unknownext")));
+    }
+    
+    @Test
+    void testSmallFilesAreCached() throws Exception {
+        Path text = Files.writeString(root.resolve("notes.txt"), "héllo");
+        byte[] bytes = {0, 1, 2, (byte) 255};
+        Path image = Files.write(root.resolve("pixel.png"), bytes);
+        FileResourceProvider provider = provider(1024, 4096);
+        provider.specifications();
+        
+        var first = (McpSchema.TextResourceContents) provider.read(uri(text)).contents().get(0);
+        var second = (McpSchema.TextResourceContents) provider.read(uri(text)).contents().get(0);
+        assertEquals("héllo", first.text());
+        assertSame(first, second);
+        assertEquals(1, provider.getCacheHits());
+        
+        var blob = (McpSchema.BlobResourceContents) provider.read(uri(image)).contents().get(0);
+        assertArrayEquals(bytes, Base64.getDecoder().decode(blob.blob()));
+        assertEquals("image/png", blob.mimeType());
+        assertTrue(provider.getCachedBytes() > 0);
+        
+        // Without a watcher, reads notice the change through the modification time
+        Files.writeString(text, "changed and longer");
+        var changed = (McpSchema.TextResourceContents) provider.read(uri(text)).contents().get(0);
+        assertEquals("changed and longer", changed.text());
+        
+        Files.delete(image);
+        assertThrows(IllegalArgumentException.class, () -> provider.read(uri(image)));
+        assertThrows(IllegalArgumentException.class, () -> provider.read("file:///not/served"));
+    }
+    
+    @Test
+    void testConcurrentReadsCountCachedBytesOnce() throws Exception {
+        Path text = Files.writeString(root.resolve("shared.txt"), "shared contents");
+        FileResourceProvider provider = provider(1024, 4096);
+        provider.specifications();
+        ExecutorService readers = Executors.newFixedThreadPool(8);
+        try {
+            for (String contents : List.of("shared contents", "rewritten, and longer than before")) {
+                Files.writeString(text, contents);
+                CyclicBarrier start = new CyclicBarrier(8);
+                List<Future<McpSchema.ReadResourceResult>> reads = new ArrayList<>();
+                for (int i = 0; i < 8; i++) {
+                    reads.add(readers.submit(() -> {
+                        start.await();
+                        return provider.read(uri(text));
+                    }));
+                }
+                for (Future<McpSchema.ReadResourceResult> read : reads) {
+                    var result = (McpSchema.TextResourceContents) read.get(10, TimeUnit.SECONDS).contents().get(0);
+                    assertEquals(contents, result.text());
+                }
+                
+                // Only the file's current version is counted, and only once
+                assertEquals(2L * Files.size(text), provider.getCachedBytes());
+            }
+        } finally {
+            readers.shutdownNow();
+        }
+    }
+    
+    @Test
+    void testLargeFilesAreStreamed() throws Exception {
+        String text = "line of text\n".repeat(1000);
+        byte[] data = new byte[20_000];
+        new Random(1).nextBytes(data);
+        Path channelText = Files.writeString(root.resolve("medium.txt"), text);
+        Path mappedBlob = Files.write(root.resolve("large.bin"), data);
+        FileResourceProvider provider = provider(1024, 16_000);
+        provider.specifications();
+        
+        McpSchema.ReadResourceResult textResult = provider.read(uri(channelText));
+        assertTrue(StreamingContent.containsPlaceholder(mapper.valueToTree(textResult)));
+        assertEquals(text, written(textResult).get("text").asText());
+        
+        JsonNode blob = written(provider.read(uri(mappedBlob)));
+        assertArrayEquals(data, Base64.getDecoder().decode(blob.get("blob").asText()));
+        assertEquals(0, provider.getCachedBytes());
+    }
+    
+    @Test
+    void testWatcherTracksChanges() throws Exception {
+        Path file = Files.writeString(root.resolve("a.txt"), "one");
+        try (FileResourceProvider provider = provider(1024, 4096)) {
+            provider.specifications();
+            provider.watch();
+            assertEquals("one", ((McpSchema.TextResourceContents) provider.read(uri(file)).contents().get(0)).text());
+            
+            Files.writeString(file, "two");
+            await(() -> readQuietly(provider, file).equals("two"));
+            
+            Files.createDirectories(root.resolve("sub"));
+            Path created = Files.writeString(root.resolve("sub/b.md"), "new");
+            await(() -> readQuietly(provider, created).equals("new"));
+            
+            Files.delete(file);
+            await(() -> provider.getFileCount() == 1);
+        }
+    }
+    
+    @Test
+    void testSymbolicLinksAreNotFollowed(@TempDir Path outside) throws Exception {
+        Path secret = Files.writeString(outside.resolve("secret.txt"), "secret");
+        Path file = Files.writeString(root.resolve("a.txt"), "one");
+        
+        // A served file replaced by a link stops being served
+        FileResourceProvider unwatched = provider(1024, 4096);
+        unwatched.specifications();
+        Files.delete(file);
+        Files.createSymbolicLink(file, secret);
+        assertThrows(IllegalArgumentException.class, () -> unwatched.read(uri(file)));
+        
+        // A link created while watching is never served
+        Files.delete(file);
+        try (FileResourceProvider provider = provider(1024, 4096)) {
+            provider.specifications();
+            provider.watch();
+            Path link = Files.createSymbolicLink(root.resolve("link.txt"), secret);
+            Path marker = Files.writeString(root.resolve("marker.txt"), "marker");
+            await(() -> readQuietly(provider, marker).equals("marker"));
+            
+            assertEquals("", readQuietly(provider, link));
+            assertEquals(1, provider.getFileCount());
+        }
+    }
+    
+    private static String readQuietly(FileResourceProvider provider, Path file) {
+        try {
+            return ((McpSchema.TextResourceContents) provider.read(uri(file)).contents().get(0)).text();
+        } catch (Exception e) {
+            return "";
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package org.gegolabs.mcp.bridge.store;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MappedLogStoreTest {
+    
+    @TempDir
+    Path dir;
+    
+    private static StoreOptions options(int segmentBytes) {
+        return StoreOptions.builder()
+            .segmentBytes(segmentBytes)
+            .syncInterval(Duration.ZERO)
+            .compactionInterval(Duration.ZERO)
+            .build();
+    }
+    
+    private static List<Path> segments(Path dir) throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(p -> p.getFileName().toString().startsWith("segment-")).sorted().toList();
+        }
+    }
+    
+    @Test
+    void testPutGetDeleteAndReopen() throws Exception {
+        try (MappedLogStore store = MappedLogStore.open(dir, options(4096))) {
+            store.putString("kv/a", "1");
+            store.putString("kv/b", "2");
+            store.putString("kv/a", "one");
+            store.putString("todo/1", "x");
+            assertTrue(store.delete("kv/b"));
+            assertFalse(store.delete("kv/missing"));
+            
+            assertEquals("one", store.getString("kv/a"));
+            assertNull(store.getString("kv/b"));
+            assertEquals(List.of("kv/a"), List.copyOf(store.keys("kv/")));
+        }
+        
+        try (MappedLogStore store = MappedLogStore.open(dir, options(4096))) {
+            assertEquals(2, store.size());
+            assertEquals("one", store.getString("kv/a"));
+            assertEquals("x", store.getString("todo/1"));
+            assertFalse(store.containsKey("kv/b"));
+            assertTrue(store.getTotalBytes() > store.getLiveBytes());
+        }
+    }
+    
+    @Test
+    void testRollsSegmentsAndCompacts() throws Exception {
+        try (MappedLogStore store = MappedLogStore.open(dir, options(256))) {
+            for (int i = 0; i < 100; i++) {
+                store.putString("key" + (i % 5), "value " + i);
+            }
+            store.put("large", new byte[1000]);
+            assertTrue(store.getSegmentCount() > 5);
+            long live = store.getLiveBytes();
+            
+            store.compact();
+            assertEquals(live, store.getTotalBytes());
+            assertEquals(live, store.getLiveBytes());
+            assertEquals(store.getSegmentCount(), segments(dir).size());
+            assertTrue(store.getSegmentCount() <= 4);
+            assertEquals("value 99", store.getString("key4"));
+            assertEquals(1000, store.get("large").length);
+            
+            store.putString("after", "compaction");
+        }
+        
+        try (MappedLogStore store = MappedLogStore.open(dir, options(256))) {
+            assertEquals(7, store.size());
+            assertEquals("value 95", store.getString("key0"));
+            assertEquals("compaction", store.getString("after"));
+        }
+    }
+    
+    @Test
+    void testTornRecordIsDiscarded() throws Exception {
+        try (MappedLogStore store = MappedLogStore.open(dir, options(4096))) {
+            store.putString("kept", "yes");
+            store.putString("torn", "no");
+        }
+        
+        // Corrupt the value of the second record, as if the crash hit mid-write
+        Path segment = segments(dir).get(0);
+        int secondRecord = MappedLogStore.HEADER_SIZE + 5 + "kept".length() + "yes".length();
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[] {'X'}), secondRecord + MappedLogStore.HEADER_SIZE + 5 + "torn".length());
+        }
+        
+        try (MappedLogStore store = MappedLogStore.open(dir, options(4096))) {
+            assertEquals("yes", store.getString("kept"));
+            assertNull(store.getString("torn"));
+            store.putString("next", "write");
+        }
+        try (MappedLogStore store = MappedLogStore.open(dir, options(4096))) {
+            assertEquals(2, store.size());
+            assertEquals("write", store.getString("next"));
+        }
+    }
+    
+    @Test
+    void testSnapshotAndExclusiveOpen() throws Exception {
+        Path copy = dir.resolve("snapshot");
+        try (MappedLogStore store = MappedLogStore.open(dir.resolve("live"), options(4096))) {
+            assertThrows(IOException.class, () -> MappedLogStore.open(dir.resolve("live"), options(4096)));
+            
+            store.putString("a", "1");
+            store.putString("b", "2");
+            store.delete("a");
+            store.snapshot(copy);
+            store.putString("c", "3");
+            assertThrows(IOException.class, () -> store.snapshot(copy));
+        }
+        
+        try (MappedLogStore snapshot = MappedLogStore.open(copy, options(4096))) {
+            assertEquals(1, snapshot.size());
+            assertEquals("2", snapshot.getString("b"));
+            assertEquals(snapshot.getLiveBytes(), snapshot.getTotalBytes());
+        }
+    }
+    
+    @Test
+    void testConcurrentReadersAndWriters() throws Exception {
+        try (MappedLogStore store = MappedLogStore.open(dir, options(64 * 1024))) {
+            AtomicReference<Throwable> failure = new AtomicReference<>();
+            List<Thread> threads = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                int writer = t;
+                threads.add(new Thread(() -> {
+                    for (int i = 0; i < 2000; i++) {
+                        store.putString("w" + writer + "/" + (i % 50), Integer.toString(i));
+                        if (i % 500 == 0 && writer == 0) {
+                            try {
+                                store.compact();
+                            } catch (IOException e) {
+                                failure.set(e);
+                            }
+                        }
+                    }
+                }));
+                threads.add(new Thread(() -> {
+                    for (int i = 0; i < 5000; i++) {
+                        String value = store.getString("w" + writer + "/" + (i % 50));
+                        if (value != null && Integer.parseInt(value) % 50 != i % 50) {
+                            failure.set(new AssertionError("Read " + value + " for key " + (i % 50)));
+                        }
+                    }
+                }));
+            }
+            threads.forEach(Thread::start);
+            for (Thread thread : threads) {
+                thread.join();
+            }
+            assertNull(failure.get());
+            
+            Map<String, String> expected = new TreeMap<>();
+            for (int t = 0; t < 4; t++) {
+                for (int i = 1950; i < 2000; i++) {
+                    expected.put("w" + t + "/" + (i % 50), Integer.toString(i));
+                }
+            }
+            Map<String, String> actual = new TreeMap<>();
+            store.forEach("w", (key, value) -> actual.put(key, new String(value)));
+            assertEquals(expected, actual);
+        }
+    }
+}
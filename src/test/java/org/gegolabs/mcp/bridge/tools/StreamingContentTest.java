@@ -0,0 +1,109 @@
+package org.gegolabs.mcp.bridge.tools;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.modelcontextprotocol.spec.McpSchema;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StreamingContentTest {
+    
+    private static final ObjectMapper mapper = new ObjectMapper();
+    
+    private static JsonNode writeThrough(Object result) throws IOException {
+        JsonNode tree = mapper.valueToTree(result);
+        assertTrue(StreamingContent.containsPlaceholder(tree));
+        
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (JsonGenerator generator = mapper.getFactory().createGenerator(out)) {
+            StreamingContent.writeTree(generator, tree);
+        }
+        return mapper.readTree(out.toByteArray());
+    }
+    
+    @Test
+    void testStreamsTextAndBinary(@TempDir Path dir) throws Exception {
+        String text = "line 1\nline \"2\"\té\n".repeat(10_000);
+        byte[] data = new byte[100_000];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) i;
+        }
+        Path file = Files.writeString(dir.resolve("log.txt"), text, StandardCharsets.UTF_8);
+        AtomicLong progress = new AtomicLong();
+        AtomicLong total = new AtomicLong();
+        
+        var result = new McpSchema.CallToolResult(List.of(
+            StreamingContent.text(new StringReader(text)),
+            StreamingContent.text(file, (written, size) -> {
+                progress.set(written);
+                total.set(size);
+            }),
+            StreamingContent.image(new ByteArrayInputStream(data), "image/png"),
+            StreamingContent.blob("file:///data.bin", "application/octet-stream",
+                new ByteArrayInputStream(data), data.length, null),
+            new McpSchema.TextContent("plain")), false);
+        
+        JsonNode written = writeThrough(result);
+        JsonNode content = written.get("content");
+        
+        assertEquals(text, content.get(0).get("text").asText());
+        assertEquals(text, content.get(1).get("text").asText());
+        assertEquals(Files.size(file), progress.get());
+        assertEquals(Files.size(file), total.get());
+        assertArrayEquals(data, Base64.getDecoder().decode(content.get(2).get("data").asText()));
+        assertArrayEquals(data, Base64.getDecoder().decode(content.get(3).get("resource").get("blob").asText()));
+        assertEquals("plain", content.get(4).get("text").asText());
+        assertFalse(written.get("isError").asBoolean());
+        assertEquals(0, StreamingContent.pendingCount());
+    }
+    
+    @Test
+    void testPlaceholdersAreSingleUse() throws Exception {
+        AtomicBoolean closed = new AtomicBoolean();
+        InputStream data = new ByteArrayInputStream(new byte[] {1, 2, 3}) {
+            @Override
+            public void close() {
+                closed.set(true);
+            }
+        };
+        var result = new McpSchema.CallToolResult(List.of(StreamingContent.image(data, "image/png")), false);
+        JsonNode tree = mapper.valueToTree(result);
+        
+        writeThrough(result);
+        assertTrue(closed.get());
+        assertFalse(StreamingContent.containsPlaceholder(tree));
+    }
+    
+    @Test
+    void testDiscardReleasesSource() {
+        AtomicBoolean closed = new AtomicBoolean();
+        var content = StreamingContent.text(new StringReader("unused") {
+            @Override
+            public void close() {
+                closed.set(true);
+            }
+        });
+        assertTrue(StreamingContent.hasPending());
+        
+        StreamingContent.discard(content);
+        assertTrue(closed.get());
+        assertFalse(StreamingContent.containsPlaceholder(mapper.valueToTree(content)));
+        assertFalse(StreamingContent.containsPlaceholder(mapper.valueToTree(new McpSchema.TextContent("plain"))));
+    }
+}
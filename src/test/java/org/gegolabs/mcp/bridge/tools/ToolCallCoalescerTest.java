@@ -0,0 +1,114 @@
+package org.gegolabs.mcp.bridge.tools;
+
+import io.modelcontextprotocol.server.McpAsyncServerExchange;
+import io.modelcontextprotocol.server.McpServerFeatures;
+import io.modelcontextprotocol.spec.McpSchema;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.io.StringReader;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ToolCallCoalescerTest {
+    
+    private final ToolCallCoalescer coalescer = new ToolCallCoalescer();
+    
+    private static McpServerFeatures.AsyncToolSpecification tool(
+            BiFunction<McpAsyncServerExchange, Map<String, Object>, Mono<McpSchema.CallToolResult>> handler) {
+        return new McpServerFeatures.AsyncToolSpecification(
+            new McpSchema.Tool("lookup", "Looks things up", "{\"type\": \"object\"}"), handler);
+    }
+    
+    @Test
+    void testIdenticalConcurrentCallsShareOneExecution() {
+        Sinks.One<McpSchema.CallToolResult> sink = Sinks.one();
+        AtomicInteger invocations = new AtomicInteger();
+        var spec = coalescer.coalesced(tool((exchange, arguments) -> {
+            invocations.incrementAndGet();
+            return sink.asMono();
+        }));
+        
+        List<McpSchema.CallToolResult> results = new CopyOnWriteArrayList<>();
+        spec.call().apply(null, Map.of("id", 1)).subscribe(results::add);
+        spec.call().apply(null, Map.of("id", 1)).subscribe(results::add);
+        spec.call().apply(null, Map.of("id", 2)).subscribe(results::add);
+        
+        assertEquals(2, invocations.get());
+        assertEquals(1, coalescer.getCoalescedCalls());
+        assertEquals(2, coalescer.getInFlight());
+        
+        sink.tryEmitValue(new McpSchema.CallToolResult("found", false));
+        assertEquals(3, results.size());
+        assertEquals(0, coalescer.getInFlight());
+        
+        // Finished calls are not reused
+        spec.call().apply(null, Map.of("id", 1)).subscribe(results::add);
+        assertEquals(3, invocations.get());
+        assertEquals(3, coalescer.getExecutions());
+    }
+    
+    @Test
+    void testCancellationOnlyStopsTheExecutionWhenEveryoneLeft() {
+        AtomicBoolean cancelled = new AtomicBoolean();
+        Sinks.One<McpSchema.CallToolResult> sink = Sinks.one();
+        var spec = coalescer.coalesced(tool((exchange, arguments) ->
+            sink.asMono().doOnCancel(() -> cancelled.set(true))));
+        
+        List<McpSchema.CallToolResult> results = new CopyOnWriteArrayList<>();
+        Disposable first = spec.call().apply(null, Map.of()).subscribe(results::add);
+        spec.call().apply(null, Map.of()).subscribe(results::add);
+        
+        first.dispose();
+        assertFalse(cancelled.get());
+        assertEquals(1, coalescer.getInFlight());
+        
+        sink.tryEmitValue(new McpSchema.CallToolResult("done", false));
+        assertEquals(1, results.size());
+        
+        cancelled.set(false);
+        Sinks.One<McpSchema.CallToolResult> never = Sinks.one();
+        var slow = coalescer.coalesced(tool((exchange, arguments) ->
+            never.asMono().doOnCancel(() -> cancelled.set(true))));
+        Disposable a = slow.call().apply(null, Map.of("q", "x")).subscribe();
+        Disposable b = slow.call().apply(null, Map.of("q", "x")).subscribe();
+        a.dispose();
+        b.dispose();
+        
+        assertTrue(cancelled.get());
+        assertEquals(0, coalescer.getInFlight());
+    }
+    
+    @Test
+    void testStreamedResultsAreNotShared() {
+        Sinks.One<McpSchema.CallToolResult> sink = Sinks.one();
+        AtomicInteger invocations = new AtomicInteger();
+        var spec = coalescer.coalesced(tool((exchange, arguments) -> invocations.incrementAndGet() == 1
+            ? sink.asMono()
+            : Mono.just(new McpSchema.CallToolResult(List.of(StreamingContent.text(new StringReader("b"))), false))));
+        
+        List<McpSchema.CallToolResult> results = new CopyOnWriteArrayList<>();
+        spec.call().apply(null, Map.of()).subscribe(results::add);
+        spec.call().apply(null, Map.of()).subscribe(results::add);
+        assertEquals(1, invocations.get());
+        
+        McpSchema.TextContent first = StreamingContent.text(new StringReader("a"));
+        sink.tryEmitValue(new McpSchema.CallToolResult(List.of(first), false));
+        
+        // The waiter that joined got a fresh execution with its own placeholder
+        assertEquals(2, invocations.get());
+        assertEquals(2, results.size());
+        assertNotEquals(((McpSchema.TextContent) results.get(0).content().get(0)).text(),
+            ((McpSchema.TextContent) results.get(1).content().get(0)).text());
+        assertEquals(2, coalescer.getExecutions());
+        results.forEach(result -> StreamingContent.discard(result.content().get(0)));
+    }
+}
@@ -0,0 +1,152 @@
+package org.gegolabs.mcp.bridge.tools;
+
+import io.modelcontextprotocol.spec.McpSchema;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ToolResultCacheTest {
+    
+    private static final long TTL = Duration.ofSeconds(10).toNanos();
+    
+    private final AtomicLong now = new AtomicLong();
+    
+    private ToolResultCache cache(int maxEntries, long maxWeight) {
+        return ToolResultCache.builder()
+            .maxEntries(maxEntries)
+            .maxWeightBytes(maxWeight)
+            .clock(now::get)
+            .build();
+    }
+    
+    private static McpSchema.CallToolResult result(String text) {
+        return new McpSchema.CallToolResult(text, false);
+    }
+    
+    @Test
+    void testKeysIgnoreArgumentOrder() {
+        Map<String, Object> first = new LinkedHashMap<>();
+        first.put("b", 1);
+        first.put("a", Map.of("y", 2, "x", 3));
+        Map<String, Object> second = new LinkedHashMap<>();
+        second.put("a", Map.of("x", 3, "y", 2));
+        second.put("b", 1);
+        
+        assertEquals(ToolResultCache.key("lookup", first), ToolResultCache.key("lookup", second));
+        assertNotEquals(ToolResultCache.key("lookup", first), ToolResultCache.key("other", first));
+        assertEquals(ToolResultCache.key("lookup", null), ToolResultCache.key("lookup", Map.of()));
+    }
+    
+    @Test
+    void testHitsMissesAndExpiry() {
+        ToolResultCache cache = cache(100, 1 << 20);
+        String key = ToolResultCache.key("lookup", Map.of("id", 1));
+        
+        assertNull(cache.get(key));
+        cache.put(key, "lookup", result("one"), TTL, cache.generation("lookup"));
+        assertEquals("one", ((McpSchema.TextContent) cache.get(key).content().get(0)).text());
+        
+        now.addAndGet(TTL);
+        assertNull(cache.get(key));
+        assertEquals(1, cache.getHits());
+        assertEquals(2, cache.getMisses());
+        assertEquals(1, cache.getExpirations());
+        assertEquals(0, cache.getSize());
+        assertEquals(0, cache.getWeight());
+        assertEquals(1.0 / 3, cache.getHitRatio(), 1e-9);
+    }
+    
+    @Test
+    void testErrorsAreNotCached() {
+        ToolResultCache cache = cache(100, 1 << 20);
+        cache.put("k", "lookup", new McpSchema.CallToolResult("failed", true), TTL, cache.generation("lookup"));
+        
+        assertNull(cache.get("k"));
+    }
+    
+    @Test
+    void testStreamedResultsAreNotCached() {
+        ToolResultCache cache = cache(100, 1 << 20);
+        McpSchema.TextContent streamed = StreamingContent.text(new StringReader("large"));
+        try {
+            cache.put("k", "read", new McpSchema.CallToolResult(List.of(streamed), false), TTL, cache.generation("read"));
+            
+            assertNull(cache.get("k"));
+        } finally {
+            StreamingContent.discard(streamed);
+        }
+    }
+    
+    @Test
+    void testEvictsLeastRecentlyUsed() {
+        ToolResultCache cache = cache(2, 1 << 20);
+        cache.put("a", "t", result("a"), TTL, cache.generation("t"));
+        cache.put("b", "t", result("b"), TTL, cache.generation("t"));
+        cache.get("a");
+        cache.put("c", "t", result("c"), TTL, cache.generation("t"));
+        
+        assertNotNull(cache.get("a"));
+        assertNull(cache.get("b"));
+        assertNotNull(cache.get("c"));
+        assertEquals(1, cache.getEvictions());
+    }
+    
+    @Test
+    void testEvictsByWeight() {
+        long entryWeight = ToolResultCache.weigh("a", result("x".repeat(1000)));
+        ToolResultCache cache = cache(100, entryWeight * 4);
+        for (String key : new String[] {"a", "b", "c", "d", "e"}) {
+            cache.put(key, "t", result("x".repeat(1000)), TTL, cache.generation("t"));
+        }
+        
+        assertEquals(4, cache.getSize());
+        assertEquals(entryWeight * 4, cache.getWeight());
+        assertNull(cache.get("a"));
+        
+        // Too large for a quarter of the budget
+        cache.put("big", "t", result("x".repeat(2000)), TTL, cache.generation("t"));
+        assertNull(cache.get("big"));
+    }
+    
+    @Test
+    void testInvalidation() {
+        ToolResultCache cache = cache(100, 1 << 20);
+        String one = ToolResultCache.key("lookup", Map.of("id", 1));
+        String two = ToolResultCache.key("lookup", Map.of("id", 2));
+        String other = ToolResultCache.key("other", Map.of());
+        cache.put(one, "lookup", result("1"), TTL, cache.generation("lookup"));
+        cache.put(two, "lookup", result("2"), TTL, cache.generation("lookup"));
+        cache.put(other, "other", result("o"), TTL, cache.generation("other"));
+        
+        cache.invalidate("lookup", Map.of("id", 1));
+        assertNull(cache.get(one));
+        assertNotNull(cache.get(two));
+        
+        cache.invalidate("lookup");
+        assertNull(cache.get(two));
+        assertNotNull(cache.get(other));
+        
+        // A result computed before an invalidation of its tool is not stored
+        long generation = cache.generation("lookup");
+        long otherGeneration = cache.generation("other");
+        cache.invalidate("lookup", Map.of("id", 2));
+        cache.put(one, "lookup", result("stale"), TTL, generation);
+        assertNull(cache.get(one));
+        cache.put(other, "other", result("o2"), TTL, otherGeneration);
+        assertEquals("o2", ((McpSchema.TextContent) cache.get(other).content().get(0)).text());
+        
+        generation = cache.generation("lookup");
+        cache.invalidateAll();
+        cache.put(one, "lookup", result("stale"), TTL, generation);
+        assertNull(cache.get(one));
+        assertEquals(0, cache.getSize());
+        assertEquals(0, cache.getWeight());
+    }
+}
@@ -0,0 +1,188 @@
+package org.gegolabs.mcp.bridge.tools;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.scheduler.Scheduler;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ToolSchedulerTest {
+    
+    private final List<Runnable> timeouts = new ArrayList<>();
+    private final List<String> started = new ArrayList<>();
+    private final List<String> rejected = new ArrayList<>();
+    private long sequence;
+    
+    /**
+     * Timer that only runs timeouts when the test fires them.
+     */
+    private final Scheduler timer = new Scheduler() {
+        @Override
+        public Disposable schedule(Runnable task) {
+            task.run();
+            return () -> { };
+        }
+        
+        @Override
+        public Disposable schedule(Runnable task, long delay, TimeUnit unit) {
+            timeouts.add(task);
+            return () -> timeouts.remove(task);
+        }
+        
+        @Override
+        public Worker createWorker() {
+            throw new UnsupportedOperationException();
+        }
+        
+        @Override
+        public void dispose() {
+        }
+    };
+    
+    private ToolScheduler scheduler(int maxConcurrent, int interactiveReserve) {
+        return ToolScheduler.builder()
+            .maxConcurrent(maxConcurrent)
+            .interactiveReserve(interactiveReserve)
+            .timer(timer)
+            .build();
+    }
+    
+    private static ToolBulkhead bulkhead(String name, int maxConcurrent, int maxQueued, ToolScheduler.Priority priority) {
+        return ToolBulkhead.builder()
+            .name(name)
+            .maxConcurrent(maxConcurrent)
+            .maxQueued(maxQueued)
+            .priority(priority)
+            .build();
+    }
+    
+    private ToolScheduler.Call submit(ToolScheduler scheduler, ToolBulkhead bulkhead, String label) {
+        ToolScheduler.Call call = new ToolScheduler.Call(bulkhead, ++sequence,
+            self -> started.add(label), reason -> rejected.add(label + ": " + reason));
+        scheduler.submit(call);
+        return call;
+    }
+    
+    @Test
+    void testBulkheadLimitsAndQueues() {
+        ToolScheduler scheduler = scheduler(10, 0);
+        ToolBulkhead slow = bulkhead("slow", 2, 1, ToolScheduler.Priority.NORMAL);
+        
+        ToolScheduler.Call first = submit(scheduler, slow, "a");
+        submit(scheduler, slow, "b");
+        submit(scheduler, slow, "c");
+        submit(scheduler, slow, "d");
+        
+        assertEquals(List.of("a", "b"), started);
+        assertEquals(List.of("d: too many calls waiting"), rejected);
+        assertEquals(2, slow.getActive());
+        assertEquals(1, slow.getQueued());
+        assertEquals(1.0, slow.getUtilization());
+        
+        scheduler.release(first);
+        assertEquals(List.of("a", "b", "c"), started);
+        assertEquals(0, slow.getQueued());
+        assertEquals(3, slow.getStarted());
+        assertEquals(1, slow.getRejected());
+        assertEquals(1, scheduler.getRejected());
+        assertTrue(timeouts.isEmpty());
+        
+        scheduler.release(first);
+        assertEquals(2, scheduler.getRunning());
+    }
+    
+    @Test
+    void testQueueWaitCountsCallsThatStartAtOnce() throws InterruptedException {
+        ToolScheduler scheduler = scheduler(10, 0);
+        ToolBulkhead tool = bulkhead("tool", 1, 1, ToolScheduler.Priority.NORMAL);
+        
+        ToolScheduler.Call first = submit(scheduler, tool, "a");
+        assertEquals(1, tool.queueWait.getCount());
+        assertTrue(tool.queueWait.getMaxNanos() < TimeUnit.MILLISECONDS.toNanos(20));
+        
+        submit(scheduler, tool, "b");
+        Thread.sleep(50);
+        scheduler.release(first);
+        assertEquals(2, tool.queueWait.getCount());
+        assertTrue(tool.queueWait.getMaxNanos() >= TimeUnit.MILLISECONDS.toNanos(50));
+    }
+    
+    @Test
+    void testSlowToolDoesNotBlockOtherTools() {
+        ToolScheduler scheduler = scheduler(10, 0);
+        ToolBulkhead slow = bulkhead("slow", 2, 10, ToolScheduler.Priority.BATCH);
+        ToolBulkhead fast = bulkhead("fast", 2, 10, ToolScheduler.Priority.INTERACTIVE);
+        
+        for (int i = 0; i < 5; i++) {
+            submit(scheduler, slow, "slow" + i);
+        }
+        submit(scheduler, fast, "fast");
+        
+        assertEquals(List.of("slow0", "slow1", "fast"), started);
+        assertEquals(3, scheduler.getQueued());
+    }
+    
+    @Test
+    void testInteractiveCallsStartFirstAndUseTheReserve() {
+        ToolScheduler scheduler = scheduler(3, 1);
+        ToolBulkhead batch = bulkhead("batch", 10, 10, ToolScheduler.Priority.BATCH);
+        ToolBulkhead interactive = bulkhead("interactive", 10, 10, ToolScheduler.Priority.INTERACTIVE);
+        
+        ToolScheduler.Call first = submit(scheduler, batch, "batch0");
+        ToolScheduler.Call second = submit(scheduler, batch, "batch1");
+        submit(scheduler, batch, "batch2");
+        assertEquals(List.of("batch0", "batch1"), started);
+        
+        ToolScheduler.Call reserved = submit(scheduler, interactive, "interactive0");
+        submit(scheduler, interactive, "interactive1");
+        assertEquals(List.of("batch0", "batch1", "interactive0"), started);
+        assertEquals(1.0, scheduler.getUtilization());
+        
+        scheduler.release(first);
+        assertEquals("interactive1", started.get(3));
+        
+        scheduler.release(second);
+        assertEquals(4, started.size());
+        scheduler.release(reserved);
+        assertEquals("batch2", started.get(4));
+    }
+    
+    @Test
+    void testQueueTimeoutRejects() {
+        ToolScheduler scheduler = scheduler(1, 0);
+        ToolBulkhead tool = bulkhead("tool", 1, 5, ToolScheduler.Priority.NORMAL);
+        
+        ToolScheduler.Call running = submit(scheduler, tool, "a");
+        submit(scheduler, tool, "b");
+        assertEquals(1, timeouts.size());
+        
+        timeouts.get(0).run();
+        assertEquals(List.of("b: timed out after 10000 ms waiting to run"), rejected);
+        assertEquals(1, tool.getTimedOut());
+        assertEquals(0, tool.getQueued());
+        
+        scheduler.release(running);
+        assertEquals(List.of("a"), started);
+        assertEquals(0, scheduler.getRunning());
+    }
+    
+    @Test
+    void testCancelledCallsLeaveTheQueue() {
+        ToolScheduler scheduler = scheduler(1, 0);
+        ToolBulkhead tool = bulkhead("tool", 1, 5, ToolScheduler.Priority.NORMAL);
+        
+        ToolScheduler.Call running = submit(scheduler, tool, "a");
+        ToolScheduler.Call waiting = submit(scheduler, tool, "b");
+        scheduler.cancel(waiting);
+        assertEquals(0, tool.getQueued());
+        assertTrue(timeouts.isEmpty());
+        
+        scheduler.release(running);
+        assertEquals(List.of("a"), started);
+        assertTrue(rejected.isEmpty());
+    }
+}
@@ -0,0 +1,68 @@
+package org.gegolabs.mcp.bridge.tracing;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequestTracerTest {
+    
+    @Test
+    void testStageBreakdown() {
+        RequestTrace trace = new RequestTrace(7, "tools/call", "search", 1_000, 2_000);
+        
+        assertEquals(1_000, trace.getStageNanos(RequestTrace.Stage.PARSE));
+        assertEquals(0, trace.getStageNanos(RequestTrace.Stage.FLUSH));
+        
+        trace.markDispatched();
+        trace.markHandled();
+        trace.markSerialized();
+        trace.markFlushed();
+        
+        for (RequestTrace.Stage stage : RequestTrace.Stage.values()) {
+            assertTrue(trace.getStageNanos(stage) >= 0);
+        }
+        assertTrue(trace.toString().contains("tool=search"));
+        assertTrue(trace.toString().contains("handler="));
+    }
+    
+    @Test
+    void testSlowRequestsAreReported() {
+        List<RequestTrace> reported = new ArrayList<>();
+        RequestTracer tracer = RequestTracer.builder()
+            .slowThreshold(Duration.ofMillis(10))
+            .listener(reported::add)
+            .build();
+        
+        long now = System.nanoTime();
+        RequestTrace fast = new RequestTrace(1, "ping", null, now, now);
+        fast.markFlushed();
+        RequestTrace slow = new RequestTrace(2, "tools/call", "report", now - Duration.ofSeconds(1).toNanos(), now);
+        slow.markFlushed();
+        
+        tracer.complete(fast);
+        tracer.complete(slow);
+        
+        assertEquals(List.of(slow), reported);
+    }
+    
+    @Test
+    void testSampling() {
+        List<RequestTrace> reported = new ArrayList<>();
+        RequestTracer tracer = RequestTracer.builder()
+            .sampleRate(1.0)
+            .listener(reported::add)
+            .build();
+        
+        RequestTrace trace = new RequestTrace(1, "ping", null, System.nanoTime(), System.nanoTime());
+        trace.markFlushed();
+        tracer.complete(trace);
+        
+        assertTrue(tracer.isEnabled());
+        assertEquals(1, reported.size());
+        assertFalse(RequestTracer.disabled().isEnabled());
+    }
+}
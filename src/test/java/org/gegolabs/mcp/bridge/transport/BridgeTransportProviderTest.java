@@ -1,15 +1,27 @@
 package org.gegolabs.mcp.bridge.transport;
 
+import io.modelcontextprotocol.spec.McpSchema;
+import io.modelcontextprotocol.spec.McpServerSession;
 import io.modelcontextprotocol.spec.McpServerTransport;
+import org.gegolabs.mcp.bridge.metrics.BridgeMetrics;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.Timeout;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 import reactor.test.StepVerifier;
 
 import java.io.IOException;
+import java.net.ServerSocket;
 import java.net.Socket;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
 
 class BridgeTransportProviderTest {
     
@@ -61,4 +73,136 @@ class BridgeTransportProviderTest {
         assertNotNull(provider);
         provider.close();
     }
-}
\ No newline at end of file
+    
+    @Test
+    void testRouteNamesMustBeValidAndUnique() {
+        BridgeTransportProvider provider = BridgeTransportProvider.builder()
+            .port(0)
+            .build();
+        
+        assertNotNull(provider.route("search"));
+        assertNotNull(provider.route("files"));
+        assertThrows(IllegalArgumentException.class, () -> provider.route("search"));
+        assertThrows(IllegalArgumentException.class, () -> provider.route("two words"));
+        provider.close();
+    }
+    
+    @Test
+    void testHttpOriginsAreChecked() {
+        Set<String> allowed = Set.of("https://app.example.com");
+        
+        assertTrue(BridgeTransportProvider.isAllowedOrigin(null, allowed));
+        assertTrue(BridgeTransportProvider.isAllowedOrigin("https://app.example.com", allowed));
+        assertTrue(BridgeTransportProvider.isAllowedOrigin("http://localhost:5173", allowed));
+        assertTrue(BridgeTransportProvider.isAllowedOrigin("http://127.0.0.1", allowed));
+        assertTrue(BridgeTransportProvider.isAllowedOrigin("http://[::1]:8080", allowed));
+        
+        // A rebinding attack keeps the attacker's origin even when its name resolves to loopback
+        assertFalse(BridgeTransportProvider.isAllowedOrigin("http://evil.example.com:8080", allowed));
+        assertFalse(BridgeTransportProvider.isAllowedOrigin("http://127.0.0.1.evil.example.com", allowed));
+        assertFalse(BridgeTransportProvider.isAllowedOrigin("null", allowed));
+    }
+    
+    @Test
+    @Timeout(value = 10, unit = TimeUnit.SECONDS)
+    void testConnectionLimitHoldsUnderBurst() throws Exception {
+        int port;
+        try (ServerSocket probe = new ServerSocket(0)) {
+            port = probe.getLocalPort();
+        }
+        BridgeTransportProvider provider = BridgeTransportProvider.builder()
+            .host("127.0.0.1")
+            .port(port)
+            .maxConnections(2)
+            .build();
+        provider.setSessionFactory(transport -> mock(McpServerSession.class));
+        
+        List<Socket> sockets = new ArrayList<>();
+        try {
+            // Sessions start later on other threads, so the limit must hold at accept time
+            for (int i = 0; i < 6; i++) {
+                sockets.add(new Socket("127.0.0.1", port));
+            }
+            BridgeMetrics metrics = provider.getMetrics();
+            while (metrics.getAcceptedConnections() + metrics.getRejectedConnections() < 6) {
+                Thread.sleep(10);
+            }
+            assertEquals(2, metrics.getAcceptedConnections());
+            assertEquals(4, metrics.getRejectedConnections());
+        } finally {
+            for (Socket socket : sockets) {
+                socket.close();
+            }
+            provider.close();
+        }
+    }
+    
+    @Test
+    @Timeout(value = 10, unit = TimeUnit.SECONDS)
+    void testSilentConnectionIsClosedAndFreesItsSlot() throws Exception {
+        int port;
+        try (ServerSocket probe = new ServerSocket(0)) {
+            port = probe.getLocalPort();
+        }
+        BridgeTransportProvider provider = BridgeTransportProvider.builder()
+            .host("127.0.0.1")
+            .port(port)
+            .maxConnections(1)
+            .preambleTimeout(Duration.ofMillis(200))
+            .build();
+        provider.setSessionFactory(transport -> mock(McpServerSession.class));
+        
+        try (Socket silent = new Socket("127.0.0.1", port)) {
+            // The server gives up on the preamble and closes the connection
+            assertEquals(-1, silent.getInputStream().read());
+            
+            try (Socket next = new Socket("127.0.0.1", port)) {
+                BridgeMetrics metrics = provider.getMetrics();
+                while (metrics.getAcceptedConnections() + metrics.getRejectedConnections() < 2) {
+                    Thread.sleep(10);
+                }
+                assertEquals(2, metrics.getAcceptedConnections());
+                assertEquals(0, metrics.getRejectedConnections());
+            }
+        } finally {
+            provider.close();
+        }
+    }
+    
+    @Test
+    @Timeout(value = 10, unit = TimeUnit.SECONDS)
+    void testParallelDispatchKeepsSessionOrder() throws Exception {
+        int port;
+        try (ServerSocket probe = new ServerSocket(0)) {
+            port = probe.getLocalPort();
+        }
+        BridgeTransportProvider provider = BridgeTransportProvider.builder()
+            .host("127.0.0.1")
+            .port(port)
+            .dispatchScheduler(Schedulers.parallel())
+            .build();
+        List<String> handled = new CopyOnWriteArrayList<>();
+        McpServerSession session = mock(McpServerSession.class);
+        when(session.handle(any())).thenAnswer(invocation -> {
+            handled.add(((McpSchema.JSONRPCNotification) invocation.getArgument(0)).method());
+            return Mono.empty();
+        });
+        provider.setSessionFactory(transport -> session);
+        
+        try (Socket socket = new Socket("127.0.0.1", port)) {
+            BridgeTransport client = new BridgeTransport(socket);
+            List<String> sent = new ArrayList<>();
+            for (int i = 0; i < 500; i++) {
+                sent.add("notifications/test-" + i);
+                client.sendMessage(new McpSchema.JSONRPCNotification(McpSchema.JSONRPC_VERSION, sent.get(i), null))
+                    .block();
+            }
+            while (handled.size() < sent.size()) {
+                Thread.sleep(10);
+            }
+            assertEquals(sent, handled);
+        } finally {
+            provider.close();
+        }
+    }
+}
@@ -2,10 +2,12 @@ package org.gegolabs.mcp.bridge.transport;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.modelcontextprotocol.spec.McpSchema;
+import org.gegolabs.mcp.bridge.metrics.BridgeMetrics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.scheduler.Schedulers;
 import reactor.test.StepVerifier;
 
 import java.io.*;
@@ -68,6 +70,31 @@ class BridgeTransportTest {
         assertTrue(output.contains("\"method\":\"test\""));
     }
     
+    @Test
+    void testInlineSendMessage() throws IOException {
+        var message = new McpSchema.JSONRPCRequest(
+            "2.0",
+            "test",
+            null,
+            "1"
+        );
+        
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        Socket socket = mock(Socket.class);
+        when(socket.getOutputStream()).thenReturn(outputStream);
+        when(socket.getInputStream()).thenReturn(new ByteArrayInputStream("{}".getBytes()));
+        when(socket.getRemoteSocketAddress()).thenReturn(null);
+        
+        BridgeTransport transport = new BridgeTransport(socket, Schedulers.boundedElastic(), true);
+        
+        StepVerifier.create(transport.sendMessage(message))
+            .verifyComplete();
+            
+        String output = outputStream.toString();
+        assertTrue(output.contains("\"method\":\"test\""));
+        assertTrue(output.endsWith("\n"));
+    }
+    
     @Test
     void testCloseConnection() throws IOException {
         transport.close();
@@ -90,4 +117,33 @@ class BridgeTransportTest {
             .expectError(IllegalStateException.class)
             .verify();
     }
-}
\ No newline at end of file
+    
+    @Test
+    void testOversizedFrameIsRejectedAndConnectionStaysOpen() throws IOException {
+        String large = "{\"jsonrpc\":\"2.0\",\"id\":42,\"method\":\"tools/call\",\"params\":{\"data\":\""
+            + "x".repeat(10_000) + "\"}}";
+        String next = "{\"jsonrpc\":\"2.0\",\"id\":43,\"method\":\"ping\"}";
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        Socket socket = mock(Socket.class);
+        when(socket.getOutputStream()).thenReturn(outputStream);
+        when(socket.getInputStream()).thenReturn(new ByteArrayInputStream((large + "\n" + next + "\n").getBytes()));
+        when(socket.getRemoteSocketAddress()).thenReturn(null);
+        BridgeMetrics metrics = new BridgeMetrics();
+        
+        BridgeTransport transport = new BridgeTransport(socket, TransportOptions.builder()
+            .inlineWrites(true)
+            .metrics(metrics)
+            .maxFrameBytes(4096)
+            .build());
+        
+        assertNull(transport.readMessage());
+        assertEquals(1, metrics.getOversizedFrames());
+        var error = objectMapper.readTree(outputStream.toString());
+        assertEquals(42, error.get("id").asInt());
+        assertEquals(McpSchema.ErrorCodes.INVALID_REQUEST, error.get("error").get("code").asInt());
+        assertEquals(4096, error.get("error").get("data").get("maxFrameBytes").asInt());
+        
+        var request = (McpSchema.JSONRPCRequest) transport.readMessage();
+        assertEquals("ping", request.method());
+    }
+}
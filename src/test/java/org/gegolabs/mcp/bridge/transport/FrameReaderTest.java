@@ -0,0 +1,114 @@
+package org.gegolabs.mcp.bridge.transport;
+
+import org.gegolabs.mcp.bridge.buffer.BufferPool;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FrameReaderTest {
+    
+    private static FrameReader reader(String input, int maxFrameBytes) {
+        return new FrameReader(new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)), maxFrameBytes);
+    }
+    
+    @Test
+    void testReadsLines() throws IOException {
+        FrameReader reader = reader("first\r\n\nsecond ü\nlast", 64);
+        
+        assertEquals("first", reader.next().text());
+        assertEquals("", reader.next().text());
+        FrameReader.Frame second = reader.next();
+        assertEquals("second ü", second.text());
+        assertEquals(9, second.size());
+        assertEquals("last", reader.next().text());
+        assertNull(reader.next());
+    }
+    
+    @Test
+    void testOversizedFrameIsSkipped() throws IOException {
+        String large = "{\"id\":7,\"params\":\"" + "x".repeat(50_000) + "\"}";
+        FrameReader reader = reader("ok\n" + large + "\n{\"id\":8}\n", 1000);
+        
+        assertEquals("ok", reader.next().text());
+        FrameReader.Frame frame = reader.next();
+        assertTrue(frame.oversized());
+        assertEquals(large.length(), frame.size());
+        assertEquals(FrameReader.PREFIX_BYTES, frame.prefix().length);
+        assertEquals(large.substring(0, FrameReader.PREFIX_BYTES), new String(frame.prefix(), StandardCharsets.US_ASCII));
+        assertEquals("{\"id\":8}", reader.next().text());
+        assertNull(reader.next());
+    }
+    
+    @Test
+    void testOversizedFrameIsNotBuffered() throws IOException {
+        // Endless line: reading must not run out of memory, only the counter grows
+        InputStream endless = new InputStream() {
+            long remaining = 256L * 1024 * 1024;
+            
+            @Override
+            public int read() {
+                throw new UnsupportedOperationException();
+            }
+            
+            @Override
+            public int read(byte[] b, int off, int len) {
+                if (remaining < 0) {
+                    return -1;
+                }
+                if (remaining == 0) {
+                    b[off] = '\n';
+                    remaining = -1;
+                    return 1;
+                }
+                int n = (int) Math.min(len, remaining);
+                Arrays.fill(b, off, off + n, (byte) 'x');
+                remaining -= n;
+                return n;
+            }
+        };
+        FrameReader reader = new FrameReader(endless, 4096);
+        
+        FrameReader.Frame frame = reader.next();
+        assertTrue(frame.oversized());
+        assertEquals(256L * 1024 * 1024, frame.size());
+        assertNull(reader.next());
+    }
+    
+    @Test
+    void testBuffersReturnToPool() throws IOException {
+        BufferPool pool = BufferPool.builder().build();
+        String large = "y".repeat(200_000);
+        FrameReader reader = new FrameReader(
+            new ByteArrayInputStream((large + "\nsmall\n").getBytes(StandardCharsets.UTF_8)), 1 << 20, pool);
+        
+        assertEquals(large, reader.next().text());
+        assertEquals("small", reader.next().text());
+        assertEquals(2, pool.getOutstanding());
+        
+        reader.close();
+        assertEquals(0, pool.getOutstanding());
+        assertThrows(EOFException.class, reader::next);
+    }
+    
+    @Test
+    void testRecoversIdOfRequestsOnly() {
+        assertEquals(7, BridgeTransport.recoverId(bytes("{\"jsonrpc\":\"2.0\",\"id\":7,\"method\":\"x\",\"params\":{\"data\":\"xx")));
+        assertEquals("abc", BridgeTransport.recoverId(bytes("{\"params\":{\"id\":1},\"method\":\"x\",\"id\":\"abc\",\"x")));
+        assertNull(BridgeTransport.recoverId(bytes("{\"jsonrpc\":\"2.0\",\"id\":7,\"result\":{\"method\":\"x\",\"data\":\"xx")));
+        assertNull(BridgeTransport.recoverId(bytes("{\"jsonrpc\":\"2.0\",\"id\":7,\"params\":{\"data\":\"xx")));
+        assertNull(BridgeTransport.recoverId(bytes("{\"jsonrpc\":\"2.0\",\"params\":{\"id\":1,\"data\":\"xxx")));
+        assertNull(BridgeTransport.recoverId(bytes("[1,2,3")));
+        assertNull(BridgeTransport.recoverId(bytes("{\"id\":null}")));
+    }
+    
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,160 @@
+package org.gegolabs.mcp.bridge.transport;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.modelcontextprotocol.spec.McpSchema;
+import io.modelcontextprotocol.spec.McpServerSession;
+import io.modelcontextprotocol.spec.McpServerTransport;
+import org.gegolabs.mcp.bridge.tools.StreamingContent;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class HttpSessionTransportTest {
+    
+    private static final String INITIALIZE = "{\"jsonrpc\":\"2.0\",\"id\":1,\"method\":\"initialize\","
+        + "\"params\":{\"protocolVersion\":\"2025-03-26\"}}";
+    private static final String INITIALIZED = "{\"jsonrpc\":\"2.0\",\"method\":\"notifications/initialized\"}";
+    
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient client = HttpClient.newHttpClient();
+    
+    private static byte[] bytes(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+    
+    @Test
+    void testParseSingleMessageAndBatch() throws IOException {
+        List<McpSchema.JSONRPCMessage> single = HttpSessionTransport.parse(objectMapper, bytes(INITIALIZE));
+        assertEquals(1, single.size());
+        assertInstanceOf(McpSchema.JSONRPCRequest.class, single.get(0));
+        
+        List<McpSchema.JSONRPCMessage> batch = HttpSessionTransport.parse(objectMapper,
+            bytes("[" + INITIALIZE + "," + INITIALIZED + "]"));
+        assertEquals(2, batch.size());
+        assertInstanceOf(McpSchema.JSONRPCNotification.class, batch.get(1));
+    }
+    
+    @Test
+    void testParseRejectsInvalidBodies() {
+        assertThrows(IOException.class, () -> HttpSessionTransport.parse(objectMapper, bytes("not json")));
+        assertThrows(IOException.class, () -> HttpSessionTransport.parse(objectMapper, bytes("[]")));
+        assertThrows(IOException.class, () -> HttpSessionTransport.parse(objectMapper, bytes("{\"foo\":1}")));
+    }
+    
+    @Test
+    @Timeout(value = 10, unit = TimeUnit.SECONDS)
+    void testRequestsAreAnsweredOnTheirPostStream() throws Exception {
+        AtomicReference<McpServerTransport> serverTransport = new AtomicReference<>();
+        McpServerSession session = mock(McpServerSession.class);
+        when(session.handle(any())).thenAnswer(invocation -> {
+            if (invocation.getArgument(0) instanceof McpSchema.JSONRPCRequest request) {
+                return serverTransport.get().sendMessage(new McpSchema.JSONRPCResponse(
+                    McpSchema.JSONRPC_VERSION, request.id(), Map.of("echo", request.method()), null));
+            }
+            return Mono.empty();
+        });
+        
+        BridgeTransportProvider provider = BridgeTransportProvider.builder()
+            .port(0)
+            .httpPort(0)
+            .httpHost("127.0.0.1")
+            .build();
+        provider.setSessionFactory(transport -> {
+            serverTransport.set(transport);
+            return session;
+        });
+        
+        try {
+            URI endpoint = URI.create("http://127.0.0.1:" + provider.getHttpAddress().getPort()
+                + BridgeTransportProvider.HTTP_PATH);
+            HttpResponse<String> initialized = post(endpoint, null, INITIALIZE);
+            assertEquals(200, initialized.statusCode());
+            assertEquals(HttpSessionTransport.EVENT_STREAM, initialized.headers().firstValue("Content-Type").orElse(null));
+            assertTrue(initialized.body().startsWith("event: message\ndata: "));
+            assertTrue(initialized.body().contains("\"echo\":\"initialize\""));
+            String sessionId = initialized.headers().firstValue(BridgeTransportProvider.SESSION_HEADER).orElseThrow();
+            
+            assertEquals(202, post(endpoint, sessionId, INITIALIZED).statusCode());
+            assertEquals(400, post(endpoint, null, INITIALIZED).statusCode());
+            assertEquals(404, post(endpoint, "unknown", INITIALIZED).statusCode());
+            assertEquals(400, post(endpoint, sessionId, "not json").statusCode());
+            assertEquals(1, provider.getMetrics().getActiveConnections());
+            
+            HttpResponse<String> deleted = client.send(HttpRequest.newBuilder(endpoint)
+                .header(BridgeTransportProvider.SESSION_HEADER, sessionId)
+                .DELETE()
+                .build(), HttpResponse.BodyHandlers.ofString());
+            assertEquals(204, deleted.statusCode());
+            assertEquals(404, post(endpoint, sessionId, INITIALIZED).statusCode());
+        } finally {
+            provider.closeGracefully().block();
+        }
+    }
+    
+    @Test
+    @Timeout(value = 10, unit = TimeUnit.SECONDS)
+    void testStreamedContentIsWrittenIntoTheEvent() throws Exception {
+        AtomicReference<McpServerTransport> serverTransport = new AtomicReference<>();
+        McpServerSession session = mock(McpServerSession.class);
+        when(session.handle(any())).thenAnswer(invocation -> {
+            if (invocation.getArgument(0) instanceof McpSchema.JSONRPCRequest request) {
+                McpSchema.CallToolResult result = new McpSchema.CallToolResult(
+                    List.of(StreamingContent.text(new StringReader("line one\nline \"two\""))), false);
+                return serverTransport.get().sendMessage(new McpSchema.JSONRPCResponse(
+                    McpSchema.JSONRPC_VERSION, request.id(), result, null));
+            }
+            return Mono.empty();
+        });
+        
+        BridgeTransportProvider provider = BridgeTransportProvider.builder()
+            .port(0)
+            .httpPort(0)
+            .httpHost("127.0.0.1")
+            .build();
+        provider.setSessionFactory(transport -> {
+            serverTransport.set(transport);
+            return session;
+        });
+        
+        try {
+            URI endpoint = URI.create("http://127.0.0.1:" + provider.getHttpAddress().getPort()
+                + BridgeTransportProvider.HTTP_PATH);
+            HttpResponse<String> response = post(endpoint, null, INITIALIZE);
+            
+            assertEquals(200, response.statusCode());
+            // One data line, with the source JSON-escaped in place of its placeholder
+            assertTrue(response.body().startsWith("event: message\ndata: {"));
+            assertTrue(response.body().endsWith("}\n\n"));
+            assertTrue(response.body().contains("\"line one\\nline \\\"two\\\"\""));
+            assertFalse(response.body().contains("mcp-bridge-stream"));
+        } finally {
+            provider.closeGracefully().block();
+        }
+    }
+    
+    private HttpResponse<String> post(URI endpoint, String sessionId, String body) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(endpoint)
+            .header("Content-Type", "application/json")
+            .header("Accept", "application/json, text/event-stream")
+            .POST(HttpRequest.BodyPublishers.ofString(body));
+        if (sessionId != null) {
+            request.header(BridgeTransportProvider.SESSION_HEADER, sessionId);
+        }
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+}
@@ -0,0 +1,121 @@
+package org.gegolabs.mcp.bridge.transport;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.modelcontextprotocol.client.McpAsyncClient;
+import io.modelcontextprotocol.client.McpClient;
+import io.modelcontextprotocol.server.McpAsyncServer;
+import io.modelcontextprotocol.server.McpServer;
+import io.modelcontextprotocol.server.McpServerFeatures;
+import io.modelcontextprotocol.spec.McpSchema;
+import org.gegolabs.mcp.bridge.tools.StreamingContent;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.StringReader;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InProcessTransportProviderTest {
+    
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    
+    @Test
+    void testUnmarshalReturnsMatchingObjectsUnchanged() {
+        McpSchema.CallToolRequest request = new McpSchema.CallToolRequest("echo", Map.of("text", "hi"));
+        
+        assertSame(request, InProcessTransportProvider.unmarshal(objectMapper, request,
+            new TypeReference<McpSchema.CallToolRequest>() {
+            }));
+        assertNull(InProcessTransportProvider.unmarshal(objectMapper, null, new TypeReference<String>() {
+        }));
+    }
+    
+    @Test
+    void testUnmarshalConvertsOtherTypes() {
+        Integer value = InProcessTransportProvider.unmarshal(objectMapper, "42", new TypeReference<Integer>() {
+        });
+        assertEquals(Integer.valueOf(42), value);
+        
+        Map<String, Object> map = InProcessTransportProvider.unmarshal(objectMapper, Map.of("a", 1),
+            new TypeReference<Map<String, Object>>() {
+            });
+        assertEquals(Map.of("a", 1), map);
+    }
+    
+    @Test
+    void testStreamedContentIsResolvedBeforeSending() {
+        McpSchema.CallToolResult result = new McpSchema.CallToolResult(
+            List.of(StreamingContent.text(new StringReader("streamed text"))), false);
+        McpSchema.JSONRPCResponse response = new McpSchema.JSONRPCResponse(McpSchema.JSONRPC_VERSION, 7, result, null);
+        
+        McpSchema.JSONRPCResponse resolved = InProcessTransportProvider.resolveStreamed(objectMapper, response);
+        
+        assertEquals(7, resolved.id());
+        assertEquals("streamed text", objectMapper.valueToTree(resolved.result()).at("/content/0/text").asText());
+        
+        // Responses without placeholders pass through untouched
+        McpSchema.JSONRPCResponse plain = new McpSchema.JSONRPCResponse(McpSchema.JSONRPC_VERSION, 8,
+            new McpSchema.CallToolResult("plain", false), null);
+        assertSame(plain, InProcessTransportProvider.resolveStreamed(objectMapper, plain));
+    }
+    
+    @Test
+    @Timeout(value = 10, unit = TimeUnit.SECONDS)
+    void testClientCallsServerWithoutSockets() {
+        InProcessTransportProvider transport = InProcessTransportProvider.builder().build();
+        McpSchema.Tool tool = new McpSchema.Tool("echo", "Echoes its input",
+            "{\"type\":\"object\",\"properties\":{\"text\":{\"type\":\"string\"}}}");
+        McpAsyncServer server = McpServer.async(transport)
+            .serverInfo("in-process", "1.0")
+            .tools(new McpServerFeatures.AsyncToolSpecification(tool, (exchange, arguments) ->
+                Mono.just(new McpSchema.CallToolResult(String.valueOf(arguments.get("text")), false))))
+            .build();
+        McpAsyncClient client = McpClient.async(transport.newClientTransport())
+            .requestTimeout(Duration.ofSeconds(5))
+            .build();
+        
+        try {
+            client.initialize().block();
+            McpSchema.CallToolResult result = client.callTool(
+                new McpSchema.CallToolRequest("echo", Map.of("text", "hello"))).block();
+            
+            assertEquals("hello", ((McpSchema.TextContent) result.content().get(0)).text());
+            assertEquals(1, transport.getConnectionCount());
+            assertEquals(1, transport.getMetrics().getAcceptedConnections());
+        } finally {
+            client.closeGracefully().block();
+            server.closeGracefully().block();
+        }
+        assertEquals(0, transport.getConnectionCount());
+    }
+    
+    @Test
+    @Timeout(value = 10, unit = TimeUnit.SECONDS)
+    void testFullQueueHoldsSendersBack() throws InterruptedException {
+        InProcessChannel channel = new InProcessChannel(1, Schedulers.boundedElastic());
+        McpSchema.JSONRPCNotification message =
+            new McpSchema.JSONRPCNotification(McpSchema.JSONRPC_VERSION, "notifications/test", null);
+        
+        channel.send(message).block();
+        CountDownLatch sent = new CountDownLatch(1);
+        channel.send(message).subscribe(ignored -> {
+        }, e -> {
+        }, sent::countDown);
+        assertFalse(sent.await(200, TimeUnit.MILLISECONDS), "second send should wait for space");
+        
+        List<McpSchema.JSONRPCMessage> received = new CopyOnWriteArrayList<>();
+        channel.start("test-consumer", received::add);
+        assertTrue(sent.await(5, TimeUnit.SECONDS));
+        channel.close();
+        assertThrows(IllegalStateException.class, () -> channel.send(message).block());
+    }
+}
@@ -0,0 +1,108 @@
+package org.gegolabs.mcp.bridge.transport;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import reactor.core.Disposable;
+import reactor.core.scheduler.Scheduler;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderedDispatcherTest {
+    
+    /**
+     * Multi-threaded scheduler that runs every task it is given on the next free thread.
+     */
+    private static Scheduler pool(ExecutorService executor) {
+        return new Scheduler() {
+            @Override
+            public Disposable schedule(Runnable task) {
+                executor.execute(task);
+                return () -> { };
+            }
+            
+            @Override
+            public Worker createWorker() {
+                throw new UnsupportedOperationException();
+            }
+            
+            @Override
+            public void dispose() {
+            }
+        };
+    }
+    
+    @Test
+    @Timeout(value = 10, unit = TimeUnit.SECONDS)
+    void testTasksRunInSubmissionOrderOnAPool() throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            OrderedDispatcher dispatcher = new OrderedDispatcher(pool(executor));
+            List<Integer> order = new ArrayList<>();
+            AtomicInteger running = new AtomicInteger();
+            AtomicInteger overlaps = new AtomicInteger();
+            CountDownLatch done = new CountDownLatch(2000);
+            
+            for (int i = 0; i < 2000; i++) {
+                int message = i;
+                dispatcher.execute(() -> {
+                    if (running.incrementAndGet() > 1) {
+                        overlaps.incrementAndGet();
+                    }
+                    // Unsynchronized on purpose: tasks must not run concurrently
+                    order.add(message);
+                    running.decrementAndGet();
+                    done.countDown();
+                });
+            }
+            assertTrue(done.await(5, TimeUnit.SECONDS));
+            
+            assertEquals(0, overlaps.get());
+            for (int i = 0; i < 2000; i++) {
+                assertEquals(Integer.valueOf(i), order.get(i));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+    
+    @Test
+    @Timeout(value = 10, unit = TimeUnit.SECONDS)
+    void testDisposeDropsQueuedTasks() throws InterruptedException {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            OrderedDispatcher dispatcher = new OrderedDispatcher(pool(executor));
+            CountDownLatch blocked = new CountDownLatch(1);
+            CountDownLatch release = new CountDownLatch(1);
+            AtomicInteger ran = new AtomicInteger();
+            
+            dispatcher.execute(() -> {
+                blocked.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            assertTrue(blocked.await(5, TimeUnit.SECONDS));
+            dispatcher.execute(ran::incrementAndGet);
+            dispatcher.dispose();
+            release.countDown();
+            
+            assertThrows(RejectedExecutionException.class, () -> dispatcher.execute(ran::incrementAndGet));
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+            assertEquals(0, ran.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
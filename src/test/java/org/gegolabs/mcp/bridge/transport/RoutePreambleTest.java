@@ -0,0 +1,79 @@
+package org.gegolabs.mcp.bridge.transport;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RoutePreambleTest {
+    
+    private static final String MESSAGE = "{\"jsonrpc\":\"2.0\",\"id\":1,\"method\":\"initialize\"}\n";
+    
+    private static InputStream stream(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    private static String remaining(InputStream in) throws IOException {
+        return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+    }
+    
+    @Test
+    void testPreambleSelectsRouteAndLeavesMessages() throws IOException {
+        InputStream in = stream(new String(RoutePreamble.encode("search"), StandardCharsets.UTF_8) + MESSAGE);
+        RoutePreamble.Result result = RoutePreamble.read(in);
+        
+        assertEquals("search", result.route());
+        assertEquals(MESSAGE, remaining(result.input()));
+    }
+    
+    @Test
+    void testMessageWithoutPreambleIsHandedBack() throws IOException {
+        RoutePreamble.Result result = RoutePreamble.read(stream(MESSAGE));
+        
+        assertNull(result.route());
+        assertEquals(MESSAGE, remaining(result.input()));
+    }
+    
+    @Test
+    void testPartialPrefixIsHandedBack() throws IOException {
+        RoutePreamble.Result result = RoutePreamble.read(stream("MCP-ROUTX " + MESSAGE));
+        
+        assertNull(result.route());
+        assertEquals("MCP-ROUTX " + MESSAGE, remaining(result.input()));
+    }
+    
+    @Test
+    void testCarriageReturnIsRemoved() throws IOException {
+        assertEquals("files", RoutePreamble.read(stream("MCP-ROUTE files\r\n" + MESSAGE)).route());
+    }
+    
+    @Test
+    void testEmptyStream() throws IOException {
+        RoutePreamble.Result result = RoutePreamble.read(stream(""));
+        
+        assertNull(result.route());
+        assertEquals(-1, result.input().read());
+    }
+    
+    @Test
+    void testMalformedPreambles() {
+        assertThrows(EOFException.class, () -> RoutePreamble.read(stream("MCP-ROUTE search")));
+        assertThrows(IOException.class, () -> RoutePreamble.read(stream("MCP-ROUTE \n")));
+        assertThrows(IOException.class, () -> RoutePreamble.read(stream("MCP-ROUTE two words\n")));
+        assertThrows(IOException.class, () -> RoutePreamble.read(stream("MCP-ROUTE " + "x".repeat(300) + "\n")));
+    }
+    
+    @Test
+    void testRouteNames() {
+        assertTrue(RoutePreamble.isValidName("search-v2"));
+        assertFalse(RoutePreamble.isValidName(null));
+        assertFalse(RoutePreamble.isValidName(""));
+        assertFalse(RoutePreamble.isValidName("a b"));
+        assertThrows(IllegalArgumentException.class, () -> RoutePreamble.encode("line\nbreak"));
+    }
+}
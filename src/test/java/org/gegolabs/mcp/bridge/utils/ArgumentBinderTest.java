@@ -0,0 +1,148 @@
+package org.gegolabs.mcp.bridge.utils;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ArgumentBinderTest {
+    
+    enum Mode { FAST, THOROUGH }
+    
+    record Range(int from, Integer to) {
+    }
+    
+    static class Base {
+        String requestId;
+    }
+    
+    static class SearchArgs extends Base {
+        private String query;
+        private int limit = 10;
+        private transient String ignored = "unchanged";
+        private Mode mode;
+        private Optional<Range> range = Optional.empty();
+        private List<Range> ranges;
+        private Set<String> tags;
+        private Map<String, Double> weights;
+        private long[] ids;
+        private Instant since;
+        private Object extra;
+        private JsonNode raw;
+        private String snake_case;
+    }
+    
+    record Node(String label, List<Node> children) {
+    }
+    
+    record Primitives(boolean flag, long count, Optional<String> note) {
+    }
+    
+    record Operands(@JsonSchemaUtils.Required double a, double b) {
+    }
+    
+    @Test
+    void testBindsMapArguments() {
+        SearchArgs args = ArgumentBinder.of(SearchArgs.class).bind(Map.ofEntries(
+            Map.entry("requestId", "r-1"),
+            Map.entry("query", "java"),
+            Map.entry("mode", "THOROUGH"),
+            Map.entry("range", Map.of("from", 1, "to", 5)),
+            Map.entry("ranges", List.of(Map.of("from", 2))),
+            Map.entry("tags", List.of("a", "b", "a")),
+            Map.entry("weights", Map.of("title", 2)),
+            Map.entry("ids", List.of(1, 2L, 3.0)),
+            Map.entry("since", "2024-01-02T03:04:05Z"),
+            Map.entry("extra", Map.of("k", "v")),
+            Map.entry("raw", List.of(1)),
+            Map.entry("snakeCase", "camel"),
+            Map.entry("ignored", "changed"),
+            Map.entry("unknown", true)));
+        
+        assertEquals("r-1", args.requestId);
+        assertEquals("java", args.query);
+        assertEquals(10, args.limit);
+        assertEquals("unchanged", args.ignored);
+        assertEquals(Mode.THOROUGH, args.mode);
+        assertEquals(Optional.of(new Range(1, 5)), args.range);
+        assertEquals(List.of(new Range(2, null)), args.ranges);
+        assertEquals(Set.of("a", "b"), args.tags);
+        assertEquals(Map.of("title", 2.0), args.weights);
+        assertArrayEquals(new long[] {1, 2, 3}, args.ids);
+        assertEquals(Instant.parse("2024-01-02T03:04:05Z"), args.since);
+        assertEquals(Map.of("k", "v"), args.extra);
+        assertTrue(args.raw.isArray());
+        assertEquals("camel", args.snake_case);
+    }
+    
+    @Test
+    void testBindsJsonTrees() throws Exception {
+        JsonNode tree = new ObjectMapper().readTree("""
+            {"label": "root", "children": [{"label": "leaf", "children": []}, null]}
+            """);
+        Node node = ArgumentBinder.of(Node.class).bind(tree);
+        
+        assertEquals("root", node.label());
+        assertEquals("leaf", node.children().get(0).label());
+        assertNull(node.children().get(1));
+        
+        SearchArgs args = ArgumentBinder.of(SearchArgs.class)
+            .bind(new ObjectMapper().readTree("{\"limit\": 3, \"extra\": [1, \"x\"], \"query\": null}"));
+        assertEquals(3, args.limit);
+        assertEquals(List.of(1, "x"), args.extra);
+        assertNull(args.query);
+    }
+    
+    @Test
+    void testMissingRecordComponentsGetDefaults() {
+        Primitives values = ArgumentBinder.of(Primitives.class).bind((Map<String, Object>) null);
+        
+        assertFalse(values.flag());
+        assertEquals(0, values.count());
+        assertEquals(Optional.empty(), values.note());
+    }
+    
+    @Test
+    void testRequiredArgumentsMustBePresent() {
+        ArgumentBinder<Operands> binder = ArgumentBinder.of(Operands.class);
+        
+        assertEquals(2.0, binder.bind(Map.of("a", 2)).a());
+        assertEquals("a", assertThrows(ArgumentBindingException.class,
+            () -> binder.bind(Map.of("b", 1))).getPath());
+        assertEquals("[\"a\"]", JsonSchemaUtils.generateSchemaNode(Operands.class).get("required").toString());
+        assertFalse(JsonSchemaUtils.generateSchemaNode(Primitives.class).has("required"));
+    }
+    
+    @Test
+    void testErrorsNameThePath() {
+        ArgumentBinder<SearchArgs> binder = ArgumentBinder.of(SearchArgs.class);
+        
+        assertEquals("limit", assertThrows(ArgumentBindingException.class,
+            () -> binder.bind(Map.of("limit", 1.5))).getPath());
+        assertEquals("ranges[1].from", assertThrows(ArgumentBindingException.class,
+            () -> binder.bind(Map.of("ranges", List.of(Map.of("from", 1), Map.of("from", "x"))))).getPath());
+        assertEquals("mode", assertThrows(ArgumentBindingException.class,
+            () -> binder.bind(Map.of("mode", "SLOW"))).getPath());
+        assertEquals("limit", assertThrows(ArgumentBindingException.class,
+            () -> binder.bind(Map.of("limit", 1L << 40))).getPath());
+        assertEquals("range", assertThrows(ArgumentBindingException.class,
+            () -> binder.bind(Map.of("range", "1-5"))).getPath());
+    }
+    
+    @Test
+    void testBinderMatchesSchemaProperties() {
+        JsonNode properties = JsonSchemaUtils.generateSchemaNode(SearchArgs.class).get("properties");
+        
+        assertTrue(properties.has("snakeCase"));
+        assertFalse(properties.has("ignored"));
+        assertSame(ArgumentBinder.of(SearchArgs.class), ArgumentBinder.of(SearchArgs.class));
+        assertThrows(IllegalArgumentException.class, () -> ArgumentBinder.of(Runnable.class));
+    }
+}
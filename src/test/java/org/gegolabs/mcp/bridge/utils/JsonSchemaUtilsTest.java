@@ -1,10 +1,15 @@
 package org.gegolabs.mcp.bridge.utils;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
+import io.modelcontextprotocol.spec.McpSchema;
 import org.junit.jupiter.api.Test;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -38,6 +43,32 @@ class JsonSchemaUtilsTest {
         private JsonObject metadata;
     }
     
+    enum Priority { LOW, HIGH }
+    
+    record Address(@JsonSchemaUtils.Description("Street and number") String street, String city) {
+    }
+    
+    static class Person {
+        static int instances;
+        private transient String cachedDisplayName;
+        private String name;
+        private Priority priority;
+        private List<Address> addresses;
+        private Address[] previousAddresses;
+        private Map<String, Integer> scores;
+        private Optional<String> nickname;
+    }
+    
+    static class TreeNode {
+        private String label;
+        private List<TreeNode> children;
+        private Parent parent;
+    }
+    
+    static class Parent {
+        private TreeNode root;
+    }
+    
     @Test
     void testGenerateSimpleSchema() {
         String schema = JsonSchemaUtils.generateJsonSchema(SimpleClass.class);
@@ -97,4 +128,61 @@ class JsonSchemaUtilsTest {
         assertEquals("object", metadataProperty.get("type").getAsString());
         assertEquals("Additional properties", metadataProperty.get("description").getAsString());
     }
-}
\ No newline at end of file
+    
+    @Test
+    void testNestedRecordsEnumsAndCollections() {
+        ObjectNode schema = JsonSchemaUtils.generateSchemaNode(Person.class);
+        JsonNode properties = schema.get("properties");
+        
+        assertFalse(properties.has("instances"));
+        assertFalse(properties.has("cachedDisplayName"));
+        
+        assertEquals("string", properties.get("priority").get("type").asText());
+        assertEquals("HIGH", properties.get("priority").get("enum").get(1).asText());
+        
+        JsonNode address = properties.get("addresses").get("items");
+        assertEquals("array", properties.get("addresses").get("type").asText());
+        assertEquals("object", address.get("type").asText());
+        assertEquals("Street and number", address.get("properties").get("street").get("description").asText());
+        assertEquals("string", address.get("properties").get("city").get("type").asText());
+        
+        assertEquals("object", properties.get("previousAddresses").get("items").get("type").asText());
+        assertEquals("integer", properties.get("scores").get("additionalProperties").get("type").asText());
+        assertEquals("string", properties.get("nickname").get("type").asText());
+        assertFalse(schema.has("$defs"));
+    }
+    
+    @Test
+    void testCyclesUseDefsAndRefs() {
+        ObjectNode schema = JsonSchemaUtils.generateSchemaNode(TreeNode.class);
+        
+        JsonNode children = schema.get("properties").get("children");
+        assertEquals("#/$defs/TreeNode", children.get("items").get("$ref").asText());
+        
+        JsonNode parent = schema.get("properties").get("parent");
+        assertEquals("object", parent.get("type").asText());
+        assertEquals("#/$defs/TreeNode", parent.get("properties").get("root").get("$ref").asText());
+        
+        JsonNode definition = schema.get("$defs").get("TreeNode");
+        assertEquals("object", definition.get("type").asText());
+        assertTrue(definition.get("properties").has("label"));
+    }
+    
+    @Test
+    void testSchemasAreCached() {
+        assertSame(JsonSchemaUtils.generateJsonSchema(Person.class), JsonSchemaUtils.generateJsonSchema(Person.class));
+        
+        ObjectNode copy = JsonSchemaUtils.generateSchemaNode(Person.class);
+        copy.put("type", "changed");
+        assertEquals("object", JsonSchemaUtils.generateSchemaNode(Person.class).get("type").asText());
+    }
+    
+    @Test
+    void testToolInputSchema() {
+        McpSchema.JsonSchema schema = JsonSchemaUtils.toolInputSchema(AnnotatedClass.class);
+        
+        assertEquals("object", schema.type());
+        assertTrue(schema.properties().containsKey("name"));
+        assertTrue(schema.properties().containsKey("age"));
+    }
+}
@@ -43,4 +43,56 @@ class LoggingUtilsTest {
         
         assertEquals(Level.TRACE, logger.getLevel());
     }
-}
\ No newline at end of file
+    
+    @Test
+    void testInitializeFileLoggingWithOptions() {
+        PayloadLogPolicy previous = LoggingUtils.getPayloadLogPolicy();
+        try {
+            LoggingUtils.initializeFileLogging("test-async.log", LoggingOptions.builder()
+                .queueSize(256)
+                .payloadPolicy(PayloadLogPolicy.hash())
+                .build());
+            
+            LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+            Logger rootLogger = context.getLogger(Logger.ROOT_LOGGER_NAME);
+            
+            assertNotNull(rootLogger.getAppender("ASYNC_FILE"));
+            assertEquals(PayloadLogPolicy.Mode.HASH, LoggingUtils.getPayloadLogPolicy().getMode());
+        } finally {
+            LoggingUtils.setPayloadLogPolicy(previous);
+        }
+    }
+    
+    @Test
+    void testPayloadLoggingNeedsDebugAndPolicy() {
+        PayloadLogPolicy previous = LoggingUtils.getPayloadLogPolicy();
+        String loggerName = "org.gegolabs.mcp.bridge.test.payloads";
+        org.slf4j.Logger log = LoggerFactory.getLogger(loggerName);
+        try {
+            LoggingUtils.setLogLevel(loggerName, "DEBUG");
+            LoggingUtils.setPayloadLogPolicy(PayloadLogPolicy.full());
+            assertTrue(LoggingUtils.shouldLogPayload(log));
+            
+            LoggingUtils.setPayloadLogPolicy(PayloadLogPolicy.off());
+            assertFalse(LoggingUtils.shouldLogPayload(log));
+            
+            // Sampling is decided before the caller decodes anything
+            LoggingUtils.setPayloadLogPolicy(PayloadLogPolicy.sample(2));
+            assertTrue(LoggingUtils.shouldLogPayload(log));
+            assertFalse(LoggingUtils.shouldLogPayload(log));
+            assertTrue(LoggingUtils.shouldLogPayload(log));
+            
+            LoggingUtils.setPayloadLogPolicy(PayloadLogPolicy.full());
+            LoggingUtils.setLogLevel(loggerName, "INFO");
+            assertFalse(LoggingUtils.shouldLogPayload(log));
+        } finally {
+            LoggingUtils.setPayloadLogPolicy(previous);
+        }
+    }
+    
+    @Test
+    void testRolledFilePattern() {
+        assertEquals("server.%d{yyyy-MM-dd}.%i.log.gz", LoggingUtils.rolledFilePattern("server.log"));
+        assertEquals("server.%d{yyyy-MM-dd}.%i.log.gz", LoggingUtils.rolledFilePattern("server"));
+    }
+}
@@ -0,0 +1,77 @@
+package org.gegolabs.mcp.bridge.utils;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PayloadLogPolicyTest {
+    
+    @Test
+    void testOffNeverLogs() {
+        PayloadLogPolicy policy = PayloadLogPolicy.off();
+        
+        assertFalse(policy.shouldLog());
+        assertFalse(policy.shouldLog());
+    }
+    
+    @Test
+    void testFullKeepsPayload() {
+        PayloadLogPolicy policy = PayloadLogPolicy.full();
+        
+        assertTrue(policy.shouldLog());
+        assertEquals("{\"id\":1}", policy.render("{\"id\":1}"));
+    }
+    
+    @Test
+    void testTruncate() {
+        PayloadLogPolicy policy = PayloadLogPolicy.truncate(5);
+        
+        assertEquals("abc", policy.render("abc"));
+        assertEquals("abcde... (8 bytes)", policy.render("abcdefgh"));
+    }
+    
+    @Test
+    void testTruncateCountsUtf8Bytes() {
+        PayloadLogPolicy policy = PayloadLogPolicy.truncate(5);
+        
+        // Two bytes each: only two fit, and the third is not split
+        assertEquals("éé... (8 bytes)", policy.render("éééé"));
+        assertEquals("é€", policy.render("é€"));
+        // A four-byte character is kept whole or not at all
+        assertEquals("a😀... (9 bytes)", policy.render("a😀😀"));
+    }
+    
+    @Test
+    void testSampleLogsEveryNth() {
+        PayloadLogPolicy policy = PayloadLogPolicy.sample(3);
+        
+        int logged = 0;
+        for (int i = 0; i < 9; i++) {
+            if (policy.shouldLog()) {
+                logged++;
+            }
+        }
+        assertEquals(3, logged);
+    }
+    
+    @Test
+    void testHashIsStableAndHidesContent() {
+        PayloadLogPolicy policy = PayloadLogPolicy.hash();
+        
+        String rendered = policy.render("secret");
+        assertEquals(rendered, policy.render("secret"));
+        assertNotEquals(rendered, policy.render("secret2"));
+        assertFalse(rendered.contains("secret"));
+        assertTrue(rendered.endsWith("(6 bytes)"));
+        assertTrue(policy.render("é").endsWith("(2 bytes)"));
+    }
+    
+    @Test
+    void testParse() {
+        assertEquals(PayloadLogPolicy.Mode.OFF, PayloadLogPolicy.parse("off").getMode());
+        assertEquals("truncate:256", PayloadLogPolicy.parse("TRUNCATE:256").toString());
+        assertEquals("sample:10", PayloadLogPolicy.parse("sample:10").toString());
+        assertThrows(IllegalArgumentException.class, () -> PayloadLogPolicy.parse("bogus"));
+        assertThrows(IllegalArgumentException.class, () -> PayloadLogPolicy.truncate(0));
+    }
+}
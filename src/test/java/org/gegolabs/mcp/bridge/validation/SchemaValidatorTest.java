@@ -0,0 +1,119 @@
+package org.gegolabs.mcp.bridge.validation;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.gegolabs.mcp.bridge.utils.JsonSchemaUtils;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SchemaValidatorTest {
+    
+    private static final ObjectMapper mapper = new ObjectMapper();
+    
+    private static final String SCHEMA = """
+        {
+          "type": "object",
+          "properties": {
+            "query": {"type": "string", "minLength": 2, "pattern": "^[a-z]"},
+            "limit": {"type": "integer", "minimum": 1, "maximum": 100},
+            "mode": {"type": "string", "enum": ["fast", "thorough"]},
+            "weight": {"type": "number", "exclusiveMinimum": 0},
+            "tags": {"type": "array", "items": {"type": "string"}, "maxItems": 3, "uniqueItems": true},
+            "range": {
+              "type": "object",
+              "properties": {"from": {"type": "integer"}, "to": {"type": ["integer", "null"]}},
+              "required": ["from"],
+              "additionalProperties": false
+            }
+          },
+          "required": ["query"]
+        }
+        """;
+    
+    @Test
+    void testValidArguments() throws Exception {
+        SchemaValidator validator = SchemaValidator.compile(mapper.readTree(SCHEMA));
+        
+        assertTrue(validator.isValid(Map.of("query", "java", "limit", 10, "mode", "fast", "weight", 0.5,
+            "tags", List.of("a", "b"), "range", mapArgs("from", 1, "to", null), "unknown", true)));
+        assertTrue(validator.isValid(Map.of("query", "java", "limit", 2.0)));
+    }
+    
+    @Test
+    void testViolationsCarryPaths() throws Exception {
+        SchemaValidator validator = SchemaValidator.compile(mapper.readTree(SCHEMA));
+        
+        List<Violation> violations = validator.validate(Map.of(
+            "limit", 0,
+            "mode", "slow",
+            "weight", 0,
+            "tags", List.of("a", 1, "a", "b"),
+            "range", Map.of("to", "x", "extra", 1)));
+        List<String> rendered = violations.stream().map(Violation::toString).toList();
+        
+        assertTrue(rendered.contains("query: is required"), rendered::toString);
+        assertTrue(rendered.contains("limit: must be >= 1"), rendered::toString);
+        assertTrue(rendered.contains("mode: must be one of [\"fast\",\"thorough\"]"), rendered::toString);
+        assertTrue(rendered.contains("weight: must be > 0"), rendered::toString);
+        assertTrue(rendered.contains("tags: must have at most 3 items"), rendered::toString);
+        assertTrue(rendered.contains("tags: must not contain duplicates"), rendered::toString);
+        assertTrue(rendered.contains("tags[1]: expected string but got integer"), rendered::toString);
+        assertTrue(rendered.contains("range.from: is required"), rendered::toString);
+        assertTrue(rendered.contains("range.to: expected integer or null but got string"), rendered::toString);
+        assertTrue(rendered.contains("range.extra: is not a known property"), rendered::toString);
+        
+        assertEquals("query", validator.validate(Map.of("query", "Java")).get(0).path());
+        assertEquals("expected object but got array", validator.validate(List.of()).get(0).message());
+    }
+    
+    @Test
+    void testRecursiveRefsFromGeneratedSchemas() {
+        JsonNode schema = JsonSchemaUtils.generateSchemaNode(TreeNode.class);
+        SchemaValidator validator = SchemaValidator.compile(schema);
+        
+        Map<String, Object> leaf = Map.of("label", "leaf", "children", List.of());
+        assertTrue(validator.isValid(Map.of("label", "root", "children", List.of(leaf))));
+        
+        List<Violation> violations = validator.validate(
+            Map.of("label", "root", "children", List.of(Map.of("label", 7))));
+        assertEquals(1, violations.size());
+        assertEquals("children[0].label", violations.get(0).path());
+    }
+    
+    @Test
+    void testCombinatorsAndLimits() throws Exception {
+        SchemaValidator validator = SchemaValidator.compile(mapper.readTree("""
+            {"type": "array", "items": {"oneOf": [{"type": "string"}, {"type": "integer", "const": 1}]}}
+            """));
+        
+        assertTrue(validator.isValid(List.of("a", 1)));
+        assertEquals("[1]: does not match any of the allowed schemas",
+            validator.validate(List.of("a", 2)).get(0).toString());
+        
+        List<Object> many = new ArrayList<>(Collections.nCopies(100, true));
+        assertEquals(SchemaValidator.MAX_VIOLATIONS, validator.validate(many).size());
+        
+        assertThrows(IllegalArgumentException.class,
+            () -> SchemaValidator.compile(mapper.readTree("{\"$ref\": \"#/$defs/Missing\"}")));
+    }
+    
+    static class TreeNode {
+        String label;
+        List<TreeNode> children;
+    }
+    
+    private static Map<String, Object> mapArgs(Object... keyValues) {
+        Map<String, Object> map = new HashMap<>();
+        for (int i = 0; i < keyValues.length; i += 2) {
+            map.put((String) keyValues[i], keyValues[i + 1]);
+        }
+        return map;
+    }
+}
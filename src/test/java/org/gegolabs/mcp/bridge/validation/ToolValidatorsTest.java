@@ -0,0 +1,68 @@
+package org.gegolabs.mcp.bridge.validation;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.modelcontextprotocol.spec.McpSchema;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ToolValidatorsTest {
+    
+    private static final ObjectMapper mapper = new ObjectMapper();
+    
+    @Test
+    void testLearnsToolsFromListResult() throws Exception {
+        ToolValidators validators = new ToolValidators();
+        validators.learn(mapper.readTree("""
+            {"tools": [
+              {"name": "echo", "inputSchema": {"type": "object", "properties": {"message": {"type": "string"}},
+                                               "required": ["message"]}},
+              {"name": "broken", "inputSchema": {"$ref": "#/nowhere"}}
+            ]}
+            """));
+        
+        assertEquals("message: is required", validators.validate("echo", null).get(0).toString());
+        assertTrue(validators.validate("echo", Map.of("message", "hi")).isEmpty());
+        assertNull(validators.get("broken"));
+        assertTrue(validators.validate("unknown", Map.of("x", 1)).isEmpty());
+    }
+    
+    @Test
+    void testRecompilesOnlyChangedSchemas() throws Exception {
+        ToolValidators validators = new ToolValidators();
+        validators.register("echo", mapper.readTree("{\"type\": \"object\"}"));
+        SchemaValidator first = validators.get("echo");
+        
+        validators.register("echo", mapper.readTree("{\"type\": \"object\"}"));
+        assertSame(first, validators.get("echo"));
+        
+        validators.register("echo", mapper.readTree("{\"type\": \"object\", \"required\": [\"message\"]}"));
+        assertNotSame(first, validators.get("echo"));
+        
+        validators.remove("echo");
+        assertNull(validators.get("echo"));
+    }
+    
+    @Test
+    void testRegisteredToolsAreValidatedBeforeAnyList() throws Exception {
+        ToolValidators validators = new ToolValidators();
+        validators.register(new McpSchema.Tool("echo", "Echoes",
+            "{\"type\": \"object\", \"required\": [\"message\"]}"));
+        
+        // No tools/list has been seen, the first call is checked anyway
+        assertEquals("message: is required", validators.validate("echo", Map.of()).get(0).toString());
+    }
+    
+    @Test
+    void testListChangedForgetsOnlyLearnedSchemas() throws Exception {
+        ToolValidators validators = new ToolValidators();
+        validators.register("search", mapper.readTree("{\"type\": \"object\", \"required\": [\"query\"]}"));
+        validators.learn(mapper.readTree("{\"tools\": [{\"name\": \"echo\", \"inputSchema\": {\"type\": \"object\"}}]}"));
+        
+        validators.forgetLearned();
+        assertNull(validators.get("echo"));
+        assertNotNull(validators.get("search"));
+    }
+}